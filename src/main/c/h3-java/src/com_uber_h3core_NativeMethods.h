@@ -0,0 +1,349 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class com_uber_h3core_NativeMethods */
+
+#ifndef _Included_com_uber_h3core_NativeMethods
+#define _Included_com_uber_h3core_NativeMethods
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    maxH3ToChildrenSize
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_maxH3ToChildrenSize
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToChildren
+ * Signature: (JI[J)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToChildren
+  (JNIEnv *, jobject, jlong, jint, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3IsValid
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_uber_h3core_NativeMethods_h3IsValid
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3GetBaseCell
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3GetBaseCell
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3IsPentagon
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_uber_h3core_NativeMethods_h3IsPentagon
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    geoToH3
+ * Signature: (DDI)J
+ */
+JNIEXPORT jlong JNICALL Java_com_uber_h3core_NativeMethods_geoToH3
+  (JNIEnv *, jobject, jdouble, jdouble, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    geoToH3Bulk
+ * Signature: ([D[DI[J)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_geoToH3Bulk
+  (JNIEnv *, jobject, jdoubleArray, jdoubleArray, jint, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeo
+ * Signature: (J[D)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeo
+  (JNIEnv *, jobject, jlong, jdoubleArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBoundary
+ * Signature: (J[D)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundary
+  (JNIEnv *, jobject, jlong, jdoubleArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBulk
+ * Signature: ([J[D)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBulk
+  (JNIEnv *, jobject, jlongArray, jdoubleArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBoundaryBulk
+ * Signature: ([J[D[I)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundaryBulk
+  (JNIEnv *, jobject, jlongArray, jdoubleArray, jintArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBulkDegrees
+ * Signature: ([J[F)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBulkDegrees
+  (JNIEnv *, jobject, jlongArray, jfloatArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBoundaryBulkDegrees
+ * Signature: ([J[F[I)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundaryBulkDegrees
+  (JNIEnv *, jobject, jlongArray, jfloatArray, jintArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    geoToH3Buffer
+ * Signature: (Ljava/nio/ByteBuffer;Ljava/nio/ByteBuffer;IILjava/nio/ByteBuffer;)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_geoToH3Buffer
+  (JNIEnv *, jobject, jobject, jobject, jint, jint, jobject);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBuffer
+ * Signature: (Ljava/nio/ByteBuffer;ILjava/nio/ByteBuffer;)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBuffer
+  (JNIEnv *, jobject, jobject, jint, jobject);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBoundaryBuffer
+ * Signature: (Ljava/nio/ByteBuffer;ILjava/nio/ByteBuffer;ILjava/nio/ByteBuffer;)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundaryBuffer
+  (JNIEnv *, jobject, jobject, jint, jobject, jint, jobject);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    maxKringSize
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_maxKringSize
+  (JNIEnv *, jobject, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    kRing
+ * Signature: (JI[J)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_kRing
+  (JNIEnv *, jobject, jlong, jint, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    kRingDistances
+ * Signature: (JI[J[I)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_kRingDistances
+  (JNIEnv *, jobject, jlong, jint, jlongArray, jintArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    hexRange
+ * Signature: (JI[J)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_hexRange
+  (JNIEnv *, jobject, jlong, jint, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    hexRing
+ * Signature: (JI[J)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_hexRing
+  (JNIEnv *, jobject, jlong, jint, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    maxPolyfillSize
+ * Signature: ([D[I[DI)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_maxPolyfillSize
+  (JNIEnv *, jobject, jdoubleArray, jintArray, jdoubleArray, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    polyfill
+ * Signature: ([D[I[DI[J)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_polyfill
+  (JNIEnv *, jobject, jdoubleArray, jintArray, jdoubleArray, jint, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    polyfillBuffer
+ * Signature: ([D[I[DILjava/nio/ByteBuffer;I)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_polyfillBuffer
+  (JNIEnv *, jobject, jdoubleArray, jintArray, jdoubleArray, jint, jobject, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3SetToLinkedGeo
+ * Signature: ([JLjava/util/ArrayList;)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3SetToLinkedGeo
+  (JNIEnv *, jobject, jlongArray, jobject);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3SetToMultiPolygon
+ * Signature: ([JZ)Lcom/uber/h3core/H3MultiPolygon;
+ */
+JNIEXPORT jobject JNICALL Java_com_uber_h3core_NativeMethods_h3SetToMultiPolygon
+  (JNIEnv *, jobject, jlongArray, jboolean);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    compact
+ * Signature: ([J[J)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_compact
+  (JNIEnv *, jobject, jlongArray, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    maxUncompactSize
+ * Signature: ([JI)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_maxUncompactSize
+  (JNIEnv *, jobject, jlongArray, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    uncompact
+ * Signature: ([JI[J)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_uncompact
+  (JNIEnv *, jobject, jlongArray, jint, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    hexAreaKm2
+ * Signature: (I)D
+ */
+JNIEXPORT jdouble JNICALL Java_com_uber_h3core_NativeMethods_hexAreaKm2
+  (JNIEnv *, jobject, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    hexAreaM2
+ * Signature: (I)D
+ */
+JNIEXPORT jdouble JNICALL Java_com_uber_h3core_NativeMethods_hexAreaM2
+  (JNIEnv *, jobject, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    edgeLengthKm
+ * Signature: (I)D
+ */
+JNIEXPORT jdouble JNICALL Java_com_uber_h3core_NativeMethods_edgeLengthKm
+  (JNIEnv *, jobject, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    edgeLengthM
+ * Signature: (I)D
+ */
+JNIEXPORT jdouble JNICALL Java_com_uber_h3core_NativeMethods_edgeLengthM
+  (JNIEnv *, jobject, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    numHexagons
+ * Signature: (I)J
+ */
+JNIEXPORT jlong JNICALL Java_com_uber_h3core_NativeMethods_numHexagons
+  (JNIEnv *, jobject, jint);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3IndexesAreNeighbors
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_uber_h3core_NativeMethods_h3IndexesAreNeighbors
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    getH3UnidirectionalEdge
+ * Signature: (JJ)J
+ */
+JNIEXPORT jlong JNICALL Java_com_uber_h3core_NativeMethods_getH3UnidirectionalEdge
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3UnidirectionalEdgeIsValid
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_uber_h3core_NativeMethods_h3UnidirectionalEdgeIsValid
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    getOriginH3IndexFromUnidirectionalEdge
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_uber_h3core_NativeMethods_getOriginH3IndexFromUnidirectionalEdge
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    getDestinationH3IndexFromUnidirectionalEdge
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_uber_h3core_NativeMethods_getDestinationH3IndexFromUnidirectionalEdge
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    getH3IndexesFromUnidirectionalEdge
+ * Signature: (J[J)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_getH3IndexesFromUnidirectionalEdge
+  (JNIEnv *, jobject, jlong, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    getH3UnidirectionalEdgesFromHexagon
+ * Signature: (J[J)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_getH3UnidirectionalEdgesFromHexagon
+  (JNIEnv *, jobject, jlong, jlongArray);
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    getH3UnidirectionalEdgeBoundary
+ * Signature: (J[D)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_getH3UnidirectionalEdgeBoundary
+  (JNIEnv *, jobject, jlong, jdoubleArray);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
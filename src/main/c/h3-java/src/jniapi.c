@@ -14,7 +14,9 @@
  * limitations under the License.
  */
 
+#include <math.h>
 #include <stdbool.h>
+#include <string.h>
 #include "com_uber_h3core_NativeMethods.h"
 #include "h3api.h"
 
@@ -32,6 +34,120 @@
         return;                        \
     }
 
+/**
+ * Classes and methods used from native code. These are resolved once when the
+ * library is loaded, rather than on every call.
+ */
+static jclass arrayListClass;
+static jmethodID arrayListConstructor;
+static jmethodID arrayListAdd;
+static jclass vector2DClass;
+static jmethodID vector2DConstructor;
+static jclass h3MultiPolygonClass;
+static jmethodID h3MultiPolygonConstructor;
+static jclass illegalArgumentExceptionClass;
+static jclass outOfMemoryErrorClass;
+static jmethodID outOfMemoryErrorConstructor;
+
+/**
+ * Finds the class and returns a global reference to it, or NULL if it could
+ * not be found.
+ */
+static jclass FindGlobalClass(JNIEnv *env, const char *name) {
+    jclass localClass = (**env).FindClass(env, name);
+    if (localClass == NULL) {
+        return NULL;
+    }
+    jclass globalClass = (jclass)(**env).NewGlobalRef(env, localClass);
+    (**env).DeleteLocalRef(env, localClass);
+    return globalClass;
+}
+
+JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM *vm, void *reserved) {
+    JNIEnv *env;
+    if ((**vm).GetEnv(vm, (void **)&env, JNI_VERSION_1_6) != JNI_OK) {
+        return JNI_ERR;
+    }
+
+    arrayListClass = FindGlobalClass(env, "java/util/ArrayList");
+    if (arrayListClass == NULL) {
+        return JNI_ERR;
+    }
+    // Lists are created with their final size, so they are never resized.
+    arrayListConstructor =
+        (**env).GetMethodID(env, arrayListClass, "<init>", "(I)V");
+    if (arrayListConstructor == NULL) {
+        return JNI_ERR;
+    }
+    arrayListAdd = (**env).GetMethodID(env, arrayListClass, "add",
+                                       "(Ljava/lang/Object;)Z");
+    if (arrayListAdd == NULL) {
+        return JNI_ERR;
+    }
+
+    vector2DClass = FindGlobalClass(env, "com/uber/h3core/util/Vector2D");
+    if (vector2DClass == NULL) {
+        return JNI_ERR;
+    }
+    vector2DConstructor =
+        (**env).GetMethodID(env, vector2DClass, "<init>", "(DD)V");
+    if (vector2DConstructor == NULL) {
+        return JNI_ERR;
+    }
+
+    h3MultiPolygonClass =
+        FindGlobalClass(env, "com/uber/h3core/H3MultiPolygon");
+    if (h3MultiPolygonClass == NULL) {
+        return JNI_ERR;
+    }
+    h3MultiPolygonConstructor = (**env).GetMethodID(
+        env, h3MultiPolygonClass, "<init>", "([D[I[I)V");
+    if (h3MultiPolygonConstructor == NULL) {
+        return JNI_ERR;
+    }
+
+    illegalArgumentExceptionClass =
+        FindGlobalClass(env, "java/lang/IllegalArgumentException");
+    if (illegalArgumentExceptionClass == NULL) {
+        return JNI_ERR;
+    }
+
+    outOfMemoryErrorClass = FindGlobalClass(env, "java/lang/OutOfMemoryError");
+    if (outOfMemoryErrorClass == NULL) {
+        return JNI_ERR;
+    }
+    outOfMemoryErrorConstructor =
+        (**env).GetMethodID(env, outOfMemoryErrorClass, "<init>", "()V");
+    if (outOfMemoryErrorConstructor == NULL) {
+        return JNI_ERR;
+    }
+
+    return JNI_VERSION_1_6;
+}
+
+JNIEXPORT void JNICALL JNI_OnUnload(JavaVM *vm, void *reserved) {
+    JNIEnv *env;
+    if ((**vm).GetEnv(vm, (void **)&env, JNI_VERSION_1_6) != JNI_OK) {
+        return;
+    }
+
+    (**env).DeleteGlobalRef(env, arrayListClass);
+    (**env).DeleteGlobalRef(env, vector2DClass);
+    (**env).DeleteGlobalRef(env, h3MultiPolygonClass);
+    (**env).DeleteGlobalRef(env, illegalArgumentExceptionClass);
+    (**env).DeleteGlobalRef(env, outOfMemoryErrorClass);
+}
+
+/**
+ * Triggers an IllegalArgumentException with the given message.
+ *
+ * Calling function should return the Java control immediately after calling
+ * this.
+ */
+static void ThrowIllegalArgumentException(JNIEnv *env, const char *msg) {
+    (**env).ThrowNew(env, illegalArgumentExceptionClass, msg);
+}
+
 /**
  * Triggers an OutOfMemoryError.
  *
@@ -41,21 +157,12 @@
 void ThrowOutOfMemoryError(JNIEnv *env) {
     // Alternately, we could call the JNI function FatalError(JNIEnv *env, const
     // char *msg)
-    jclass oome = (**env).FindClass(env, "java/lang/OutOfMemoryError");
-
-    if (oome != NULL) {
-        jmethodID oomeConstructor =
-            (**env).GetMethodID(env, oome, "<init>", "()V");
-
-        if (oomeConstructor != NULL) {
-            jthrowable oomeInstance =
-                (jthrowable)((**env).NewObject(env, oome, oomeConstructor));
+    jthrowable oomeInstance = (jthrowable)((**env).NewObject(
+        env, outOfMemoryErrorClass, outOfMemoryErrorConstructor));
 
-            if (oomeInstance != NULL) {
-                (**env).ExceptionClear(env);
-                (**env).Throw(env, oomeInstance);
-            }
-        }
+    if (oomeInstance != NULL) {
+        (**env).ExceptionClear(env);
+        (**env).Throw(env, oomeInstance);
     }
 }
 
@@ -74,6 +181,8 @@ int CreateGeoPolygon(JNIEnv *env, jdoubleArray verts, jintArray holeSizes,
 
         polygon->holes = calloc(sizeof(GeoPolygon), polygon->numHoles);
         if (polygon->holes == NULL) {
+            (**env).ReleaseDoubleArrayElements(
+                env, verts, polygon->geofence.verts, JNI_ABORT);
             ThrowOutOfMemoryError(env);
             return 2;
         }
@@ -82,6 +191,8 @@ int CreateGeoPolygon(JNIEnv *env, jdoubleArray verts, jintArray holeSizes,
             (**env).GetIntArrayElements(env, holeSizes, 0);
         if (holeSizesElements == NULL) {
             free(polygon->holes);
+            (**env).ReleaseDoubleArrayElements(
+                env, verts, polygon->geofence.verts, JNI_ABORT);
             ThrowOutOfMemoryError(env);
             return 3;
         }
@@ -91,7 +202,9 @@ int CreateGeoPolygon(JNIEnv *env, jdoubleArray verts, jintArray holeSizes,
         if (holeVertsElements == NULL) {
             free(polygon->holes);
             (**env).ReleaseIntArrayElements(env, holeSizes, holeSizesElements,
-                                            0);
+                                            JNI_ABORT);
+            (**env).ReleaseDoubleArrayElements(
+                env, verts, polygon->geofence.verts, JNI_ABORT);
             ThrowOutOfMemoryError(env);
             return 4;
         }
@@ -104,7 +217,8 @@ int CreateGeoPolygon(JNIEnv *env, jdoubleArray verts, jintArray holeSizes,
             offset += holeSizesElements[i];
         }
 
-        (**env).ReleaseIntArrayElements(env, holeSizes, holeSizesElements, 0);
+        (**env).ReleaseIntArrayElements(env, holeSizes, holeSizesElements,
+                                        JNI_ABORT);
         // holeVertsElements is not released here because it is still being
         // pointed to by polygon->holes[*].verts. It will be released in
         // DestroyGeoPolygon.
@@ -119,12 +233,14 @@ int CreateGeoPolygon(JNIEnv *env, jdoubleArray verts, jintArray holeSizes,
 void DestroyGeoPolygon(JNIEnv *env, jdoubleArray verts,
                        jintArray holeSizesElements, jdoubleArray holeVerts,
                        GeoPolygon *polygon) {
-    (**env).ReleaseDoubleArrayElements(env, verts, polygon->geofence.verts, 0);
+    // The polygon is only read, so it doesn't need to be copied back.
+    (**env).ReleaseDoubleArrayElements(env, verts, polygon->geofence.verts,
+                                       JNI_ABORT);
 
     if (polygon->numHoles > 0) {
         // The hole verts were pinned only once, so we don't need to iterate.
         (**env).ReleaseDoubleArrayElements(env, holeVerts,
-                                           polygon->holes[0].verts, 0);
+                                           polygon->holes[0].verts, JNI_ABORT);
     }
 
     free(polygon->holes);
@@ -171,6 +287,64 @@ JNIEXPORT jlong JNICALL Java_com_uber_h3core_NativeMethods_geoToH3(
     return geoToH3(&geo, res);
 }
 
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    geoToH3Bulk
+ * Signature: ([D[DI[J)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_geoToH3Bulk(
+    JNIEnv *env, jobject thiz, jdoubleArray lats, jdoubleArray lngs, jint res,
+    jlongArray results) {
+    jsize sz = (**env).GetArrayLength(env, lats);
+    // if the other arrays are too small, only index as many as will fit
+    jsize lngsSz = (**env).GetArrayLength(env, lngs);
+    if (lngsSz < sz) {
+        sz = lngsSz;
+    }
+    jsize resultsSz = (**env).GetArrayLength(env, results);
+    if (resultsSz < sz) {
+        sz = resultsSz;
+    }
+
+    jint numInvalid = -1;
+    jdouble *latsElements = (**env).GetDoubleArrayElements(env, lats, 0);
+    if (latsElements != NULL) {
+        jdouble *lngsElements = (**env).GetDoubleArrayElements(env, lngs, 0);
+        if (lngsElements != NULL) {
+            jlong *resultsElements =
+                (**env).GetLongArrayElements(env, results, 0);
+            if (resultsElements != NULL) {
+                numInvalid = 0;
+                for (jsize i = 0; i < sz; i++) {
+                    GeoCoord geo = {degsToRads(latsElements[i]),
+                                    degsToRads(lngsElements[i])};
+                    // geoToH3 returns 0 for coordinates it cannot index,
+                    // which is exactly what should be reported for this
+                    // element.
+                    resultsElements[i] = geoToH3(&geo, res);
+                    if (resultsElements[i] == 0) {
+                        numInvalid++;
+                    }
+                }
+
+                (**env).ReleaseLongArrayElements(env, results,
+                                                 resultsElements, 0);
+            }
+            // The coordinates are only read, so they don't need to be copied
+            // back.
+            (**env).ReleaseDoubleArrayElements(env, lngs, lngsElements,
+                                               JNI_ABORT);
+        }
+        (**env).ReleaseDoubleArrayElements(env, lats, latsElements,
+                                           JNI_ABORT);
+    }
+
+    if (numInvalid < 0) {
+        ThrowOutOfMemoryError(env);
+    }
+    return numInvalid;
+}
+
 /*
  * Class:     com_uber_h3core_NativeMethods
  * Method:    h3ToGeo
@@ -182,7 +356,8 @@ JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeo(
     h3ToGeo(h3, &coord);
 
     jsize sz = (**env).GetArrayLength(env, verts);
-    jdouble *coordsElements = (**env).GetDoubleArrayElements(env, verts, 0);
+    jdouble *coordsElements =
+        (**env).GetPrimitiveArrayCritical(env, verts, NULL);
 
     if (coordsElements != NULL) {
         // if sz is too small, we will fail to write all the elements
@@ -194,7 +369,7 @@ JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeo(
         // 0 is the mode
         // reference
         // https://developer.android.com/training/articles/perf-jni.html
-        (**env).ReleaseDoubleArrayElements(env, verts, coordsElements, 0);
+        (**env).ReleasePrimitiveArrayCritical(env, verts, coordsElements, 0);
     } else {
         ThrowOutOfMemoryError(env);
     }
@@ -211,7 +386,7 @@ JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundary(
     h3ToGeoBoundary(h3, &boundary);
 
     jsize sz = (**env).GetArrayLength(env, verts);
-    jdouble *vertsElements = (**env).GetDoubleArrayElements(env, verts, 0);
+    jdouble *vertsElements = (**env).GetPrimitiveArrayCritical(env, verts, NULL);
 
     if (vertsElements != NULL) {
         // if sz is too small, we will fail to write all the elements
@@ -220,7 +395,7 @@ JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundary(
             vertsElements[i + 1] = boundary.verts[i / 2].lon;
         }
 
-        (**env).ReleaseDoubleArrayElements(env, verts, vertsElements, 0);
+        (**env).ReleasePrimitiveArrayCritical(env, verts, vertsElements, 0);
 
         return boundary.numVerts;
     } else {
@@ -229,6 +404,295 @@ JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundary(
     }
 }
 
+/**
+ * Writes the coordinate as a (lat, lon) pair of degrees, constrained to the
+ * same ranges as H3Core does.
+ */
+static void CoordToDegrees(const GeoCoord *coord, jdouble *out) {
+    double lat = radsToDegs(coord->lat);
+    double lon = radsToDegs(coord->lon);
+    out[0] = lat > 90.0 ? lat - 180.0 : lat;
+    out[1] = lon > 180.0 ? lon - 360.0 : lon;
+}
+
+/**
+ * Single precision variant of CoordToDegrees.
+ */
+static void CoordToDegreesFloat(const GeoCoord *coord, jfloat *out) {
+    jdouble degs[2];
+    CoordToDegrees(coord, degs);
+    out[0] = (jfloat)degs[0];
+    out[1] = (jfloat)degs[1];
+}
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBulk
+ * Signature: ([J[D)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBulk(
+    JNIEnv *env, jobject thiz, jlongArray h3, jdoubleArray verts) {
+    jsize numH3 = (**env).GetArrayLength(env, h3);
+    jsize sz = (**env).GetArrayLength(env, verts);
+    bool isOom = true;
+
+    jlong *h3Elements = (**env).GetLongArrayElements(env, h3, 0);
+    if (h3Elements != NULL) {
+        jdouble *vertsElements = (**env).GetDoubleArrayElements(env, verts, 0);
+        if (vertsElements != NULL) {
+            // if sz is too small, we will fail to write all the elements
+            for (jsize i = 0; i < numH3 && (i * 2) + 1 < sz; i++) {
+                GeoCoord coord;
+                h3ToGeo(h3Elements[i], &coord);
+                vertsElements[i * 2] = coord.lat;
+                vertsElements[(i * 2) + 1] = coord.lon;
+            }
+
+            (**env).ReleaseDoubleArrayElements(env, verts, vertsElements, 0);
+            isOom = false;
+        }
+        (**env).ReleaseLongArrayElements(env, h3, h3Elements, JNI_ABORT);
+    }
+
+    if (isOom) {
+        ThrowOutOfMemoryError(env);
+    }
+}
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBulkDegrees
+ * Signature: ([J[F)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBulkDegrees(
+    JNIEnv *env, jobject thiz, jlongArray h3, jfloatArray verts) {
+    jsize numH3 = (**env).GetArrayLength(env, h3);
+    jsize sz = (**env).GetArrayLength(env, verts);
+    bool isOom = true;
+
+    jlong *h3Elements = (**env).GetLongArrayElements(env, h3, 0);
+    if (h3Elements != NULL) {
+        jfloat *vertsElements = (**env).GetFloatArrayElements(env, verts, 0);
+        if (vertsElements != NULL) {
+            // if sz is too small, we will fail to write all the elements
+            for (jsize i = 0; i < numH3 && (i * 2) + 1 < sz; i++) {
+                GeoCoord coord;
+                h3ToGeo(h3Elements[i], &coord);
+                CoordToDegreesFloat(&coord, vertsElements + (i * 2));
+            }
+
+            (**env).ReleaseFloatArrayElements(env, verts, vertsElements, 0);
+            isOom = false;
+        }
+        (**env).ReleaseLongArrayElements(env, h3, h3Elements, JNI_ABORT);
+    }
+
+    if (isOom) {
+        ThrowOutOfMemoryError(env);
+    }
+}
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBoundaryBulk
+ * Signature: ([J[D[I)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundaryBulk(
+    JNIEnv *env, jobject thiz, jlongArray h3, jdoubleArray verts,
+    jintArray offsets) {
+    jsize numH3 = (**env).GetArrayLength(env, h3);
+    jsize sz = (**env).GetArrayLength(env, verts);
+    jsize offsetsSz = (**env).GetArrayLength(env, offsets);
+    jint numWritten = -1;
+
+    jlong *h3Elements = (**env).GetLongArrayElements(env, h3, 0);
+    if (h3Elements != NULL) {
+        jdouble *vertsElements = (**env).GetDoubleArrayElements(env, verts, 0);
+        if (vertsElements != NULL) {
+            jint *offsetsElements =
+                (**env).GetIntArrayElements(env, offsets, 0);
+            if (offsetsElements != NULL) {
+                numWritten = 0;
+                jint numVerts = 0;
+                if (offsetsSz > 0) {
+                    offsetsElements[0] = 0;
+                }
+                // Stop at the first boundary that does not fit.
+                for (jsize i = 0; i < numH3 && i + 1 < offsetsSz; i++) {
+                    GeoBoundary boundary;
+                    h3ToGeoBoundary(h3Elements[i], &boundary);
+                    if ((numVerts + boundary.numVerts) * 2 > sz) {
+                        break;
+                    }
+                    for (int v = 0; v < boundary.numVerts; v++) {
+                        vertsElements[(numVerts + v) * 2] =
+                            boundary.verts[v].lat;
+                        vertsElements[(numVerts + v) * 2 + 1] =
+                            boundary.verts[v].lon;
+                    }
+                    numVerts += boundary.numVerts;
+                    offsetsElements[i + 1] = numVerts;
+                    numWritten++;
+                }
+
+                (**env).ReleaseIntArrayElements(env, offsets, offsetsElements,
+                                                0);
+            }
+            (**env).ReleaseDoubleArrayElements(env, verts, vertsElements, 0);
+        }
+        (**env).ReleaseLongArrayElements(env, h3, h3Elements, JNI_ABORT);
+    }
+
+    if (numWritten < 0) {
+        ThrowOutOfMemoryError(env);
+    }
+    return numWritten;
+}
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBoundaryBulkDegrees
+ * Signature: ([J[F[I)I
+ */
+JNIEXPORT jint JNICALL
+Java_com_uber_h3core_NativeMethods_h3ToGeoBoundaryBulkDegrees(
+    JNIEnv *env, jobject thiz, jlongArray h3, jfloatArray verts,
+    jintArray offsets) {
+    jsize numH3 = (**env).GetArrayLength(env, h3);
+    jsize sz = (**env).GetArrayLength(env, verts);
+    jsize offsetsSz = (**env).GetArrayLength(env, offsets);
+    jint numWritten = -1;
+
+    jlong *h3Elements = (**env).GetLongArrayElements(env, h3, 0);
+    if (h3Elements != NULL) {
+        jfloat *vertsElements = (**env).GetFloatArrayElements(env, verts, 0);
+        if (vertsElements != NULL) {
+            jint *offsetsElements =
+                (**env).GetIntArrayElements(env, offsets, 0);
+            if (offsetsElements != NULL) {
+                numWritten = 0;
+                jint numVerts = 0;
+                if (offsetsSz > 0) {
+                    offsetsElements[0] = 0;
+                }
+                // Stop at the first boundary that does not fit.
+                for (jsize i = 0; i < numH3 && i + 1 < offsetsSz; i++) {
+                    GeoBoundary boundary;
+                    h3ToGeoBoundary(h3Elements[i], &boundary);
+                    if ((numVerts + boundary.numVerts) * 2 > sz) {
+                        break;
+                    }
+                    for (int v = 0; v < boundary.numVerts; v++) {
+                        CoordToDegreesFloat(
+                            &boundary.verts[v],
+                            vertsElements + ((numVerts + v) * 2));
+                    }
+                    numVerts += boundary.numVerts;
+                    offsetsElements[i + 1] = numVerts;
+                    numWritten++;
+                }
+
+                (**env).ReleaseIntArrayElements(env, offsets, offsetsElements,
+                                                0);
+            }
+            (**env).ReleaseFloatArrayElements(env, verts, vertsElements, 0);
+        }
+        (**env).ReleaseLongArrayElements(env, h3, h3Elements, JNI_ABORT);
+    }
+
+    if (numWritten < 0) {
+        ThrowOutOfMemoryError(env);
+    }
+    return numWritten;
+}
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    geoToH3Buffer
+ * Signature: (Ljava/nio/ByteBuffer;Ljava/nio/ByteBuffer;IILjava/nio/ByteBuffer;)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_geoToH3Buffer(
+    JNIEnv *env, jobject thiz, jobject lats, jobject lngs, jint count,
+    jint res, jobject results) {
+    // The caller has checked that the buffers are direct and large enough,
+    // so no elements need to be pinned or copied.
+    const jdouble *latsAddr = (**env).GetDirectBufferAddress(env, lats);
+    const jdouble *lngsAddr = (**env).GetDirectBufferAddress(env, lngs);
+    jlong *resultsAddr = (**env).GetDirectBufferAddress(env, results);
+    if (latsAddr == NULL || lngsAddr == NULL || resultsAddr == NULL) {
+        ThrowIllegalArgumentException(env, "Buffer must be direct");
+        return -1;
+    }
+
+    jint numInvalid = 0;
+    for (jint i = 0; i < count; i++) {
+        GeoCoord geo = {degsToRads(latsAddr[i]), degsToRads(lngsAddr[i])};
+        resultsAddr[i] = geoToH3(&geo, res);
+        if (resultsAddr[i] == 0) {
+            numInvalid++;
+        }
+    }
+    return numInvalid;
+}
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBuffer
+ * Signature: (Ljava/nio/ByteBuffer;ILjava/nio/ByteBuffer;)V
+ */
+JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBuffer(
+    JNIEnv *env, jobject thiz, jobject h3, jint count, jobject verts) {
+    const jlong *h3Addr = (**env).GetDirectBufferAddress(env, h3);
+    jdouble *vertsAddr = (**env).GetDirectBufferAddress(env, verts);
+    if (h3Addr == NULL || vertsAddr == NULL) {
+        ThrowIllegalArgumentException(env, "Buffer must be direct");
+        return;
+    }
+
+    for (jint i = 0; i < count; i++) {
+        GeoCoord coord;
+        h3ToGeo(h3Addr[i], &coord);
+        CoordToDegrees(&coord, vertsAddr + (i * 2));
+    }
+}
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3ToGeoBoundaryBuffer
+ * Signature: (Ljava/nio/ByteBuffer;ILjava/nio/ByteBuffer;ILjava/nio/ByteBuffer;)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_h3ToGeoBoundaryBuffer(
+    JNIEnv *env, jobject thiz, jobject h3, jint count, jobject verts,
+    jint vertsCapacity, jobject offsets) {
+    const jlong *h3Addr = (**env).GetDirectBufferAddress(env, h3);
+    jdouble *vertsAddr = (**env).GetDirectBufferAddress(env, verts);
+    jint *offsetsAddr = (**env).GetDirectBufferAddress(env, offsets);
+    if (h3Addr == NULL || vertsAddr == NULL || offsetsAddr == NULL) {
+        ThrowIllegalArgumentException(env, "Buffer must be direct");
+        return -1;
+    }
+
+    jint numWritten = 0;
+    jint numVerts = 0;
+    offsetsAddr[0] = 0;
+    // Stop at the first boundary that does not fit.
+    for (jint i = 0; i < count; i++) {
+        GeoBoundary boundary;
+        h3ToGeoBoundary(h3Addr[i], &boundary);
+        if ((numVerts + boundary.numVerts) * 2 > vertsCapacity) {
+            break;
+        }
+        for (int v = 0; v < boundary.numVerts; v++) {
+            CoordToDegrees(&boundary.verts[v],
+                           vertsAddr + ((numVerts + v) * 2));
+        }
+        numVerts += boundary.numVerts;
+        offsetsAddr[i + 1] = numVerts;
+        numWritten++;
+    }
+    return numWritten;
+}
+
 /*
  * Class:     com_uber_h3core_NativeMethods
  * Method:    maxKringSize
@@ -246,13 +710,14 @@ JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_maxKringSize(
  */
 JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_kRing(
     JNIEnv *env, jobject thiz, jlong h3, jint k, jlongArray results) {
-    jlong *resultsElements = (**env).GetLongArrayElements(env, results, 0);
+    jlong *resultsElements =
+        (**env).GetPrimitiveArrayCritical(env, results, NULL);
 
     if (resultsElements != NULL) {
         // if sz is too small, bad things will happen
         kRing(h3, k, resultsElements);
 
-        (**env).ReleaseLongArrayElements(env, results, resultsElements, 0);
+        (**env).ReleasePrimitiveArrayCritical(env, results, resultsElements, 0);
     } else {
         ThrowOutOfMemoryError(env);
     }
@@ -266,22 +731,22 @@ JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_kRing(
 JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_kRingDistances(
     JNIEnv *env, jobject thiz, jlong h3, jint k, jlongArray results,
     jintArray distances) {
-    bool isOom = false;
-    jlong *resultsElements = (**env).GetLongArrayElements(env, results, 0);
+    bool isOom = true;
+    jlong *resultsElements =
+        (**env).GetPrimitiveArrayCritical(env, results, NULL);
     if (resultsElements != NULL) {
         jint *distancesElements =
-            (**env).GetIntArrayElements(env, distances, 0);
+            (**env).GetPrimitiveArrayCritical(env, distances, NULL);
         if (distancesElements != NULL) {
             // if sz is too small, bad things will happen
             kRingDistances(h3, k, resultsElements, distancesElements);
 
-            (**env).ReleaseLongArrayElements(env, results, resultsElements, 0);
-        } else {
-            isOom = true;
+            (**env).ReleasePrimitiveArrayCritical(env, distances,
+                                                  distancesElements, 0);
+            isOom = false;
         }
-        (**env).ReleaseIntArrayElements(env, distances, distancesElements, 0);
-    } else {
-        isOom = true;
+        (**env).ReleasePrimitiveArrayCritical(env, results, resultsElements,
+                                              0);
     }
 
     if (isOom) {
@@ -296,13 +761,14 @@ JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_kRingDistances(
  */
 JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_hexRange(
     JNIEnv *env, jobject thiz, jlong h3, jint k, jlongArray results) {
-    jlong *resultsElements = (**env).GetLongArrayElements(env, results, 0);
+    jlong *resultsElements =
+        (**env).GetPrimitiveArrayCritical(env, results, NULL);
 
     if (resultsElements != NULL) {
         // if sz is too small, bad things will happen
         int ret = hexRange(h3, k, resultsElements);
 
-        (**env).ReleaseLongArrayElements(env, results, resultsElements, 0);
+        (**env).ReleasePrimitiveArrayCritical(env, results, resultsElements, 0);
         return ret;
     } else {
         ThrowOutOfMemoryError(env);
@@ -317,13 +783,14 @@ JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_hexRange(
  */
 JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_hexRing(
     JNIEnv *env, jobject thiz, jlong h3, jint k, jlongArray results) {
-    jlong *resultsElements = (**env).GetLongArrayElements(env, results, 0);
+    jlong *resultsElements =
+        (**env).GetPrimitiveArrayCritical(env, results, NULL);
 
     if (resultsElements != NULL) {
         // if sz is too small, bad things will happen
         int ret = hexRing(h3, k, resultsElements);
 
-        (**env).ReleaseLongArrayElements(env, results, resultsElements, 0);
+        (**env).ReleasePrimitiveArrayCritical(env, results, resultsElements, 0);
         return ret;
     } else {
         ThrowOutOfMemoryError(env);
@@ -379,60 +846,85 @@ JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_polyfill(
     DestroyGeoPolygon(env, verts, holeSizes, holeVerts, &polygon);
 }
 
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    polyfillBuffer
+ * Signature: ([D[I[DILjava/nio/ByteBuffer;I)I
+ */
+JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_polyfillBuffer(
+    JNIEnv *env, jobject thiz, jdoubleArray verts, jintArray holeSizes,
+    jdoubleArray holeVerts, jint res, jobject results, jint capacity) {
+    jlong *resultsAddr = (**env).GetDirectBufferAddress(env, results);
+    if (resultsAddr == NULL) {
+        ThrowIllegalArgumentException(env, "Buffer must be direct");
+        return -1;
+    }
+
+    GeoPolygon polygon;
+    if (CreateGeoPolygon(env, verts, holeSizes, holeVerts, &polygon)) {
+        return -1;
+    }
+
+    int sz = maxPolyfillSize(&polygon, res);
+    // If the buffer is too small, report how many indexes must fit.
+    jint numWritten = -sz;
+    if (sz <= capacity) {
+        // polyfill requires the output to be zeroed, which a Java array
+        // always is but a buffer may not be.
+        memset(resultsAddr, 0, sz * sizeof(jlong));
+        polyfill(&polygon, res, resultsAddr);
+
+        // Move the indexes to the start of the buffer so the caller does not
+        // need to skip over the empty slots.
+        numWritten = 0;
+        for (int i = 0; i < sz; i++) {
+            if (resultsAddr[i] != 0) {
+                resultsAddr[numWritten++] = resultsAddr[i];
+            }
+        }
+    }
+
+    DestroyGeoPolygon(env, verts, holeSizes, holeVerts, &polygon);
+
+    return numWritten;
+}
+
 /**
  * Converts the given polygon to managed objects
  * (ArrayList<ArrayList<ArrayList<Vector2D>>>)
  *
- * May return early if allocation or finding required classes or methods fails.
+ * May return early if allocation fails.
  */
 void ConvertLinkedGeoPolygonToManaged(JNIEnv *env,
                                       LinkedGeoPolygon *currentPolygon,
                                       jobject results) {
-    jclass arrayListClass = (**env).FindClass(env, "java/util/ArrayList");
-    if (arrayListClass == NULL) {
-        ThrowOutOfMemoryError(env);
-        return;
-    }
-    jclass vector2DClass =
-        (**env).FindClass(env, "com/uber/h3core/util/Vector2D");
-    if (vector2DClass == NULL) {
-        ThrowOutOfMemoryError(env);
-        return;
-    }
-    jmethodID arrayListConstructor =
-        (**env).GetMethodID(env, arrayListClass, "<init>", "()V");
-    if (arrayListConstructor == NULL) {
-        ThrowOutOfMemoryError(env);
-        return;
-    }
-    jmethodID arrayListAdd = (**env).GetMethodID(env, arrayListClass, "add",
-                                                 "(Ljava/lang/Object;)Z");
-    if (arrayListAdd == NULL) {
-        ThrowOutOfMemoryError(env);
-        return;
-    }
-    jmethodID vector2DConstructor =
-        (**env).GetMethodID(env, vector2DClass, "<init>", "(DD)V");
-    if (vector2DConstructor == NULL) {
-        ThrowOutOfMemoryError(env);
-        return;
-    }
-
     while (currentPolygon != NULL) {
-        jobject resultLoops =
-            (**env).NewObject(env, arrayListClass, arrayListConstructor);
-        if (resultLoops == NULL) {
-            return;
-        }
-
         // Check if the polygon is empty.
         // Don't have to do this other times because a loop can be gauranteed
         // to have coordinates.
-        if (resultLoops != NULL && currentPolygon->first != NULL) {
+        if (currentPolygon->first != NULL) {
+            jint numLoops = 0;
+            for (LinkedGeoLoop *loop = currentPolygon->first; loop != NULL;
+                 loop = loop->next) {
+                numLoops++;
+            }
+
+            jobject resultLoops = (**env).NewObject(
+                env, arrayListClass, arrayListConstructor, numLoops);
+            if (resultLoops == NULL) {
+                return;
+            }
+
             LinkedGeoLoop *currentLoop = currentPolygon->first;
             while (currentLoop != NULL) {
-                jobject resultLoop = (**env).NewObject(env, arrayListClass,
-                                                       arrayListConstructor);
+                jint numCoords = 0;
+                for (LinkedGeoCoord *coord = currentLoop->first; coord != NULL;
+                     coord = coord->next) {
+                    numCoords++;
+                }
+
+                jobject resultLoop = (**env).NewObject(
+                    env, arrayListClass, arrayListConstructor, numCoords);
                 if (resultLoop == NULL) {
                     return;
                 }
@@ -448,6 +940,9 @@ void ConvertLinkedGeoPolygonToManaged(JNIEnv *env,
 
                     (**env).CallBooleanMethod(env, resultLoop, arrayListAdd, v);
                     RETURN_ON_EXCEPTION(env);
+                    // Large polygons would otherwise fill the local reference
+                    // table.
+                    (**env).DeleteLocalRef(env, v);
 
                     coord = coord->next;
                 }
@@ -455,12 +950,14 @@ void ConvertLinkedGeoPolygonToManaged(JNIEnv *env,
                 (**env).CallBooleanMethod(env, resultLoops, arrayListAdd,
                                           resultLoop);
                 RETURN_ON_EXCEPTION(env);
+                (**env).DeleteLocalRef(env, resultLoop);
 
                 currentLoop = currentLoop->next;
             }
 
             (**env).CallBooleanMethod(env, results, arrayListAdd, resultLoops);
             RETURN_ON_EXCEPTION(env);
+            (**env).DeleteLocalRef(env, resultLoops);
         }
 
         currentPolygon = currentPolygon->next;
@@ -489,12 +986,178 @@ JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3SetToLinkedGeo(
 
         destroyLinkedPolygon(&polygon);
 
-        (**env).ReleaseLongArrayElements(env, h3, h3Elements, 0);
+        // The indexes are only read, so they don't need to be copied back.
+        (**env).ReleaseLongArrayElements(env, h3, h3Elements, JNI_ABORT);
     } else {
         ThrowOutOfMemoryError(env);
     }
 }
 
+/**
+ * Constrains a latitude in degrees, as H3Core.constrainLat does.
+ */
+static double ConstrainLatDegs(double lat) {
+    return lat > 90.0 ? lat - 180.0 : lat;
+}
+
+/**
+ * Constrains a longitude in degrees, as H3Core.constrainLng does.
+ */
+static double ConstrainLngDegs(double lng) {
+    return lng > 180.0 ? lng - 360.0 : lng;
+}
+
+/**
+ * Writes the vertex into coords as degrees, in the same order as
+ * H3Core.h3SetToMultiPolygon.
+ */
+static void WriteVertex(jdouble *coords, GeoCoord *vertex, bool geoJson) {
+    // radsToDegs multiplies by the constant 180 / pi, as Math.toDegrees does
+    // since Java 9. Java 8 divides by pi instead, which can differ in the last
+    // bit.
+    double lat = ConstrainLatDegs(radsToDegs(vertex->lat));
+    double lng = ConstrainLngDegs(radsToDegs(vertex->lon));
+    if (geoJson) {
+        coords[0] = lat;
+        coords[1] = lng;
+    } else {
+        coords[0] = lng;
+        coords[1] = lat;
+    }
+}
+
+/**
+ * Converts the given polygon to an H3MultiPolygon, counting the polygons,
+ * loops and vertices and then filling the arrays in one pass.
+ *
+ * Returns NULL if allocation fails.
+ */
+jobject ConvertLinkedGeoPolygonToFlat(JNIEnv *env, LinkedGeoPolygon *polygon,
+                                      bool geoJson) {
+    jsize numPolygons = 0;
+    jsize numLoops = 0;
+    jsize numVertices = 0;
+    for (LinkedGeoPolygon *currentPolygon = polygon; currentPolygon != NULL;
+         currentPolygon = currentPolygon->next) {
+        if (currentPolygon->first == NULL) {
+            continue;
+        }
+        numPolygons++;
+        for (LinkedGeoLoop *loop = currentPolygon->first; loop != NULL;
+             loop = loop->next) {
+            numLoops++;
+            for (LinkedGeoCoord *coord = loop->first; coord != NULL;
+                 coord = coord->next) {
+                numVertices++;
+            }
+            if (geoJson && loop->first != NULL) {
+                // geoJson requires closing the loop
+                numVertices++;
+            }
+        }
+    }
+
+    jdoubleArray coords = (**env).NewDoubleArray(env, numVertices * 2);
+    if (coords == NULL) {
+        return NULL;
+    }
+    jintArray loopOffsets = (**env).NewIntArray(env, numLoops + 1);
+    if (loopOffsets == NULL) {
+        return NULL;
+    }
+    jintArray polygonOffsets = (**env).NewIntArray(env, numPolygons + 1);
+    if (polygonOffsets == NULL) {
+        return NULL;
+    }
+
+    bool isOom = true;
+    jdouble *coordsElements =
+        (**env).GetPrimitiveArrayCritical(env, coords, NULL);
+    if (coordsElements != NULL) {
+        jint *loopOffsetsElements =
+            (**env).GetPrimitiveArrayCritical(env, loopOffsets, NULL);
+        if (loopOffsetsElements != NULL) {
+            jint *polygonOffsetsElements =
+                (**env).GetPrimitiveArrayCritical(env, polygonOffsets, NULL);
+            if (polygonOffsetsElements != NULL) {
+                jint p = 0;
+                jint l = 0;
+                jint v = 0;
+                for (LinkedGeoPolygon *currentPolygon = polygon;
+                     currentPolygon != NULL;
+                     currentPolygon = currentPolygon->next) {
+                    if (currentPolygon->first == NULL) {
+                        continue;
+                    }
+                    polygonOffsetsElements[p++] = l;
+                    for (LinkedGeoLoop *loop = currentPolygon->first;
+                         loop != NULL; loop = loop->next) {
+                        loopOffsetsElements[l++] = v;
+                        for (LinkedGeoCoord *coord = loop->first;
+                             coord != NULL; coord = coord->next) {
+                            WriteVertex(coordsElements + v * 2, &coord->vertex,
+                                        geoJson);
+                            v++;
+                        }
+                        if (geoJson && loop->first != NULL) {
+                            WriteVertex(coordsElements + v * 2,
+                                        &loop->first->vertex, geoJson);
+                            v++;
+                        }
+                    }
+                }
+                polygonOffsetsElements[p] = l;
+                loopOffsetsElements[l] = v;
+
+                (**env).ReleasePrimitiveArrayCritical(
+                    env, polygonOffsets, polygonOffsetsElements, 0);
+                isOom = false;
+            }
+            (**env).ReleasePrimitiveArrayCritical(env, loopOffsets,
+                                                  loopOffsetsElements, 0);
+        }
+        (**env).ReleasePrimitiveArrayCritical(env, coords, coordsElements, 0);
+    }
+
+    if (isOom) {
+        ThrowOutOfMemoryError(env);
+        return NULL;
+    }
+
+    return (**env).NewObject(env, h3MultiPolygonClass,
+                             h3MultiPolygonConstructor, coords, loopOffsets,
+                             polygonOffsets);
+}
+
+/*
+ * Class:     com_uber_h3core_NativeMethods
+ * Method:    h3SetToMultiPolygon
+ * Signature: ([JZ)Lcom/uber/h3core/H3MultiPolygon;
+ */
+JNIEXPORT jobject JNICALL Java_com_uber_h3core_NativeMethods_h3SetToMultiPolygon(
+    JNIEnv *env, jobject thiz, jlongArray h3, jboolean geoJson) {
+    LinkedGeoPolygon polygon;
+
+    jsize numH3 = (**env).GetArrayLength(env, h3);
+    jlong *h3Elements = (**env).GetLongArrayElements(env, h3, 0);
+
+    if (h3Elements == NULL) {
+        ThrowOutOfMemoryError(env);
+        return NULL;
+    }
+
+    h3SetToLinkedGeo(h3Elements, numH3, &polygon);
+
+    // The indexes are only read, so they don't need to be copied back.
+    (**env).ReleaseLongArrayElements(env, h3, h3Elements, JNI_ABORT);
+
+    jobject result = ConvertLinkedGeoPolygonToFlat(env, &polygon, geoJson);
+
+    destroyLinkedPolygon(&polygon);
+
+    return result;
+}
+
 /*
  * Class:     com_uber_h3core_NativeMethods
  * Method:    maxH3ToChildrenSize
@@ -512,13 +1175,14 @@ JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_maxH3ToChildrenSize(
  */
 JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToChildren(
     JNIEnv *env, jobject thiz, jlong h3, jint childRes, jlongArray results) {
-    jlong *resultsElements = (**env).GetLongArrayElements(env, results, 0);
+    jlong *resultsElements =
+        (**env).GetPrimitiveArrayCritical(env, results, NULL);
 
     if (resultsElements != NULL) {
         // if sz is too small, bad things will happen
         h3ToChildren(h3, childRes, resultsElements);
 
-        (**env).ReleaseLongArrayElements(env, results, resultsElements, 0);
+        (**env).ReleasePrimitiveArrayCritical(env, results, resultsElements, 0);
     } else {
         ThrowOutOfMemoryError(env);
     }
@@ -532,19 +1196,24 @@ JNIEXPORT void JNICALL Java_com_uber_h3core_NativeMethods_h3ToChildren(
 JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_compact(
     JNIEnv *env, jobject thiz, jlongArray h3, jlongArray results) {
     jint ret = 0;
-    jlong *h3Elements = (**env).GetLongArrayElements(env, h3, 0);
+    // GetArrayLength may not be called while in a critical region.
+    jsize numHexes = (**env).GetArrayLength(env, h3);
+    jlong *h3Elements = (**env).GetPrimitiveArrayCritical(env, h3, NULL);
 
     if (h3Elements != NULL) {
-        jlong *resultsElements = (**env).GetLongArrayElements(env, results, 0);
+        jlong *resultsElements =
+            (**env).GetPrimitiveArrayCritical(env, results, NULL);
 
         if (resultsElements != NULL) {
-            jsize numHexes = (**env).GetArrayLength(env, h3);
             ret = compact(h3Elements, resultsElements, numHexes);
 
-            (**env).ReleaseLongArrayElements(env, h3, h3Elements, 0);
-            (**env).ReleaseLongArrayElements(env, results, resultsElements, 0);
+            (**env).ReleasePrimitiveArrayCritical(env, results,
+                                                  resultsElements, 0);
+            (**env).ReleasePrimitiveArrayCritical(env, h3, h3Elements,
+                                                  JNI_ABORT);
         } else {
-            (**env).ReleaseLongArrayElements(env, h3, h3Elements, 0);
+            (**env).ReleasePrimitiveArrayCritical(env, h3, h3Elements,
+                                                  JNI_ABORT);
             ThrowOutOfMemoryError(env);
         }
     } else {
@@ -567,7 +1236,7 @@ JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_maxUncompactSize(
     if (h3Elements != NULL) {
         jint ret = maxUncompactSize(h3Elements, numHexes, res);
 
-        (**env).ReleaseLongArrayElements(env, h3, h3Elements, 0);
+        (**env).ReleaseLongArrayElements(env, h3, h3Elements, JNI_ABORT);
 
         return ret;
     } else {
@@ -584,21 +1253,26 @@ JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_maxUncompactSize(
 JNIEXPORT jint JNICALL Java_com_uber_h3core_NativeMethods_uncompact(
     JNIEnv *env, jobject thiz, jlongArray h3, jint res, jlongArray results) {
     jint ret = 0;
+    // GetArrayLength may not be called while in a critical region.
     jsize numHexes = (**env).GetArrayLength(env, h3);
-    jlong *h3Elements = (**env).GetLongArrayElements(env, h3, 0);
+    jsize maxHexes = (**env).GetArrayLength(env, results);
+    jlong *h3Elements = (**env).GetPrimitiveArrayCritical(env, h3, NULL);
 
     if (h3Elements != NULL) {
-        jsize maxHexes = (**env).GetArrayLength(env, results);
-        jlong *resultsElements = (**env).GetLongArrayElements(env, results, 0);
+        jlong *resultsElements =
+            (**env).GetPrimitiveArrayCritical(env, results, NULL);
 
         if (resultsElements != NULL) {
             ret =
                 uncompact(h3Elements, numHexes, resultsElements, maxHexes, res);
 
-            (**env).ReleaseLongArrayElements(env, h3, h3Elements, 0);
-            (**env).ReleaseLongArrayElements(env, results, resultsElements, 0);
+            (**env).ReleasePrimitiveArrayCritical(env, results,
+                                                  resultsElements, 0);
+            (**env).ReleasePrimitiveArrayCritical(env, h3, h3Elements,
+                                                  JNI_ABORT);
         } else {
-            (**env).ReleaseLongArrayElements(env, h3, h3Elements, 0);
+            (**env).ReleasePrimitiveArrayCritical(env, h3, h3Elements,
+                                                  JNI_ABORT);
             ThrowOutOfMemoryError(env);
         }
     } else {
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Enumerates the children of an index at a finer resolution, in ascending order, without
+ * calling native code.
+ *
+ * <p>Children are numbered by the base 7 number formed by their digits below the parent's
+ * resolution. For pentagons, the numbers whose leading non-zero digit is {@link H3Index#K_AXES_DIGIT}
+ * are skipped, since those cells do not exist. Those are the ranges <code>[7^m, 2 * 7^m)</code>.
+ */
+final class ChildrenSpliterator implements Spliterator.OfLong {
+    private static final int CHARACTERISTICS =
+            ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+
+    /**
+     * The parent, with its resolution set to the child resolution and the child digits set to
+     * {@link H3Index#CENTER_DIGIT}.
+     */
+    private final long centerChild;
+    private final int parentRes;
+    private final int childRes;
+    private final boolean isPentagon;
+
+    /**
+     * Number of the next child, and one past the number of the last child.
+     */
+    private long index;
+    private final long fence;
+
+    /**
+     * The child numbered <code>index</code>, valid only if <code>index &lt; fence</code>.
+     */
+    private long current;
+
+    private ChildrenSpliterator(long centerChild, int parentRes, int childRes, boolean isPentagon,
+                                long index, long fence) {
+        this.centerChild = centerChild;
+        this.parentRes = parentRes;
+        this.childRes = childRes;
+        this.isPentagon = isPentagon;
+        this.index = isPentagon ? skipDeleted(index) : index;
+        this.fence = fence;
+        this.current = childAt(this.index);
+    }
+
+    /**
+     * Creates a spliterator over the children of <code>h3</code> at <code>childRes</code>, which
+     * is empty if <code>childRes</code> is coarser than <code>h3</code>.
+     */
+    static ChildrenSpliterator of(long h3, int childRes) {
+        int parentRes = H3Index.getResolution(h3);
+        if (childRes < parentRes) {
+            return new ChildrenSpliterator(h3, parentRes, parentRes, false, 0, 0);
+        }
+
+        long centerChild = (h3 & ~H3Index.H3_RES_MASK) | ((long) childRes << H3Index.H3_RES_OFFSET);
+        for (int r = parentRes + 1; r <= childRes; r++) {
+            centerChild = H3Index.setIndexDigit(centerChild, r, H3Index.CENTER_DIGIT);
+        }
+        return new ChildrenSpliterator(centerChild, parentRes, childRes, H3Index.isPentagon(h3),
+                0, pow7(childRes - parentRes));
+    }
+
+    private static long pow7(int exponent) {
+        long ret = 1;
+        for (int i = 0; i < exponent; i++) {
+            ret *= 7;
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the smallest child number at least <code>n</code> that is not deleted.
+     */
+    private static long skipDeleted(long n) {
+        for (long start = 1; start <= n; start *= 7) {
+            if (n < 2 * start) {
+                return 2 * start;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of deleted child numbers in <code>[from, to)</code>.
+     */
+    private long countDeleted(long from, long to) {
+        if (!isPentagon) {
+            return 0;
+        }
+        long count = 0;
+        for (long start = 1; start < to; start *= 7) {
+            long overlap = Math.min(to, 2 * start) - Math.max(from, start);
+            if (overlap > 0) {
+                count += overlap;
+            }
+        }
+        return count;
+    }
+
+    private long childAt(long n) {
+        long child = centerChild;
+        for (int r = childRes; r > parentRes && n != 0; r--) {
+            child = H3Index.setIndexDigit(child, r, (int) (n % 7));
+            n /= 7;
+        }
+        return child;
+    }
+
+    /**
+     * Moves to the next child number, updating <code>current</code> by incrementing its digits.
+     */
+    private void advance() {
+        index++;
+        if (isPentagon) {
+            long next = skipDeleted(index);
+            if (next != index) {
+                index = next;
+                current = childAt(index);
+                return;
+            }
+        }
+
+        for (int r = childRes; r > parentRes; r--) {
+            int digit = H3Index.getIndexDigit(current, r) + 1;
+            if (digit < H3Index.NUM_DIGITS) {
+                current = H3Index.setIndexDigit(current, r, digit);
+                return;
+            }
+            current = H3Index.setIndexDigit(current, r, H3Index.CENTER_DIGIT);
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (index >= fence) {
+            return false;
+        }
+        long child = current;
+        advance();
+        action.accept(child);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        while (index < fence) {
+            long child = current;
+            advance();
+            action.accept(child);
+        }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+        long mid = (index + fence) >>> 1;
+        if (mid <= index) {
+            return null;
+        }
+        ChildrenSpliterator prefix =
+                new ChildrenSpliterator(centerChild, parentRes, childRes, isPentagon, index, mid);
+        index = isPentagon ? skipDeleted(mid) : mid;
+        current = childAt(index);
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (index >= fence) {
+            return 0;
+        }
+        return fence - index - countDeleted(index, fence);
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    @Override
+    public Comparator<? super Long> getComparator() {
+        // Sorted by the natural order of the indexes
+        return null;
+    }
+}
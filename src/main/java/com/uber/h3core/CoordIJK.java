@@ -0,0 +1,307 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+/**
+ * IJK hexagon coordinates, ported from <code>coordijk.c</code> in the H3 core library.
+ *
+ * <p>Each axis is spaced 120 degrees apart. Instances are mutable, and operations modify
+ * them in place, as in the C library.
+ */
+final class CoordIJK {
+    /**
+     * Unit vectors for each digit (direction), indexed by digit.
+     */
+    private static final int[][] UNIT_VECS = {
+            {0, 0, 0}, // CENTER_DIGIT
+            {0, 0, 1}, // K_AXES_DIGIT
+            {0, 1, 0}, // J_AXES_DIGIT
+            {0, 1, 1}, // JK_AXES_DIGIT
+            {1, 0, 0}, // I_AXES_DIGIT
+            {1, 0, 1}, // IK_AXES_DIGIT
+            {1, 1, 0}  // IJ_AXES_DIGIT
+    };
+
+    int i;
+    int j;
+    int k;
+
+    CoordIJK(int i, int j, int k) {
+        this.i = i;
+        this.j = j;
+        this.k = k;
+    }
+
+    /**
+     * Returns the unit vector for the given digit.
+     */
+    static CoordIJK fromDigit(int digit) {
+        int[] vec = UNIT_VECS[digit];
+        return new CoordIJK(vec[0], vec[1], vec[2]);
+    }
+
+    void add(CoordIJK other) {
+        i += other.i;
+        j += other.j;
+        k += other.k;
+    }
+
+    void sub(CoordIJK other) {
+        i -= other.i;
+        j -= other.j;
+        k -= other.k;
+    }
+
+    void scale(int factor) {
+        i *= factor;
+        j *= factor;
+        k *= factor;
+    }
+
+    /**
+     * Normalizes the coordinates so that they are all non-negative and at least one is zero.
+     */
+    void normalize() {
+        // remove any negative values
+        if (i < 0) {
+            j -= i;
+            k -= i;
+            i = 0;
+        }
+
+        if (j < 0) {
+            i -= j;
+            k -= j;
+            j = 0;
+        }
+
+        if (k < 0) {
+            i -= k;
+            j -= k;
+            k = 0;
+        }
+
+        // remove the min value if needed
+        int min = Math.min(i, Math.min(j, k));
+        if (min > 0) {
+            i -= min;
+            j -= min;
+            k -= min;
+        }
+    }
+
+    /**
+     * Returns the digit of this unit vector, or {@link H3Index#INVALID_DIGIT} if this is not a unit vector.
+     */
+    int unitIjkToDigit() {
+        CoordIJK c = new CoordIJK(i, j, k);
+        c.normalize();
+
+        for (int digit = H3Index.CENTER_DIGIT; digit < H3Index.NUM_DIGITS; digit++) {
+            int[] vec = UNIT_VECS[digit];
+            if (c.i == vec[0] && c.j == vec[1] && c.k == vec[2]) {
+                return digit;
+            }
+        }
+        return H3Index.INVALID_DIGIT;
+    }
+
+    /**
+     * Moves to the containing aperture 7 parent, using counter-clockwise aperture 7 grids.
+     */
+    void upAp7() {
+        // convert to CoordIJ
+        int ci = i - k;
+        int cj = j - k;
+
+        i = (int) Math.round((3 * ci - cj) / 7.0);
+        j = (int) Math.round((ci + 2 * cj) / 7.0);
+        k = 0;
+        normalize();
+    }
+
+    /**
+     * Moves to the containing aperture 7 parent, using clockwise aperture 7 grids.
+     */
+    void upAp7r() {
+        // convert to CoordIJ
+        int ci = i - k;
+        int cj = j - k;
+
+        i = (int) Math.round((2 * ci + cj) / 7.0);
+        j = (int) Math.round((3 * cj - ci) / 7.0);
+        k = 0;
+        normalize();
+    }
+
+    /**
+     * Moves to the center of the aperture 7 child, using counter-clockwise aperture 7 grids.
+     */
+    void downAp7() {
+        // res r unit vectors in res r+1
+        downAp(new CoordIJK(3, 0, 1), new CoordIJK(1, 3, 0), new CoordIJK(0, 1, 3));
+    }
+
+    /**
+     * Moves to the center of the aperture 7 child, using clockwise aperture 7 grids.
+     */
+    void downAp7r() {
+        // res r unit vectors in res r+1
+        downAp(new CoordIJK(3, 1, 0), new CoordIJK(0, 3, 1), new CoordIJK(1, 0, 3));
+    }
+
+    /**
+     * Moves to the center of the aperture 3 child, using counter-clockwise aperture 3 grids.
+     */
+    void downAp3() {
+        // res r unit vectors in res r+1
+        downAp(new CoordIJK(2, 0, 1), new CoordIJK(1, 2, 0), new CoordIJK(0, 1, 2));
+    }
+
+    /**
+     * Moves to the center of the aperture 3 child, using clockwise aperture 3 grids.
+     */
+    void downAp3r() {
+        // res r unit vectors in res r+1
+        downAp(new CoordIJK(2, 1, 0), new CoordIJK(0, 2, 1), new CoordIJK(1, 0, 2));
+    }
+
+    /**
+     * Rotates 60 degrees counter-clockwise about the origin.
+     */
+    void rotate60ccw() {
+        // unit vector rotations
+        downAp(new CoordIJK(1, 1, 0), new CoordIJK(0, 1, 1), new CoordIJK(1, 0, 1));
+    }
+
+    /**
+     * Rotates 60 degrees clockwise about the origin.
+     */
+    void rotate60cw() {
+        // unit vector rotations
+        downAp(new CoordIJK(1, 0, 1), new CoordIJK(1, 1, 0), new CoordIJK(0, 1, 1));
+    }
+
+    /**
+     * Sets these coordinates to the cell containing the 2D hex coordinates <code>(x, y)</code>.
+     */
+    void setFromHex2d(double x, double y) {
+        k = 0;
+
+        double a1 = Math.abs(x);
+        double a2 = Math.abs(y);
+
+        // first do a reverse conversion
+        double x2 = a2 / FaceIJK.M_SIN60;
+        double x1 = a1 + x2 / 2.0;
+
+        // check if we have the center of a hex
+        int m1 = (int) x1;
+        int m2 = (int) x2;
+
+        // otherwise round correctly
+        double r1 = x1 - m1;
+        double r2 = x2 - m2;
+
+        if (r1 < 0.5) {
+            if (r1 < 1.0 / 3.0) {
+                i = m1;
+                j = r2 < (1.0 + r1) / 2.0 ? m2 : m2 + 1;
+            } else {
+                j = r2 < (1.0 - r1) ? m2 : m2 + 1;
+                i = (1.0 - r1) <= r2 && r2 < (2.0 * r1) ? m1 + 1 : m1;
+            }
+        } else {
+            if (r1 < 2.0 / 3.0) {
+                j = r2 < (1.0 - r1) ? m2 : m2 + 1;
+                i = (2.0 * r1 - 1.0) < r2 && r2 < (1.0 - r1) ? m1 : m1 + 1;
+            } else {
+                i = m1 + 1;
+                j = r2 < (r1 / 2.0) ? m2 : m2 + 1;
+            }
+        }
+
+        // now fold across the axes if necessary
+        if (x < 0.0) {
+            if ((j % 2) == 0) {
+                // even
+                int axisi = j / 2;
+                int diff = i - axisi;
+                i = i - 2 * diff;
+            } else {
+                int axisi = (j + 1) / 2;
+                int diff = i - axisi;
+                i = i - (2 * diff + 1);
+            }
+        }
+
+        if (y < 0.0) {
+            i = i - (2 * j + 1) / 2;
+            j = -j;
+        }
+
+        normalize();
+    }
+
+    /**
+     * Returns the x component of the 2D hex coordinates of the center of this cell.
+     */
+    double hex2dX() {
+        return (i - k) - 0.5 * (j - k);
+    }
+
+    /**
+     * Returns the y component of the 2D hex coordinates of the center of this cell.
+     */
+    double hex2dY() {
+        return (j - k) * FaceIJK.M_SQRT3_2;
+    }
+
+    void set(CoordIJK other) {
+        i = other.i;
+        j = other.j;
+        k = other.k;
+    }
+
+    private void downAp(CoordIJK iVec, CoordIJK jVec, CoordIJK kVec) {
+        iVec.scale(i);
+        jVec.scale(j);
+        kVec.scale(k);
+
+        i = iVec.i + jVec.i + kVec.i;
+        j = iVec.j + jVec.j + kVec.j;
+        k = iVec.k + jVec.k + kVec.k;
+        normalize();
+    }
+
+    /**
+     * Moves to the neighboring cell in the given direction.
+     */
+    void neighbor(int digit) {
+        if (digit > H3Index.CENTER_DIGIT && digit < H3Index.NUM_DIGITS) {
+            int[] vec = UNIT_VECS[digit];
+            i += vec[0];
+            j += vec[1];
+            k += vec[2];
+            normalize();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CoordIJK{i=" + i + ", j=" + j + ", k=" + k + "}";
+    }
+}
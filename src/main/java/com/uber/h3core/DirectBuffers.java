@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Finds the alignment of direct buffers, which native code reads and writes through typed pointers.
+ *
+ * <p>{@link ByteBuffer#alignmentOffset(int, int)} was added in Java 9. On Java 8 the address of the
+ * buffer is read from the private <code>address</code> field of {@link Buffer} instead.</p>
+ */
+final class DirectBuffers {
+    private static final MethodHandle ALIGNMENT_OFFSET;
+    private static final Field ADDRESS;
+
+    static {
+        MethodHandle alignmentOffset = null;
+        Field address = null;
+        try {
+            alignmentOffset = MethodHandles.publicLookup().findVirtual(ByteBuffer.class, "alignmentOffset",
+                    MethodType.methodType(int.class, int.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            try {
+                address = Buffer.class.getDeclaredField("address");
+                address.setAccessible(true);
+            } catch (NoSuchFieldException | RuntimeException e2) {
+                address = null;
+            }
+        }
+        ALIGNMENT_OFFSET = alignmentOffset;
+        ADDRESS = address;
+    }
+
+    private DirectBuffers() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns the address of the byte at <code>index</code> of the direct buffer modulo
+     * <code>unitSize</code>, or 0 if the address cannot be found.
+     *
+     * @param unitSize A power of two, at most 8.
+     */
+    static int alignmentOffset(ByteBuffer buf, int index, int unitSize) {
+        try {
+            if (ALIGNMENT_OFFSET != null) {
+                return (int) ALIGNMENT_OFFSET.invokeExact(buf, index, unitSize);
+            }
+            if (ADDRESS != null) {
+                return (int) ((ADDRESS.getLong(buf) + index) & (unitSize - 1));
+            }
+            return 0;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
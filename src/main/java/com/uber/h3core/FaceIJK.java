@@ -0,0 +1,889 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+/**
+ * IJK coordinates on one face of the icosahedron, ported from <code>faceijk.c</code> and
+ * <code>geoCoord.c</code> in the H3 core library.
+ *
+ * <p>Coordinates on the sphere are in radians, and are written to arrays as latitude, longitude pairs.
+ */
+final class FaceIJK {
+    static final int NUM_ICOSA_FACES = 20;
+    /**
+     * Maximum input for any component of face-to-base cell lookup functions.
+     */
+    static final int MAX_FACE_COORD = 2;
+
+    static final double M_SQRT3_2 = 0.8660254037844386467637231707529361834714;
+    static final double M_SIN60 = M_SQRT3_2;
+    private static final double M_SQRT7 = 2.6457513110645905905016157536392604257102;
+    private static final double M_2PI = 6.28318530717958647692528676655900576839433;
+    /**
+     * Rotation angle between Class II and Class III resolution axes (asin(sqrt(3.0 / 28.0))).
+     */
+    private static final double M_AP7_ROT_RADS = 0.333473172251832115336090755351601070065900389;
+    /**
+     * Scaling factor from hex2d resolution 0 unit length (or distance between adjacent cell center
+     * points on the plane) to gnomonic unit length.
+     */
+    private static final double RES0_U_GNOMONIC = 0.38196601125010500003;
+    private static final double EPSILON = 0.0000000000000001;
+
+    /**
+     * An index with all digits set to 7, and all other fields zero.
+     */
+    private static final long H3_INIT = 35184372088831L;
+
+    static final int NUM_HEX_VERTS = 6;
+    static final int NUM_PENT_VERTS = 5;
+
+    // Quadrants of a face, for looking up neighboring faces.
+    static final int IJ = 1;
+    static final int KI = 2;
+    static final int JK = 3;
+
+    // Results of adjusting for overage.
+    static final int NO_OVERAGE = 0;
+    static final int FACE_EDGE = 1;
+    static final int NEW_FACE = 2;
+
+    /**
+     * Icosahedron face centers in latitude, longitude radians.
+     */
+    private static final double[][] FACE_CENTER_GEO = {
+            {0.803582649718989942, 1.248397419617396099},    // face  0
+            {1.307747883455638156, 2.536945009877921159},    // face  1
+            {1.054751253523952054, -1.347517358900396623},   // face  2
+            {0.600191595538186799, -0.450603909469755746},   // face  3
+            {0.491715428198773866, 0.401988202911306943},    // face  4
+            {0.172745327415618701, 1.678146885280433686},    // face  5
+            {0.605929321571350690, 2.953923329812411617},    // face  6
+            {0.427370518328979641, -1.888876200336285401},   // face  7
+            {-0.079066118549212831, -0.733429513380867741},  // face  8
+            {-0.230961644455383637, 0.506495587332349035},   // face  9
+            {0.079066118549212831, 2.408163140208925497},    // face 10
+            {0.230961644455383637, -2.635097066257444203},   // face 11
+            {-0.172745327415618701, -1.463445768309359553},  // face 12
+            {-0.605929321571350690, -0.187669323777381622},  // face 13
+            {-0.427370518328979641, 1.252716453253507838},   // face 14
+            {-0.600191595538186799, 2.690988744120037492},   // face 15
+            {-0.491715428198773866, -2.739604450678486295},  // face 16
+            {-0.803582649718989942, -1.893195233972397139},  // face 17
+            {-1.307747883455638156, -0.604647643711872080},  // face 18
+            {-1.054751253523952054, 1.794075294689396615},   // face 19
+    };
+
+    /**
+     * Icosahedron face centers as x, y, z points on the unit sphere.
+     */
+    private static final double[][] FACE_CENTER_POINT = new double[NUM_ICOSA_FACES][];
+
+    static {
+        for (int f = 0; f < NUM_ICOSA_FACES; f++) {
+            double lat = FACE_CENTER_GEO[f][0];
+            double lon = FACE_CENTER_GEO[f][1];
+            double r = Math.cos(lat);
+            FACE_CENTER_POINT[f] = new double[] { Math.cos(lon) * r, Math.sin(lon) * r, Math.sin(lat) };
+        }
+    }
+
+    /**
+     * Icosahedron face ijk axes as azimuth in radians from face center to vertex 0/1/2 respectively.
+     */
+    private static final double[][] FACE_AXES_AZ_RADS_CII = {
+            {5.619958268523939882, 3.525563166130744542, 1.431168063737548730},  // face  0
+            {5.760339081714187279, 3.665943979320992027, 1.571548876927796127},  // face  1
+            {0.780213654393430055, 4.969003859179821079, 2.874608756786625655},  // face  2
+            {0.430469363979999913, 4.619259568766391033, 2.524864466373195467},  // face  3
+            {6.130269123335111400, 4.035874020941915804, 1.941478918548720291},  // face  4
+            {2.692877706530642877, 0.598482604137447119, 4.787272808923838195},  // face  5
+            {2.982963003477243874, 0.888567901084048369, 5.077358105870439581},  // face  6
+            {3.532912002790141181, 1.438516900396945656, 5.627307105183336758},  // face  7
+            {3.494305004259568154, 1.399909901866372864, 5.588700106652763840},  // face  8
+            {3.003214169499538391, 0.908819067106342928, 5.097609271892733906},  // face  9
+            {5.930472956509811562, 3.836077854116615875, 1.741682751723420374},  // face 10
+            {0.138378484090254847, 4.327168688876645809, 2.232773586483450311},  // face 11
+            {0.448714947059150361, 4.637505151845541521, 2.543110049452346120},  // face 12
+            {0.158629650112549365, 4.347419854898940135, 2.253024752505744869},  // face 13
+            {5.891865957979238535, 3.797470855586042958, 1.703075753192847583},  // face 14
+            {2.711123289609793325, 0.616728187216597771, 4.805518392002988683},  // face 15
+            {3.294508837434268316, 1.200113735041072948, 5.388903939827463911},  // face 16
+            {3.804819692245439833, 1.710424589852244509, 5.899214794638635174},  // face 17
+            {3.664438879055192436, 1.570043776661997111, 5.758833981448388027},  // face 18
+            {2.361378999196363184, 0.266983896803167583, 4.455774101589558636},  // face 19
+    };
+
+    /**
+     * Neighboring faces of each face, indexed by <code>[face][quadrant]</code>, where quadrant 0
+     * is the face itself. Each entry is the neighboring face, the translation of the origin into
+     * the neighbor's coordinates in resolution 0 units, and the number of 60 degree counter-clockwise
+     * rotations into the neighbor's coordinates.
+     */
+    private static final int[][][] FACE_NEIGHBORS = {
+            {{0, 0, 0, 0, 0}, {4, 2, 0, 2, 1}, {1, 2, 2, 0, 5}, {5, 0, 2, 2, 3}},      // face  0
+            {{1, 0, 0, 0, 0}, {0, 2, 0, 2, 1}, {2, 2, 2, 0, 5}, {6, 0, 2, 2, 3}},      // face  1
+            {{2, 0, 0, 0, 0}, {1, 2, 0, 2, 1}, {3, 2, 2, 0, 5}, {7, 0, 2, 2, 3}},      // face  2
+            {{3, 0, 0, 0, 0}, {2, 2, 0, 2, 1}, {4, 2, 2, 0, 5}, {8, 0, 2, 2, 3}},      // face  3
+            {{4, 0, 0, 0, 0}, {3, 2, 0, 2, 1}, {0, 2, 2, 0, 5}, {9, 0, 2, 2, 3}},      // face  4
+            {{5, 0, 0, 0, 0}, {10, 2, 2, 0, 3}, {14, 2, 0, 2, 3}, {0, 0, 2, 2, 3}},    // face  5
+            {{6, 0, 0, 0, 0}, {11, 2, 2, 0, 3}, {10, 2, 0, 2, 3}, {1, 0, 2, 2, 3}},    // face  6
+            {{7, 0, 0, 0, 0}, {12, 2, 2, 0, 3}, {11, 2, 0, 2, 3}, {2, 0, 2, 2, 3}},    // face  7
+            {{8, 0, 0, 0, 0}, {13, 2, 2, 0, 3}, {12, 2, 0, 2, 3}, {3, 0, 2, 2, 3}},    // face  8
+            {{9, 0, 0, 0, 0}, {14, 2, 2, 0, 3}, {13, 2, 0, 2, 3}, {4, 0, 2, 2, 3}},    // face  9
+            {{10, 0, 0, 0, 0}, {5, 2, 2, 0, 3}, {6, 2, 0, 2, 3}, {15, 0, 2, 2, 3}},    // face 10
+            {{11, 0, 0, 0, 0}, {6, 2, 2, 0, 3}, {7, 2, 0, 2, 3}, {16, 0, 2, 2, 3}},    // face 11
+            {{12, 0, 0, 0, 0}, {7, 2, 2, 0, 3}, {8, 2, 0, 2, 3}, {17, 0, 2, 2, 3}},    // face 12
+            {{13, 0, 0, 0, 0}, {8, 2, 2, 0, 3}, {9, 2, 0, 2, 3}, {18, 0, 2, 2, 3}},    // face 13
+            {{14, 0, 0, 0, 0}, {9, 2, 2, 0, 3}, {5, 2, 0, 2, 3}, {19, 0, 2, 2, 3}},    // face 14
+            {{15, 0, 0, 0, 0}, {16, 2, 0, 2, 1}, {19, 2, 2, 0, 5}, {10, 0, 2, 2, 3}},  // face 15
+            {{16, 0, 0, 0, 0}, {17, 2, 0, 2, 1}, {15, 2, 2, 0, 5}, {11, 0, 2, 2, 3}},  // face 16
+            {{17, 0, 0, 0, 0}, {18, 2, 0, 2, 1}, {16, 2, 2, 0, 5}, {12, 0, 2, 2, 3}},  // face 17
+            {{18, 0, 0, 0, 0}, {19, 2, 0, 2, 1}, {17, 2, 2, 0, 5}, {13, 0, 2, 2, 3}},  // face 18
+            {{19, 0, 0, 0, 0}, {15, 2, 0, 2, 1}, {18, 2, 2, 0, 5}, {14, 0, 2, 2, 3}},  // face 19
+    };
+
+    /**
+     * Direction from the origin face to the destination face, relative to the origin face's
+     * coordinate system, or -1 if the faces are not adjacent. Indexed by <code>[origin][destination]</code>.
+     */
+    private static final int[][] ADJACENT_FACE_DIR = new int[NUM_ICOSA_FACES][NUM_ICOSA_FACES];
+
+    static {
+        for (int f = 0; f < NUM_ICOSA_FACES; f++) {
+            for (int g = 0; g < NUM_ICOSA_FACES; g++) {
+                ADJACENT_FACE_DIR[f][g] = -1;
+            }
+            for (int quadrant = 0; quadrant <= JK; quadrant++) {
+                ADJACENT_FACE_DIR[f][FACE_NEIGHBORS[f][quadrant][0]] = quadrant;
+            }
+        }
+    }
+
+    /**
+     * Overage distance table, indexed by Class II resolution. Values for Class III resolutions are not used.
+     */
+    private static final int[] MAX_DIM_BY_CII_RES = {
+            2, -1, 14, -1, 98, -1, 686, -1, 4802, -1, 33614, -1, 235298, -1, 1647086, -1, 11529602
+    };
+
+    /**
+     * Unit scale distance table, indexed by Class II resolution. Values for Class III resolutions are not used.
+     */
+    private static final int[] UNIT_SCALE_BY_CII_RES = {
+            1, -1, 7, -1, 49, -1, 343, -1, 2401, -1, 16807, -1, 117649, -1, 823543, -1, 5764801
+    };
+
+    /**
+     * Vertices of an origin-centered cell in a Class II resolution on a substrate grid with aperture
+     * sequence 33r. The aperture 3 gets us the vertices, and the 3r gets us back to Class II. Vertices
+     * are listed counter-clockwise from the i-axis. Pentagons use the first five.
+     */
+    private static final int[][] VERTS_CII = {
+            {2, 1, 0}, {1, 2, 0}, {0, 2, 1}, {0, 1, 2}, {1, 0, 2}, {2, 0, 1}
+    };
+
+    /**
+     * Vertices of an origin-centered cell in a Class III resolution on a substrate grid with aperture
+     * sequence 33r7r. The aperture 3 gets us the vertices, and the 3r7r gets us to Class II. Vertices
+     * are listed counter-clockwise from the i-axis. Pentagons use the first five.
+     */
+    private static final int[][] VERTS_CIII = {
+            {5, 4, 0}, {1, 5, 0}, {0, 5, 4}, {0, 1, 5}, {4, 0, 5}, {5, 0, 1}
+    };
+
+    int face;
+    final CoordIJK coord;
+
+    FaceIJK(int face, CoordIJK coord) {
+        this.face = face;
+        this.coord = coord;
+    }
+
+    FaceIJK copy() {
+        return new FaceIJK(face, new CoordIJK(coord.i, coord.j, coord.k));
+    }
+
+    /**
+     * Returns the face and coordinates of the cell containing the point at resolution <code>res</code>.
+     */
+    static FaceIJK fromGeo(double lat, double lon, int res) {
+        double r = Math.cos(lat);
+        double x = Math.cos(lon) * r;
+        double y = Math.sin(lon) * r;
+        double z = Math.sin(lat);
+
+        // determine the icosahedron face
+        int face = 0;
+        double sqd = pointSquareDist(FACE_CENTER_POINT[0], x, y, z);
+        for (int f = 1; f < NUM_ICOSA_FACES; f++) {
+            double sqdT = pointSquareDist(FACE_CENTER_POINT[f], x, y, z);
+            if (sqdT < sqd) {
+                face = f;
+                sqd = sqdT;
+            }
+        }
+
+        CoordIJK coord = new CoordIJK(0, 0, 0);
+        FaceIJK fijk = new FaceIJK(face, coord);
+
+        // cos(r) = 1 - 2 * sin^2(r/2) = 1 - 2 * (sqd / 4) = 1 - sqd/2
+        double dist = Math.acos(1 - sqd / 2);
+        if (dist < EPSILON) {
+            return fijk;
+        }
+
+        // now have face and r, now find CCW theta from CII i-axis
+        double theta = posAngleRads(FACE_AXES_AZ_RADS_CII[face][0]
+                - posAngleRads(geoAzimuthRads(FACE_CENTER_GEO[face][0], FACE_CENTER_GEO[face][1], lat, lon)));
+
+        // adjust theta for Class III (odd resolutions)
+        if (H3Index.isResClassIII(res)) {
+            theta = posAngleRads(theta - M_AP7_ROT_RADS);
+        }
+
+        // perform gnomonic scaling of r
+        dist = Math.tan(dist);
+
+        // scale for current resolution length u
+        dist /= RES0_U_GNOMONIC;
+        for (int i = 0; i < res; i++) {
+            dist *= M_SQRT7;
+        }
+
+        // we now have (r, theta) in hex2d with theta ccw from x-axes
+        coord.setFromHex2d(dist * Math.cos(theta), dist * Math.sin(theta));
+        return fijk;
+    }
+
+    /**
+     * Returns the face and coordinates of an index, on the face containing its center.
+     */
+    static FaceIJK fromH3(long h3) {
+        int baseCell = H3Index.getBaseCell(h3);
+        boolean isPentagonBaseCell = H3Index.isBaseCellPentagon(baseCell);
+
+        // adjust for the pentagonal missing sequence; all of sub-sequence 5 needs
+        // to be adjusted (and some of sub-sequence 4 below)
+        if (isPentagonBaseCell && H3Index.leadingNonZeroDigit(h3) == H3Index.IK_AXES_DIGIT) {
+            h3 = H3Index.h3Rotate60cw(h3);
+        }
+
+        // start with the "home" face and ijk+ coordinates for the base cell of c
+        FaceIJK fijk = BaseCells.homeFijk(baseCell);
+        if (!fijk.moveToDigits(h3, isPentagonBaseCell)) {
+            // no overage is possible; h lies on this face
+            return fijk;
+        }
+
+        // if we're here we have the potential for an "overage"; i.e., it is
+        // possible that c lies on an adjacent face
+        CoordIJK origIJK = new CoordIJK(fijk.coord.i, fijk.coord.j, fijk.coord.k);
+
+        // if we're in Class III, drop into the next finer Class II grid
+        int res = H3Index.getResolution(h3);
+        int adjRes = res;
+        if (H3Index.isResClassIII(res)) {
+            // Class III
+            fijk.coord.downAp7r();
+            adjRes++;
+        }
+
+        // adjust for overage if needed
+        // a pentagon base cell with a leading 4 digit requires special handling
+        boolean pentLeading4 = isPentagonBaseCell && H3Index.leadingNonZeroDigit(h3) == H3Index.I_AXES_DIGIT;
+        if (fijk.adjustOverageClassII(adjRes, pentLeading4, false) != NO_OVERAGE) {
+            // if the base cell is a pentagon we have the potential for secondary
+            // overages
+            if (isPentagonBaseCell) {
+                while (fijk.adjustOverageClassII(adjRes, false, false) != NO_OVERAGE) {
+                    // keep adjusting
+                }
+            }
+
+            if (adjRes != res) {
+                fijk.coord.upAp7r();
+            }
+        } else if (adjRes != res) {
+            fijk.coord.set(origIJK);
+        }
+        return fijk;
+    }
+
+    /**
+     * Returns the index of the cell at these coordinates, or 0 if the coordinates are too far
+     * from the face.
+     */
+    long toH3(int res) {
+        // initialize the index
+        long h = H3Index.setMode(H3_INIT, H3Index.H3_HEXAGON_MODE) | ((long) res << H3Index.H3_RES_OFFSET);
+
+        // check for res 0/base cell
+        if (res == 0) {
+            if (coord.i > MAX_FACE_COORD || coord.j > MAX_FACE_COORD || coord.k > MAX_FACE_COORD) {
+                // out of range input
+                return 0;
+            }
+
+            return h | ((long) BaseCells.faceIjkToBaseCell(this) << H3Index.H3_BC_OFFSET);
+        }
+
+        // we need to find the correct base cell FaceIJK for this H3 index;
+        // start with the passed in face and resolution res ijk coordinates
+        // in that face's coordinate system
+        FaceIJK fijkBC = copy();
+
+        // build the H3Index from finest res up
+        // adjust r for the fact that the res 0 base cell offsets the indexing
+        // digits
+        CoordIJK ijk = fijkBC.coord;
+        CoordIJK lastIJK = new CoordIJK(0, 0, 0);
+        CoordIJK lastCenter = new CoordIJK(0, 0, 0);
+        for (int r = res - 1; r >= 0; r--) {
+            lastIJK.set(ijk);
+            if (H3Index.isResClassIII(r + 1)) {
+                // rotate ccw
+                ijk.upAp7();
+                lastCenter.set(ijk);
+                lastCenter.downAp7();
+            } else {
+                // rotate cw
+                ijk.upAp7r();
+                lastCenter.set(ijk);
+                lastCenter.downAp7r();
+            }
+
+            lastIJK.sub(lastCenter);
+            lastIJK.normalize();
+            h = H3Index.setIndexDigit(h, r + 1, lastIJK.unitIjkToDigit());
+        }
+
+        // fijkBC should now hold the IJK of the base cell in the
+        // coordinate system of the current face
+        if (ijk.i > MAX_FACE_COORD || ijk.j > MAX_FACE_COORD || ijk.k > MAX_FACE_COORD) {
+            // out of range input
+            return 0;
+        }
+
+        // lookup the correct base cell
+        int baseCell = BaseCells.faceIjkToBaseCell(fijkBC);
+        h |= (long) baseCell << H3Index.H3_BC_OFFSET;
+
+        // rotate if necessary to get canonical base cell orientation
+        // for this base cell
+        int numRots = BaseCells.faceIjkToBaseCellCCWrot60(fijkBC);
+        if (H3Index.isBaseCellPentagon(baseCell)) {
+            // force rotation out of missing k-axes sub-sequence
+            if (H3Index.leadingNonZeroDigit(h) == H3Index.K_AXES_DIGIT) {
+                // check for a cw/ccw offset face; default is ccw
+                if (BaseCells.isCwOffset(baseCell, fijkBC.face)) {
+                    h = H3Index.h3Rotate60cw(h);
+                } else {
+                    h = H3Index.h3Rotate60ccw(h);
+                }
+            }
+
+            for (int i = 0; i < numRots; i++) {
+                h = H3Index.h3RotatePent60ccw(h);
+            }
+        } else {
+            for (int i = 0; i < numRots; i++) {
+                h = H3Index.h3Rotate60ccw(h);
+            }
+        }
+
+        return h;
+    }
+
+    /**
+     * Moves these coordinates, which start as the base cell's, down to the cell of the index.
+     *
+     * @return Whether the cell may be on a face other than the base cell's home face.
+     */
+    private boolean moveToDigits(long h3, boolean isPentagonBaseCell) {
+        int res = H3Index.getResolution(h3);
+
+        // center base cell hierarchy is entirely on this face
+        boolean possibleOverage = true;
+        if (!isPentagonBaseCell && (res == 0 || (coord.i == 0 && coord.j == 0 && coord.k == 0))) {
+            possibleOverage = false;
+        }
+
+        for (int r = 1; r <= res; r++) {
+            if (H3Index.isResClassIII(r)) {
+                // Class III == rotate ccw
+                coord.downAp7();
+            } else {
+                // Class II == rotate cw
+                coord.downAp7r();
+            }
+
+            coord.neighbor(H3Index.getIndexDigit(h3, r));
+        }
+
+        return possibleOverage;
+    }
+
+    /**
+     * Writes the center point of the cell to <code>out[offset]</code> and <code>out[offset + 1]</code>.
+     */
+    void toGeo(int res, double[] out, int offset) {
+        hex2dToGeo(coord.hex2dX(), coord.hex2dY(), face, res, false, out, offset);
+    }
+
+    /**
+     * Writes the boundary of the cell to <code>out</code>, as latitude, longitude pairs.
+     *
+     * @return The number of vertices written.
+     */
+    int toGeoBoundary(int res, boolean isPentagon, double[] out) {
+        int numVerts = isPentagon ? NUM_PENT_VERTS : NUM_HEX_VERTS;
+        boolean classIII = H3Index.isResClassIII(res);
+        int[][] verts = classIII ? VERTS_CIII : VERTS_CII;
+
+        // adjust the center point to be in an aperture 33r substrate grid
+        FaceIJK centerIJK = copy();
+        centerIJK.coord.downAp3();
+        centerIJK.coord.downAp3r();
+
+        // if res is Class III we need to add a cw aperture 7 to get to
+        // icosahedral Class II
+        int adjRes = res;
+        if (classIII) {
+            centerIJK.coord.downAp7r();
+            adjRes++;
+        }
+
+        // The center point is now in the same substrate grid as the origin
+        // cell vertices. Add the center point substate coordinates
+        // to each vertex to translate the vertices to that cell.
+        FaceIJK[] fijkVerts = new FaceIJK[numVerts];
+        for (int v = 0; v < numVerts; v++) {
+            CoordIJK vert = new CoordIJK(verts[v][0], verts[v][1], verts[v][2]);
+            vert.add(centerIJK.coord);
+            vert.normalize();
+            fijkVerts[v] = new FaceIJK(centerIJK.face, vert);
+        }
+
+        if (isPentagon) {
+            return pentToGeoBoundary(centerIJK, fijkVerts, res, adjRes, out);
+        }
+
+        // convert each vertex to lat/lon
+        // adjust the face of each vertex as appropriate and introduce
+        // edge-crossing vertices as needed
+        int count = 0;
+        int lastFace = -1;
+        int lastOverage = NO_OVERAGE;
+        for (int vert = 0; vert < numVerts + 1; vert++) {
+            int v = vert % numVerts;
+
+            FaceIJK fijk = fijkVerts[v].copy();
+            int overage = fijk.adjustOverageClassII(adjRes, false, true);
+
+            // Check for edge-crossing. Each face of the underlying icosahedron is a
+            // different projection plane. So if an edge of the hexagon crosses an
+            // icosahedron edge, an additional vertex must be introduced at that
+            // intersection point. Then each half of the cell edge can be projected
+            // to geographic coordinates using the appropriate icosahedron face
+            // projection. Note that Class II cell edges have vertices on the face
+            // edge, with no edge line intersections.
+            if (classIII && vert > 0 && fijk.face != lastFace && lastOverage != FACE_EDGE) {
+                // find hex2d of the two vertexes on original face
+                int lastV = (v + 5) % numVerts;
+                CoordIJK orig0 = fijkVerts[lastV].coord;
+                CoordIJK orig1 = fijkVerts[v].coord;
+
+                int face2 = lastFace == centerIJK.face ? fijk.face : lastFace;
+                count = addEdgeIntersection(orig0.hex2dX(), orig0.hex2dY(), orig1.hex2dX(), orig1.hex2dY(),
+                        centerIJK.face, ADJACENT_FACE_DIR[centerIJK.face][face2], adjRes, out, count);
+            }
+
+            // convert vertex to lat/lon and add to the result
+            // vert == numVerts is only used to test for possible intersection
+            // on last edge
+            if (vert < numVerts) {
+                hex2dToGeo(fijk.coord.hex2dX(), fijk.coord.hex2dY(), fijk.face, adjRes, true, out, count * 2);
+                count++;
+            }
+
+            lastFace = fijk.face;
+            lastOverage = overage;
+        }
+
+        return count;
+    }
+
+    private static int pentToGeoBoundary(FaceIJK centerIJK, FaceIJK[] fijkVerts, int res, int adjRes,
+                                         double[] out) {
+        int count = 0;
+        FaceIJK lastFijk = null;
+        for (int vert = 0; vert < NUM_PENT_VERTS + 1; vert++) {
+            int v = vert % NUM_PENT_VERTS;
+
+            // all Class III pentagon edges cross icosa edges
+            // note that Class II pentagons have vertices on the edge,
+            // not edge intersections
+            FaceIJK fijk = fijkVerts[v].copy();
+            fijk.adjustPentVertOverage(adjRes);
+
+            if (H3Index.isResClassIII(res) && vert > 0) {
+                // find hex2d of the two vertexes on the last face
+                FaceIJK tmpFijk = fijk.copy();
+
+                double x0 = lastFijk.coord.hex2dX();
+                double y0 = lastFijk.coord.hex2dY();
+
+                int currentToLastDir = ADJACENT_FACE_DIR[tmpFijk.face][lastFijk.face];
+                int[] fijkOrient = FACE_NEIGHBORS[tmpFijk.face][currentToLastDir];
+
+                tmpFijk.face = fijkOrient[0];
+                CoordIJK ijk = tmpFijk.coord;
+
+                // rotate and translate for adjacent face
+                for (int i = 0; i < fijkOrient[4]; i++) {
+                    ijk.rotate60ccw();
+                }
+
+                CoordIJK transVec = new CoordIJK(fijkOrient[1], fijkOrient[2], fijkOrient[3]);
+                transVec.scale(UNIT_SCALE_BY_CII_RES[adjRes] * 3);
+                ijk.add(transVec);
+                ijk.normalize();
+
+                count = addEdgeIntersection(x0, y0, ijk.hex2dX(), ijk.hex2dY(), tmpFijk.face,
+                        ADJACENT_FACE_DIR[tmpFijk.face][fijk.face], adjRes, out, count);
+            }
+
+            // convert vertex to lat/lon and add to the result
+            if (vert < NUM_PENT_VERTS) {
+                hex2dToGeo(fijk.coord.hex2dX(), fijk.coord.hex2dY(), fijk.face, adjRes, true, out, count * 2);
+                count++;
+            }
+
+            lastFijk = fijk;
+        }
+
+        return count;
+    }
+
+    /**
+     * Adds the point where the segment from <code>(x0, y0)</code> to <code>(x1, y1)</code> crosses
+     * the edge of the face in direction <code>dir</code>.
+     *
+     * @return The new number of vertices in <code>out</code>.
+     */
+    private static int addEdgeIntersection(double x0, double y0, double x1, double y1, int face, int dir,
+                                           int adjRes, double[] out, int count) {
+        // find the appropriate icosa face edge vertexes
+        int maxDim = MAX_DIM_BY_CII_RES[adjRes];
+        double v0x = 3.0 * maxDim;
+        double v0y = 0.0;
+        double v1x = -1.5 * maxDim;
+        double v1y = 3.0 * M_SQRT3_2 * maxDim;
+        double v2x = -1.5 * maxDim;
+        double v2y = -3.0 * M_SQRT3_2 * maxDim;
+
+        double e0x;
+        double e0y;
+        double e1x;
+        double e1y;
+        switch (dir) {
+            case IJ:
+                e0x = v0x;
+                e0y = v0y;
+                e1x = v1x;
+                e1y = v1y;
+                break;
+            case JK:
+                e0x = v1x;
+                e0y = v1y;
+                e1x = v2x;
+                e1y = v2y;
+                break;
+            case KI:
+            default:
+                e0x = v2x;
+                e0y = v2y;
+                e1x = v0x;
+                e1y = v0y;
+                break;
+        }
+
+        // find the intersection and add the lat/lon point to the result
+        double s1x = x1 - x0;
+        double s1y = y1 - y0;
+        double s2x = e1x - e0x;
+        double s2y = e1y - e0y;
+        // The core library computes this in single precision, so this does too.
+        float t = (float) ((s2x * (y0 - e0y) - s2y * (x0 - e0x)) / (-s2x * s1y + s1x * s2y));
+        hex2dToGeo(x0 + (t * s1x), y0 + (t * s1y), face, adjRes, true, out, count * 2);
+        return count + 1;
+    }
+
+    /**
+     * Adjusts these coordinates if they are on another face, for a Class II resolution.
+     *
+     * @param res The Class II resolution, or the resolution of the substrate grid.
+     * @param pentLeading4 Whether the cell is a pentagon with a leading digit 4.
+     * @param substrate Whether the coordinates are in a substrate grid.
+     * @return {@link #NO_OVERAGE}, {@link #FACE_EDGE} or {@link #NEW_FACE}.
+     */
+    int adjustOverageClassII(int res, boolean pentLeading4, boolean substrate) {
+        int overage = NO_OVERAGE;
+        CoordIJK ijk = coord;
+
+        // get the maximum dimension value; scale if a substrate grid
+        int maxDim = MAX_DIM_BY_CII_RES[res];
+        if (substrate) {
+            maxDim *= 3;
+        }
+
+        // check for overage
+        if (substrate && ijk.i + ijk.j + ijk.k == maxDim) {
+            // on edge
+            overage = FACE_EDGE;
+        } else if (ijk.i + ijk.j + ijk.k > maxDim) {
+            // overage
+            overage = NEW_FACE;
+
+            int[] fijkOrient;
+            if (ijk.k > 0) {
+                if (ijk.j > 0) {
+                    // jk "quadrant"
+                    fijkOrient = FACE_NEIGHBORS[face][JK];
+                } else {
+                    // ik "quadrant"
+                    fijkOrient = FACE_NEIGHBORS[face][KI];
+
+                    // adjust for the pentagonal missing sequence
+                    if (pentLeading4) {
+                        // translate origin to center of pentagon
+                        CoordIJK origin = new CoordIJK(maxDim, 0, 0);
+                        ijk.sub(origin);
+                        // rotate to adjust for the missing sequence
+                        ijk.rotate60cw();
+                        // translate the origin back to the center of the triangle
+                        ijk.add(origin);
+                    }
+                }
+            } else {
+                // ij "quadrant"
+                fijkOrient = FACE_NEIGHBORS[face][IJ];
+            }
+
+            face = fijkOrient[0];
+
+            // rotate and translate for adjacent face
+            for (int i = 0; i < fijkOrient[4]; i++) {
+                ijk.rotate60ccw();
+            }
+
+            CoordIJK transVec = new CoordIJK(fijkOrient[1], fijkOrient[2], fijkOrient[3]);
+            int unitScale = UNIT_SCALE_BY_CII_RES[res];
+            if (substrate) {
+                unitScale *= 3;
+            }
+            transVec.scale(unitScale);
+            ijk.add(transVec);
+            ijk.normalize();
+
+            // overage points on pentagon boundaries can end up on edges
+            if (substrate && ijk.i + ijk.j + ijk.k == maxDim) {
+                // on edge
+                overage = FACE_EDGE;
+            }
+        }
+
+        return overage;
+    }
+
+    /**
+     * Adjusts a pentagon vertex, in a substrate grid, until it is on the correct face.
+     */
+    private void adjustPentVertOverage(int res) {
+        int overage;
+        do {
+            overage = adjustOverageClassII(res, false, true);
+        } while (overage == NEW_FACE);
+    }
+
+    /**
+     * Converts 2D hex coordinates on a face to latitude and longitude, written to <code>out[offset]</code>
+     * and <code>out[offset + 1]</code>.
+     */
+    private static void hex2dToGeo(double x, double y, int face, int res, boolean substrate, double[] out,
+                                   int offset) {
+        // calculate (r, theta) in hex2d
+        double r = Math.sqrt(x * x + y * y);
+
+        if (r < EPSILON) {
+            out[offset] = FACE_CENTER_GEO[face][0];
+            out[offset + 1] = FACE_CENTER_GEO[face][1];
+            return;
+        }
+
+        double theta = Math.atan2(y, x);
+
+        // scale for current resolution length u
+        for (int i = 0; i < res; i++) {
+            r /= M_SQRT7;
+        }
+
+        // scale accordingly if this is a substrate grid
+        if (substrate) {
+            r /= 3.0;
+            if (H3Index.isResClassIII(res)) {
+                r /= M_SQRT7;
+            }
+        }
+
+        r *= RES0_U_GNOMONIC;
+
+        // perform inverse gnomonic scaling of r
+        r = Math.atan(r);
+
+        // adjust theta for Class III
+        // if a substrate grid, then it's already been adjusted for Class III
+        if (!substrate && H3Index.isResClassIII(res)) {
+            theta = posAngleRads(theta + M_AP7_ROT_RADS);
+        }
+
+        // find theta as an azimuth
+        theta = posAngleRads(FACE_AXES_AZ_RADS_CII[face][0] - theta);
+
+        // now find the point at (r,theta) from the face center
+        geoAzDistanceRads(FACE_CENTER_GEO[face][0], FACE_CENTER_GEO[face][1], theta, r, out, offset);
+    }
+
+    private static double pointSquareDist(double[] v1, double x, double y, double z) {
+        double dx = v1[0] - x;
+        double dy = v1[1] - y;
+        double dz = v1[2] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Normalizes radians to a value between 0.0 and two PI.
+     */
+    private static double posAngleRads(double rads) {
+        double tmp = rads < 0.0 ? rads + M_2PI : rads;
+        if (rads >= M_2PI) {
+            tmp -= M_2PI;
+        }
+        return tmp;
+    }
+
+    /**
+     * Makes sure longitudes are in the proper bounds.
+     */
+    private static double constrainLng(double lng) {
+        while (lng > Math.PI) {
+            lng = lng - (2 * Math.PI);
+        }
+        while (lng < -Math.PI) {
+            lng = lng + (2 * Math.PI);
+        }
+        return lng;
+    }
+
+    /**
+     * Returns the azimuth from <code>p1</code> to <code>p2</code> in radians.
+     */
+    private static double geoAzimuthRads(double lat1, double lon1, double lat2, double lon2) {
+        return Math.atan2(Math.cos(lat2) * Math.sin(lon2 - lon1),
+                Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(lon2 - lon1));
+    }
+
+    /**
+     * Computes the point on the sphere a specified azimuth and distance from another point,
+     * written to <code>out[offset]</code> and <code>out[offset + 1]</code>.
+     */
+    private static void geoAzDistanceRads(double lat1, double lon1, double az, double distance, double[] out,
+                                          int offset) {
+        if (distance < EPSILON) {
+            out[offset] = lat1;
+            out[offset + 1] = lon1;
+            return;
+        }
+
+        double lat2;
+        double lon2;
+
+        az = posAngleRads(az);
+
+        // check for due north/south azimuth
+        if (az < EPSILON || Math.abs(az - Math.PI) < EPSILON) {
+            if (az < EPSILON) {
+                // due north
+                lat2 = lat1 + distance;
+            } else {
+                // due south
+                lat2 = lat1 - distance;
+            }
+
+            if (Math.abs(lat2 - Math.PI / 2) < EPSILON) {
+                // north pole
+                lat2 = Math.PI / 2;
+                lon2 = 0.0;
+            } else if (Math.abs(lat2 + Math.PI / 2) < EPSILON) {
+                // south pole
+                lat2 = -Math.PI / 2;
+                lon2 = 0.0;
+            } else {
+                lon2 = constrainLng(lon1);
+            }
+        } else {
+            // not due north or south
+            double sinlat = Math.sin(lat1) * Math.cos(distance) + Math.cos(lat1) * Math.sin(distance) * Math.cos(az);
+            if (sinlat > 1.0) {
+                sinlat = 1.0;
+            }
+            if (sinlat < -1.0) {
+                sinlat = -1.0;
+            }
+            lat2 = Math.asin(sinlat);
+
+            if (Math.abs(lat2 - Math.PI / 2) < EPSILON) {
+                // north pole
+                lat2 = Math.PI / 2;
+                lon2 = 0.0;
+            } else if (Math.abs(lat2 + Math.PI / 2) < EPSILON) {
+                // south pole
+                lat2 = -Math.PI / 2;
+                lon2 = 0.0;
+            } else {
+                double sinlon = Math.sin(az) * Math.sin(distance) / Math.cos(lat2);
+                double coslon = (Math.cos(distance) - Math.sin(lat1) * Math.sin(lat2)) / Math.cos(lat1) / Math.cos(lat2);
+                if (sinlon > 1.0) {
+                    sinlon = 1.0;
+                }
+                if (sinlon < -1.0) {
+                    sinlon = -1.0;
+                }
+                if (coslon > 1.0) {
+                    coslon = 1.0;
+                }
+                if (coslon < -1.0) {
+                    coslon = -1.0;
+                }
+                lon2 = constrainLng(lon1 + Math.atan2(sinlon, coslon));
+            }
+        }
+
+        out[offset] = lat2;
+        out[offset + 1] = lon2;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.uber.h3core.util.Vector2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import static java.lang.Math.toRadians;
+
+/**
+ * Immutable index of many geofences, each with an integer zone id, finding the zones containing a
+ * point.
+ *
+ * <p>Each geofence is split into the compacted set of indexes wholly inside it, and the indexes at the
+ * resolution of the index which its edges may cross. A point is looked up by its index at that
+ * resolution and the ancestors of it. A point in an index wholly inside a geofence needs no further
+ * test. Only a point in a border index is tested against the geofence's edges, which are kept in
+ * radians as for polyfill.</p>
+ *
+ * <p>Containment matches <code>polyfill</code>: a point is in a zone if it is inside the outline of
+ * the geofence and not inside any of its holes.</p>
+ *
+ * <p>This class is thread safe, and lookups do not lock. Create instances with
+ * {@link H3Core#newGeofenceIndexBuilder(int)}.</p>
+ */
+public final class GeofenceIndex {
+    private final H3Backend backend;
+    private final int res;
+
+    /**
+     * Zones of each index, as positions in {@link #zoneIds}. Positions of zones for which the index
+     * is a border index are stored complemented (<code>~position</code>).
+     */
+    private final H3LongObjectMap<int[]> zonesByIndex;
+    /**
+     * Bit <code>r</code> is set if any index in {@link #zonesByIndex} has resolution <code>r</code>.
+     */
+    private final int resolutions;
+    private final int[] zoneIds;
+    private final Polyfill[] geofences;
+
+    private GeofenceIndex(H3Backend backend, int res, H3LongObjectMap<int[]> zonesByIndex, int resolutions,
+                          int[] zoneIds, Polyfill[] geofences) {
+        this.backend = backend;
+        this.res = res;
+        this.zonesByIndex = zonesByIndex;
+        this.resolutions = resolutions;
+        this.zoneIds = zoneIds;
+        this.geofences = geofences;
+    }
+
+    /**
+     * Returns the id of a zone containing the point, or -1 if no zone contains it. If several zones
+     * contain the point, which one is returned is not specified.
+     *
+     * @param lat Latitude in degrees.
+     * @param lng Longitude in degrees.
+     * @throws IllegalArgumentException Latitude or longitude is invalid.
+     */
+    public int lookup(double lat, double lng) {
+        int[] out = new int[1];
+        return lookup(lat, lng, out) > 0 ? out[0] : -1;
+    }
+
+    /**
+     * Finds the ids of the zones containing the point.
+     *
+     * @param lat Latitude in degrees.
+     * @param lng Longitude in degrees.
+     * @param out Output for the zone ids. If more zones contain the point than fit, the rest are not
+     *            written.
+     * @return The number of zone ids written to <code>out</code>.
+     * @throws IllegalArgumentException Latitude or longitude is invalid.
+     */
+    public int lookup(double lat, double lng, int[] out) {
+        long cell = backend.geoToH3(toRadians(lat), toRadians(lng), res);
+        if (cell == 0) {
+            throw new IllegalArgumentException("Latitude or longitude were invalid.");
+        }
+        // Packed as for the geofences
+        double latRad = toRadians(H3Core.constrainLat(lat));
+        double lngRad = toRadians(H3Core.constrainLng(lng));
+
+        int found = 0;
+        for (int r = res; r >= 0 && found < out.length; r--) {
+            if ((resolutions & (1 << r)) == 0) {
+                continue;
+            }
+            int[] zones = zonesByIndex.get(H3Index.getParent(cell, r));
+            if (zones == null) {
+                continue;
+            }
+            for (int i = 0; i < zones.length && found < out.length; i++) {
+                int zone = zones[i];
+                if (zone >= 0) {
+                    out[found++] = zoneIds[zone];
+                } else if (geofences[~zone].contains(latRad, lngRad)) {
+                    out[found++] = zoneIds[~zone];
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the resolution at which points are looked up.
+     */
+    public int getResolution() {
+        return res;
+    }
+
+    /**
+     * Returns the number of zones.
+     */
+    public int numZones() {
+        return zoneIds.length;
+    }
+
+    /**
+     * Returns the number of indexes looked up, wholly inside or on the border of a zone.
+     */
+    public int numIndexes() {
+        return zonesByIndex.size();
+    }
+
+    /**
+     * Collects geofences to build a {@link GeofenceIndex}. This class is not thread safe.
+     */
+    public static final class Builder {
+        private final H3Backend backend;
+        private final int res;
+        private final List<H3Core.PackedGeofence> geofences = new ArrayList<>();
+        private int[] zoneIds = new int[16];
+
+        Builder(H3Backend backend, int res) {
+            this.backend = backend;
+            this.res = res;
+        }
+
+        /**
+         * Adds a zone. A zone id may be added more than once, for zones made of several polygons.
+         *
+         * @param zoneId Id of the zone, which must not be negative.
+         * @param points Outline geofence
+         * @param holes Geofences of any internal holes
+         * @param geoJsonOrder If true, accepts coordinates in (lon, lat) order as in GeoJSON.
+         * @return This builder.
+         * @throws IllegalArgumentException <code>zoneId</code> is negative.
+         */
+        public Builder add(int zoneId, List<Vector2D> points, List<List<Vector2D>> holes, boolean geoJsonOrder) {
+            if (zoneId < 0) {
+                throw new IllegalArgumentException(String.format("zoneId (%d) must not be negative", zoneId));
+            }
+            if (geofences.size() == zoneIds.length) {
+                zoneIds = Arrays.copyOf(zoneIds, zoneIds.length * 2);
+            }
+            zoneIds[geofences.size()] = zoneId;
+            geofences.add(new H3Core.PackedGeofence(points, holes, geoJsonOrder));
+            return this;
+        }
+
+        /**
+         * Builds the index, splitting the geofences into indexes concurrently in <code>pool</code>.
+         */
+        public GeofenceIndex build(ForkJoinPool pool) {
+            int numZones = geofences.size();
+            SplitTask[] tasks = new SplitTask[numZones];
+            for (int i = 0; i < numZones; i++) {
+                tasks[i] = new SplitTask(geofences.get(i), res);
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+
+            // Merged in order, so that the zones of each index are in the order they were added
+            H3LongObjectMap<int[]> zonesByIndex = new H3LongObjectMap<>();
+            Polyfill[] polyfills = new Polyfill[numZones];
+            int resolutions = 0;
+            for (int zone = 0; zone < numZones; zone++) {
+                SplitTask task = tasks[zone];
+                polyfills[zone] = task.polyfill;
+                resolutions |= addZone(zonesByIndex, task.inside.toArray(), zone);
+                resolutions |= addZone(zonesByIndex, task.border.toArray(), ~zone);
+            }
+            return new GeofenceIndex(backend, res, zonesByIndex, resolutions,
+                    Arrays.copyOf(zoneIds, numZones), polyfills);
+        }
+
+        /**
+         * Adds the zone to each of the indexes.
+         *
+         * @return Bits set for the resolutions of the indexes.
+         */
+        private static int addZone(H3LongObjectMap<int[]> zonesByIndex, long[] indexes, int zone) {
+            int resolutions = 0;
+            for (long h : indexes) {
+                int[] zones = zonesByIndex.get(h);
+                if (zones == null) {
+                    zones = new int[] { zone };
+                } else {
+                    zones = Arrays.copyOf(zones, zones.length + 1);
+                    zones[zones.length - 1] = zone;
+                }
+                zonesByIndex.put(h, zones);
+                resolutions |= 1 << H3Index.getResolution(h);
+            }
+            return resolutions;
+        }
+    }
+
+    /**
+     * Splits one geofence into indexes inside it and on its border.
+     */
+    private static final class SplitTask extends RecursiveAction {
+        private final H3Core.PackedGeofence geofence;
+        private final int res;
+        Polyfill polyfill;
+        final Polyfill.LongArrayBuilder inside = new Polyfill.LongArrayBuilder();
+        final Polyfill.LongArrayBuilder border = new Polyfill.LongArrayBuilder();
+
+        SplitTask(H3Core.PackedGeofence geofence, int res) {
+            this.geofence = geofence;
+            this.res = res;
+        }
+
+        @Override
+        protected void compute() {
+            polyfill = new Polyfill(geofence.verts, geofence.holeSizes, geofence.holeVerts, res);
+            polyfill.fillInsideAndBorder(inside, border);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Converts between H3 indexes and their hexadecimal string representation (addresses), without
+ * allocating a <code>String</code> per index.
+ *
+ * <p>Addresses are parsed from any <code>CharSequence</code>, or from ASCII bytes in arrays and
+ * buffers, and are formatted into caller supplied arrays. Addresses are parsed the same as by
+ * {@link Long#parseUnsignedLong(String, int)} with radix 16. Addresses of 1 to 16 ASCII hexadecimal
+ * digits, in either case, are parsed directly, and anything else, such as a leading <code>+</code>
+ * or leading zeros making it longer than 16 digits, is passed to <code>parseUnsignedLong</code>.
+ * Formatted addresses use lower case and have no leading zeros, the same as
+ * {@link Long#toHexString(long)}.</p>
+ */
+public final class H3AddressCodec {
+    /**
+     * Maximum length of an address.
+     */
+    public static final int MAX_LENGTH = 16;
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+    private static final byte[] DIGIT_BYTES = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Value of each ASCII character as a hexadecimal digit, or -1 if it is not one.
+     */
+    private static final byte[] DIGIT_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(DIGIT_VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            DIGIT_VALUES[DIGITS[i]] = (byte) i;
+            DIGIT_VALUES[Character.toUpperCase(DIGITS[i])] = (byte) i;
+        }
+    }
+
+    private H3AddressCodec() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Parses an address.
+     *
+     * @throws NumberFormatException <code>address</code> is not a valid address.
+     */
+    public static long parse(CharSequence address) {
+        return parse(address, 0, address.length());
+    }
+
+    /**
+     * Parses the address in <code>address</code> from <code>start</code> (inclusive) to <code>end</code>
+     * (exclusive).
+     *
+     * @throws NumberFormatException The characters are not a valid address.
+     */
+    public static long parse(CharSequence address, int start, int end) {
+        if (end - start < 1 || end - start > MAX_LENGTH) {
+            return parseUnsigned(address.subSequence(start, end));
+        }
+
+        long value = 0;
+        // Negative if any character is not a digit, so that there is only one check per address.
+        int invalid = 0;
+        for (int i = start; i < end; i++) {
+            int digit = digitValue(address.charAt(i));
+            invalid |= digit;
+            value = (value << 4) | (digit & 0xf);
+        }
+
+        if (invalid < 0) {
+            return parseUnsigned(address.subSequence(start, end));
+        }
+        return value;
+    }
+
+    /**
+     * Parses the ASCII address in <code>length</code> bytes of <code>bytes</code>, starting at
+     * <code>offset</code>.
+     *
+     * @throws NumberFormatException The bytes are not a valid address.
+     */
+    public static long parse(byte[] bytes, int offset, int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            return parseUnsigned(new String(bytes, offset, length, StandardCharsets.US_ASCII));
+        }
+
+        long value = 0;
+        int invalid = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = digitValue(bytes[i]);
+            invalid |= digit;
+            value = (value << 4) | (digit & 0xf);
+        }
+
+        if (invalid < 0) {
+            return parseUnsigned(new String(bytes, offset, length, StandardCharsets.US_ASCII));
+        }
+        return value;
+    }
+
+    /**
+     * Parses the ASCII address in the remaining bytes of <code>buffer</code>. The position of the
+     * buffer is not changed.
+     *
+     * @throws NumberFormatException The bytes are not a valid address.
+     */
+    public static long parse(ByteBuffer buffer) {
+        return parse(buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Parses the ASCII address in <code>length</code> bytes of <code>buffer</code>, starting at the
+     * absolute index <code>index</code>. The position of the buffer is not changed.
+     *
+     * @throws NumberFormatException The bytes are not a valid address.
+     */
+    public static long parse(ByteBuffer buffer, int index, int length) {
+        if (buffer.hasArray()) {
+            return parse(buffer.array(), buffer.arrayOffset() + index, length);
+        }
+        if (length < 1 || length > MAX_LENGTH) {
+            return parseUnsigned(decode(buffer, index, length));
+        }
+
+        long value = 0;
+        int invalid = 0;
+        for (int i = index; i < index + length; i++) {
+            int digit = digitValue(buffer.get(i));
+            invalid |= digit;
+            value = (value << 4) | (digit & 0xf);
+        }
+
+        if (invalid < 0) {
+            return parseUnsigned(decode(buffer, index, length));
+        }
+        return value;
+    }
+
+    /**
+     * Parses each address of <code>addresses</code> into the same element of <code>out</code>.
+     *
+     * @throws NumberFormatException An element of <code>addresses</code> is not a valid address.
+     * @throws IllegalArgumentException <code>out</code> is too small.
+     */
+    public static void parse(CharSequence[] addresses, long[] out) {
+        checkOutputSize(out.length, addresses.length);
+        for (int i = 0; i < addresses.length; i++) {
+            out[i] = parse(addresses[i]);
+        }
+    }
+
+    /**
+     * Parses the ASCII addresses in <code>bytes</code>, which start at each element of
+     * <code>offsets</code> and have the length of the same element of <code>lengths</code>, into
+     * the same element of <code>out</code>. This suits fields already located by a delimited text
+     * parser.
+     *
+     * @throws NumberFormatException One of the addresses is not valid.
+     * @throws IllegalArgumentException The arrays are not the same length, or <code>out</code> is
+     *                                  too small.
+     */
+    public static void parse(byte[] bytes, int[] offsets, int[] lengths, long[] out) {
+        if (offsets.length != lengths.length) {
+            throw new IllegalArgumentException(String.format("offsets (%d) and lengths (%d) must be the same length",
+                    offsets.length, lengths.length));
+        }
+        checkOutputSize(out.length, offsets.length);
+        for (int i = 0; i < offsets.length; i++) {
+            out[i] = parse(bytes, offsets[i], lengths[i]);
+        }
+    }
+
+    /**
+     * Returns the number of characters in the address of <code>h3</code>.
+     */
+    public static int length(long h3) {
+        // One digit for every four bits, rounded up, and at least one digit for 0.
+        return Math.max(1, (Long.SIZE + 3 - Long.numberOfLeadingZeros(h3)) >> 2);
+    }
+
+    /**
+     * Returns the address of <code>h3</code>.
+     */
+    public static String format(long h3) {
+        char[] chars = new char[MAX_LENGTH];
+        int length = format(h3, chars, 0);
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Writes the address of <code>h3</code> to <code>dest</code>, starting at <code>offset</code>.
+     *
+     * @return The number of characters written, which is {@link #length(long)}.
+     * @throws IndexOutOfBoundsException <code>dest</code> does not have room for the address.
+     */
+    public static int format(long h3, char[] dest, int offset) {
+        int length = length(h3);
+        checkRoom(dest.length, offset, length);
+        for (int i = offset + length - 1; i >= offset; i--) {
+            dest[i] = DIGITS[(int) h3 & 0xf];
+            h3 >>>= 4;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the address of <code>h3</code> as ASCII to <code>dest</code>, starting at <code>offset</code>.
+     *
+     * @return The number of bytes written, which is {@link #length(long)}.
+     * @throws IndexOutOfBoundsException <code>dest</code> does not have room for the address.
+     */
+    public static int format(long h3, byte[] dest, int offset) {
+        int length = length(h3);
+        checkRoom(dest.length, offset, length);
+        for (int i = offset + length - 1; i >= offset; i--) {
+            dest[i] = DIGIT_BYTES[(int) h3 & 0xf];
+            h3 >>>= 4;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the address of each element of <code>h3</code> to the same element of <code>out</code>.
+     *
+     * @throws IllegalArgumentException <code>out</code> is too small.
+     */
+    public static void format(long[] h3, String[] out) {
+        checkOutputSize(out.length, h3.length);
+        char[] chars = new char[MAX_LENGTH];
+        for (int i = 0; i < h3.length; i++) {
+            out[i] = new String(chars, 0, format(h3[i], chars, 0));
+        }
+    }
+
+    /**
+     * Writes the ASCII addresses of <code>h3</code> to <code>dest</code>, starting at <code>offset</code>,
+     * each followed by <code>separator</code>.
+     *
+     * @return The number of bytes written.
+     * @throws IndexOutOfBoundsException <code>dest</code> does not have room for the addresses.
+     */
+    public static int format(long[] h3, byte separator, byte[] dest, int offset) {
+        int pos = offset;
+        for (long h : h3) {
+            pos += format(h, dest, pos);
+            checkRoom(dest.length, pos, 1);
+            dest[pos++] = separator;
+        }
+        return pos - offset;
+    }
+
+    /**
+     * Returns the value of the character as a hexadecimal digit, or a negative number if it is not one.
+     */
+    private static int digitValue(int c) {
+        // Characters outside of ASCII, including negative bytes, are mapped to -1 without a branch.
+        return DIGIT_VALUES[c & 0x7f] | (((0x7f - c) | c) >> 31);
+    }
+
+    private static void checkRoom(int size, int offset, int length) {
+        if (offset < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException(String.format("%d characters do not fit at %d of %d",
+                    length, offset, size));
+        }
+    }
+
+    private static void checkOutputSize(int size, int required) {
+        if (size < required) {
+            throw new IllegalArgumentException(String.format("output (%d) is too small, must be at least %d", size, required));
+        }
+    }
+
+    /**
+     * Parses an address which is not 1 to 16 ASCII hexadecimal digits, as
+     * {@link Long#parseUnsignedLong(String, int)} does.
+     *
+     * @throws NumberFormatException <code>address</code> is not a valid address.
+     */
+    private static long parseUnsigned(CharSequence address) {
+        return Long.parseUnsignedLong(address.toString(), 16);
+    }
+
+    private static String decode(ByteBuffer buffer, int index, int length) {
+        byte[] bytes = new byte[Math.max(0, length)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(index + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
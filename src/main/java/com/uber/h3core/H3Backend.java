@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.uber.h3core.util.Vector2D;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of the core H3 functions used by {@link H3Core}. Implemented by the native library
+ * in {@link NativeMethods}, and in Java by {@link JavaMethods}.
+ *
+ * <p>Coordinates are in radians, as latitude, longitude pairs, except where a function says it
+ * uses degrees. Degrees written by these functions are constrained as by
+ * {@link H3Core#constrainLat(double)} and {@link H3Core#constrainLng(double)}. Functions writing
+ * to arrays or buffers stop at the end of the smallest one, so callers check sizes first.</p>
+ */
+interface H3Backend {
+    /**
+     * @return The index, or 0 if the coordinates are invalid.
+     */
+    long geoToH3(double lat, double lon, int res);
+
+    void h3ToGeo(long h3, double[] verts);
+
+    /**
+     * @return The number of vertices written to <code>verts</code>.
+     */
+    int h3ToGeoBoundary(long h3, double[] verts);
+
+    /**
+     * Indexes each pair of coordinates, in degrees, writing 0 for invalid coordinates.
+     *
+     * @return The number of invalid coordinates.
+     */
+    int geoToH3Bulk(double[] lats, double[] lons, int res, long[] results);
+
+    void h3ToGeoBulk(long[] h3, double[] verts);
+
+    /**
+     * Writes the boundaries of the indexes one after another, and the offset of the first vertex of
+     * each in <code>offsets</code>, followed by the total number of vertices. Stops at the first
+     * boundary that does not fit.
+     *
+     * @return The number of boundaries written.
+     */
+    int h3ToGeoBoundaryBulk(long[] h3, double[] verts, int[] offsets);
+
+    /**
+     * As {@link #h3ToGeoBulk(long[], double[])}, in degrees.
+     */
+    void h3ToGeoBulkDegrees(long[] h3, float[] verts);
+
+    /**
+     * As {@link #h3ToGeoBoundaryBulk(long[], double[], int[])}, in degrees.
+     */
+    int h3ToGeoBoundaryBulkDegrees(long[] h3, float[] verts, int[] offsets);
+
+    /**
+     * As {@link #geoToH3Bulk(double[], double[], int, long[])}, for <code>count</code> elements of
+     * buffers which are direct, in native byte order, and start at the element to read or write.
+     */
+    int geoToH3Buffer(ByteBuffer lats, ByteBuffer lons, int count, int res, ByteBuffer results);
+
+    /**
+     * As {@link #h3ToGeoBulk(long[], double[])}, in degrees, for <code>count</code> elements of
+     * buffers as for {@link #geoToH3Buffer}.
+     */
+    void h3ToGeoBuffer(ByteBuffer h3, int count, ByteBuffer verts);
+
+    /**
+     * As {@link #h3ToGeoBoundaryBulk(long[], double[], int[])}, in degrees, for <code>count</code>
+     * elements of buffers as for {@link #geoToH3Buffer}.
+     *
+     * @param vertsCapacity Number of <code>double</code>s which fit in <code>verts</code>.
+     */
+    int h3ToGeoBoundaryBuffer(ByteBuffer h3, int count, ByteBuffer verts, int vertsCapacity, ByteBuffer offsets);
+
+    int maxKringSize(int k);
+
+    /**
+     * Writes the indexes within <code>k</code> rings of the origin to <code>results</code>, which must have
+     * {@link #maxKringSize(int)} elements. Unused elements are left as 0.
+     */
+    void kRing(long h3, int k, long[] results);
+
+    /**
+     * As {@link #kRing(long, int, long[])}, also writing the distance of each index from the origin
+     * to <code>distances</code>.
+     */
+    void kRingDistances(long h3, int k, long[] results, int[] distances);
+
+    /**
+     * Writes the indexes within <code>k</code> rings of the origin, in order of increasing distance.
+     *
+     * @return 0 on success, or nonzero if a pentagon was encountered.
+     */
+    int hexRange(long h3, int k, long[] results);
+
+    /**
+     * Writes the indexes exactly <code>k</code> rings from the origin, in order.
+     *
+     * @return 0 on success, or nonzero if a pentagon was encountered.
+     */
+    int hexRing(long h3, int k, long[] results);
+
+    /**
+     * Returns an upper bound on the number of indexes within the geofence.
+     */
+    int maxPolyfillSize(double[] verts, int[] holeSizes, double[] holeVerts, int res);
+
+    /**
+     * Returns the indexes within the geofence, packed as by {@link H3Core.PackedGeofence}.
+     */
+    H3IndexList polyfillIndexList(double[] verts, int[] holeSizes, double[] holeVerts, int res);
+
+    /**
+     * Writes the indexes within the geofence to <code>results</code>, which is as for
+     * {@link #geoToH3Buffer}.
+     *
+     * @param capacity Number of indexes which fit in <code>results</code>.
+     * @return The number of indexes written, or the negated number which must fit if
+     *         <code>capacity</code> is too small.
+     */
+    int polyfillBuffer(double[] verts, int[] holeSizes, double[] holeVerts, int res, ByteBuffer results, int capacity);
+
+    void h3SetToLinkedGeo(long[] h3, ArrayList<List<List<Vector2D>>> results);
+
+    H3MultiPolygon h3SetToMultiPolygon(long[] h3, boolean geoJson);
+
+    /**
+     * Writes the compacted indexes to <code>results</code>, which has as many elements as
+     * <code>h3</code>. Unused elements are left as 0.
+     *
+     * @return 0 on success, or nonzero if the input is invalid.
+     */
+    int compact(long[] h3, long[] results);
+
+    /**
+     * @return The number of elements needed to uncompact, or a negative number if the input is
+     *         invalid.
+     */
+    int maxUncompactSize(long[] h3, int res);
+
+    /**
+     * Writes the uncompacted indexes to <code>results</code>, which has
+     * {@link #maxUncompactSize(long[], int)} elements. Unused elements are left as 0.
+     *
+     * @return 0 on success, or nonzero if the input is invalid.
+     */
+    int uncompact(long[] h3, int res, long[] results);
+
+    boolean h3IndexesAreNeighbors(long a, long b);
+
+    /**
+     * @return The edge, or 0 if the indexes are not neighbors.
+     */
+    long getH3UnidirectionalEdge(long a, long b);
+
+    /**
+     * Writes the origin and destination of the edge.
+     */
+    void getH3IndexesFromUnidirectionalEdge(long h3, long[] results);
+
+    /**
+     * @return The number of vertices written to <code>verts</code>.
+     */
+    int getH3UnidirectionalEdgeBoundary(long h3, double[] verts);
+}
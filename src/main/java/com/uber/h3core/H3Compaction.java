@@ -0,0 +1,264 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+
+/**
+ * Compacts and uncompacts sets of indexes in Java, over <code>long</code> arrays.
+ *
+ * <p>Compaction sorts the indexes by a key that places every cell immediately before its
+ * descendants: the base cell and digits, with unused digits as zero, followed by the resolution.
+ * In that order a complete set of siblings is contiguous, and ends with the sibling whose last
+ * digit is 6, so the cells can be merged into their parents in one pass using the array as a stack.
+ */
+final class H3Compaction {
+    private static final int KEY_RES_BITS = 4;
+    private static final long KEY_RES_MASK = 0xfL;
+    private static final int KEY_BC_OFFSET = H3Index.H3_BC_OFFSET + KEY_RES_BITS;
+    /**
+     * Mask for all the digits of an index.
+     */
+    private static final long DIGITS_MASK = (1L << H3Index.H3_BC_OFFSET) - 1;
+    /**
+     * The digit of the last child of any cell, including pentagons.
+     */
+    private static final int LAST_CHILD_DIGIT = 6;
+
+    private H3Compaction() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Compacts the indexes, which may be of mixed resolutions and contain duplicates. Indexes
+     * that are descendants of other indexes in the input are dropped, and zeros are ignored.
+     *
+     * @param h3 Indexes to compact. This array is overwritten.
+     * @param parallel If true, sort in parallel and compact each base cell in parallel.
+     * @return The compacted indexes, ordered so that each cell is before its descendants.
+     * @throws IllegalArgumentException An index is not a valid cell.
+     */
+    static H3IndexList compact(long[] h3, boolean parallel) {
+        int size = 0;
+        for (long index : h3) {
+            if (index == 0) {
+                continue;
+            }
+            if (!H3Index.isValid(index)) {
+                throw new IllegalArgumentException(String.format("Bad input to compact: %x is not a valid index", index));
+            }
+            h3[size++] = toKey(index);
+        }
+
+        if (parallel) {
+            Arrays.parallelSort(h3, 0, size);
+        } else {
+            Arrays.sort(h3, 0, size);
+        }
+
+        int outSize;
+        if (parallel) {
+            outSize = compactBaseCellsParallel(h3, size);
+        } else {
+            outSize = compactSorted(h3, 0, size);
+        }
+
+        long[] out = new long[outSize];
+        for (int i = 0; i < outSize; i++) {
+            out[i] = fromKey(h3[i]);
+        }
+        return new H3IndexList(out);
+    }
+
+    /**
+     * Compacts each base cell's run of keys separately, then moves the results together.
+     *
+     * @return The number of compacted keys at the start of <code>keys</code>.
+     */
+    private static int compactBaseCellsParallel(long[] keys, int size) {
+        // Find where each base cell's keys start.
+        int[] starts = new int[H3Index.NUM_BASE_CELLS + 1];
+        int numRuns = 0;
+        int lastBaseCell = -1;
+        for (int i = 0; i < size; i++) {
+            int baseCell = (int) (keys[i] >>> KEY_BC_OFFSET);
+            if (baseCell != lastBaseCell) {
+                starts[numRuns++] = i;
+                lastBaseCell = baseCell;
+            }
+        }
+        starts[numRuns] = size;
+
+        int[] ends = new int[numRuns];
+        IntStream.range(0, numRuns).parallel()
+                .forEach(run -> ends[run] = compactSorted(keys, starts[run], starts[run + 1]));
+
+        int outSize = 0;
+        for (int run = 0; run < numRuns; run++) {
+            int runSize = ends[run] - starts[run];
+            System.arraycopy(keys, starts[run], keys, outSize, runSize);
+            outSize += runSize;
+        }
+        return outSize;
+    }
+
+    /**
+     * Compacts sorted keys in <code>[from, to)</code> in place, using the front of the range
+     * as the output stack.
+     *
+     * @return One past the last compacted key.
+     */
+    private static int compactSorted(long[] keys, int from, int to) {
+        int top = from;
+        for (int i = from; i < to; i++) {
+            long key = keys[i];
+
+            if (top > from) {
+                long last = keys[top - 1];
+                // Drop duplicates and descendants of a cell that is already present. Since
+                // descendants follow their ancestor, only the last output can be an ancestor.
+                if (key == last || isDescendant(key, last)) {
+                    continue;
+                }
+            }
+
+            keys[top++] = key;
+            top = mergeSiblings(keys, from, top);
+        }
+        return top;
+    }
+
+    /**
+     * Replaces complete sets of siblings at the top of the stack with their parent, repeatedly.
+     *
+     * @return The new top of the stack.
+     */
+    private static int mergeSiblings(long[] keys, int from, int top) {
+        while (true) {
+            long last = keys[top - 1];
+            int res = (int) (last & KEY_RES_MASK);
+            if (res == 0 || keyDigit(last, res) != LAST_CHILD_DIGIT) {
+                return top;
+            }
+
+            long parent = parentKey(last, res - 1);
+            int numChildren = H3Index.isPentagon(fromKey(parent)) ? 6 : 7;
+            int first = top - numChildren;
+            if (first < from) {
+                return top;
+            }
+            for (int i = first; i < top; i++) {
+                if ((keys[i] & KEY_RES_MASK) != res || parentKey(keys[i], res - 1) != parent) {
+                    return top;
+                }
+            }
+
+            keys[first] = parent;
+            top = first + 1;
+        }
+    }
+
+    /**
+     * Uncompacts the indexes to resolution <code>res</code>, in the order given. Zeros are ignored.
+     *
+     * @param h3 Indexes to uncompact. Not modified.
+     * @param res Resolution to uncompact to.
+     * @param parallel If true, expand the indexes in parallel.
+     * @throws IllegalArgumentException An index is not valid or is finer than <code>res</code>,
+     *                                  or the result is too large for an array.
+     */
+    static H3IndexList uncompact(long[] h3, int res, boolean parallel) {
+        // offsets[i] is where the children of h3[i] start in the output.
+        long[] offsets = new long[h3.length + 1];
+        for (int i = 0; i < h3.length; i++) {
+            long index = h3[i];
+            long numChildren = 0;
+            if (index != 0) {
+                if (!H3Index.isValid(index) || H3Index.getResolution(index) > res) {
+                    throw new IllegalArgumentException(String.format("Bad input to uncompact: %x", index));
+                }
+                numChildren = ChildrenSpliterator.of(index, res).estimateSize();
+            }
+            offsets[i + 1] = offsets[i] + numChildren;
+        }
+
+        long size = offsets[h3.length];
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("too many indexes (%d) to uncompact into an array", size));
+        }
+
+        long[] out = new long[(int) size];
+        IntStream indexes = IntStream.range(0, h3.length);
+        if (parallel) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            if (h3[i] != 0) {
+                PrimitiveIterator.OfLong children = Spliterators.iterator(ChildrenSpliterator.of(h3[i], res));
+                for (int j = (int) offsets[i]; j < offsets[i + 1]; j++) {
+                    out[j] = children.nextLong();
+                }
+            }
+        });
+        return new H3IndexList(out);
+    }
+
+    /**
+     * Converts an index to its sort key: base cell, digits with unused digits set to zero,
+     * and resolution.
+     */
+    static long toKey(long h3) {
+        int res = H3Index.getResolution(h3);
+        long digits = h3 & DIGITS_MASK;
+        // Clear the unused digits, which are all 7 in a valid index
+        int unusedBits = (H3Index.MAX_H3_RES - res) * H3Index.H3_PER_DIGIT_OFFSET;
+        digits &= ~((1L << unusedBits) - 1);
+        long baseCell = H3Index.getBaseCell(h3);
+        return (((baseCell << H3Index.H3_BC_OFFSET) | digits) << KEY_RES_BITS) | res;
+    }
+
+    static long fromKey(long key) {
+        int res = (int) (key & KEY_RES_MASK);
+        long body = key >>> KEY_RES_BITS;
+        int unusedBits = (H3Index.MAX_H3_RES - res) * H3Index.H3_PER_DIGIT_OFFSET;
+        body |= (1L << unusedBits) - 1;
+        return body | ((long) H3Index.H3_HEXAGON_MODE << H3Index.H3_MODE_OFFSET) | ((long) res << H3Index.H3_RES_OFFSET);
+    }
+
+    private static int keyDigit(long key, int res) {
+        return (int) ((key >>> (KEY_RES_BITS + (H3Index.MAX_H3_RES - res) * H3Index.H3_PER_DIGIT_OFFSET))
+                & H3Index.H3_DIGIT_MASK);
+    }
+
+    /**
+     * Returns the key of the ancestor of <code>key</code> at <code>parentRes</code>.
+     */
+    private static long parentKey(long key, int parentRes) {
+        int clearBits = (H3Index.MAX_H3_RES - parentRes) * H3Index.H3_PER_DIGIT_OFFSET + KEY_RES_BITS;
+        return ((key >>> clearBits) << clearBits) | parentRes;
+    }
+
+    /**
+     * Returns true if <code>key</code> is a strict descendant of <code>ancestor</code>.
+     */
+    private static boolean isDescendant(long key, long ancestor) {
+        int ancestorRes = (int) (ancestor & KEY_RES_MASK);
+        return (key & KEY_RES_MASK) > ancestorRes && parentKey(key, ancestorRes) == ancestor;
+    }
+}
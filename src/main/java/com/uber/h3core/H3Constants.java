@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+/**
+ * Average cell metrics for each resolution, copied from the tables in <code>geoCoord.c</code> of
+ * the H3 core library, so that they can be looked up without calling into native code.
+ *
+ * <p>The values are returned from <code>switch</code> statements rather than read from arrays, so
+ * that the JIT can fold them to constants when the resolution is known at the call site.
+ */
+final class H3Constants {
+    /**
+     * Radius of the sphere used by the H3 core library, in kilometers.
+     */
+    static final double EARTH_RADIUS_KM = 6371.007180918475;
+
+    private H3Constants() {
+        // Prevent instantiation
+    }
+
+    static double hexAreaKm2(int res) {
+        switch (res) {
+            case 0:
+                return 4250546.848;
+            case 1:
+                return 607220.9782;
+            case 2:
+                return 86745.85403;
+            case 3:
+                return 12392.26486;
+            case 4:
+                return 1770.323552;
+            case 5:
+                return 252.9033645;
+            case 6:
+                return 36.1290521;
+            case 7:
+                return 5.1612932;
+            case 8:
+                return 0.7373276;
+            case 9:
+                return 0.1053325;
+            case 10:
+                return 0.0150475;
+            case 11:
+                return 0.0021496;
+            case 12:
+                return 0.0003071;
+            case 13:
+                return 0.0000439;
+            case 14:
+                return 0.0000063;
+            case 15:
+                return 0.0000009;
+            default:
+                throw new IllegalArgumentException(String.format("Invalid resolution: %d", res));
+        }
+    }
+
+    static double hexAreaM2(int res) {
+        switch (res) {
+            case 0:
+                return 4.25055e+12;
+            case 1:
+                return 6.07221e+11;
+            case 2:
+                return 86745854035.0;
+            case 3:
+                return 12392264862.0;
+            case 4:
+                return 1770323552.0;
+            case 5:
+                return 252903364.5;
+            case 6:
+                return 36129052.1;
+            case 7:
+                return 5161293.2;
+            case 8:
+                return 737327.6;
+            case 9:
+                return 105332.5;
+            case 10:
+                return 15047.5;
+            case 11:
+                return 2149.6;
+            case 12:
+                return 307.1;
+            case 13:
+                return 43.9;
+            case 14:
+                return 6.3;
+            case 15:
+                return 0.9;
+            default:
+                throw new IllegalArgumentException(String.format("Invalid resolution: %d", res));
+        }
+    }
+
+    static double edgeLengthKm(int res) {
+        switch (res) {
+            case 0:
+                return 1107.712591;
+            case 1:
+                return 418.6760055;
+            case 2:
+                return 158.2446558;
+            case 3:
+                return 59.81085794;
+            case 4:
+                return 22.6063794;
+            case 5:
+                return 8.544408276;
+            case 6:
+                return 3.229482772;
+            case 7:
+                return 1.220629759;
+            case 8:
+                return 0.461354684;
+            case 9:
+                return 0.174375668;
+            case 10:
+                return 0.065907807;
+            case 11:
+                return 0.024910561;
+            case 12:
+                return 0.009415526;
+            case 13:
+                return 0.003559893;
+            case 14:
+                return 0.001348575;
+            case 15:
+                return 0.000509713;
+            default:
+                throw new IllegalArgumentException(String.format("Invalid resolution: %d", res));
+        }
+    }
+
+    static double edgeLengthM(int res) {
+        switch (res) {
+            case 0:
+                return 1107712.591;
+            case 1:
+                return 418676.0055;
+            case 2:
+                return 158244.6558;
+            case 3:
+                return 59810.85794;
+            case 4:
+                return 22606.3794;
+            case 5:
+                return 8544.408276;
+            case 6:
+                return 3229.482772;
+            case 7:
+                return 1220.629759;
+            case 8:
+                return 461.3546837;
+            case 9:
+                return 174.3756681;
+            case 10:
+                return 65.90780749;
+            case 11:
+                return 24.9105614;
+            case 12:
+                return 9.415526211;
+            case 13:
+                return 3.559893033;
+            case 14:
+                return 1.348574562;
+            case 15:
+                return 0.509713273;
+            default:
+                throw new IllegalArgumentException(String.format("Invalid resolution: %d", res));
+        }
+    }
+
+    /**
+     * Computed as in <code>numHexagons</code>, 2 + 120 * 7^res.
+     */
+    static long numHexagons(int res) {
+        switch (res) {
+            case 0:
+                return 122;
+            case 1:
+                return 842;
+            case 2:
+                return 5882;
+            case 3:
+                return 41162;
+            case 4:
+                return 288122;
+            case 5:
+                return 2016842;
+            case 6:
+                return 14117882;
+            case 7:
+                return 98825162;
+            case 8:
+                return 691776122;
+            case 9:
+                return 4842432842L;
+            case 10:
+                return 33897029882L;
+            case 11:
+                return 237279209162L;
+            case 12:
+                return 1660954464122L;
+            case 13:
+                return 11626681248842L;
+            case 14:
+                return 81386768741882L;
+            case 15:
+                return 569707381193162L;
+            default:
+                throw new IllegalArgumentException(String.format("Invalid resolution: %d", res));
+        }
+    }
+}
@@ -19,11 +19,21 @@ import com.uber.h3core.exceptions.PentagonEncounteredException;
 import com.uber.h3core.util.Vector2D;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 import static java.lang.Math.toDegrees;
 import static java.lang.Math.toRadians;
@@ -32,6 +42,12 @@ import static java.lang.Math.toRadians;
  * H3Core provides all functions of the H3 API.
  *
  * <p>This class is thread safe and can be used as a singleton.</p>
+ *
+ * <p>An instance created by {@link #newJavaInstance()} provides every function in Java except
+ * {@link #maxPolyfillSize(List, List, int, boolean)}, {@link #h3SetToMultiPolygon(Collection, boolean)},
+ * {@link #h3AddressSetToMultiPolygon(Collection, boolean)}, {@link #h3SetToMultiPolygonFlat(long[], boolean)}
+ * and the <code>getH3UnidirectionalEdgeBoundary</code> functions, which have no Java port and throw
+ * {@link UnsupportedOperationException}.</p>
  */
 public class H3Core {
     // These constants are from h3api.h and h3Index.h
@@ -52,9 +68,9 @@ public class H3Core {
     private static final long H3_DIGIT_MASK = 0x1fffffffffffL;
 
     /**
-     * Native implementation of the H3 library.
+     * Implementation of the functions which can be provided in either Java or native code.
      */
-    private final NativeMethods h3Api;
+    private final H3Backend backend;
 
     /**
      * Create by unpacking the H3 native library to disk and loading it.
@@ -65,8 +81,7 @@ public class H3Core {
      * @throws IOException The library could not be extracted to disk.
      */
     public static H3Core newInstance() throws IOException {
-        NativeMethods h3Api = H3CoreLoader.loadNatives();
-        return new H3Core(h3Api);
+        return new H3Core(H3CoreLoader.loadNatives());
     }
 
     /**
@@ -76,28 +91,38 @@ public class H3Core {
      * @throws UnsatisfiedLinkError The library could not be loaded
      */
     public static H3Core newSystemInstance() {
-        NativeMethods h3Api = H3CoreLoader.loadSystemNatives();
-        return new H3Core(h3Api);
+        return new H3Core(H3CoreLoader.loadSystemNatives());
+    }
+
+    /**
+     * Create using the implementation of H3 in Java, without loading the native library.
+     *
+     * <p>The functions listed in the class documentation, which have no Java port, throw
+     * {@link UnsupportedOperationException}.</p>
+     */
+    public static H3Core newJavaInstance() {
+        return new H3Core(new JavaMethods());
     }
 
     /**
-     * Construct with the given NativeMethods, from {@link H3CoreLoader}.
+     * Construct with the given backend, either the {@link NativeMethods} from
+     * {@link H3CoreLoader} or {@link JavaMethods}.
      */
-    private H3Core(NativeMethods h3Api) {
-        this.h3Api = h3Api;
+    private H3Core(H3Backend backend) {
+        this.backend = backend;
     }
 
     /**
      * Constrain a latitude to -90 degrees to 90 degrees.
      */
-    private static double constrainLat(double lat) {
+    static double constrainLat(double lat) {
         return lat > 90.0 ? lat - 180.0 : lat;
     }
 
     /**
      * Constrain a longitude to -180 degrees to 180 degrees.
      */
-    private static double constrainLng(double lng) {
+    static double constrainLng(double lng) {
         return lng > 180.0 ? lng - 360.0 : lng;
     }
 
@@ -105,7 +130,7 @@ public class H3Core {
      * Returns true if this is a valid H3 index.
      */
     public boolean h3IsValid(long h3) {
-        return h3Api.h3IsValid(h3);
+        return H3Index.isValid(h3);
     }
 
     /**
@@ -119,7 +144,7 @@ public class H3Core {
      * Returns the base cell number for this index.
      */
     public int h3GetBaseCell(long h3) {
-        return h3Api.h3GetBaseCell(h3);
+        return H3Index.getBaseCell(h3);
     }
 
     /**
@@ -133,7 +158,7 @@ public class H3Core {
      * Returns <code>true</code> if this index is one of twelve pentagons per resolution.
      */
     public boolean h3IsPentagon(long h3) {
-        return h3Api.h3IsPentagon(h3);
+        return H3Index.isPentagon(h3);
     }
 
     /**
@@ -154,7 +179,7 @@ public class H3Core {
      */
     public long geoToH3(double lat, double lng, int res) {
         checkResolution(res);
-        long result = h3Api.geoToH3(toRadians(lat), toRadians(lng), res);
+        long result = backend.geoToH3(toRadians(lat), toRadians(lng), res);
         if (result == 0) {
             // Must be latitude or longitude that's wrong, since we already
             // check the resolution before calling geoToH3.
@@ -163,6 +188,30 @@ public class H3Core {
         return result;
     }
 
+    /**
+     * Find the H3 indexes of the resolution <code>res</code> cells containing each lat/lon (in degrees)
+     * pair. With the native library, all of the points are indexed in a single call to it.
+     *
+     * <p>Unlike {@link #geoToH3(double, double, int)}, an invalid coordinate does not throw. Instead,
+     * <code>0</code> is written for that element of <code>out</code>.
+     *
+     * @param lats Latitudes in degrees.
+     * @param lngs Longitudes in degrees, the same length as <code>lats</code>.
+     * @param res Resolution, 0 &lt;= res &lt;= 15
+     * @param out Output for the H3 indexes, at least as long as <code>lats</code>.
+     * @return The number of coordinates that could not be indexed.
+     * @throws IllegalArgumentException Resolution is out of range, or the arrays are not the same length.
+     */
+    public int geoToH3(double[] lats, double[] lngs, int res, long[] out) {
+        checkResolution(res);
+        if (lats.length != lngs.length) {
+            throw new IllegalArgumentException(String.format("lats (%d) and lngs (%d) must be the same length",
+                    lats.length, lngs.length));
+        }
+        checkOutputSize(out.length, lats.length);
+        return backend.geoToH3Bulk(lats, lngs, res, out);
+    }
+
     /**
      * Find the H3 index of the resolution <code>res</code> cell containing the lat/lon (in degrees)
      *
@@ -181,7 +230,7 @@ public class H3Core {
      */
     public Vector2D h3ToGeo(long h3) {
         double[] coords = new double[2];
-        h3Api.h3ToGeo(h3, coords);
+        backend.h3ToGeo(h3, coords);
         Vector2D out = new Vector2D(
                 constrainLat(toDegrees(coords[0])),
                 constrainLng(toDegrees(coords[1]))
@@ -201,7 +250,7 @@ public class H3Core {
      */
     public List<Vector2D> h3ToGeoBoundary(long h3) {
         double[] verts = new double[MAX_CELL_BNDRY_VERTS * 2];
-        int numVerts = h3Api.h3ToGeoBoundary(h3, verts);
+        int numVerts = backend.h3ToGeoBoundary(h3, verts);
         List<Vector2D> out = new ArrayList<>(numVerts);
         for (int i = 0; i < numVerts; i++) {
             Vector2D coord = new Vector2D(
@@ -220,6 +269,148 @@ public class H3Core {
         return h3ToGeoBoundary(stringToH3(h3Address));
     }
 
+    /**
+     * Find the latitude, longitude (both in degrees) center points of the cells, without
+     * allocating per cell.
+     *
+     * @param h3 H3 indexes.
+     * @param out Output for the center points, as interleaved latitude, longitude pairs. Must be at
+     *            least twice as long as <code>h3</code>.
+     * @throws IllegalArgumentException <code>out</code> is too small.
+     */
+    public void h3ToGeo(long[] h3, double[] out) {
+        checkOutputSize(out.length, h3.length * 2);
+        backend.h3ToGeoBulk(h3, out);
+        for (int i = 0; i < h3.length * 2; i += 2) {
+            out[i] = constrainLat(toDegrees(out[i]));
+            out[i + 1] = constrainLng(toDegrees(out[i + 1]));
+        }
+    }
+
+    /**
+     * Find the latitude, longitude (both in degrees) center points of the cells, in single
+     * precision.
+     *
+     * @param h3 H3 indexes.
+     * @param out Output for the center points, as interleaved latitude, longitude pairs. Must be at
+     *            least twice as long as <code>h3</code>.
+     * @throws IllegalArgumentException <code>out</code> is too small.
+     */
+    public void h3ToGeo(long[] h3, float[] out) {
+        checkOutputSize(out.length, h3.length * 2);
+        backend.h3ToGeoBulkDegrees(h3, out);
+    }
+
+    /**
+     * Find the cell boundaries in latitude, longitude (degrees) coordinates for the cells, without
+     * allocating per cell.
+     *
+     * <p>Boundaries are written in order until one does not fit in <code>verts</code>. A cell has
+     * at most 10 vertices, so <code>verts</code> of length <code>h3.length * 20</code> always fits
+     * every boundary.
+     *
+     * @param h3 H3 indexes.
+     * @param verts Output for the boundary vertices, as interleaved latitude, longitude pairs.
+     * @param offsets Output for the vertex offsets, at least <code>h3.length + 1</code> long. The
+     *                vertices of <code>h3[i]</code> are numbered <code>offsets[i]</code> (inclusive)
+     *                to <code>offsets[i + 1]</code> (exclusive), and vertex <code>n</code> is stored
+     *                at <code>verts[2 * n]</code>, <code>verts[2 * n + 1]</code>.
+     * @return The number of cells whose boundaries were written.
+     * @throws IllegalArgumentException <code>offsets</code> is too small.
+     */
+    public int h3ToGeoBoundary(long[] h3, double[] verts, int[] offsets) {
+        checkOutputSize(offsets.length, h3.length + 1);
+        int numWritten = backend.h3ToGeoBoundaryBulk(h3, verts, offsets);
+        for (int i = 0; i < offsets[numWritten] * 2; i += 2) {
+            verts[i] = constrainLat(toDegrees(verts[i]));
+            verts[i + 1] = constrainLng(toDegrees(verts[i + 1]));
+        }
+        return numWritten;
+    }
+
+    /**
+     * Find the cell boundaries in latitude, longitude (degrees) coordinates for the cells, in single
+     * precision.
+     *
+     * @see #h3ToGeoBoundary(long[], double[], int[])
+     * @return The number of cells whose boundaries were written.
+     * @throws IllegalArgumentException <code>offsets</code> is too small.
+     */
+    public int h3ToGeoBoundary(long[] h3, float[] verts, int[] offsets) {
+        checkOutputSize(offsets.length, h3.length + 1);
+        return backend.h3ToGeoBoundaryBulkDegrees(h3, verts, offsets);
+    }
+
+    /**
+     * Find the H3 indexes of the resolution <code>res</code> cells containing each lat/lon (in degrees)
+     * pair, reading and writing direct buffers so that no data is copied through the Java heap.
+     *
+     * <p>All buffers must be direct and in {@link ByteOrder#nativeOrder() native byte order}. Each
+     * is accessed starting at its position, which must be aligned to the size of its elements, and
+     * positions are not changed. As with
+     * {@link #geoToH3(double[], double[], int, long[])}, <code>0</code> is written for coordinates
+     * which cannot be indexed.
+     *
+     * @param lats Latitudes in degrees, as <code>double</code>s.
+     * @param lngs Longitudes in degrees, as <code>double</code>s.
+     * @param count Number of coordinates to index.
+     * @param res Resolution, 0 &lt;= res &lt;= 15
+     * @param out Output for the H3 indexes, as <code>long</code>s.
+     * @return The number of coordinates that could not be indexed.
+     * @throws IllegalArgumentException Resolution is out of range, or a buffer is not direct, is not in
+     *                                  native order, is not aligned, or is too small.
+     */
+    public int geoToH3(ByteBuffer lats, ByteBuffer lngs, int count, int res, ByteBuffer out) {
+        checkResolution(res);
+        ByteBuffer latsSlice = checkBuffer(lats, "lats", count, Double.BYTES);
+        ByteBuffer lngsSlice = checkBuffer(lngs, "lngs", count, Double.BYTES);
+        ByteBuffer outSlice = checkBuffer(out, "out", count, Long.BYTES);
+        return backend.geoToH3Buffer(latsSlice, lngsSlice, count, res, outSlice);
+    }
+
+    /**
+     * Find the latitude, longitude (both in degrees) center points of the cells, reading and writing
+     * direct buffers.
+     *
+     * @param h3 H3 indexes, as <code>long</code>s.
+     * @param count Number of indexes.
+     * @param out Output for the center points, as interleaved latitude, longitude <code>double</code>s.
+     * @throws IllegalArgumentException A buffer is not direct, is not in native order, is not aligned,
+     *                                  or is too small.
+     * @see #geoToH3(ByteBuffer, ByteBuffer, int, int, ByteBuffer) for the requirements on buffers.
+     */
+    public void h3ToGeo(ByteBuffer h3, int count, ByteBuffer out) {
+        ByteBuffer h3Slice = checkBuffer(h3, "h3", count, Long.BYTES);
+        ByteBuffer outSlice = checkBuffer(out, "out", 2 * count, Double.BYTES);
+        backend.h3ToGeoBuffer(h3Slice, count, outSlice);
+    }
+
+    /**
+     * Find the cell boundaries in latitude, longitude (degrees) coordinates for the cells, reading
+     * and writing direct buffers.
+     *
+     * <p>Boundaries are written in order until one does not fit in the remaining space of
+     * <code>verts</code>.
+     *
+     * @param h3 H3 indexes, as <code>long</code>s.
+     * @param count Number of indexes.
+     * @param verts Output for the boundary vertices, as interleaved latitude, longitude
+     *              <code>double</code>s.
+     * @param offsets Output for the vertex offsets, as <code>count + 1</code> <code>int</code>s.
+     * @return The number of cells whose boundaries were written.
+     * @throws IllegalArgumentException A buffer is not direct, is not in native order, is not aligned,
+     *                                  or is too small.
+     * @see #h3ToGeoBoundary(long[], double[], int[]) for the layout of the output.
+     * @see #geoToH3(ByteBuffer, ByteBuffer, int, int, ByteBuffer) for the requirements on buffers.
+     */
+    public int h3ToGeoBoundary(ByteBuffer h3, int count, ByteBuffer verts, ByteBuffer offsets) {
+        ByteBuffer h3Slice = checkBuffer(h3, "h3", count, Long.BYTES);
+        ByteBuffer vertsSlice = checkBuffer(verts, "verts", 0, Double.BYTES);
+        ByteBuffer offsetsSlice = checkBuffer(offsets, "offsets", count + 1, Integer.BYTES);
+        return backend.h3ToGeoBoundaryBuffer(h3Slice, count, vertsSlice,
+                vertsSlice.remaining() / Double.BYTES, offsetsSlice);
+    }
+
     /**
      * Neighboring indexes in all directions.
      *
@@ -233,6 +424,9 @@ public class H3Core {
     /**
      * Neighboring indexes in all directions.
      *
+     * <p>Each kRing has the same indexes as {@link #kRing(String, int)}, ordered by distance from
+     * the origin. The kRings are unmodifiable views of one list.</p>
+     *
      * @param h3Address Origin index
      * @param k         Number of rings around the origin
      * @return List of {@link #kRing(String, int)} results.
@@ -240,8 +434,17 @@ public class H3Core {
     public List<List<String>> kRings(String h3Address, int k) {
         List<List<String>> result = new ArrayList<>(k + 1);
         result.add(Collections.singletonList(h3Address));
+        if (k < 1) {
+            return result;
+        }
+
+        // Each kRing is the indexes of the rings up to its distance, which are a prefix when sorted
+        long[] out = new long[backend.maxKringSize(k)];
+        int[] offsets = new int[k + 2];
+        kRingDistances(stringToH3(h3Address), k, out, offsets);
+        List<String> addresses = h3ToStringList(H3IndexList.fromNonZero(out).toList());
         for (int i = 1; i <= k; ++i) {
-            result.add(kRing(h3Address, i));
+            result.add(Collections.unmodifiableList(addresses.subList(0, offsets[i + 1])));
         }
         return result;
     }
@@ -253,13 +456,23 @@ public class H3Core {
      * @param k  Number of rings around the origin
      */
     public List<Long> kRing(long h3, int k) {
-        int sz = h3Api.maxKringSize(k);
+        return kRingIndexList(h3, k).toList();
+    }
+
+    /**
+     * Neighboring indexes in all directions, without boxing.
+     *
+     * @param h3 Origin index
+     * @param k  Number of rings around the origin
+     */
+    public H3IndexList kRingIndexList(long h3, int k) {
+        int sz = backend.maxKringSize(k);
 
         long[] out = new long[sz];
 
-        h3Api.kRing(h3, k, out);
+        backend.kRing(h3, k, out);
 
-        return nonZeroLongArrayToList(out);
+        return H3IndexList.fromNonZero(out);
     }
 
     /**
@@ -287,28 +500,82 @@ public class H3Core {
      *         from closest to origin to farthest.
      */
     public List<List<Long>> kRingDistances(long h3, int k) {
-        int sz = h3Api.maxKringSize(k);
-
-        long[] out = new long[sz];
-        int[] distances = new int[sz];
-
-        h3Api.kRingDistances(h3, k, out, distances);
+        long[] out = new long[backend.maxKringSize(k)];
+        int[] offsets = new int[k + 2];
+        kRingDistances(h3, k, out, offsets);
 
         List<List<Long>> ret = new ArrayList<>(k + 1);
-
         for (int i = 0; i <= k; i++) {
-            ret.add(new ArrayList<>());
+            List<Long> ring = new ArrayList<>(offsets[i + 1] - offsets[i]);
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                ring.add(out[j]);
+            }
+            ret.add(ring);
         }
 
-        for (int i = 0; i < sz; i++) {
-            long nextH3 = out[i];
-            if (nextH3 != 0) {
-                ret.get(distances[i])
-                        .add(nextH3);
+        return ret;
+    }
+
+    /**
+     * Neighboring indexes in all directions, ordered by distance from the origin index, in one array
+     * without boxing.
+     *
+     * @param h3      Origin index
+     * @param k       Number of rings around the origin
+     * @param out     Output for the indexes, at least {@link #maxKringSize(int)} long. Ring <code>r</code>
+     *                is at positions <code>offsets[r]</code> (inclusive) to <code>offsets[r + 1]</code>
+     *                (exclusive).
+     * @param offsets Output for the ring offsets, at least <code>k + 2</code> long.
+     * @return The number of indexes written, which is less than {@link #maxKringSize(int)} if a
+     *         pentagon is within <code>k</code> of the origin.
+     * @throws IllegalArgumentException <code>k</code> is negative, or an output is too small.
+     */
+    public int kRingDistances(long h3, int k, long[] out, int[] offsets) {
+        if (k < 0) {
+            throw new IllegalArgumentException(String.format("k (%d) must not be negative", k));
+        }
+        int sz = backend.maxKringSize(k);
+        checkOutputSize(out.length, sz);
+        checkOutputSize(offsets.length, k + 2);
+
+        long[] unsorted = new long[sz];
+        int[] distances = new int[sz];
+        backend.kRingDistances(h3, k, unsorted, distances);
+
+        return sortByDistance(unsorted, distances, k, out, offsets);
+    }
+
+    /**
+     * Counting sorts the non-zero indexes output by <code>kRingDistances</code> by their distance,
+     * keeping the order of indexes at the same distance.
+     *
+     * @return The number of indexes written to <code>out</code>.
+     */
+    static int sortByDistance(long[] h3, int[] distances, int k, long[] out, int[] offsets) {
+        Arrays.fill(offsets, 0, k + 2, 0);
+        for (int i = 0; i < h3.length; i++) {
+            if (h3[i] != 0) {
+                offsets[distances[i] + 1]++;
             }
         }
+        for (int r = 0; r <= k; r++) {
+            offsets[r + 1] += offsets[r];
+        }
+        int[] next = Arrays.copyOf(offsets, k + 1);
+        for (int i = 0; i < h3.length; i++) {
+            if (h3[i] != 0) {
+                out[next[distances[i]]++] = h3[i];
+            }
+        }
+        return offsets[k + 1];
+    }
 
-        return ret;
+    /**
+     * Returns the greatest number of indexes within <code>k</code> of an index, the size needed for
+     * the output of {@link #kRingDistances(long, int, long[], int[])}.
+     */
+    public int maxKringSize(int k) {
+        return backend.maxKringSize(k);
     }
 
     /**
@@ -338,11 +605,11 @@ public class H3Core {
      * @throws PentagonEncounteredException A pentagon was encountered while iterating the rings
      */
     public List<List<Long>> hexRange(long h3, int k) throws PentagonEncounteredException {
-        int sz = h3Api.maxKringSize(k);
+        int sz = backend.maxKringSize(k);
 
         long[] out = new long[sz];
 
-        if (h3Api.hexRange(h3, k, out) != 0) {
+        if (backend.hexRange(h3, k, out) != 0) {
             throw new PentagonEncounteredException("A pentagon was encountered while computing hexRange.");
         }
 
@@ -400,7 +667,7 @@ public class H3Core {
 
         long[] out = new long[sz];
 
-        if (h3Api.hexRing(h3, k, out) != 0) {
+        if (backend.hexRing(h3, k, out) != 0) {
             throw new PentagonEncounteredException("A pentagon was encountered while computing hexRing.");
         }
 
@@ -451,35 +718,233 @@ public class H3Core {
      * @throws IllegalArgumentException Invalid resolution
      */
     public List<Long> polyfill(List<Vector2D> points, List<List<Vector2D>> holes, int res, boolean geoJsonOrder) {
+        return polyfillIndexList(points, holes, res, geoJsonOrder).toList();
+    }
+
+    /**
+     * Finds indexes within the given geofence, without boxing.
+     *
+     * @param points Outline geofence
+     * @param holes Geofences of any internal holes
+     * @param res Resolution of the desired indexes
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public H3IndexList polyfillIndexList(List<Vector2D> points, List<List<Vector2D>> holes, int res) {
+        return polyfillIndexList(points, holes, res, false);
+    }
+
+    /**
+     * Finds indexes within the given geofence, without boxing.
+     *
+     * @param points Outline geofence
+     * @param holes Geofences of any internal holes
+     * @param res Resolution of the desired indexes
+     * @param geoJsonOrder If true, accepts coordinates in (lon, lat) order as in GeoJSON.
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public H3IndexList polyfillIndexList(List<Vector2D> points, List<List<Vector2D>> holes, int res, boolean geoJsonOrder) {
         checkResolution(res);
 
-        // pack the data for use by the polyfill JNI call
-        double[] verts = new double[points.size() * 2];
-        packGeofenceVertices(verts, points, 0, geoJsonOrder);
-        int[] holeSizes = new int[0];
-        double[] holeVerts = new double[0];
-        if (holes != null) {
-            holeSizes = new int[holes.size()];
-            int totalSize = 0;
-            for (int i = 0; i < holes.size(); i++) {
-                totalSize += holes.get(i).size() * 2;
-                // Note we are storing the number of doubles
-                holeSizes[i] = holes.get(i).size() * 2;
-            }
-            holeVerts = new double[totalSize];
-            int offset = 0;
-            for (int i = 0; i < holes.size(); i++) {
-                offset = packGeofenceVertices(holeVerts, holes.get(i), offset, geoJsonOrder);
+        PackedGeofence geofence = new PackedGeofence(points, holes, geoJsonOrder);
+
+        return backend.polyfillIndexList(geofence.verts, geofence.holeSizes, geofence.holeVerts, res);
+    }
+
+    /**
+     * Finds indexes within the given geofence in Java, filling parts of the geofence concurrently
+     * in <code>pool</code>.
+     *
+     * <p>The indexes are those with centers inside the geofence, as for
+     * {@link #polyfillIndexList(List, List, int, boolean)}, in ascending order. Rather than testing
+     * every index around the geofence, indexes are visited from their base cells down, and only those
+     * near an edge of the geofence are tested individually. This does not use the native library.
+     *
+     * @param points Outline geofence
+     * @param holes Geofences of any internal holes
+     * @param res Resolution of the desired indexes
+     * @param geoJsonOrder If true, accepts coordinates in (lon, lat) order as in GeoJSON.
+     * @param pool Pool to run in. Use <code>new ForkJoinPool(1)</code> to run on one thread.
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public H3IndexList polyfillIndexList(List<Vector2D> points, List<List<Vector2D>> holes, int res,
+                                         boolean geoJsonOrder, ForkJoinPool pool) {
+        checkResolution(res);
+
+        PackedGeofence geofence = new PackedGeofence(points, holes, geoJsonOrder);
+
+        return new Polyfill(geofence.verts, geofence.holeSizes, geofence.holeVerts, res).fill(pool);
+    }
+
+    /**
+     * Provides the indexes within the given geofence in Java, finding them as they are requested.
+     *
+     * <p>The indexes are the same as for {@link #polyfillIndexList(List, List, int, boolean, ForkJoinPool)},
+     * in ascending order. They are never all stored, so this can be used for geofences with more
+     * indexes than fit in memory. This does not use the native library.
+     *
+     * @param points Outline geofence
+     * @param holes Geofences of any internal holes
+     * @param res Resolution of the desired indexes
+     * @param geoJsonOrder If true, accepts coordinates in (lon, lat) order as in GeoJSON.
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public PrimitiveIterator.OfLong polyfillIterator(List<Vector2D> points, List<List<Vector2D>> holes, int res,
+                                                     boolean geoJsonOrder) {
+        checkResolution(res);
+
+        PackedGeofence geofence = new PackedGeofence(points, holes, geoJsonOrder);
+
+        return new Polyfill(geofence.verts, geofence.holeSizes, geofence.holeVerts, res).iterator();
+    }
+
+    /**
+     * Finds indexes within the given geofence in Java, passing them to <code>out</code> in chunks.
+     *
+     * <p>The indexes are the same as for {@link #polyfillIterator(List, List, int, boolean)}, in
+     * ascending order. <code>out</code> is called with an array and the number of indexes at its
+     * start, which is between 1 and <code>chunkSize</code>. The same array is passed in each call,
+     * so <code>out</code> must copy any indexes it keeps.
+     *
+     * @param points Outline geofence
+     * @param holes Geofences of any internal holes
+     * @param res Resolution of the desired indexes
+     * @param geoJsonOrder If true, accepts coordinates in (lon, lat) order as in GeoJSON.
+     * @param chunkSize Greatest number of indexes to pass to <code>out</code> at once
+     * @param out Receives each chunk
+     * @return The number of indexes found.
+     * @throws IllegalArgumentException Invalid resolution, or <code>chunkSize</code> is not positive.
+     */
+    public long polyfillChunks(List<Vector2D> points, List<List<Vector2D>> holes, int res, boolean geoJsonOrder,
+                               int chunkSize, ObjIntConsumer<long[]> out) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(String.format("chunkSize (%d) must be positive", chunkSize));
+        }
+        PrimitiveIterator.OfLong iterator = polyfillIterator(points, holes, res, geoJsonOrder);
+
+        long[] chunk = new long[chunkSize];
+        long total = 0;
+        int size = 0;
+        while (iterator.hasNext()) {
+            chunk[size++] = iterator.nextLong();
+            if (size == chunkSize) {
+                out.accept(chunk, size);
+                total += size;
+                size = 0;
             }
         }
+        if (size > 0) {
+            out.accept(chunk, size);
+            total += size;
+        }
+        return total;
+    }
 
-        int sz = h3Api.maxPolyfillSize(verts, holeSizes, holeVerts, res);
+    /**
+     * Finds the compacted set of indexes within the given geofence in Java.
+     *
+     * <p>The result is the same set as compacting the indexes found by
+     * {@link #polyfillIndexList(List, List, int, boolean, ForkJoinPool)}, but indexes wholly inside
+     * the geofence are never expanded to resolution <code>res</code>, so the time and memory used
+     * depend on the length of the edges of the geofence rather than its area. This does not use the
+     * native library.
+     *
+     * @param points Outline geofence
+     * @param holes Geofences of any internal holes
+     * @param res Finest resolution of the desired indexes
+     * @param geoJsonOrder If true, accepts coordinates in (lon, lat) order as in GeoJSON.
+     * @return Compacted indexes, ordered so that uncompacting them in order gives ascending indexes.
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public H3IndexList polyfillCompact(List<Vector2D> points, List<List<Vector2D>> holes, int res,
+                                       boolean geoJsonOrder) {
+        checkResolution(res);
 
-        long[] results = new long[sz];
+        PackedGeofence geofence = new PackedGeofence(points, holes, geoJsonOrder);
 
-        h3Api.polyfill(verts, holeSizes, holeVerts, res, results);
+        return new Polyfill(geofence.verts, geofence.holeSizes, geofence.holeVerts, res).fillCompact();
+    }
 
-        return nonZeroLongArrayToList(results);
+    /**
+     * Finds indexes within the given geofence, writing them to a direct buffer.
+     *
+     * <p>The indexes are written as <code>long</code>s starting at the position of <code>out</code>,
+     * which must be direct and in {@link ByteOrder#nativeOrder() native byte order}. Its position is
+     * not changed. With the native library, at least {@link #maxPolyfillSize(List, List, int, boolean)}
+     * indexes must fit in <code>out</code>, as polyfill uses the space while it runs, even though fewer
+     * indexes may be returned. An instance created by {@link #newJavaInstance()} only needs space for
+     * the indexes returned.
+     *
+     * @param points Outline geofence
+     * @param holes Geofences of any internal holes
+     * @param res Resolution of the desired indexes
+     * @param geoJsonOrder If true, accepts coordinates in (lon, lat) order as in GeoJSON.
+     * @param out Output for the indexes.
+     * @return The number of indexes written.
+     * @throws IllegalArgumentException Invalid resolution, or <code>out</code> is not direct, is not
+     *                                  in native order, is not aligned, or is too small.
+     */
+    public int polyfill(List<Vector2D> points, List<List<Vector2D>> holes, int res, boolean geoJsonOrder,
+                        ByteBuffer out) {
+        checkResolution(res);
+
+        PackedGeofence geofence = new PackedGeofence(points, holes, geoJsonOrder);
+        ByteBuffer outSlice = checkBuffer(out, "out", 0, Long.BYTES);
+
+        int numWritten = backend.polyfillBuffer(geofence.verts, geofence.holeSizes, geofence.holeVerts, res,
+                outSlice, outSlice.remaining() / Long.BYTES);
+        if (numWritten < 0) {
+            checkOutputSize(outSlice.remaining() / Long.BYTES, -numWritten);
+        }
+        return numWritten;
+    }
+
+    /**
+     * Returns the number of indexes which must fit in the output of polyfill for the given geofence.
+     * This is an upper bound on the number of indexes polyfill finds.
+     *
+     * @param points Outline geofence
+     * @param holes Geofences of any internal holes
+     * @param res Resolution of the desired indexes
+     * @param geoJsonOrder If true, accepts coordinates in (lon, lat) order as in GeoJSON.
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public int maxPolyfillSize(List<Vector2D> points, List<List<Vector2D>> holes, int res, boolean geoJsonOrder) {
+        checkResolution(res);
+
+        PackedGeofence geofence = new PackedGeofence(points, holes, geoJsonOrder);
+
+        return backend.maxPolyfillSize(geofence.verts, geofence.holeSizes, geofence.holeVerts, res);
+    }
+
+    /**
+     * A geofence and its holes, packed for use by the polyfill JNI calls.
+     */
+    static final class PackedGeofence {
+        final double[] verts;
+        final int[] holeSizes;
+        final double[] holeVerts;
+
+        PackedGeofence(List<Vector2D> points, List<List<Vector2D>> holes, boolean geoJsonOrder) {
+            verts = new double[points.size() * 2];
+            packGeofenceVertices(verts, points, 0, geoJsonOrder);
+            if (holes != null) {
+                holeSizes = new int[holes.size()];
+                int totalSize = 0;
+                for (int i = 0; i < holes.size(); i++) {
+                    totalSize += holes.get(i).size() * 2;
+                    // Note we are storing the number of doubles
+                    holeSizes[i] = holes.get(i).size() * 2;
+                }
+                holeVerts = new double[totalSize];
+                int offset = 0;
+                for (int i = 0; i < holes.size(); i++) {
+                    offset = packGeofenceVertices(holeVerts, holes.get(i), offset, geoJsonOrder);
+                }
+            } else {
+                holeSizes = new int[0];
+                holeVerts = new double[0];
+            }
+        }
     }
 
     /**
@@ -525,7 +990,7 @@ public class H3Core {
 
         ArrayList<List<List<Vector2D>>> result = new ArrayList<>();
 
-        h3Api.h3SetToLinkedGeo(h3AsArray, result);
+        backend.h3SetToLinkedGeo(h3AsArray, result);
 
         // For each polygon
         for (List<List<Vector2D>> loops : result) {
@@ -560,6 +1025,97 @@ public class H3Core {
         return result;
     }
 
+    /**
+     * Create polygons from a set of contiguous indexes, without creating an object per vertex.
+     *
+     * <p>The coordinates are the same as those returned by {@link #h3SetToMultiPolygon(Collection, boolean)},
+     * and are written by native code into one array.</p>
+     *
+     * @param h3 Indexes. Not modified.
+     * @param geoJson Whether to use the same coordinate order and closed loops as
+     *                {@link #h3SetToMultiPolygon(Collection, boolean)} with <code>geoJson</code> set.
+     */
+    public H3MultiPolygon h3SetToMultiPolygonFlat(long[] h3, boolean geoJson) {
+        return backend.h3SetToMultiPolygon(h3, geoJson);
+    }
+
+    /**
+     * Create polygons from a set of contiguous indexes, finding the outlines of parts of the set
+     * concurrently in <code>pool</code>.
+     *
+     * <p>The indexes are sorted and split into ranges, and the outline of each range is found by adding
+     * the boundary of each index and removing the edges shared by two indexes. The outlines of the
+     * ranges are then joined in the same way, so edges shared between ranges are removed, and the
+     * remaining edges are followed into loops. The result has the same loops as
+     * {@link #h3SetToMultiPolygonFlat(long[], boolean)}, all in one polygon, although they may be in
+     * a different order and start at a different vertex.</p>
+     *
+     * @param h3 Indexes, without duplicates. Not modified.
+     * @param geoJson Whether to use the same coordinate order and closed loops as
+     *                {@link #h3SetToMultiPolygon(Collection, boolean)} with <code>geoJson</code> set.
+     * @param pool Pool to run in. Use <code>new ForkJoinPool(1)</code> to run on one thread.
+     */
+    public H3MultiPolygon h3SetToMultiPolygon(long[] h3, boolean geoJson, ForkJoinPool pool) {
+        long[] sorted = h3.clone();
+        Arrays.sort(sorted);
+        return VertexGraph.fromH3Set(sorted, backend, pool).toMultiPolygon(geoJson);
+    }
+
+    /**
+     * Creates a builder for an index of geofences, which finds the zones containing points.
+     *
+     * @param res Resolution of the indexes used to look up points. Finer resolutions have fewer
+     *            points needing to be tested against the edges of a geofence, but more indexes.
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public GeofenceIndex.Builder newGeofenceIndexBuilder(int res) {
+        checkResolution(res);
+        return new GeofenceIndex.Builder(backend, res);
+    }
+
+    /**
+     * Creates an empty cache of cell centers and boundaries.
+     *
+     * @param maxSize Greatest number of indexes to cache. The cache may hold slightly more, see
+     *                {@link H3GeometryCache#capacity()}.
+     * @throws IllegalArgumentException <code>maxSize</code> is not positive.
+     */
+    public H3GeometryCache newGeometryCache(int maxSize) {
+        return new H3GeometryCache(backend, maxSize);
+    }
+
+    /**
+     * Creates an empty, mutable set of indexes which keeps track of its outline.
+     */
+    public H3SetOutline newSetOutline() {
+        return new H3SetOutline(backend);
+    }
+
+    /**
+     * Creates an empty index of points, for finding the points near a location.
+     *
+     * @param res Resolution of the indexes points are bucketed by. It should be fine enough that an
+     *            index holds few points, and coarse enough that queries look at few rings.
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public H3PointIndex newPointIndex(int res) {
+        checkResolution(res);
+        return new H3PointIndex(backend, res);
+    }
+
+    /**
+     * Creates a tracker of the indexes containing moving objects, which finds the index of a
+     * reported location again only when the object has left its index.
+     *
+     * @param res      Resolution of the indexes to track.
+     * @param listener Receives the changes of index of each object, or <code>null</code>.
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public H3ObjectTracker newObjectTracker(int res, H3ObjectTracker.CellChangeListener listener) {
+        checkResolution(res);
+        return new H3ObjectTracker(backend, res, listener);
+    }
+
     /**
      * Returns the resolution of the provided index
      */
@@ -630,15 +1186,71 @@ public class H3Core {
      * @throws IllegalArgumentException Invalid resolution
      */
     public List<Long> h3ToChildren(long h3, int childRes) {
-        checkResolution(childRes);
+        return h3ToChildrenIndexList(h3, childRes).toList();
+    }
 
-        int sz = h3Api.maxH3ToChildrenSize(h3, childRes);
+    /**
+     * Provides the children of the index at the given resolution, without boxing.
+     *
+     * @param h3 H3 index.
+     * @param childRes Resolution of the children
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public H3IndexList h3ToChildrenIndexList(long h3, int childRes) {
+        Spliterator.OfLong children = childrenSpliterator(h3, childRes);
 
-        long[] out = new long[sz];
+        long sz = children.getExactSizeIfKnown();
+        if (sz > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("too many children (%d) to return in a list", sz));
+        }
 
-        h3Api.h3ToChildren(h3, childRes, out);
+        long[] out = new long[(int) sz];
+        PrimitiveIterator.OfLong iter = Spliterators.iterator(children);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = iter.nextLong();
+        }
 
-        return nonZeroLongArrayToList(out);
+        return new H3IndexList(out);
+    }
+
+    /**
+     * Provides the children of the index at the given resolution, in ascending order, without
+     * storing them all. Each child is computed as it is reached.
+     *
+     * @param h3 H3 index.
+     * @param childRes Resolution of the children
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public PrimitiveIterator.OfLong childrenIterator(long h3, int childRes) {
+        return Spliterators.iterator(childrenSpliterator(h3, childRes));
+    }
+
+    /**
+     * Provides the children of the index at the given resolution, in ascending order, without
+     * storing them all. The spliterator is sized and can be split, so it can be used for a
+     * parallel stream such as <code>StreamSupport.longStream(childrenSpliterator(h3, res), true)</code>.
+     *
+     * @param h3 H3 index.
+     * @param childRes Resolution of the children
+     * @throws IllegalArgumentException Invalid resolution
+     */
+    public Spliterator.OfLong childrenSpliterator(long h3, int childRes) {
+        checkResolution(childRes);
+
+        return ChildrenSpliterator.of(h3, childRes);
+    }
+
+    /**
+     * Provides the children of the index at the given resolution as a stream.
+     *
+     * @param h3 H3 index.
+     * @param childRes Resolution of the children
+     * @param parallel If true, returns a parallel stream.
+     * @throws IllegalArgumentException Invalid resolution
+     * @see #childrenSpliterator(long, int)
+     */
+    public LongStream childrenStream(long h3, int childRes, boolean parallel) {
+        return StreamSupport.longStream(childrenSpliterator(h3, childRes), parallel);
     }
 
     /**
@@ -675,19 +1287,44 @@ public class H3Core {
      * @throws IllegalArgumentException Invalid input, such as duplicated indexes.
      */
     public List<Long> compact(Collection<Long> h3) {
-        int sz = h3.size();
-
-        long[] h3AsArray = collectionToLongArray(h3);
+        return compactIndexList(collectionToLongArray(h3)).toList();
+    }
 
-        long[] out = new long[sz];
+    /**
+     * Returns a compacted set of indexes, at possibly coarser resolutions, without boxing.
+     *
+     * <p>An instance created by {@link #newJavaInstance()} accepts duplicated indexes and
+     * indexes of mixed resolutions.</p>
+     *
+     * @param h3 Indexes to compact. Not modified.
+     * @throws IllegalArgumentException Invalid input, such as duplicated indexes.
+     */
+    public H3IndexList compactIndexList(long[] h3) {
+        long[] out = new long[h3.length];
 
-        int success = h3Api.compact(h3AsArray, out);
+        int success = backend.compact(h3, out);
 
         if (success != 0) {
             throw new IllegalArgumentException("Bad input to compact");
         }
 
-        return nonZeroLongArrayToList(out);
+        return H3IndexList.fromNonZero(out);
+    }
+
+    /**
+     * Returns a compacted set of indexes, computed in Java. Unlike {@link #compactIndexList(long[])},
+     * the input may contain duplicates, zeros, and indexes at mixed resolutions, including
+     * indexes contained by other indexes in the input.
+     *
+     * <p>The indexes are sorted, and then compacted in linear time.</p>
+     *
+     * @param h3 Indexes to compact. This array is used as scratch space and its contents are overwritten.
+     * @param parallel If true, sort in parallel and compact each base cell in parallel.
+     * @return Compacted indexes, ordered so that each index is before the indexes contained by it.
+     * @throws IllegalArgumentException An index is not valid.
+     */
+    public H3IndexList compact(long[] h3, boolean parallel) {
+        return H3Compaction.compact(h3, parallel);
     }
 
     /**
@@ -705,35 +1342,63 @@ public class H3Core {
      * @throws IllegalArgumentException Invalid input, such as indexes finer than <code>res</code>.
      */
     public List<Long> uncompact(Collection<Long> h3, int res) {
-        checkResolution(res);
+        return uncompactIndexList(collectionToLongArray(h3), res).toList();
+    }
 
-        long[] h3AsArray = collectionToLongArray(h3);
+    /**
+     * Uncompacts all the given indexes to resolution <code>res</code>, without boxing.
+     *
+     * @param h3 Indexes to uncompact. Not modified.
+     * @throws IllegalArgumentException Invalid input, such as indexes finer than <code>res</code>.
+     */
+    public H3IndexList uncompactIndexList(long[] h3, int res) {
+        checkResolution(res);
 
-        int sz = h3Api.maxUncompactSize(h3AsArray, res);
+        int sz = backend.maxUncompactSize(h3, res);
+        if (sz < 0) {
+            throw new IllegalArgumentException("Bad input to uncompact");
+        }
 
         long[] out = new long[sz];
 
-        int success = h3Api.uncompact(h3AsArray, res, out);
+        int success = backend.uncompact(h3, res, out);
 
         if (success != 0) {
             throw new IllegalArgumentException("Bad input to uncompact");
         }
 
-        return nonZeroLongArrayToList(out);
+        return H3IndexList.fromNonZero(out);
+    }
+
+    /**
+     * Uncompacts all the given indexes to resolution <code>res</code>, computed in Java. The children
+     * of each index are in the same order as the input, and zeros are ignored.
+     *
+     * @param h3 Indexes to uncompact. Not modified.
+     * @param parallel If true, uncompact the indexes in parallel.
+     * @throws IllegalArgumentException Invalid input, such as indexes finer than <code>res</code>.
+     */
+    public H3IndexList uncompact(long[] h3, int res, boolean parallel) {
+        checkResolution(res);
+
+        return H3Compaction.uncompact(h3, res, parallel);
     }
 
     /**
      * Converts from <code>long</code> representation of an index to <code>String</code> representation.
      */
     public String h3ToString(long h3) {
-        return Long.toHexString(h3);
+        return H3AddressCodec.format(h3);
     }
 
     /**
      * Converts from <code>String</code> representation of an index to <code>long</code> representation.
+     *
+     * @throws NumberFormatException <code>h3Address</code> is not an unsigned hexadecimal number of at most 64 bits.
+     * @see H3AddressCodec
      */
     public long stringToH3(String h3Address) {
-        return Long.parseUnsignedLong(h3Address, 16);
+        return H3AddressCodec.parse(h3Address);
     }
 
     /**
@@ -744,9 +1409,9 @@ public class H3Core {
     public double hexArea(int res, AreaUnit unit) {
         checkResolution(res);
         if (unit == AreaUnit.km2)
-            return h3Api.hexAreaKm2(res);
+            return H3Constants.hexAreaKm2(res);
         else if (unit == AreaUnit.m2)
-            return h3Api.hexAreaM2(res);
+            return H3Constants.hexAreaM2(res);
         else
             throw new IllegalArgumentException(String.format("Invalid unit: %s", unit));
     }
@@ -759,9 +1424,9 @@ public class H3Core {
     public double edgeLength(int res, LengthUnit unit) {
         checkResolution(res);
         if (unit == LengthUnit.km)
-            return h3Api.edgeLengthKm(res);
+            return H3Constants.edgeLengthKm(res);
         else if (unit == LengthUnit.m)
-            return h3Api.edgeLengthM(res);
+            return H3Constants.edgeLengthM(res);
         else
             throw new IllegalArgumentException(String.format("Invalid unit: %s", unit));
     }
@@ -773,14 +1438,63 @@ public class H3Core {
      */
     public long numHexagons(int res) {
         checkResolution(res);
-        return h3Api.numHexagons(res);
+        return H3Constants.numHexagons(res);
+    }
+
+    /**
+     * Returns the approximate total area in <code>unit</code> of the indexes, using the average
+     * area of each index's resolution.
+     *
+     * @throws IllegalArgumentException Invalid unit
+     */
+    public double hexArea(long[] h3, AreaUnit unit) {
+        double[] byResolution = hexAreaByResolution(h3, unit);
+        double total = 0;
+        for (double area : byResolution) {
+            total += area;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the approximate area in <code>unit</code> of the indexes at each resolution, using the
+     * average area of the resolution.
+     *
+     * @return Array of length 16, where element <code>res</code> is the area of the indexes at
+     *         resolution <code>res</code>.
+     * @throws IllegalArgumentException Invalid unit
+     */
+    public double[] hexAreaByResolution(long[] h3, AreaUnit unit) {
+        if (unit != AreaUnit.km2 && unit != AreaUnit.m2) {
+            throw new IllegalArgumentException(String.format("Invalid unit: %s", unit));
+        }
+        long[] counts = countByResolution(h3);
+        double[] out = new double[counts.length];
+        for (int res = 0; res < counts.length; res++) {
+            out[res] = counts[res] * hexArea(res, unit);
+        }
+        return out;
+    }
+
+    /**
+     * Returns the number of indexes at each resolution.
+     *
+     * @return Array of length 16, where element <code>res</code> is the number of indexes at
+     *         resolution <code>res</code>.
+     */
+    public long[] countByResolution(long[] h3) {
+        long[] counts = new long[16];
+        for (long h : h3) {
+            counts[(int) ((h & H3_RES_MASK) >> H3_RES_OFFSET)]++;
+        }
+        return counts;
     }
 
     /**
      * Returns <code>true</code> if the two indexes are neighbors.
      */
     public boolean h3IndexesAreNeighbors(long a, long b) {
-        return h3Api.h3IndexesAreNeighbors(a, b);
+        return backend.h3IndexesAreNeighbors(a, b);
     }
 
     /**
@@ -796,7 +1510,7 @@ public class H3Core {
      * @throws IllegalArgumentException The indexes are not neighbors.
      */
     public long getH3UnidirectionalEdge(long a, long b) {
-        long index = h3Api.getH3UnidirectionalEdge(a, b);
+        long index = backend.getH3UnidirectionalEdge(a, b);
 
         if (index == 0) {
             throw new IllegalArgumentException("Given indexes are not neighbors.");
@@ -818,7 +1532,7 @@ public class H3Core {
      * Returns <code>true</code> if the given index is a valid unidirectional edge.
      */
     public boolean h3UnidirectionalEdgeIsValid(long h3) {
-        return h3Api.h3UnidirectionalEdgeIsValid(h3);
+        return H3Index.isValidUnidirectionalEdge(h3);
     }
 
     /**
@@ -832,7 +1546,7 @@ public class H3Core {
      * Returns the origin index of the given unidirectional edge.
      */
     public long getOriginH3IndexFromUnidirectionalEdge(long h3) {
-        return h3Api.getOriginH3IndexFromUnidirectionalEdge(h3);
+        return H3Index.getOriginFromUnidirectionalEdge(h3);
     }
 
     /**
@@ -846,7 +1560,10 @@ public class H3Core {
      * Returns the destination index of the given unidirectional edge.
      */
     public long getDestinationH3IndexFromUnidirectionalEdge(long h3) {
-        return h3Api.getDestinationH3IndexFromUnidirectionalEdge(h3);
+        if (!H3Index.isValidUnidirectionalEdge(h3)) {
+            return 0;
+        }
+        return H3Index.getDestinationFromUnidirectionalEdge(h3);
     }
 
     /**
@@ -864,7 +1581,7 @@ public class H3Core {
         long[] results = new long[2];
 
         // TODO: could be a pair type
-        h3Api.getH3IndexesFromUnidirectionalEdge(h3, results);
+        backend.getH3IndexesFromUnidirectionalEdge(h3, results);
 
         return nonZeroLongArrayToList(results);
     }
@@ -883,7 +1600,7 @@ public class H3Core {
     public List<Long> getH3UnidirectionalEdgesFromHexagon(long h3) {
         long[] results = new long[6];
 
-        h3Api.getH3UnidirectionalEdgesFromHexagon(h3, results);
+        H3Index.getUnidirectionalEdgesFromHexagon(h3, results);
 
         return nonZeroLongArrayToList(results);
     }
@@ -900,7 +1617,7 @@ public class H3Core {
      */
     public List<Vector2D> getH3UnidirectionalEdgeBoundary(long h3) {
         double[] verts = new double[MAX_CELL_BNDRY_VERTS * 2];
-        int numVerts = h3Api.getH3UnidirectionalEdgeBoundary(h3, verts);
+        int numVerts = backend.getH3UnidirectionalEdgeBoundary(h3, verts);
         List<Vector2D> out = new ArrayList<>(numVerts);
         for (int i = 0; i < numVerts; i++) {
             Vector2D coord = new Vector2D(
@@ -924,9 +1641,11 @@ public class H3Core {
      * indexes in long form.
      */
     private List<Long> stringToH3List(Collection<String> collection) {
-        return collection.stream()
-                .map(this::stringToH3)
-                .collect(Collectors.toList());
+        List<Long> ret = new ArrayList<>(collection.size());
+        for (String h3Address : collection) {
+            ret.add(H3AddressCodec.parse(h3Address));
+        }
+        return ret;
     }
 
     /**
@@ -934,9 +1653,13 @@ public class H3Core {
      * indexes in string form.
      */
     private List<String> h3ToStringList(List<Long> list) {
-        return list.stream()
-                .map(this::h3ToString)
-                .collect(Collectors.toList());
+        List<String> ret = new ArrayList<>(list.size());
+        // Format each address into the same buffer, so only the String is allocated.
+        char[] chars = new char[H3AddressCodec.MAX_LENGTH];
+        for (long h3 : list) {
+            ret.add(new String(chars, 0, H3AddressCodec.format(h3, chars, 0)));
+        }
+        return ret;
     }
 
     /**
@@ -964,6 +1687,47 @@ public class H3Core {
         return collection.stream().mapToLong(Long::longValue).toArray();
     }
 
+    /**
+     * @throws IllegalArgumentException An output array of length <code>size</code> cannot hold
+     *                                  <code>required</code> elements.
+     */
+    private static void checkOutputSize(int size, int required) {
+        if (size < required) {
+            throw new IllegalArgumentException(String.format("output (%d) is too small, must be at least %d", size, required));
+        }
+    }
+
+    /**
+     * Checks that the buffer can be passed to native code, and that it has room for
+     * <code>count</code> elements of <code>elementBytes</code> each. Native code accesses the elements
+     * through typed pointers, so the position must be aligned to <code>elementBytes</code>.
+     *
+     * @return A view of the buffer beginning at its position, so native code can start at the buffer address.
+     * @throws IllegalArgumentException The buffer is not direct, not in native byte order, is not aligned,
+     *                                  or is too small.
+     */
+    private static ByteBuffer checkBuffer(ByteBuffer buf, String name, int count, int elementBytes) {
+        if (!buf.isDirect()) {
+            throw new IllegalArgumentException(String.format("%s must be a direct buffer", name));
+        }
+        if (buf.order() != ByteOrder.nativeOrder()) {
+            throw new IllegalArgumentException(String.format("%s must be in native byte order", name));
+        }
+        if (DirectBuffers.alignmentOffset(buf, buf.position(), elementBytes) != 0) {
+            throw new IllegalArgumentException(String.format("%s must be aligned to %d bytes at its position",
+                    name, elementBytes));
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException(String.format("count %d must not be negative", count));
+        }
+        long required = (long) count * elementBytes;
+        if (buf.remaining() < required) {
+            throw new IllegalArgumentException(String.format("%s (%d bytes) is too small, must be at least %d bytes",
+                    name, buf.remaining(), required));
+        }
+        return buf.slice();
+    }
+
     /**
      * @throws IllegalArgumentException <code>res</code> is not a valid H3 resolution.
      */
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.uber.h3core.util.Vector2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+import static java.lang.Math.toDegrees;
+
+/**
+ * Bounded cache of cell centers and boundaries, for looking up the geometry of the same indexes
+ * many times.
+ *
+ * <p>Geometry is stored in degrees, in primitive arrays, so a hit does not call into the H3 core
+ * library and the array variants of the lookups do not allocate. When the cache is full, the least
+ * recently used entry among the {@value #WAYS} entries an index can be stored in is evicted.</p>
+ *
+ * <p>This class is thread safe. Entries are split into stripes, each with its own lock. Hits are
+ * usually read without locking, falling back to a read lock if the stripe was written at the
+ * same time. Create instances with {@link H3Core#newGeometryCache(int)}.</p>
+ */
+public final class H3GeometryCache {
+    /**
+     * Number of entries in which an index may be stored.
+     */
+    static final int WAYS = 16;
+    private static final int MAX_STRIPES = 16;
+
+    private final H3Backend backend;
+    private final Stripe[] stripes;
+    private final int setsPerStripe;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxSize Greatest number of indexes to cache, rounded up to a multiple of {@link #WAYS}
+     *                times the number of stripes.
+     * @throws IllegalArgumentException <code>maxSize</code> is not positive.
+     */
+    H3GeometryCache(H3Backend backend, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException(String.format("maxSize (%d) must be positive", maxSize));
+        }
+        this.backend = backend;
+
+        // Small caches have fewer stripes so that they are not rounded up much
+        int numStripes = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, maxSize / (WAYS * 4))));
+        setsPerStripe = (maxSize + numStripes * WAYS - 1) / (numStripes * WAYS);
+        stripes = new Stripe[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new Stripe(setsPerStripe * WAYS);
+        }
+    }
+
+    /**
+     * Find the latitude, longitude (both in degrees) center point of the cell.
+     */
+    public Vector2D h3ToGeo(long h3) {
+        double[] out = new double[2];
+        h3ToGeo(h3, out);
+        return new Vector2D(out[0], out[1]);
+    }
+
+    /**
+     * Find the latitude, longitude (both in degrees) center point of the cell, without allocating.
+     *
+     * @param out Output for the latitude and longitude, at least 2 long.
+     */
+    public void h3ToGeo(long h3, double[] out) {
+        lookup(h3, out, false);
+    }
+
+    /**
+     * Find the cell boundary in latitude, longitude (degrees) coordinates for the cell.
+     */
+    public List<Vector2D> h3ToGeoBoundary(long h3) {
+        double[] verts = new double[JavaMethods.MAX_CELL_BNDRY_VERTS * 2];
+        int numVerts = h3ToGeoBoundary(h3, verts);
+        List<Vector2D> out = new ArrayList<>(numVerts);
+        for (int i = 0; i < numVerts; i++) {
+            out.add(new Vector2D(verts[i * 2], verts[i * 2 + 1]));
+        }
+        return out;
+    }
+
+    /**
+     * Find the cell boundary in latitude, longitude (degrees) coordinates for the cell, without
+     * allocating.
+     *
+     * @param verts Output for the vertices, as interleaved latitude, longitude pairs. Must be at
+     *              least 20 long, since a cell has at most 10 vertices.
+     * @return The number of vertices written.
+     */
+    public int h3ToGeoBoundary(long h3, double[] verts) {
+        return lookup(h3, verts, true);
+    }
+
+    /**
+     * Returns the number of lookups which found the geometry in the cache.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups which computed the geometry.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of indexes removed from the cache to make room for others.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of indexes in the cache.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the greatest number of indexes the cache holds.
+     */
+    public int capacity() {
+        return stripes.length * setsPerStripe * WAYS;
+    }
+
+    /**
+     * Removes all indexes from the cache. The statistics are not reset.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.clear();
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private int lookup(long h3, double[] out, boolean boundary) {
+        if (h3 == 0) {
+            // 0 marks unused entries, so is never cached
+            misses.increment();
+            return compute(h3, out, boundary);
+        }
+        Stripe stripe = stripes[LongHashTable.stripe(h3, stripes.length)];
+        // Scales the high bits of the mixed index to the number of sets, which is not a power of two
+        int set = (int) (((LongHashTable.mix(h3) >>> 32) * setsPerStripe) >>> 32) * WAYS;
+
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int n = stripe.read(h3, set, out, boundary);
+            if (stripe.lock.validate(stamp)) {
+                if (n >= 0) {
+                    hits.increment();
+                    return n;
+                }
+                return miss(stripe, set, h3, out, boundary);
+            }
+        }
+
+        stamp = stripe.lock.readLock();
+        int n;
+        try {
+            n = stripe.read(h3, set, out, boundary);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+        if (n >= 0) {
+            hits.increment();
+            return n;
+        }
+        return miss(stripe, set, h3, out, boundary);
+    }
+
+    private int miss(Stripe stripe, int set, long h3, double[] out, boolean boundary) {
+        misses.increment();
+        // Computed outside the lock, so that other threads are not blocked by the H3 core library
+        int n = compute(h3, out, boundary);
+
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (stripe.write(h3, set, out, n, boundary)) {
+                evictions.increment();
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+        return n;
+    }
+
+    private int compute(long h3, double[] out, boolean boundary) {
+        int n;
+        if (boundary) {
+            n = backend.h3ToGeoBoundary(h3, out);
+            for (int i = 0; i < n * 2; i += 2) {
+                out[i] = H3Core.constrainLat(toDegrees(out[i]));
+                out[i + 1] = H3Core.constrainLng(toDegrees(out[i + 1]));
+            }
+        } else {
+            backend.h3ToGeo(h3, out);
+            out[0] = H3Core.constrainLat(toDegrees(out[0]));
+            out[1] = H3Core.constrainLng(toDegrees(out[1]));
+            n = 1;
+        }
+        return n;
+    }
+
+    /**
+     * Entries guarded by one lock. Entry <code>i</code> is stored at position <code>i</code> of each
+     * array, or <code>i * 2</code> and <code>i * JavaMethods.MAX_CELL_BNDRY_VERTS * 2</code> for
+     * coordinates.
+     */
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+
+        /**
+         * Indexes, or 0 for unused entries.
+         */
+        final long[] keys;
+        /**
+         * Value of {@link #clock} when each entry was last used. Updated by readers without the
+         * write lock, so only approximate.
+         */
+        final int[] lastUsed;
+        final boolean[] hasCenter;
+        final double[] centers;
+        /**
+         * Number of boundary vertices, or -1 if the boundary is not cached.
+         */
+        final int[] numVerts;
+        final double[] verts;
+        int clock;
+        int size;
+
+        Stripe(int numEntries) {
+            keys = new long[numEntries];
+            lastUsed = new int[numEntries];
+            hasCenter = new boolean[numEntries];
+            centers = new double[numEntries * 2];
+            numVerts = new int[numEntries];
+            verts = new double[numEntries * JavaMethods.MAX_CELL_BNDRY_VERTS * 2];
+        }
+
+        /**
+         * Copies the cached geometry of the index to <code>out</code>.
+         *
+         * @return The number of vertices copied, or -1 if the geometry is not cached.
+         */
+        int read(long h3, int set, double[] out, boolean boundary) {
+            for (int i = set; i < set + WAYS; i++) {
+                if (keys[i] != h3) {
+                    continue;
+                }
+                int n;
+                if (boundary) {
+                    n = numVerts[i];
+                    // The count may be stale in an optimistic read, so is bounded here and the read
+                    // is validated afterwards
+                    if (n < 0 || n > JavaMethods.MAX_CELL_BNDRY_VERTS) {
+                        return -1;
+                    }
+                    System.arraycopy(verts, i * JavaMethods.MAX_CELL_BNDRY_VERTS * 2, out, 0, n * 2);
+                } else {
+                    if (!hasCenter[i]) {
+                        return -1;
+                    }
+                    out[0] = centers[i * 2];
+                    out[1] = centers[i * 2 + 1];
+                    n = 1;
+                }
+                lastUsed[i] = ++clock;
+                return n;
+            }
+            return -1;
+        }
+
+        /**
+         * Stores the geometry of the index, replacing the least recently used entry of the set if
+         * the index is not already stored.
+         *
+         * @return Whether another index was evicted.
+         */
+        boolean write(long h3, int set, double[] geometry, int n, boolean boundary) {
+            int entry = -1;
+            for (int i = set; i < set + WAYS && entry < 0; i++) {
+                if (keys[i] == h3) {
+                    entry = i;
+                }
+            }
+
+            boolean evicted = false;
+            if (entry < 0) {
+                entry = set;
+                for (int i = set; i < set + WAYS; i++) {
+                    if (keys[i] == 0) {
+                        entry = i;
+                        break;
+                    }
+                    if (lastUsed[i] - lastUsed[entry] < 0) {
+                        entry = i;
+                    }
+                }
+                if (keys[entry] == 0) {
+                    size++;
+                } else {
+                    evicted = true;
+                }
+                keys[entry] = h3;
+                hasCenter[entry] = false;
+                numVerts[entry] = -1;
+            }
+
+            if (boundary) {
+                System.arraycopy(geometry, 0, verts, entry * JavaMethods.MAX_CELL_BNDRY_VERTS * 2, n * 2);
+                numVerts[entry] = n;
+            } else {
+                centers[entry * 2] = geometry[0];
+                centers[entry * 2 + 1] = geometry[1];
+                hasCenter[entry] = true;
+            }
+            lastUsed[entry] = ++clock;
+            return evicted;
+        }
+
+        void clear() {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = 0;
+            }
+            size = 0;
+        }
+    }
+}
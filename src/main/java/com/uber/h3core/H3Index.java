@@ -0,0 +1,561 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+/**
+ * Decodes the bit fields of an H3 index, and the functions which only need those fields.
+ *
+ * <p>These are ported from <code>h3Index.c</code> and <code>h3UniEdge.c</code> in the H3 core
+ * library, so that they do not need to call native code.
+ */
+final class H3Index {
+    static final int MAX_H3_RES = 15;
+    static final int NUM_BASE_CELLS = 122;
+
+    static final int H3_HEXAGON_MODE = 1;
+    static final int H3_UNIEDGE_MODE = 2;
+
+    static final int CENTER_DIGIT = 0;
+    static final int K_AXES_DIGIT = 1;
+    static final int J_AXES_DIGIT = 2;
+    static final int JK_AXES_DIGIT = 3;
+    static final int I_AXES_DIGIT = 4;
+    static final int IK_AXES_DIGIT = 5;
+    static final int IJ_AXES_DIGIT = 6;
+    static final int NUM_DIGITS = 7;
+    static final int INVALID_DIGIT = 7;
+
+    // Offsets and masks for the bit fields of an index.
+    static final int H3_MODE_OFFSET = 59;
+    static final long H3_MODE_MASK = 0xfL << H3_MODE_OFFSET;
+    static final int H3_RESERVED_OFFSET = 56;
+    static final long H3_RESERVED_MASK = 0x7L << H3_RESERVED_OFFSET;
+    static final int H3_RES_OFFSET = 52;
+    static final long H3_RES_MASK = 0xfL << H3_RES_OFFSET;
+    static final int H3_BC_OFFSET = 45;
+    static final long H3_BC_MASK = 0x7fL << H3_BC_OFFSET;
+    static final int H3_PER_DIGIT_OFFSET = 3;
+    static final long H3_DIGIT_MASK = 0x7L;
+    /**
+     * Every digit set to {@link #IJ_AXES_DIGIT}, the greatest valid digit.
+     */
+    private static final long ALL_IJ_AXES_DIGITS = 0x1b6db6db6db6L;
+
+    /**
+     * Whether each base cell is a pentagon, indexed by base cell number.
+     */
+    private static final boolean[] BASE_CELL_IS_PENTAGON = new boolean[NUM_BASE_CELLS];
+
+    static {
+        for (int baseCell : new int[] { 4, 14, 24, 38, 49, 58, 63, 72, 83, 97, 107, 117 }) {
+            BASE_CELL_IS_PENTAGON[baseCell] = true;
+        }
+    }
+
+    /**
+     * Replacement digit and carry direction for moving one cell from a digit, indexed by
+     * <code>[old digit][direction]</code>. The carry is {@link #CENTER_DIGIT} if the move stays
+     * within the same parent. The tables for digits at Class III resolutions use counter-clockwise
+     * aperture 7 grids, and those for Class II resolutions use clockwise grids.
+     */
+    private static final int[][] NEW_DIGIT_III = new int[NUM_DIGITS][NUM_DIGITS];
+    private static final int[][] NEW_ADJUSTMENT_III = new int[NUM_DIGITS][NUM_DIGITS];
+    private static final int[][] NEW_DIGIT_II = new int[NUM_DIGITS][NUM_DIGITS];
+    private static final int[][] NEW_ADJUSTMENT_II = new int[NUM_DIGITS][NUM_DIGITS];
+
+    static {
+        // Rather than transcribing the tables, derive them with the same coordinate system
+        // operations used to encode indexes.
+        for (int oldDigit = 0; oldDigit < NUM_DIGITS; oldDigit++) {
+            for (int dir = 0; dir < NUM_DIGITS; dir++) {
+                fillNeighborTables(oldDigit, dir, true);
+                fillNeighborTables(oldDigit, dir, false);
+            }
+        }
+    }
+
+    private static void fillNeighborTables(int oldDigit, int dir, boolean classIII) {
+        // The cell being moved, relative to the center child of its parent.
+        CoordIJK cell = CoordIJK.fromDigit(oldDigit);
+        cell.neighbor(dir);
+
+        CoordIJK parent = new CoordIJK(cell.i, cell.j, cell.k);
+        if (classIII) {
+            parent.upAp7();
+        } else {
+            parent.upAp7r();
+        }
+        CoordIJK center = new CoordIJK(parent.i, parent.j, parent.k);
+        if (classIII) {
+            center.downAp7();
+        } else {
+            center.downAp7r();
+        }
+        cell.sub(center);
+
+        (classIII ? NEW_DIGIT_III : NEW_DIGIT_II)[oldDigit][dir] = cell.unitIjkToDigit();
+        (classIII ? NEW_ADJUSTMENT_III : NEW_ADJUSTMENT_II)[oldDigit][dir] = parent.unitIjkToDigit();
+    }
+
+    private H3Index() {
+        // Prevent instantiation
+    }
+
+    static int getMode(long h3) {
+        return (int) ((h3 & H3_MODE_MASK) >>> H3_MODE_OFFSET);
+    }
+
+    static long setMode(long h3, int mode) {
+        return (h3 & ~H3_MODE_MASK) | ((long) mode << H3_MODE_OFFSET);
+    }
+
+    static int getReservedBits(long h3) {
+        return (int) ((h3 & H3_RESERVED_MASK) >>> H3_RESERVED_OFFSET);
+    }
+
+    static long setReservedBits(long h3, int bits) {
+        return (h3 & ~H3_RESERVED_MASK) | ((long) bits << H3_RESERVED_OFFSET);
+    }
+
+    static int getResolution(long h3) {
+        return (int) ((h3 & H3_RES_MASK) >>> H3_RES_OFFSET);
+    }
+
+    static long setResolution(long h3, int res) {
+        return (h3 & ~H3_RES_MASK) | ((long) res << H3_RES_OFFSET);
+    }
+
+    /**
+     * Returns the ancestor of the index at resolution <code>res</code>, which must not be finer than
+     * the resolution of the index.
+     */
+    static long getParent(long h3, int res) {
+        return setResolution(h3, res) | ((1L << ((MAX_H3_RES - res) * H3_PER_DIGIT_OFFSET)) - 1);
+    }
+
+    static int getBaseCell(long h3) {
+        return (int) ((h3 & H3_BC_MASK) >>> H3_BC_OFFSET);
+    }
+
+    /**
+     * Returns the digit of the index at resolution <code>res</code>, 1 &lt;= res &lt;= 15.
+     */
+    static int getIndexDigit(long h3, int res) {
+        return (int) ((h3 >>> ((MAX_H3_RES - res) * H3_PER_DIGIT_OFFSET)) & H3_DIGIT_MASK);
+    }
+
+    static long setIndexDigit(long h3, int res, int digit) {
+        int offset = (MAX_H3_RES - res) * H3_PER_DIGIT_OFFSET;
+        return (h3 & ~(H3_DIGIT_MASK << offset)) | ((long) digit << offset);
+    }
+
+    static boolean isResClassIII(int res) {
+        return res % 2 == 1;
+    }
+
+    static boolean isBaseCellPentagon(int baseCell) {
+        return baseCell >= 0 && baseCell < NUM_BASE_CELLS && BASE_CELL_IS_PENTAGON[baseCell];
+    }
+
+    /**
+     * Returns the first of the resolution 15 descendants of the index, in numeric order.
+     */
+    static long firstFinestDescendant(long h3) {
+        long unusedDigits = (1L << ((MAX_H3_RES - getResolution(h3)) * H3_PER_DIGIT_OFFSET)) - 1;
+        return (h3 & ~H3_RES_MASK & ~unusedDigits) | ((long) MAX_H3_RES << H3_RES_OFFSET);
+    }
+
+    /**
+     * Returns the last of the resolution 15 descendants of the index, in numeric order. Every
+     * resolution 15 index between this and {@link #firstFinestDescendant(long)} is a descendant.
+     */
+    static long lastFinestDescendant(long h3) {
+        long unusedDigits = (1L << ((MAX_H3_RES - getResolution(h3)) * H3_PER_DIGIT_OFFSET)) - 1;
+        return firstFinestDescendant(h3) | (ALL_IJ_AXES_DIGITS & unusedDigits);
+    }
+
+    /**
+     * Returns the first digit of the index which is not {@link #CENTER_DIGIT}, or
+     * {@link #CENTER_DIGIT} if all digits are.
+     */
+    static int leadingNonZeroDigit(long h3) {
+        int res = getResolution(h3);
+        for (int r = 1; r <= res; r++) {
+            int digit = getIndexDigit(h3, r);
+            if (digit != CENTER_DIGIT) {
+                return digit;
+            }
+        }
+        return CENTER_DIGIT;
+    }
+
+    /**
+     * Rotates a digit 60 degrees counter-clockwise.
+     */
+    static int rotate60ccw(int digit) {
+        switch (digit) {
+            case K_AXES_DIGIT:
+                return IK_AXES_DIGIT;
+            case IK_AXES_DIGIT:
+                return I_AXES_DIGIT;
+            case I_AXES_DIGIT:
+                return IJ_AXES_DIGIT;
+            case IJ_AXES_DIGIT:
+                return J_AXES_DIGIT;
+            case J_AXES_DIGIT:
+                return JK_AXES_DIGIT;
+            case JK_AXES_DIGIT:
+                return K_AXES_DIGIT;
+            default:
+                return digit;
+        }
+    }
+
+    /**
+     * Rotates a digit 60 degrees clockwise.
+     */
+    static int rotate60cw(int digit) {
+        switch (digit) {
+            case K_AXES_DIGIT:
+                return JK_AXES_DIGIT;
+            case JK_AXES_DIGIT:
+                return J_AXES_DIGIT;
+            case J_AXES_DIGIT:
+                return IJ_AXES_DIGIT;
+            case IJ_AXES_DIGIT:
+                return I_AXES_DIGIT;
+            case I_AXES_DIGIT:
+                return IK_AXES_DIGIT;
+            case IK_AXES_DIGIT:
+                return K_AXES_DIGIT;
+            default:
+                return digit;
+        }
+    }
+
+    /**
+     * Rotates an index 60 degrees counter-clockwise.
+     */
+    static long h3Rotate60ccw(long h3) {
+        for (int r = 1, res = getResolution(h3); r <= res; r++) {
+            h3 = setIndexDigit(h3, r, rotate60ccw(getIndexDigit(h3, r)));
+        }
+        return h3;
+    }
+
+    /**
+     * Rotates an index 60 degrees clockwise.
+     */
+    static long h3Rotate60cw(long h3) {
+        for (int r = 1, res = getResolution(h3); r <= res; r++) {
+            h3 = setIndexDigit(h3, r, rotate60cw(getIndexDigit(h3, r)));
+        }
+        return h3;
+    }
+
+    /**
+     * Rotates an index in a pentagon base cell 60 degrees counter-clockwise, skipping over the
+     * deleted k-axes subsequence.
+     */
+    static long h3RotatePent60ccw(long h3) {
+        boolean foundFirstNonZeroDigit = false;
+        for (int r = 1, res = getResolution(h3); r <= res; r++) {
+            // rotate this digit
+            h3 = setIndexDigit(h3, r, rotate60ccw(getIndexDigit(h3, r)));
+
+            // look for the first non-zero digit so we
+            // can adjust for deleted k-axes sequence
+            // if necessary
+            if (!foundFirstNonZeroDigit && getIndexDigit(h3, r) != CENTER_DIGIT) {
+                foundFirstNonZeroDigit = true;
+
+                // adjust for deleted k-axes sequence
+                if (leadingNonZeroDigit(h3) == K_AXES_DIGIT) {
+                    h3 = h3Rotate60ccw(h3);
+                }
+            }
+        }
+        return h3;
+    }
+
+    /**
+     * Returns the neighbor of an index in the given direction, ported from <code>h3NeighborRotations</code>
+     * in <code>algos.c</code>.
+     *
+     * @param rotations Single element array with the number of 60 degree counter-clockwise rotations
+     *                  to apply to <code>dir</code> before moving. Updated with the rotations to apply
+     *                  to directions from the neighbor to continue in the same direction.
+     * @return The neighbor, or 0 if moving into the deleted k-axes subsequence of a pentagon.
+     */
+    static long neighborRotations(long origin, int dir, int[] rotations) {
+        long out = origin;
+
+        for (int i = 0; i < rotations[0]; i++) {
+            dir = rotate60ccw(dir);
+        }
+
+        int newRotations = 0;
+        int oldBaseCell = getBaseCell(out);
+        int oldLeadingDigit = leadingNonZeroDigit(out);
+
+        // Adjust the indexing digits and, if needed, the base cell.
+        int r = getResolution(out) - 1;
+        while (true) {
+            if (r == -1) {
+                int newBaseCell = BaseCells.getNeighbor(oldBaseCell, dir);
+                newRotations = BaseCells.getNeighborCCWrot60(oldBaseCell, dir);
+
+                if (newBaseCell == BaseCells.INVALID_BASE_CELL) {
+                    // Adjust for the deleted k vertex at the base cell level.
+                    // This edge actually borders a different neighbor.
+                    newBaseCell = BaseCells.getNeighbor(oldBaseCell, IK_AXES_DIGIT);
+                    newRotations = BaseCells.getNeighborCCWrot60(oldBaseCell, IK_AXES_DIGIT);
+
+                    // perform the adjustment for the k-subsequence we're skipping
+                    // over.
+                    out = h3Rotate60ccw(out);
+                    rotations[0] = rotations[0] + 1;
+                }
+
+                out = (out & ~H3_BC_MASK) | ((long) newBaseCell << H3_BC_OFFSET);
+                break;
+            } else {
+                int oldDigit = getIndexDigit(out, r + 1);
+                int nextDir;
+                if (isResClassIII(r + 1)) {
+                    out = setIndexDigit(out, r + 1, NEW_DIGIT_III[oldDigit][dir]);
+                    nextDir = NEW_ADJUSTMENT_III[oldDigit][dir];
+                } else {
+                    out = setIndexDigit(out, r + 1, NEW_DIGIT_II[oldDigit][dir]);
+                    nextDir = NEW_ADJUSTMENT_II[oldDigit][dir];
+                }
+
+                if (nextDir != CENTER_DIGIT) {
+                    dir = nextDir;
+                    r--;
+                } else {
+                    // No more adjustment to perform
+                    break;
+                }
+            }
+        }
+
+        int newBaseCell = getBaseCell(out);
+        if (isBaseCellPentagon(newBaseCell)) {
+            boolean alreadyAdjustedKSubsequence = false;
+
+            // force rotation out of missing k-axes sub-sequence
+            if (leadingNonZeroDigit(out) == K_AXES_DIGIT) {
+                if (oldBaseCell != newBaseCell) {
+                    // in this case, we traversed into the deleted
+                    // k subsequence of a pentagon base cell.
+                    // We need to rotate out of that case depending
+                    // on how we got here.
+                    // check for a cw/ccw offset face; default is ccw
+                    if (BaseCells.isCwOffset(newBaseCell, BaseCells.homeFace(oldBaseCell))) {
+                        out = h3Rotate60cw(out);
+                    } else {
+                        out = h3Rotate60ccw(out);
+                    }
+                    alreadyAdjustedKSubsequence = true;
+                } else {
+                    // In this case, we traversed into the deleted
+                    // k subsequence from within the same pentagon
+                    // base cell.
+                    if (oldLeadingDigit == CENTER_DIGIT) {
+                        // Undefined: the k direction is deleted from here
+                        return 0;
+                    } else if (oldLeadingDigit == JK_AXES_DIGIT) {
+                        // Rotate out of the deleted k subsequence
+                        // We also need an additional change to the direction we're
+                        // moving in
+                        out = h3Rotate60ccw(out);
+                        rotations[0] = rotations[0] + 1;
+                    } else if (oldLeadingDigit == IK_AXES_DIGIT) {
+                        // Rotate out of the deleted k subsequence
+                        // We also need an additional change to the direction we're
+                        // moving in
+                        out = h3Rotate60cw(out);
+                        rotations[0] = rotations[0] + 5;
+                    } else {
+                        // Should never occur
+                        return 0;
+                    }
+                }
+            }
+
+            for (int i = 0; i < newRotations; i++) {
+                out = h3RotatePent60ccw(out);
+            }
+
+            // Account for differing orientation of the base cells (this edge
+            // might not follow properties of some other edges.)
+            if (oldBaseCell != newBaseCell) {
+                if (BaseCells.isPolarPentagon(newBaseCell)) {
+                    // 'polar' base cells behave differently because they have all
+                    // i neighbors.
+                    if (oldBaseCell != 118 && oldBaseCell != 8 && leadingNonZeroDigit(out) != JK_AXES_DIGIT) {
+                        rotations[0] = rotations[0] + 1;
+                    }
+                } else if (leadingNonZeroDigit(out) == IK_AXES_DIGIT && !alreadyAdjustedKSubsequence) {
+                    // account for distortion introduced to the 5 neighbor by the
+                    // deleted k subsequence.
+                    rotations[0] = rotations[0] + 1;
+                }
+            }
+        } else {
+            for (int i = 0; i < newRotations; i++) {
+                out = h3Rotate60ccw(out);
+            }
+        }
+
+        rotations[0] = (rotations[0] + newRotations) % 6;
+
+        return out;
+    }
+
+    static boolean isValid(long h3) {
+        if (getMode(h3) != H3_HEXAGON_MODE) {
+            return false;
+        }
+
+        int baseCell = getBaseCell(h3);
+        if (baseCell >= NUM_BASE_CELLS) {
+            return false;
+        }
+
+        int res = getResolution(h3);
+        boolean foundFirstNonZeroDigit = false;
+        for (int r = 1; r <= res; r++) {
+            int digit = getIndexDigit(h3, r);
+
+            if (!foundFirstNonZeroDigit && digit != CENTER_DIGIT) {
+                foundFirstNonZeroDigit = true;
+                // Pentagons have no cells in the K direction
+                if (BASE_CELL_IS_PENTAGON[baseCell] && digit == K_AXES_DIGIT) {
+                    return false;
+                }
+            }
+
+            if (digit >= NUM_DIGITS) {
+                return false;
+            }
+        }
+
+        for (int r = res + 1; r <= MAX_H3_RES; r++) {
+            if (getIndexDigit(h3, r) != INVALID_DIGIT) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static boolean isPentagon(long h3) {
+        return isBaseCellPentagon(getBaseCell(h3)) && leadingNonZeroDigit(h3) == CENTER_DIGIT;
+    }
+
+    static boolean isValidUnidirectionalEdge(long edge) {
+        if (getMode(edge) != H3_UNIEDGE_MODE) {
+            return false;
+        }
+
+        int neighborDirection = getReservedBits(edge);
+        if (neighborDirection <= CENTER_DIGIT || neighborDirection >= NUM_DIGITS) {
+            return false;
+        }
+
+        long origin = getOriginFromUnidirectionalEdge(edge);
+        if (isPentagon(origin) && neighborDirection == K_AXES_DIGIT) {
+            return false;
+        }
+
+        return isValid(origin);
+    }
+
+    /**
+     * Returns the origin of the edge, or 0 if this is not an edge.
+     */
+    static long getOriginFromUnidirectionalEdge(long edge) {
+        if (getMode(edge) != H3_UNIEDGE_MODE) {
+            return 0;
+        }
+        return setReservedBits(setMode(edge, H3_HEXAGON_MODE), 0);
+    }
+
+    /**
+     * Returns the edge from the origin in the given direction.
+     */
+    static long getUnidirectionalEdge(long origin, int dir) {
+        return setReservedBits(setMode(origin, H3_UNIEDGE_MODE), dir);
+    }
+
+    /**
+     * Writes the six edges from the origin to <code>edges</code>, ported from
+     * <code>getH3UnidirectionalEdgesFromHexagon</code>. The edge in the deleted k direction
+     * of a pentagon is 0.
+     */
+    static void getUnidirectionalEdgesFromHexagon(long origin, long[] edges) {
+        boolean isPentagon = isPentagon(origin);
+        for (int i = 0; i < 6; i++) {
+            if (isPentagon && i == 0) {
+                edges[i] = 0;
+            } else {
+                edges[i] = getUnidirectionalEdge(origin, i + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the destination of the edge, ported from
+     * <code>getDestinationH3IndexFromUnidirectionalEdge</code>. Only the mode is checked, so callers
+     * must pass edges which are valid by {@link #isValidUnidirectionalEdge}.
+     *
+     * @return The destination, or 0 if this is not an edge.
+     */
+    static long getDestinationFromUnidirectionalEdge(long edge) {
+        if (getMode(edge) != H3_UNIEDGE_MODE) {
+            return 0;
+        }
+        return neighborRotations(getOriginFromUnidirectionalEdge(edge), getReservedBits(edge), new int[1]);
+    }
+
+    /**
+     * Returns the edge from the origin to the destination, ported from
+     * <code>getH3UnidirectionalEdge</code>. Unlike the core library, the deleted k direction of a
+     * pentagon is never tried, so the edge returned is always valid.
+     *
+     * @return The edge, or 0 if the indexes are not neighbors.
+     */
+    static long getUnidirectionalEdgeBetween(long origin, long destination) {
+        if (getMode(origin) != H3_HEXAGON_MODE || getMode(destination) != H3_HEXAGON_MODE
+                || origin == destination || getResolution(origin) != getResolution(destination)) {
+            return 0;
+        }
+
+        boolean isPentagon = isPentagon(origin);
+        for (int dir = K_AXES_DIGIT; dir < NUM_DIGITS; dir++) {
+            if (isPentagon && dir == K_AXES_DIGIT) {
+                continue;
+            }
+            long edge = getUnidirectionalEdge(origin, dir);
+            if (getDestinationFromUnidirectionalEdge(edge) == destination) {
+                return edge;
+            }
+        }
+        return 0;
+    }
+}
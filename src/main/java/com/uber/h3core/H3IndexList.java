@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable list of H3 indexes, backed by a <code>long[]</code>.
+ *
+ * <p>Functions of {@link H3Core} which can return many indexes have variants returning this type,
+ * so that the indexes do not need to be boxed.</p>
+ */
+public final class H3IndexList implements Iterable<Long> {
+    private static final H3IndexList EMPTY = new H3IndexList(new long[0]);
+
+    /**
+     * The indexes. This array is never exposed, and its length is the size of the list.
+     */
+    private final long[] values;
+
+    /**
+     * Wraps the given array without copying it. The caller must not modify it afterwards.
+     */
+    H3IndexList(long[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates a list with a copy of the given indexes.
+     */
+    public static H3IndexList of(long... values) {
+        return values.length == 0 ? EMPTY : new H3IndexList(values.clone());
+    }
+
+    /**
+     * Creates a list of all non-zero elements of the array. The array is modified and
+     * must not be used by the caller afterwards.
+     */
+    static H3IndexList fromNonZero(long[] out) {
+        int size = 0;
+        for (int i = 0; i < out.length; i++) {
+            long h = out[i];
+            if (h != 0) {
+                out[size++] = h;
+            }
+        }
+
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new H3IndexList(size == out.length ? out : Arrays.copyOf(out, size));
+    }
+
+    /**
+     * Returns the number of indexes in this list.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns <code>true</code> if this list has no indexes.
+     */
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * Returns the index at position <code>i</code>.
+     *
+     * @throws IndexOutOfBoundsException <code>i</code> is not between 0 (inclusive) and the size of the list.
+     */
+    public long get(int i) {
+        if (i < 0 || i >= values.length) {
+            throw new IndexOutOfBoundsException(String.format("index %d is out of range (size %d)", i, values.length));
+        }
+        return values[i];
+    }
+
+    /**
+     * Returns a new array with the indexes in this list.
+     */
+    public long[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * Copies the indexes in this list into <code>dest</code>, starting at <code>destPos</code>.
+     */
+    public void copyTo(long[] dest, int destPos) {
+        System.arraycopy(values, 0, dest, destPos, values.length);
+    }
+
+    /**
+     * Returns a new, mutable list with the indexes in this list, boxed.
+     */
+    public List<Long> toList() {
+        List<Long> ret = new ArrayList<>(values.length);
+        for (long h : values) {
+            ret.add(h);
+        }
+        return ret;
+    }
+
+    /**
+     * Returns a sequential stream of the indexes in this list.
+     */
+    public LongStream stream() {
+        return Arrays.stream(values);
+    }
+
+    /**
+     * Calls <code>action</code> for each index in this list, in order, without boxing. This is not
+     * an overload of {@link Iterable#forEach}, so that lambdas passed to either are not ambiguous.
+     */
+    public void forEachLong(LongConsumer action) {
+        for (long h : values) {
+            action.accept(h);
+        }
+    }
+
+    /**
+     * Returns an iterator over the indexes in this list. Use {@link PrimitiveIterator.OfLong#nextLong()}
+     * to avoid boxing.
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < values.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (next >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                return values[next++];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        H3IndexList that = (H3IndexList) o;
+        return Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("H3IndexList[");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(Long.toHexString(values[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
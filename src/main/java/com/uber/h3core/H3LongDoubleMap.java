@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+
+/**
+ * Mutable map from H3 indexes to <code>double</code> values, stored in primitive arrays without
+ * boxing. Suited to aggregations such as summing a value per index.
+ *
+ * <p>0 is not a valid index and cannot be a key. This class is not thread safe.</p>
+ */
+public final class H3LongDoubleMap extends LongHashTable {
+    private double[] values;
+
+    /**
+     * Receives each entry of the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long h3, double value);
+    }
+
+    /**
+     * Creates an empty map.
+     */
+    public H3LongDoubleMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map which holds <code>expectedSize</code> indexes without growing.
+     *
+     * @throws IllegalArgumentException <code>expectedSize</code> is negative.
+     */
+    public H3LongDoubleMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Returns whether the index is in the map.
+     */
+    public boolean containsKey(long h3) {
+        return h3 != 0 && find(h3) >= 0;
+    }
+
+    /**
+     * Returns the value for the index, or <code>defaultValue</code> if it is not in the map.
+     */
+    public double get(long h3, double defaultValue) {
+        int slot = h3 == 0 ? -1 : find(h3);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Sets the value for the index.
+     *
+     * @throws IllegalArgumentException <code>h3</code> is 0.
+     */
+    public void put(long h3, double value) {
+        int slot = insert(h3);
+        values[slot < 0 ? -(slot + 1) : slot] = value;
+    }
+
+    /**
+     * Adds <code>delta</code> to the value for the index, which is 0 if it is not in the map.
+     *
+     * @return The new value.
+     * @throws IllegalArgumentException <code>h3</code> is 0.
+     */
+    public double addTo(long h3, double delta) {
+        int slot = insert(h3);
+        if (slot < 0) {
+            slot = -(slot + 1);
+        }
+        return values[slot] += delta;
+    }
+
+    /**
+     * Adds <code>delta</code> to the value for each index, so that indexes which appear more than
+     * once have <code>delta</code> added each time.
+     *
+     * @throws IllegalArgumentException An index is 0.
+     */
+    public void addToAll(H3IndexList h3, double delta) {
+        for (int i = 0; i < h3.size(); i++) {
+            addTo(h3.get(i), delta);
+        }
+    }
+
+    /**
+     * Adds <code>delta</code> to the value for each index, so that indexes which appear more than
+     * once have <code>delta</code> added each time.
+     *
+     * @throws IllegalArgumentException An index is 0.
+     */
+    public void addToAll(long[] h3, double delta) {
+        for (long h : h3) {
+            addTo(h, delta);
+        }
+    }
+
+    /**
+     * Removes the index from the map.
+     *
+     * @return <code>true</code> if the index was in the map.
+     */
+    public boolean remove(long h3) {
+        int slot = h3 == 0 ? -1 : find(h3);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Calls <code>action</code> for each entry in the map, in no particular order.
+     */
+    public void forEach(EntryConsumer action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    @Override
+    Object allocateValues(int capacity) {
+        double[] old = values;
+        values = new double[capacity];
+        return old;
+    }
+
+    @Override
+    void copyValue(Object oldValues, int oldSlot, int newSlot) {
+        values[newSlot] = ((double[]) oldValues)[oldSlot];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = 0;
+    }
+
+    @Override
+    void clearValues() {
+        Arrays.fill(values, 0);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Mutable map from H3 indexes to objects, with the indexes stored in a <code>long[]</code> without
+ * boxing. Values may not be <code>null</code>.
+ *
+ * <p>0 is not a valid index and cannot be a key. This class is not thread safe.</p>
+ *
+ * @param <V> Type of the values.
+ */
+public final class H3LongObjectMap<V> extends LongHashTable {
+    private Object[] values;
+
+    /**
+     * Receives each entry of the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long h3, V value);
+    }
+
+    /**
+     * Creates an empty map.
+     */
+    public H3LongObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map which holds <code>expectedSize</code> indexes without growing.
+     *
+     * @throws IllegalArgumentException <code>expectedSize</code> is negative.
+     */
+    public H3LongObjectMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Returns whether the index is in the map.
+     */
+    public boolean containsKey(long h3) {
+        return h3 != 0 && find(h3) >= 0;
+    }
+
+    /**
+     * Returns the value for the index, or <code>null</code> if it is not in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long h3) {
+        int slot = h3 == 0 ? -1 : find(h3);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Sets the value for the index.
+     *
+     * @return The previous value, or <code>null</code> if the index was not in the map.
+     * @throws IllegalArgumentException <code>h3</code> is 0.
+     * @throws NullPointerException <code>value</code> is <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long h3, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int slot = insert(h3);
+        if (slot < 0) {
+            values[-(slot + 1)] = value;
+            return null;
+        }
+        V old = (V) values[slot];
+        values[slot] = value;
+        return old;
+    }
+
+    /**
+     * Returns the value for the index, first setting it to the result of <code>create</code> if the
+     * index is not in the map. Useful for grouping features by index.
+     *
+     * @throws IllegalArgumentException <code>h3</code> is 0.
+     * @throws NullPointerException <code>create</code> returned <code>null</code>.
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long h3, LongFunction<? extends V> create) {
+        int slot = h3 == 0 ? -1 : find(h3);
+        if (slot >= 0) {
+            return (V) values[slot];
+        }
+        // Created before inserting, so that create may modify this map
+        V value = create.apply(h3);
+        put(h3, value);
+        return value;
+    }
+
+    /**
+     * Removes the index from the map.
+     *
+     * @return The value of the index, or <code>null</code> if it was not in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long h3) {
+        int slot = h3 == 0 ? -1 : find(h3);
+        if (slot < 0) {
+            return null;
+        }
+        V old = (V) values[slot];
+        removeAt(slot);
+        return old;
+    }
+
+    /**
+     * Calls <code>action</code> for each entry in the map, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                action.accept(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    @Override
+    Object allocateValues(int capacity) {
+        Object[] old = values;
+        values = new Object[capacity];
+        return old;
+    }
+
+    @Override
+    void copyValue(Object oldValues, int oldSlot, int newSlot) {
+        values[newSlot] = ((Object[]) oldValues)[oldSlot];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = null;
+    }
+
+    @Override
+    void clearValues() {
+        Arrays.fill(values, null);
+    }
+}
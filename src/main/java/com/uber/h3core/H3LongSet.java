@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Mutable set of H3 indexes, stored in a <code>long[]</code> without boxing.
+ *
+ * <p>0 is not a valid index and cannot be added. This class is not thread safe.</p>
+ */
+public final class H3LongSet extends LongHashTable {
+    /**
+     * Creates an empty set.
+     */
+    public H3LongSet() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty set which holds <code>expectedSize</code> indexes without growing.
+     *
+     * @throws IllegalArgumentException <code>expectedSize</code> is negative.
+     */
+    public H3LongSet(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Creates a set of the given indexes.
+     *
+     * @throws IllegalArgumentException An index is 0.
+     */
+    public static H3LongSet of(long... h3) {
+        H3LongSet set = new H3LongSet(h3.length);
+        set.addAll(h3);
+        return set;
+    }
+
+    /**
+     * Adds the index to the set.
+     *
+     * @return <code>true</code> if the index was not already in the set.
+     * @throws IllegalArgumentException <code>h3</code> is 0.
+     */
+    public boolean add(long h3) {
+        return insert(h3) < 0;
+    }
+
+    /**
+     * Adds the indexes to the set.
+     *
+     * @return The number of indexes which were not already in the set.
+     * @throws IllegalArgumentException An index is 0.
+     */
+    public int addAll(long[] h3) {
+        int added = 0;
+        for (long h : h3) {
+            if (insert(h) < 0) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Adds the indexes to the set.
+     *
+     * @return The number of indexes which were not already in the set.
+     * @throws IllegalArgumentException An index is 0.
+     */
+    public int addAll(H3IndexList h3) {
+        int added = 0;
+        for (int i = 0; i < h3.size(); i++) {
+            if (insert(h3.get(i)) < 0) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns whether the index is in the set.
+     */
+    public boolean contains(long h3) {
+        return h3 != 0 && find(h3) >= 0;
+    }
+
+    /**
+     * Removes the index from the set.
+     *
+     * @return <code>true</code> if the index was in the set.
+     */
+    public boolean remove(long h3) {
+        if (h3 == 0) {
+            return false;
+        }
+        int slot = find(h3);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Calls <code>action</code> for each index in the set, in no particular order.
+     */
+    public void forEach(LongConsumer action) {
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Returns a new array with the indexes in the set, in no particular order.
+     */
+    public long[] toArray() {
+        return keys().toArray();
+    }
+
+    @Override
+    Object allocateValues(int capacity) {
+        return null;
+    }
+
+    @Override
+    void copyValue(Object oldValues, int oldSlot, int newSlot) {
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+    }
+
+    @Override
+    void clearValue(int slot) {
+    }
+
+    @Override
+    void clearValues() {
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.uber.h3core.util.Vector2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable set of polygons, backed by one array of coordinates and arrays of offsets into it.
+ *
+ * <p>This holds the same coordinates as the nested lists returned by
+ * {@link H3Core#h3SetToMultiPolygon(java.util.Collection, boolean)}, without an object per vertex.
+ * Vertices, loops and polygons are numbered from 0 across the whole set. Each polygon is a run of
+ * loops, the first being the outline and the rest holes, and each loop is a run of vertices.</p>
+ */
+public final class H3MultiPolygon {
+    private static final H3MultiPolygon EMPTY = new H3MultiPolygon(new double[0], new int[1], new int[1]);
+
+    /**
+     * Coordinates of each vertex, <code>x</code> then <code>y</code>.
+     */
+    private final double[] coordinates;
+    /**
+     * Index of the first vertex of each loop, followed by the number of vertices.
+     */
+    private final int[] loopOffsets;
+    /**
+     * Index of the first loop of each polygon, followed by the number of loops.
+     */
+    private final int[] polygonOffsets;
+
+    /**
+     * Wraps the given arrays without copying them. The caller must not modify them afterwards.
+     */
+    H3MultiPolygon(double[] coordinates, int[] loopOffsets, int[] polygonOffsets) {
+        this.coordinates = coordinates;
+        this.loopOffsets = loopOffsets;
+        this.polygonOffsets = polygonOffsets;
+    }
+
+    /**
+     * Returns a multipolygon with no polygons.
+     */
+    static H3MultiPolygon empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the number of polygons.
+     */
+    public int numPolygons() {
+        return polygonOffsets.length - 1;
+    }
+
+    /**
+     * Returns the number of loops in all polygons.
+     */
+    public int numLoops() {
+        return loopOffsets.length - 1;
+    }
+
+    /**
+     * Returns the number of vertices in all loops.
+     */
+    public int numVertices() {
+        return coordinates.length / 2;
+    }
+
+    /**
+     * Returns the first loop of the polygon, which is its outline.
+     *
+     * @throws IndexOutOfBoundsException <code>polygon</code> is not a polygon of this set.
+     */
+    public int polygonStart(int polygon) {
+        return polygonOffsets[checkIndex(polygon, numPolygons())];
+    }
+
+    /**
+     * Returns the loop after the last loop of the polygon.
+     *
+     * @throws IndexOutOfBoundsException <code>polygon</code> is not a polygon of this set.
+     */
+    public int polygonEnd(int polygon) {
+        return polygonOffsets[checkIndex(polygon, numPolygons()) + 1];
+    }
+
+    /**
+     * Returns the first vertex of the loop.
+     *
+     * @throws IndexOutOfBoundsException <code>loop</code> is not a loop of this set.
+     */
+    public int loopStart(int loop) {
+        return loopOffsets[checkIndex(loop, numLoops())];
+    }
+
+    /**
+     * Returns the vertex after the last vertex of the loop.
+     *
+     * @throws IndexOutOfBoundsException <code>loop</code> is not a loop of this set.
+     */
+    public int loopEnd(int loop) {
+        return loopOffsets[checkIndex(loop, numLoops()) + 1];
+    }
+
+    /**
+     * Returns the <code>x</code> coordinate of the vertex, as in {@link Vector2D#x}.
+     *
+     * @throws IndexOutOfBoundsException <code>vertex</code> is not a vertex of this set.
+     */
+    public double getX(int vertex) {
+        return coordinates[checkIndex(vertex, numVertices()) * 2];
+    }
+
+    /**
+     * Returns the <code>y</code> coordinate of the vertex, as in {@link Vector2D#y}.
+     *
+     * @throws IndexOutOfBoundsException <code>vertex</code> is not a vertex of this set.
+     */
+    public double getY(int vertex) {
+        return coordinates[checkIndex(vertex, numVertices()) * 2 + 1];
+    }
+
+    /**
+     * Returns a new array with the coordinates of all vertices, <code>x</code> then <code>y</code>
+     * for each.
+     */
+    public double[] toCoordinateArray() {
+        return coordinates.clone();
+    }
+
+    /**
+     * Copies the coordinates of all vertices into <code>dest</code>, starting at <code>destPos</code>.
+     */
+    public void copyCoordinatesTo(double[] dest, int destPos) {
+        System.arraycopy(coordinates, 0, dest, destPos, coordinates.length);
+    }
+
+    /**
+     * Returns a new array with the first vertex of each loop, followed by {@link #numVertices()}.
+     */
+    public int[] toLoopOffsetArray() {
+        return loopOffsets.clone();
+    }
+
+    /**
+     * Returns a new array with the first loop of each polygon, followed by {@link #numLoops()}.
+     */
+    public int[] toPolygonOffsetArray() {
+        return polygonOffsets.clone();
+    }
+
+    /**
+     * Returns new, mutable lists of the polygons, as returned by
+     * {@link H3Core#h3SetToMultiPolygon(java.util.Collection, boolean)}.
+     */
+    public List<List<List<Vector2D>>> toList() {
+        List<List<List<Vector2D>>> polygons = new ArrayList<>(numPolygons());
+        for (int p = 0; p < numPolygons(); p++) {
+            List<List<Vector2D>> loops = new ArrayList<>(polygonOffsets[p + 1] - polygonOffsets[p]);
+            for (int l = polygonOffsets[p]; l < polygonOffsets[p + 1]; l++) {
+                List<Vector2D> loop = new ArrayList<>(loopOffsets[l + 1] - loopOffsets[l]);
+                for (int v = loopOffsets[l]; v < loopOffsets[l + 1]; v++) {
+                    loop.add(new Vector2D(coordinates[v * 2], coordinates[v * 2 + 1]));
+                }
+                loops.add(loop);
+            }
+            polygons.add(loops);
+        }
+        return polygons;
+    }
+
+    private static int checkIndex(int i, int size) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException(String.format("index %d is out of range (size %d)", i, size));
+        }
+        return i;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        H3MultiPolygon that = (H3MultiPolygon) o;
+        return Arrays.equals(coordinates, that.coordinates)
+                && Arrays.equals(loopOffsets, that.loopOffsets)
+                && Arrays.equals(polygonOffsets, that.polygonOffsets);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(coordinates);
+        result = 31 * result + Arrays.hashCode(loopOffsets);
+        result = 31 * result + Arrays.hashCode(polygonOffsets);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "H3MultiPolygon{numPolygons=" + numPolygons() + ", numLoops=" + numLoops()
+                + ", numVertices=" + numVertices() + "}";
+    }
+}
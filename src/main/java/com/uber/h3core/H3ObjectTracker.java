@@ -0,0 +1,330 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.Math.toRadians;
+
+/**
+ * Tracks the index containing each of many moving objects, finding the index again only when an
+ * object leaves its current one.
+ *
+ * <p>The shape of each index holding an object is kept as the unit vector of its center and the
+ * normals of the great circles its edges lie on, shared by all objects in the index. A reported
+ * location is first tested against the circle inscribed in the index, by its distance from the
+ * center, then against the edges. Only a location outside them, or within a few centimeters of an
+ * edge, is looked up with <code>geoToH3</code>, so the result is always the same as
+ * <code>geoToH3</code>.</p>
+ *
+ * <p>This class is thread safe. Objects are split into stripes by id, each with its own lock,
+ * and reports for different stripes are handled concurrently. Create instances with
+ * {@link H3Core#newObjectTracker(int, CellChangeListener)}.</p>
+ */
+public final class H3ObjectTracker {
+    private static final int STRIPES = 64;
+    /**
+     * Distance in radians, about 6 cm, inside the edges of an index within which locations are
+     * looked up again. The boundaries found by <code>h3ToGeoBoundary</code> differ from those used by
+     * <code>geoToH3</code> by up to a few millimeters at resolution 15 because of rounding.
+     */
+    private static final double EDGE_MARGIN = 1e-8;
+
+    /**
+     * Receives the changes of the index containing an object.
+     */
+    @FunctionalInterface
+    public interface CellChangeListener {
+        /**
+         * Called when an object moves to another index, is first reported, or is removed. Calls for
+         * the same object are made in order, on the thread reporting it and while holding the lock
+         * for its stripe, so they should return quickly.
+         *
+         * @param id      Id of the object.
+         * @param oldCell Index which contained the object, or 0 if it was not tracked.
+         * @param newCell Index which contains the object, or 0 if it was removed.
+         */
+        void onCellChange(long id, long oldCell, long newCell);
+    }
+
+    private final H3Backend backend;
+    private final int res;
+    private final CellChangeListener listener;
+    private final ObjectStripe[] objectStripes = new ObjectStripe[STRIPES];
+    private final ShapeStripe[] shapeStripes = new ShapeStripe[STRIPES];
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+
+    H3ObjectTracker(H3Backend backend, int res, CellChangeListener listener) {
+        this.backend = backend;
+        this.res = res;
+        this.listener = listener;
+        for (int i = 0; i < STRIPES; i++) {
+            objectStripes[i] = new ObjectStripe();
+            shapeStripes[i] = new ShapeStripe();
+        }
+    }
+
+    /**
+     * Reports the location of an object, starting to track it if it is not tracked.
+     *
+     * @param id  Id of the object, which must not be 0.
+     * @param lat Latitude in degrees.
+     * @param lng Longitude in degrees.
+     * @return The index containing the object.
+     * @throws IllegalArgumentException <code>id</code> is 0, or latitude or longitude is invalid.
+     */
+    public long update(long id, double lat, double lng) {
+        if (id == 0) {
+            throw new IllegalArgumentException("0 is not a valid id");
+        }
+        double latRad = toRadians(lat);
+        double lngRad = toRadians(lng);
+        double cosLat = Math.cos(latRad);
+        double x = cosLat * Math.cos(lngRad);
+        double y = cosLat * Math.sin(lngRad);
+        double z = Math.sin(latRad);
+        updates.increment();
+
+        ObjectStripe objectStripe = objectStripes[LongHashTable.stripe(id, STRIPES)];
+        synchronized (objectStripe) {
+            CellShape shape = objectStripe.get(id);
+            if (shape != null && shape.contains(x, y, z)) {
+                return shape.cell;
+            }
+
+            lookups.increment();
+            long cell = backend.geoToH3(latRad, lngRad, res);
+            if (cell == 0) {
+                throw new IllegalArgumentException("Latitude or longitude were invalid.");
+            }
+            long oldCell = 0;
+            if (shape != null) {
+                if (shape.cell == cell) {
+                    return cell;
+                }
+                oldCell = shape.cell;
+                shapeStripes[LongHashTable.stripe(oldCell, STRIPES)].release(shape);
+            }
+            objectStripe.put(id, shapeStripes[LongHashTable.stripe(cell, STRIPES)].acquire(backend, cell));
+            if (listener != null) {
+                listener.onCellChange(id, oldCell, cell);
+            }
+            return cell;
+        }
+    }
+
+    /**
+     * Stops tracking an object.
+     *
+     * @return <code>true</code> if the object was tracked.
+     */
+    public boolean remove(long id) {
+        if (id == 0) {
+            return false;
+        }
+        ObjectStripe objectStripe = objectStripes[LongHashTable.stripe(id, STRIPES)];
+        synchronized (objectStripe) {
+            CellShape shape = objectStripe.remove(id);
+            if (shape == null) {
+                return false;
+            }
+            shapeStripes[LongHashTable.stripe(shape.cell, STRIPES)].release(shape);
+            if (listener != null) {
+                listener.onCellChange(id, shape.cell, 0);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Returns the index containing the object, or 0 if it is not tracked.
+     */
+    public long getCell(long id) {
+        if (id == 0) {
+            return 0;
+        }
+        ObjectStripe objectStripe = objectStripes[LongHashTable.stripe(id, STRIPES)];
+        synchronized (objectStripe) {
+            CellShape shape = objectStripe.get(id);
+            return shape == null ? 0 : shape.cell;
+        }
+    }
+
+    /**
+     * Returns the number of objects tracked.
+     */
+    public int size() {
+        int size = 0;
+        for (ObjectStripe objectStripe : objectStripes) {
+            synchronized (objectStripe) {
+                size += objectStripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the resolution of the indexes tracked.
+     */
+    public int getResolution() {
+        return res;
+    }
+
+    /**
+     * Returns the number of locations reported.
+     */
+    public long updateCount() {
+        return updates.sum();
+    }
+
+    /**
+     * Returns the number of reported locations which were looked up with <code>geoToH3</code>,
+     * because they were not inside the index last containing the object.
+     */
+    public long lookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * Shape of an index on the unit sphere, shared by the objects in it.
+     */
+    private static final class CellShape {
+        final long cell;
+        private final double centerX;
+        private final double centerY;
+        private final double centerZ;
+        /**
+         * Squared length of the chord from the center to the inscribed circle, less the edge
+         * margin. Unlike the cosine of the radius, this keeps its precision for small indexes.
+         */
+        private final double inradiusChord2;
+        /**
+         * Unit normals of the great circles through the edges, pointing into the index, as
+         * interleaved x, y, z components.
+         */
+        private final double[] normals;
+        /**
+         * Number of objects in the index. Guarded by the monitor of the shape stripe.
+         */
+        int refCount;
+
+        CellShape(H3Backend backend, long cell) {
+            this.cell = cell;
+            double[] center = new double[2];
+            backend.h3ToGeo(cell, center);
+            double cosLat = Math.cos(center[0]);
+            centerX = cosLat * Math.cos(center[1]);
+            centerY = cosLat * Math.sin(center[1]);
+            centerZ = Math.sin(center[0]);
+
+            double[] verts = new double[JavaMethods.MAX_CELL_BNDRY_VERTS * 2];
+            int numVerts = backend.h3ToGeoBoundary(cell, verts);
+            double[] vectors = new double[numVerts * 3];
+            for (int i = 0; i < numVerts; i++) {
+                double vertCosLat = Math.cos(verts[i * 2]);
+                vectors[i * 3] = vertCosLat * Math.cos(verts[i * 2 + 1]);
+                vectors[i * 3 + 1] = vertCosLat * Math.sin(verts[i * 2 + 1]);
+                vectors[i * 3 + 2] = Math.sin(verts[i * 2]);
+            }
+
+            normals = new double[numVerts * 3];
+            double minSinDistance = 1;
+            for (int i = 0; i < numVerts; i++) {
+                int a = i * 3;
+                int b = ((i + 1) % numVerts) * 3;
+                double nx = vectors[a + 1] * vectors[b + 2] - vectors[a + 2] * vectors[b + 1];
+                double ny = vectors[a + 2] * vectors[b] - vectors[a] * vectors[b + 2];
+                double nz = vectors[a] * vectors[b + 1] - vectors[a + 1] * vectors[b];
+                double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (centerX * nx + centerY * ny + centerZ * nz < 0) {
+                    length = -length;
+                }
+                normals[a] = nx / length;
+                normals[a + 1] = ny / length;
+                normals[a + 2] = nz / length;
+                // Sine of the distance from the center to the great circle through the edge
+                minSinDistance = Math.min(minSinDistance,
+                        centerX * normals[a] + centerY * normals[a + 1] + centerZ * normals[a + 2]);
+            }
+            double inradiusChord = 2 * Math.sin(Math.max(0, Math.asin(minSinDistance) - EDGE_MARGIN) / 2);
+            inradiusChord2 = inradiusChord * inradiusChord;
+        }
+
+        /**
+         * Returns whether the unit vector is inside the index and not within the edge margin of its
+         * edges. May also return <code>false</code> for some such vectors, but never
+         * <code>true</code> for vectors outside it.
+         */
+        boolean contains(double x, double y, double z) {
+            double dx = x - centerX;
+            double dy = y - centerY;
+            double dz = z - centerZ;
+            if (dx * dx + dy * dy + dz * dz <= inradiusChord2) {
+                return true;
+            }
+            for (int i = 0; i < normals.length; i += 3) {
+                if (normals[i] * x + normals[i + 1] * y + normals[i + 2] * z <= EDGE_MARGIN) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Shapes of the indexes in a stripe which contain objects. Guarded by the monitor of the stripe.
+     */
+    private static final class ShapeStripe {
+        private final H3LongObjectMap<CellShape> shapes = new H3LongObjectMap<>();
+
+        synchronized CellShape acquire(H3Backend backend, long cell) {
+            CellShape shape = shapes.computeIfAbsent(cell, c -> new CellShape(backend, c));
+            shape.refCount++;
+            return shape;
+        }
+
+        synchronized void release(CellShape shape) {
+            if (--shape.refCount == 0) {
+                shapes.remove(shape.cell);
+            }
+        }
+    }
+
+    /**
+     * Shape of the index containing each object in a stripe. Guarded by the monitor of the stripe.
+     */
+    private static final class ObjectStripe {
+        private final H3LongObjectMap<CellShape> shapes = new H3LongObjectMap<>();
+
+        CellShape get(long id) {
+            return shapes.get(id);
+        }
+
+        void put(long id, CellShape shape) {
+            shapes.put(id, shape);
+        }
+
+        CellShape remove(long id) {
+            return shapes.remove(id);
+        }
+
+        int size() {
+            return shapes.size();
+        }
+    }
+}
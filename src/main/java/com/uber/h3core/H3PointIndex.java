@@ -0,0 +1,635 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+import static java.lang.Math.toRadians;
+
+/**
+ * Mutable index of points, each with a <code>long</code> id, bucketed by the H3 index containing
+ * them, for finding the points within a distance of a location or nearest to it.
+ *
+ * <p>The ids and coordinates of the points in each index are stored in primitive arrays. Queries
+ * look at the indexes around the location ring by ring, as ordered by <code>kRingDistances</code>.
+ * Points in ring <code>r</code> are at least <code>r - 1</code> times the shortest edge length away
+ * from the location, which ends the search once no further ring can hold a closer point.</p>
+ *
+ * <p>Distances are great circle distances on the sphere used by the H3 core library. Points are
+ * stored as unit vectors and compared by the squared length of the chord between them, which is
+ * ordered the same as the great circle distance and needs no trigonometry.</p>
+ *
+ * <p>This class is thread safe. Indexes and ids are split into stripes, each with its own lock,
+ * so that points in different stripes are added, moved and removed concurrently. A query running
+ * at the same time as a point is moved to another index may miss that point. Create instances with
+ * {@link H3Core#newPointIndex(int)}.</p>
+ */
+public final class H3PointIndex {
+    private static final int STRIPES = 16;
+    /**
+     * Lower bound for the length of an edge as a fraction of the average edge length of the
+     * resolution, covering the distortion of the grid and pentagons.
+     */
+    private static final double MIN_EDGE_LENGTH_RATIO = 0.5;
+    /**
+     * Greatest number of rings a query looks at.
+     */
+    static final int MAX_RINGS = 1000;
+
+    private final H3Backend backend;
+    private final int res;
+    private final double minEdgeLengthKm;
+    private final CellStripe[] cellStripes = new CellStripe[STRIPES];
+    private final IdStripe[] idStripes = new IdStripe[STRIPES];
+
+    H3PointIndex(H3Backend backend, int res) {
+        this.backend = backend;
+        this.res = res;
+        this.minEdgeLengthKm = H3Constants.edgeLengthKm(res) * MIN_EDGE_LENGTH_RATIO;
+        for (int i = 0; i < STRIPES; i++) {
+            cellStripes[i] = new CellStripe();
+            idStripes[i] = new IdStripe();
+        }
+    }
+
+    /**
+     * Adds the point, or moves it if the id is already in the index.
+     *
+     * @param id  Id of the point, which must not be 0.
+     * @param lat Latitude in degrees.
+     * @param lng Longitude in degrees.
+     * @throws IllegalArgumentException <code>id</code> is 0, or latitude or longitude is invalid.
+     */
+    public void put(long id, double lat, double lng) {
+        checkId(id);
+        double latRad = toRadians(lat);
+        double lngRad = toRadians(lng);
+        long cell = cellOf(latRad, lngRad);
+        double[] v = toVector(latRad, lngRad);
+
+        IdStripe idStripe = idStripes[LongHashTable.stripe(id, STRIPES)];
+        synchronized (idStripe) {
+            long oldCell = idStripe.put(id, cell);
+            if (oldCell == cell) {
+                cellStripes[LongHashTable.stripe(cell, STRIPES)].update(cell, id, v);
+                return;
+            }
+            if (oldCell != 0) {
+                cellStripes[LongHashTable.stripe(oldCell, STRIPES)].remove(oldCell, id);
+            }
+            cellStripes[LongHashTable.stripe(cell, STRIPES)].add(cell, id, v);
+        }
+    }
+
+    /**
+     * Removes the point.
+     *
+     * @return <code>true</code> if the id was in the index.
+     */
+    public boolean remove(long id) {
+        if (id == 0) {
+            return false;
+        }
+        IdStripe idStripe = idStripes[LongHashTable.stripe(id, STRIPES)];
+        synchronized (idStripe) {
+            long cell = idStripe.remove(id);
+            if (cell == 0) {
+                return false;
+            }
+            cellStripes[LongHashTable.stripe(cell, STRIPES)].remove(cell, id);
+            return true;
+        }
+    }
+
+    /**
+     * Returns whether the id is in the index.
+     */
+    public boolean contains(long id) {
+        return getIndex(id) != 0;
+    }
+
+    /**
+     * Returns the index containing the point, or 0 if the id is not in the index.
+     */
+    public long getIndex(long id) {
+        if (id == 0) {
+            return 0;
+        }
+        IdStripe idStripe = idStripes[LongHashTable.stripe(id, STRIPES)];
+        synchronized (idStripe) {
+            return idStripe.get(id);
+        }
+    }
+
+    /**
+     * Returns the number of points.
+     */
+    public int size() {
+        int size = 0;
+        for (IdStripe idStripe : idStripes) {
+            synchronized (idStripe) {
+                size += idStripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the resolution of the indexes points are bucketed by.
+     */
+    public int getResolution() {
+        return res;
+    }
+
+    /**
+     * Finds the points within a distance of the location.
+     *
+     * @param lat    Latitude in degrees.
+     * @param lng    Longitude in degrees.
+     * @param radius Greatest distance of a point from the location.
+     * @param unit   Unit of <code>radius</code>.
+     * @return The ids of the points, in no particular order.
+     * @throws IllegalArgumentException Latitude or longitude is invalid, or <code>radius</code> is
+     *                                  negative or spans more than {@value #MAX_RINGS} rings.
+     */
+    public long[] withinRadius(double lat, double lng, double radius, LengthUnit unit) {
+        double latRad = toRadians(lat);
+        double lngRad = toRadians(lng);
+        long origin = cellOf(latRad, lngRad);
+        double radiusKm = toKm(radius, unit);
+        int maxK = maxRings(radiusKm);
+        double[] v = toVector(latRad, lngRad);
+        double maxChord2 = chord2(radiusKm);
+
+        Polyfill.LongArrayBuilder out = new Polyfill.LongArrayBuilder();
+        RingExpansion rings = new RingExpansion(origin, maxK);
+        for (int r = 0; r <= maxK; r++) {
+            for (int i = rings.ringStart(r), end = rings.ringEnd(r); i < end; i++) {
+                long cell = rings.cells[i];
+                cellStripes[LongHashTable.stripe(cell, STRIPES)].within(cell, v, maxChord2, out);
+            }
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Finds the points nearest to the location, up to a greatest distance.
+     *
+     * @param lat         Latitude in degrees.
+     * @param lng         Longitude in degrees.
+     * @param maxDistance Greatest distance of a point from the location.
+     * @param unit        Unit of <code>maxDistance</code> and <code>distances</code>.
+     * @param ids         Output for the ids of the points, nearest first. Its length is the number
+     *                    of points to find.
+     * @param distances   Output for the distance of each point, or <code>null</code>. Must be at
+     *                    least as long as <code>ids</code>.
+     * @return The number of points written, which is less than the length of <code>ids</code> if
+     *         fewer points are within <code>maxDistance</code>.
+     * @throws IllegalArgumentException Latitude or longitude is invalid, or <code>maxDistance</code>
+     *                                  is negative or spans more than {@value #MAX_RINGS} rings.
+     */
+    public int nearest(double lat, double lng, double maxDistance, LengthUnit unit, long[] ids, double[] distances) {
+        if (distances != null && distances.length < ids.length) {
+            throw new IllegalArgumentException(String.format(
+                    "distances (length %d) is shorter than ids (length %d)", distances.length, ids.length));
+        }
+        double latRad = toRadians(lat);
+        double lngRad = toRadians(lng);
+        long origin = cellOf(latRad, lngRad);
+        double maxDistanceKm = toKm(maxDistance, unit);
+        int maxK = maxRings(maxDistanceKm);
+        if (ids.length == 0) {
+            return 0;
+        }
+
+        double[] v = toVector(latRad, lngRad);
+        NearestHeap heap = new NearestHeap(ids.length, chord2(maxDistanceKm));
+        RingExpansion rings = new RingExpansion(origin, maxK);
+        for (int r = 0; r <= maxK; r++) {
+            if (heap.isFull() && heap.worstChord2() < chord2(minDistanceKm(r))) {
+                break;
+            }
+            for (int i = rings.ringStart(r), end = rings.ringEnd(r); i < end; i++) {
+                long cell = rings.cells[i];
+                cellStripes[LongHashTable.stripe(cell, STRIPES)].nearest(cell, v, heap);
+            }
+        }
+
+        int found = heap.drainSorted(ids, distances);
+        if (distances != null) {
+            double scale = unit == LengthUnit.m ? 1000 : 1;
+            for (int i = 0; i < found; i++) {
+                distances[i] = chordToKm(distances[i]) * scale;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns a lower bound for the distance from a point to the points in ring <code>r</code>
+     * around its index. Such points are separated by at least <code>r - 1</code> whole rings,
+     * each at least an edge length across.
+     */
+    private double minDistanceKm(int r) {
+        return Math.max(0, r - 1) * minEdgeLengthKm;
+    }
+
+    /**
+     * Returns the number of rings around the origin which may hold points within the distance.
+     */
+    private int maxRings(double distanceKm) {
+        double rings = distanceKm / minEdgeLengthKm + 1;
+        if (rings > MAX_RINGS) {
+            throw new IllegalArgumentException(String.format(
+                    "Distance %f km spans more than %d rings at resolution %d", distanceKm, MAX_RINGS, res));
+        }
+        return (int) rings;
+    }
+
+    private long cellOf(double latRad, double lngRad) {
+        long cell = backend.geoToH3(latRad, lngRad, res);
+        if (cell == 0) {
+            throw new IllegalArgumentException("Latitude or longitude were invalid.");
+        }
+        return cell;
+    }
+
+    private static double toKm(double distance, LengthUnit unit) {
+        if (!(distance >= 0)) {
+            throw new IllegalArgumentException(String.format("Distance (%f) must not be negative", distance));
+        }
+        switch (unit) {
+            case km:
+                return distance;
+            case m:
+                return distance / 1000;
+            default:
+                throw new IllegalArgumentException(String.format("Invalid unit: %s", unit));
+        }
+    }
+
+    private static void checkId(long id) {
+        if (id == 0) {
+            throw new IllegalArgumentException("0 is not a valid id");
+        }
+    }
+
+    /**
+     * Returns the unit vector of a point given in radians.
+     */
+    private static double[] toVector(double latRad, double lngRad) {
+        double cosLat = Math.cos(latRad);
+        return new double[] { cosLat * Math.cos(lngRad), cosLat * Math.sin(lngRad), Math.sin(latRad) };
+    }
+
+    /**
+     * Returns the squared length of the chord between unit vectors at the great circle distance.
+     */
+    private static double chord2(double distanceKm) {
+        double angle = Math.min(Math.PI, distanceKm / H3Constants.EARTH_RADIUS_KM);
+        double chord = 2 * Math.sin(angle / 2);
+        return chord * chord;
+    }
+
+    private static double chordToKm(double chord2) {
+        return 2 * H3Constants.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(chord2) / 2));
+    }
+
+    /**
+     * Ids and unit vectors of the points in one index. Vectors are stored as interleaved x, y, z
+     * components.
+     */
+    private static final class Bucket {
+        long[] ids = new long[4];
+        double[] vectors = new double[12];
+        int size;
+
+        void set(int i, double[] v) {
+            vectors[i * 3] = v[0];
+            vectors[i * 3 + 1] = v[1];
+            vectors[i * 3 + 2] = v[2];
+        }
+
+        double chord2(int i, double[] v) {
+            double dx = vectors[i * 3] - v[0];
+            double dy = vectors[i * 3 + 1] - v[1];
+            double dz = vectors[i * 3 + 2] - v[2];
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        int indexOf(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Buckets of the indexes in a stripe.
+     */
+    private static final class CellStripe {
+        private final StampedLock lock = new StampedLock();
+        private final H3LongObjectMap<Bucket> buckets = new H3LongObjectMap<>();
+
+        void add(long cell, long id, double[] v) {
+            long stamp = lock.writeLock();
+            try {
+                Bucket bucket = buckets.computeIfAbsent(cell, c -> new Bucket());
+                int i = bucket.size;
+                if (i == bucket.ids.length) {
+                    bucket.ids = Arrays.copyOf(bucket.ids, i * 2);
+                    bucket.vectors = Arrays.copyOf(bucket.vectors, i * 6);
+                }
+                bucket.ids[i] = id;
+                bucket.set(i, v);
+                bucket.size++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void update(long cell, long id, double[] v) {
+            long stamp = lock.writeLock();
+            try {
+                Bucket bucket = buckets.get(cell);
+                bucket.set(bucket.indexOf(id), v);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void remove(long cell, long id) {
+            long stamp = lock.writeLock();
+            try {
+                Bucket bucket = buckets.get(cell);
+                int i = bucket.indexOf(id);
+                int last = --bucket.size;
+                if (last == 0) {
+                    buckets.remove(cell);
+                    return;
+                }
+                // Move the last point into the gap
+                bucket.ids[i] = bucket.ids[last];
+                System.arraycopy(bucket.vectors, last * 3, bucket.vectors, i * 3, 3);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void within(long cell, double[] v, double maxChord2, Polyfill.LongArrayBuilder out) {
+            long stamp = lock.readLock();
+            try {
+                Bucket bucket = buckets.get(cell);
+                if (bucket == null) {
+                    return;
+                }
+                for (int i = 0; i < bucket.size; i++) {
+                    if (bucket.chord2(i, v) <= maxChord2) {
+                        out.accept(bucket.ids[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void nearest(long cell, double[] v, NearestHeap heap) {
+            long stamp = lock.readLock();
+            try {
+                Bucket bucket = buckets.get(cell);
+                if (bucket == null) {
+                    return;
+                }
+                for (int i = 0; i < bucket.size; i++) {
+                    heap.offer(bucket.ids[i], bucket.chord2(i, v));
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Index of each id in a stripe. Guarded by the monitor of the stripe.
+     */
+    private static final class IdStripe extends LongHashTable {
+        private long[] cells;
+
+        IdStripe() {
+            super(0);
+        }
+
+        long get(long id) {
+            int slot = find(id);
+            return slot < 0 ? 0 : cells[slot];
+        }
+
+        /**
+         * Sets the index of the id, returning the previous one or 0.
+         */
+        long put(long id, long cell) {
+            int slot = insert(id);
+            if (slot < 0) {
+                cells[-(slot + 1)] = cell;
+                return 0;
+            }
+            long old = cells[slot];
+            cells[slot] = cell;
+            return old;
+        }
+
+        /**
+         * Removes the id, returning its index or 0.
+         */
+        long remove(long id) {
+            int slot = find(id);
+            if (slot < 0) {
+                return 0;
+            }
+            long cell = cells[slot];
+            removeAt(slot);
+            return cell;
+        }
+
+        @Override
+        Object allocateValues(int capacity) {
+            long[] old = cells;
+            cells = new long[capacity];
+            return old;
+        }
+
+        @Override
+        void copyValue(Object oldValues, int oldSlot, int newSlot) {
+            cells[newSlot] = ((long[]) oldValues)[oldSlot];
+        }
+
+        @Override
+        void moveValue(int from, int to) {
+            cells[to] = cells[from];
+        }
+
+        @Override
+        void clearValue(int slot) {
+            cells[slot] = 0;
+        }
+
+        @Override
+        void clearValues() {
+            Arrays.fill(cells, 0);
+        }
+    }
+
+    /**
+     * The indexes around an origin, grouped by their distance from it. Rings are found lazily, with
+     * the number of rings found doubling each time more are needed.
+     */
+    private final class RingExpansion {
+        private final long origin;
+        private final int maxK;
+        /**
+         * Indexes of the rings found so far, in order of distance.
+         */
+        long[] cells = new long[0];
+        /**
+         * Ring <code>r</code> is at positions <code>offsets[r]</code> (inclusive) to
+         * <code>offsets[r + 1]</code> (exclusive) of {@link #cells}.
+         */
+        private int[] offsets = {0};
+        private int k = -1;
+
+        RingExpansion(long origin, int maxK) {
+            this.origin = origin;
+            this.maxK = maxK;
+        }
+
+        int ringStart(int r) {
+            if (r > k) {
+                expand(Math.min(maxK, Math.max(r, 2 * k)));
+            }
+            return offsets[r];
+        }
+
+        int ringEnd(int r) {
+            return offsets[r + 1];
+        }
+
+        private void expand(int newK) {
+            int sz = backend.maxKringSize(newK);
+            long[] out = new long[sz];
+            int[] distances = new int[sz];
+            backend.kRingDistances(origin, newK, out, distances);
+
+            long[] sorted = new long[sz];
+            int[] newOffsets = new int[newK + 2];
+            H3Core.sortByDistance(out, distances, newK, sorted, newOffsets);
+
+            cells = sorted;
+            offsets = newOffsets;
+            k = newK;
+        }
+    }
+
+    /**
+     * The nearest points offered so far, in a binary max-heap ordered by squared chord length.
+     */
+    private static final class NearestHeap {
+        private final long[] ids;
+        private final double[] chords2;
+        private final double maxChord2;
+        private int size;
+
+        NearestHeap(int capacity, double maxChord2) {
+            this.ids = new long[capacity];
+            this.chords2 = new double[capacity];
+            this.maxChord2 = maxChord2;
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        double worstChord2() {
+            return chords2[0];
+        }
+
+        void offer(long id, double chord2) {
+            if (chord2 > maxChord2) {
+                return;
+            }
+            if (size < ids.length) {
+                siftUp(size++, id, chord2);
+            } else if (chord2 < chords2[0]) {
+                siftDown(0, id, chord2);
+            }
+        }
+
+        /**
+         * Writes the points and their squared chord lengths in increasing order, emptying the heap.
+         */
+        int drainSorted(long[] outIds, double[] outChords2) {
+            int found = size;
+            for (int i = found - 1; i >= 0; i--) {
+                outIds[i] = ids[0];
+                if (outChords2 != null) {
+                    outChords2[i] = chords2[0];
+                }
+                size--;
+                if (size > 0) {
+                    siftDown(0, ids[size], chords2[size]);
+                }
+            }
+            return found;
+        }
+
+        private void siftUp(int pos, long id, double chord2) {
+            while (pos > 0) {
+                int parent = (pos - 1) / 2;
+                if (chords2[parent] >= chord2) {
+                    break;
+                }
+                ids[pos] = ids[parent];
+                chords2[pos] = chords2[parent];
+                pos = parent;
+            }
+            ids[pos] = id;
+            chords2[pos] = chord2;
+        }
+
+        private void siftDown(int pos, long id, double chord2) {
+            while (true) {
+                int child = pos * 2 + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && chords2[child + 1] > chords2[child]) {
+                    child++;
+                }
+                if (chords2[child] <= chord2) {
+                    break;
+                }
+                ids[pos] = ids[child];
+                chords2[pos] = chords2[child];
+                pos = child;
+            }
+            ids[pos] = id;
+            chords2[pos] = chord2;
+        }
+    }
+}
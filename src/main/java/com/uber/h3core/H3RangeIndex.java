@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+
+/**
+ * Immutable index of a set of H3 indexes of any resolutions, answering whether an index is
+ * covered by the set without allocating.
+ *
+ * <p>The resolution 15 descendants of an index are a contiguous range of numbers, from its
+ * first to its last descendant. The set is stored as the sorted, merged ranges of its indexes.
+ * An index is covered if its own range is within one of them, which is found with one
+ * branch-free search of the ranges stored in Eytzinger (breadth first) order.</p>
+ *
+ * <p>This class is thread safe.</p>
+ */
+public final class H3RangeIndex {
+    /**
+     * Mode and resolution bits, which are the same in the first descendant of every valid index.
+     */
+    private static final long FIRST_DESCENDANT_HIGH_BITS =
+            ((long) H3Index.H3_HEXAGON_MODE << H3Index.H3_MODE_OFFSET) | ((long) H3Index.MAX_H3_RES << H3Index.H3_RES_OFFSET);
+
+    private static final H3RangeIndex EMPTY = new H3RangeIndex(new long[0], new long[0]);
+
+    /**
+     * First and last resolution 15 descendants of each range, in Eytzinger order from position 1.
+     * Position 0 is unused.
+     */
+    private final long[] firsts;
+    private final long[] lasts;
+
+    private H3RangeIndex(long[] sortedFirsts, long[] sortedLasts) {
+        int n = sortedFirsts.length;
+        firsts = new long[n + 1];
+        lasts = new long[n + 1];
+        toEytzinger(sortedFirsts, sortedLasts, 0, 1);
+    }
+
+    /**
+     * Creates an index of the given indexes. The indexes may have different resolutions, such as the
+     * output of <code>compact</code>, and may overlap.
+     *
+     * @throws IllegalArgumentException An index is not valid.
+     */
+    public static H3RangeIndex of(long[] h3) {
+        if (h3.length == 0) {
+            return EMPTY;
+        }
+
+        // Packed as the base cell and digits of the first descendant followed by the resolution, so
+        // that sorting orders the indexes by range, with ancestors before their descendants
+        long[] packed = new long[h3.length];
+        for (int i = 0; i < h3.length; i++) {
+            if (!H3Index.isValid(h3[i])) {
+                throw new IllegalArgumentException(String.format("%x is not a valid index", h3[i]));
+            }
+            long first = H3Index.firstFinestDescendant(h3[i]);
+            packed[i] = ((first & ~FIRST_DESCENDANT_HIGH_BITS) << 4) | H3Index.getResolution(h3[i]);
+        }
+        Arrays.sort(packed);
+
+        long[] firsts = new long[h3.length];
+        long[] lasts = new long[h3.length];
+        int n = 0;
+        for (long p : packed) {
+            long first = (p >>> 4) | FIRST_DESCENDANT_HIGH_BITS;
+            long last = H3Index.lastFinestDescendant(H3Index.setResolution(first, (int) (p & 0xf)));
+            if (n > 0 && first <= lasts[n - 1] + 1) {
+                // Overlaps or directly follows the previous range
+                lasts[n - 1] = Math.max(lasts[n - 1], last);
+            } else {
+                firsts[n] = first;
+                lasts[n] = last;
+                n++;
+            }
+        }
+        return new H3RangeIndex(Arrays.copyOf(firsts, n), Arrays.copyOf(lasts, n));
+    }
+
+    /**
+     * Creates an index of the given indexes.
+     *
+     * @see #of(long[])
+     * @throws IllegalArgumentException An index is not valid.
+     */
+    public static H3RangeIndex of(H3IndexList h3) {
+        return of(h3.toArray());
+    }
+
+    /**
+     * Returns whether the index is one of the indexes of the set, or a descendant of one. An index
+     * which is the parent of indexes in the set is not covered, even if all of its children are.
+     *
+     * <p>The index is not validated.</p>
+     */
+    public boolean contains(long h3) {
+        long first = H3Index.firstFinestDescendant(h3);
+        int range = firstEndingAtOrAfter(first);
+        return range != 0 && firsts[range] <= first && H3Index.lastFinestDescendant(h3) <= lasts[range];
+    }
+
+    /**
+     * Returns the number of ranges after merging overlapping indexes.
+     */
+    public int numRanges() {
+        return firsts.length - 1;
+    }
+
+    /**
+     * Returns the Eytzinger position of the first range whose last descendant is not less than
+     * <code>first</code>, or 0 if there is none.
+     */
+    private int firstEndingAtOrAfter(long first) {
+        int n = lasts.length - 1;
+        int k = 1;
+        while (k <= n) {
+            // Left child if the range ends at or after first, otherwise right child
+            k = 2 * k + (lasts[k] < first ? 1 : 0);
+        }
+        // Undo the right turns after the last left turn, which was at the answer
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Fills positions from <code>k</code> of the Eytzinger arrays by an in-order traversal, starting
+     * from element <code>i</code> of the sorted arrays.
+     *
+     * @return The next element of the sorted arrays.
+     */
+    private int toEytzinger(long[] sortedFirsts, long[] sortedLasts, int i, int k) {
+        if (k < firsts.length) {
+            i = toEytzinger(sortedFirsts, sortedLasts, i, 2 * k);
+            firsts[k] = sortedFirsts[i];
+            lasts[k] = sortedLasts[i];
+            i++;
+            i = toEytzinger(sortedFirsts, sortedLasts, i, 2 * k + 1);
+        }
+        return i;
+    }
+}
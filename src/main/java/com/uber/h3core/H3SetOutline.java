@@ -0,0 +1,349 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Mutable set of indexes which keeps track of the outline of the set as indexes are added and removed.
+ *
+ * <p>The outline is kept as the set of unidirectional edges from an index in the set to an index
+ * not in the set. Adding or removing an index only changes its own edges and those of its neighbors,
+ * so takes constant time regardless of the size of the set. The edges are followed into loops, as
+ * returned by {@link #toMultiPolygon(boolean)}, only for loops which have changed since it was
+ * last called.</p>
+ *
+ * <p>All indexes must have the same resolution. This class is not thread safe. Create instances
+ * with {@link H3Core#newSetOutline()}.</p>
+ */
+public final class H3SetOutline {
+    private final H3Backend backend;
+
+    private final H3LongSet cells = new H3LongSet();
+    private int res = -1;
+
+    /**
+     * Edges of the outline whose loop is known, mapped to the loop containing them.
+     */
+    private final H3LongObjectMap<Loop> edges = new H3LongObjectMap<>();
+    /**
+     * Edges of the outline whose loop must be found again. These are not in {@link #edges}.
+     */
+    private final H3LongSet unassignedEdges = new H3LongSet();
+    private final Set<Loop> loops = new LinkedHashSet<>();
+
+    // Scratch space
+    private final long[] cellEdges = new long[6];
+    private final double[] originVerts = new double[JavaMethods.MAX_CELL_BNDRY_VERTS * 2];
+    private final double[] destinationVerts = new double[JavaMethods.MAX_CELL_BNDRY_VERTS * 2];
+    private final boolean[] shared = new boolean[JavaMethods.MAX_CELL_BNDRY_VERTS];
+
+    H3SetOutline(H3Backend backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * Returns the number of indexes in the set.
+     */
+    public int size() {
+        return cells.size();
+    }
+
+    /**
+     * Returns whether the index is in the set.
+     */
+    public boolean contains(long h3) {
+        return cells.contains(h3);
+    }
+
+    /**
+     * Returns the number of unidirectional edges in the outline.
+     */
+    public int numEdges() {
+        return edges.size() + unassignedEdges.size();
+    }
+
+    /**
+     * Adds the index to the set, updating the outline.
+     *
+     * @return <code>true</code> if the index was not already in the set.
+     * @throws IllegalArgumentException <code>h3</code> is not a valid index, or its resolution is
+     *                                  different from the indexes in the set.
+     */
+    public boolean add(long h3) {
+        checkIndex(h3);
+        if (!cells.add(h3)) {
+            return false;
+        }
+        res = H3Index.getResolution(h3);
+
+        H3Index.getUnidirectionalEdgesFromHexagon(h3, cellEdges);
+        for (long edge : cellEdges) {
+            if (edge == 0) {
+                continue;
+            }
+            long neighbor = H3Index.getDestinationFromUnidirectionalEdge(edge);
+            if (cells.contains(neighbor)) {
+                // The edge from the neighbor is now inside the set
+                removeEdge(edgeBetween(neighbor, h3));
+            } else {
+                addEdge(edge);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the index from the set, updating the outline.
+     *
+     * @return <code>true</code> if the index was in the set.
+     */
+    public boolean remove(long h3) {
+        if (!cells.remove(h3)) {
+            return false;
+        }
+
+        H3Index.getUnidirectionalEdgesFromHexagon(h3, cellEdges);
+        for (long edge : cellEdges) {
+            if (edge == 0) {
+                continue;
+            }
+            long neighbor = H3Index.getDestinationFromUnidirectionalEdge(edge);
+            if (cells.contains(neighbor)) {
+                // The edge from the neighbor is now on the outline
+                addEdge(edgeBetween(neighbor, h3));
+            } else {
+                removeEdge(edge);
+            }
+        }
+        if (cells.isEmpty()) {
+            res = -1;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the unidirectional edges of the outline, in no particular order.
+     */
+    public H3IndexList outlineEdges() {
+        long[] out = new long[numEdges()];
+        int[] i = { 0 };
+        edges.forEach((edge, loop) -> out[i[0]++] = edge);
+        unassignedEdges.forEach(edge -> out[i[0]++] = edge);
+        return new H3IndexList(out);
+    }
+
+    /**
+     * Returns the outline as polygons, in the same form as
+     * {@link H3Core#h3SetToMultiPolygon(long[], boolean, java.util.concurrent.ForkJoinPool)}: all loops
+     * are in one polygon. Loops which have not changed since the last call are reused, in the same
+     * order, followed by any new loops.
+     *
+     * @param geoJson Whether to order and close loops as for
+     *                {@link H3Core#h3SetToMultiPolygon(java.util.Collection, boolean)} with
+     *                <code>geoJson</code> set.
+     */
+    public H3MultiPolygon toMultiPolygon(boolean geoJson) {
+        traceLoops();
+        if (loops.isEmpty()) {
+            return H3MultiPolygon.empty();
+        }
+
+        int numVertices = 0;
+        for (Loop loop : loops) {
+            numVertices += loop.numVertices() + (geoJson ? 1 : 0);
+        }
+
+        double[] coordinates = new double[numVertices * 2];
+        int[] loopOffsets = new int[loops.size() + 1];
+        int vertex = 0;
+        int l = 0;
+        for (Loop loop : loops) {
+            loopOffsets[l++] = vertex;
+            if (geoJson) {
+                System.arraycopy(loop.verts, 0, coordinates, vertex * 2, loop.verts.length);
+                vertex += loop.numVertices();
+                // geoJson requires closing the loop
+                coordinates[vertex * 2] = loop.verts[0];
+                coordinates[vertex * 2 + 1] = loop.verts[1];
+                vertex++;
+            } else {
+                for (int v = 0; v < loop.numVertices(); v++) {
+                    coordinates[vertex * 2] = loop.verts[v * 2 + 1];
+                    coordinates[vertex * 2 + 1] = loop.verts[v * 2];
+                    vertex++;
+                }
+            }
+        }
+        loopOffsets[l] = vertex;
+
+        return new H3MultiPolygon(coordinates, loopOffsets, new int[] { 0, loops.size() });
+    }
+
+    private void checkIndex(long h3) {
+        if (!H3Index.isValid(h3)) {
+            throw new IllegalArgumentException(String.format("%x is not a valid index", h3));
+        }
+        if (res >= 0 && H3Index.getResolution(h3) != res) {
+            throw new IllegalArgumentException(String.format("resolution of %x must be %d", h3, res));
+        }
+    }
+
+    private void addEdge(long edge) {
+        unassignedEdges.add(edge);
+    }
+
+    private void removeEdge(long edge) {
+        Loop loop = edges.remove(edge);
+        if (loop == null) {
+            unassignedEdges.remove(edge);
+            return;
+        }
+        // The rest of the loop must be found again
+        loops.remove(loop);
+        for (long loopEdge : loop.edges) {
+            if (edges.get(loopEdge) == loop) {
+                edges.remove(loopEdge);
+                unassignedEdges.add(loopEdge);
+            }
+        }
+    }
+
+    /**
+     * Returns the edge from <code>origin</code> to its neighbor <code>destination</code>.
+     */
+    private static long edgeBetween(long origin, long destination) {
+        long edge = H3Index.getUnidirectionalEdgeBetween(origin, destination);
+        if (edge == 0) {
+            throw new IllegalStateException(String.format("%x is not a neighbor of %x", destination, origin));
+        }
+        return edge;
+    }
+
+    /**
+     * Follows the unassigned edges into loops. The unassigned edges always form whole loops, since
+     * an index is only added or removed along with the edges of the loops passing its vertices.
+     */
+    private void traceLoops() {
+        if (unassignedEdges.isEmpty()) {
+            return;
+        }
+        for (long first : unassignedEdges.toArray()) {
+            if (!unassignedEdges.contains(first)) {
+                // Already in a loop traced from an earlier edge
+                continue;
+            }
+            long[] loopEdges = new long[16];
+            int numEdges = 0;
+            double[] verts = new double[32];
+            int numVerts = 0;
+
+            long lastOrigin = 0;
+            int numOriginVerts = 0;
+            long edge = first;
+            do {
+                if (numEdges == loopEdges.length) {
+                    loopEdges = Arrays.copyOf(loopEdges, numEdges * 2);
+                }
+                loopEdges[numEdges++] = edge;
+                unassignedEdges.remove(edge);
+
+                // Consecutive edges often have the same origin
+                long origin = H3Index.getOriginFromUnidirectionalEdge(edge);
+                if (origin != lastOrigin) {
+                    numOriginVerts = backend.h3ToGeoBoundary(origin, originVerts);
+                    lastOrigin = origin;
+                }
+                int numDestinationVerts = backend.h3ToGeoBoundary(
+                        H3Index.getDestinationFromUnidirectionalEdge(edge), destinationVerts);
+                for (int i = 0; i < numOriginVerts; i++) {
+                    shared[i] = false;
+                    for (int j = 0; j < numDestinationVerts && !shared[i]; j++) {
+                        shared[i] = VertexGraph.almostEqual(originVerts[i * 2], originVerts[i * 2 + 1],
+                                destinationVerts[j * 2], destinationVerts[j * 2 + 1]);
+                    }
+                }
+
+                // Add the vertices of the edge, except the last, which starts the next edge
+                int start = 0;
+                while (!shared[start] || shared[(start + numOriginVerts - 1) % numOriginVerts]) {
+                    start++;
+                }
+                for (int i = start; shared[(i + 1) % numOriginVerts]; i++) {
+                    if (numVerts * 2 == verts.length) {
+                        verts = Arrays.copyOf(verts, verts.length * 2);
+                    }
+                    int v = i % numOriginVerts;
+                    verts[numVerts * 2] = H3Core.constrainLat(Math.toDegrees(originVerts[v * 2]));
+                    verts[numVerts * 2 + 1] = H3Core.constrainLng(Math.toDegrees(originVerts[v * 2 + 1]));
+                    numVerts++;
+                }
+
+                edge = nextEdge(edge);
+            } while (edge != first);
+
+            Loop loop = new Loop(Arrays.copyOf(loopEdges, numEdges), Arrays.copyOf(verts, numVerts * 2));
+            for (long loopEdge : loop.edges) {
+                edges.put(loopEdge, loop);
+            }
+            loops.add(loop);
+        }
+    }
+
+    /**
+     * Returns the edge of the outline which starts where <code>edge</code> ends, going counter-clockwise
+     * around the indexes in the set.
+     */
+    private long nextEdge(long edge) {
+        long origin = H3Index.getOriginFromUnidirectionalEdge(edge);
+        long destination = H3Index.getDestinationFromUnidirectionalEdge(edge);
+
+        // The next edge of the origin counter-clockwise shares the vertex with the destination
+        int nextDir = H3Index.rotate60ccw(H3Index.getReservedBits(edge));
+        if (nextDir == H3Index.K_AXES_DIGIT && H3Index.isPentagon(origin)) {
+            nextDir = H3Index.rotate60ccw(nextDir);
+        }
+        long nextOriginEdge = H3Index.getUnidirectionalEdge(origin, nextDir);
+        long third = H3Index.getDestinationFromUnidirectionalEdge(nextOriginEdge);
+        if (!cells.contains(third)) {
+            return nextOriginEdge;
+        }
+        // The outline continues around the third index at the vertex
+        return edgeBetween(third, destination);
+    }
+
+    /**
+     * A loop of the outline.
+     */
+    private static final class Loop {
+        final long[] edges;
+        /**
+         * Vertices in degrees, latitude then longitude.
+         */
+        final double[] verts;
+
+        Loop(long[] edges, double[] verts) {
+            this.edges = edges;
+            this.verts = verts;
+        }
+
+        int numVertices() {
+            return verts.length / 2;
+        }
+    }
+}
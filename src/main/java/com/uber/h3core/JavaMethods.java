@@ -0,0 +1,545 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.uber.h3core.util.Vector2D;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementation of {@link H3Backend} in Java, ported from the H3 core library. This avoids the
+ * cost of calling into native code, and can be inlined by the JIT compiler.
+ *
+ * <p>{@link #maxPolyfillSize}, {@link #h3SetToLinkedGeo}, {@link #h3SetToMultiPolygon} and
+ * {@link #getH3UnidirectionalEdgeBoundary} are not ported, and throw
+ * {@link UnsupportedOperationException}.</p>
+ */
+final class JavaMethods implements H3Backend {
+    /**
+     * Maximum number of vertices for an H3 index
+     */
+    static final int MAX_CELL_BNDRY_VERTS = 10;
+
+    /**
+     * Directions used for traversing a hexagonal ring counterclockwise around
+     * {1, 0, 0}
+     */
+    private static final int[] DIRECTIONS = {
+            H3Index.J_AXES_DIGIT,
+            H3Index.JK_AXES_DIGIT,
+            H3Index.K_AXES_DIGIT,
+            H3Index.IK_AXES_DIGIT,
+            H3Index.I_AXES_DIGIT,
+            H3Index.IJ_AXES_DIGIT
+    };
+
+    /**
+     * Direction used for traversing to the next outward hexagonal ring.
+     */
+    private static final int NEXT_RING_DIRECTION = H3Index.I_AXES_DIGIT;
+
+    /**
+     * Largest magnitude of an angle in radians which is indexed. Beyond this, consecutive doubles
+     * are more than a turn apart, so the angle does not denote a position.
+     */
+    private static final double MAX_ANGLE_RADS = 0x1p55;
+
+    JavaMethods() {
+        // Prevent instantiation
+    }
+
+    @Override
+    public long geoToH3(double lat, double lon, int res) {
+        if (res < 0 || res > H3Index.MAX_H3_RES) {
+            return 0;
+        }
+        if (!(Math.abs(lat) <= MAX_ANGLE_RADS) || !(Math.abs(lon) <= MAX_ANGLE_RADS)) {
+            // Also rejects NaN
+            return 0;
+        }
+
+        return FaceIJK.fromGeo(lat, lon, res).toH3(res);
+    }
+
+    @Override
+    public void h3ToGeo(long h3, double[] verts) {
+        FaceIJK.fromH3(h3).toGeo(H3Index.getResolution(h3), verts, 0);
+    }
+
+    @Override
+    public int h3ToGeoBoundary(long h3, double[] verts) {
+        double[] boundary = verts.length >= MAX_CELL_BNDRY_VERTS * 2 ? verts : new double[MAX_CELL_BNDRY_VERTS * 2];
+        int numVerts = FaceIJK.fromH3(h3).toGeoBoundary(H3Index.getResolution(h3), H3Index.isPentagon(h3), boundary);
+        if (boundary != verts) {
+            // if verts is too small, we will fail to write all the elements
+            System.arraycopy(boundary, 0, verts, 0, Math.min(verts.length, numVerts * 2));
+        }
+        return numVerts;
+    }
+
+    @Override
+    public int geoToH3Bulk(double[] lats, double[] lons, int res, long[] results) {
+        int count = Math.min(lats.length, Math.min(lons.length, results.length));
+        int numInvalid = 0;
+        for (int i = 0; i < count; i++) {
+            results[i] = geoToH3(Math.toRadians(lats[i]), Math.toRadians(lons[i]), res);
+            if (results[i] == 0) {
+                numInvalid++;
+            }
+        }
+        return numInvalid;
+    }
+
+    @Override
+    public void h3ToGeoBulk(long[] h3, double[] verts) {
+        for (int i = 0; i < h3.length && i * 2 + 1 < verts.length; i++) {
+            FaceIJK.fromH3(h3[i]).toGeo(H3Index.getResolution(h3[i]), verts, i * 2);
+        }
+    }
+
+    @Override
+    public int h3ToGeoBoundaryBulk(long[] h3, double[] verts, int[] offsets) {
+        double[] boundary = new double[MAX_CELL_BNDRY_VERTS * 2];
+        if (offsets.length > 0) {
+            offsets[0] = 0;
+        }
+        int numVerts = 0;
+        int i = 0;
+        // Stop at the first boundary that does not fit
+        for (; i < h3.length && i + 1 < offsets.length; i++) {
+            int n = h3ToGeoBoundary(h3[i], boundary);
+            if ((numVerts + n) * 2 > verts.length) {
+                break;
+            }
+            System.arraycopy(boundary, 0, verts, numVerts * 2, n * 2);
+            numVerts += n;
+            offsets[i + 1] = numVerts;
+        }
+        return i;
+    }
+
+    @Override
+    public void h3ToGeoBulkDegrees(long[] h3, float[] verts) {
+        double[] coord = new double[2];
+        for (int i = 0; i < h3.length && i * 2 + 1 < verts.length; i++) {
+            h3ToGeo(h3[i], coord);
+            verts[i * 2] = (float) latToDegrees(coord[0]);
+            verts[i * 2 + 1] = (float) lngToDegrees(coord[1]);
+        }
+    }
+
+    @Override
+    public int h3ToGeoBoundaryBulkDegrees(long[] h3, float[] verts, int[] offsets) {
+        double[] boundary = new double[MAX_CELL_BNDRY_VERTS * 2];
+        if (offsets.length > 0) {
+            offsets[0] = 0;
+        }
+        int numVerts = 0;
+        int i = 0;
+        // Stop at the first boundary that does not fit
+        for (; i < h3.length && i + 1 < offsets.length; i++) {
+            int n = h3ToGeoBoundary(h3[i], boundary);
+            if ((numVerts + n) * 2 > verts.length) {
+                break;
+            }
+            for (int v = 0; v < n; v++) {
+                verts[(numVerts + v) * 2] = (float) latToDegrees(boundary[v * 2]);
+                verts[(numVerts + v) * 2 + 1] = (float) lngToDegrees(boundary[v * 2 + 1]);
+            }
+            numVerts += n;
+            offsets[i + 1] = numVerts;
+        }
+        return i;
+    }
+
+    @Override
+    public int geoToH3Buffer(ByteBuffer lats, ByteBuffer lons, int count, int res, ByteBuffer results) {
+        DoubleBuffer latsIn = asDoubleBuffer(lats);
+        DoubleBuffer lonsIn = asDoubleBuffer(lons);
+        LongBuffer h3Out = asLongBuffer(results);
+        int numInvalid = 0;
+        for (int i = 0; i < count; i++) {
+            long h3 = geoToH3(Math.toRadians(latsIn.get(i)), Math.toRadians(lonsIn.get(i)), res);
+            h3Out.put(i, h3);
+            if (h3 == 0) {
+                numInvalid++;
+            }
+        }
+        return numInvalid;
+    }
+
+    @Override
+    public void h3ToGeoBuffer(ByteBuffer h3, int count, ByteBuffer verts) {
+        LongBuffer h3In = asLongBuffer(h3);
+        DoubleBuffer vertsOut = asDoubleBuffer(verts);
+        double[] coord = new double[2];
+        for (int i = 0; i < count; i++) {
+            h3ToGeo(h3In.get(i), coord);
+            vertsOut.put(i * 2, latToDegrees(coord[0]));
+            vertsOut.put(i * 2 + 1, lngToDegrees(coord[1]));
+        }
+    }
+
+    @Override
+    public int h3ToGeoBoundaryBuffer(ByteBuffer h3, int count, ByteBuffer verts, int vertsCapacity,
+                                     ByteBuffer offsets) {
+        LongBuffer h3In = asLongBuffer(h3);
+        DoubleBuffer vertsOut = asDoubleBuffer(verts);
+        IntBuffer offsetsOut = offsets.slice().order(ByteOrder.nativeOrder()).asIntBuffer();
+        double[] boundary = new double[MAX_CELL_BNDRY_VERTS * 2];
+        offsetsOut.put(0, 0);
+        int numVerts = 0;
+        int i = 0;
+        // Stop at the first boundary that does not fit
+        for (; i < count; i++) {
+            int n = h3ToGeoBoundary(h3In.get(i), boundary);
+            if ((numVerts + n) * 2 > vertsCapacity) {
+                break;
+            }
+            for (int v = 0; v < n; v++) {
+                vertsOut.put((numVerts + v) * 2, latToDegrees(boundary[v * 2]));
+                vertsOut.put((numVerts + v) * 2 + 1, lngToDegrees(boundary[v * 2 + 1]));
+            }
+            numVerts += n;
+            offsetsOut.put(i + 1, numVerts);
+        }
+        return i;
+    }
+
+    @Override
+    public int maxKringSize(int k) {
+        return 3 * k * (k + 1) + 1;
+    }
+
+    @Override
+    public void kRing(long h3, int k, long[] results) {
+        kRingDistances(h3, k, results, new int[results.length]);
+    }
+
+    @Override
+    public void kRingDistances(long h3, int k, long[] results, int[] distances) {
+        int maxIdx = maxKringSize(k);
+
+        // Optimistically try the faster hexRange algorithm first
+        if (hexRangeDistances(h3, k, results, distances)) {
+            // Fast algorithm failed, fall back to slower, correct algorithm
+            // and also wipe out results because hexRange may have written
+            // some indexes.
+            Arrays.fill(results, 0, maxIdx, 0L);
+            Arrays.fill(distances, 0, maxIdx, 0);
+            kRingInternal(h3, k, results, distances, maxIdx, 0);
+        }
+    }
+
+    @Override
+    public int hexRange(long h3, int k, long[] results) {
+        return hexRangeDistances(h3, k, results, new int[results.length]) ? 1 : 0;
+    }
+
+    /**
+     * Produces indexes within k distance of the origin, in order of increasing distance, by walking
+     * the rings. Fails if a pentagon is encountered, since the rings are distorted around pentagons.
+     *
+     * @return <code>true</code> if a pentagon was encountered, in which case the output is invalid.
+     */
+    static boolean hexRangeDistances(long origin, int k, long[] out, int[] distances) {
+        // Identifies which ring and which direction within it we are on.
+        int idx = 0;
+        int ring = 0;
+        int direction = 0;
+        int i = 0;
+        int[] rotations = { 0 };
+
+        out[idx] = origin;
+        distances[idx] = 0;
+        idx++;
+
+        if (H3Index.isPentagon(origin)) {
+            // Pentagon was encountered; bail out as user doesn't want this.
+            return true;
+        }
+
+        while (ring < k) {
+            if (direction == 0 && i == 0) {
+                // Not putting in the output set as it will be done later, at
+                // the end of this ring.
+                origin = H3Index.neighborRotations(origin, NEXT_RING_DIRECTION, rotations);
+                if (origin == 0 || H3Index.isPentagon(origin)) {
+                    // Pentagon was encountered; bail out as user doesn't want this.
+                    return true;
+                }
+            }
+
+            origin = H3Index.neighborRotations(origin, DIRECTIONS[direction], rotations);
+            if (origin == 0) {
+                return true;
+            }
+            out[idx] = origin;
+            distances[idx] = ring + 1;
+            idx++;
+
+            i++;
+            // Check if end of this side of the k-ring
+            if (i == ring + 1) {
+                i = 0;
+                direction++;
+                // Check if end of this ring.
+                if (direction == 6) {
+                    direction = 0;
+                    ring++;
+                }
+            }
+
+            if (H3Index.isPentagon(origin)) {
+                // Pentagon was encountered; bail out as user doesn't want this.
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Produces the indexes exactly k distance from the origin, in order, by walking the ring. Ported
+     * from <code>hexRing</code>. Fails if a pentagon or pentagonal distortion is encountered.
+     *
+     * @param out Output for the indexes, with room for <code>6 * k</code> indexes, or 1 if
+     *            <code>k</code> is 0.
+     * @return 0 on success, or 1 if a pentagon was encountered, in which case the output is invalid.
+     */
+    @Override
+    public int hexRing(long origin, int k, long[] out) {
+        // Short-circuit on 'identity' ring
+        if (k == 0) {
+            out[0] = origin;
+            return 0;
+        }
+        int idx = 0;
+        int[] rotations = { 0 };
+
+        if (H3Index.isPentagon(origin)) {
+            // Pentagon was encountered; bail out as user doesn't want this.
+            return 1;
+        }
+
+        for (int ring = 0; ring < k; ring++) {
+            origin = H3Index.neighborRotations(origin, NEXT_RING_DIRECTION, rotations);
+            if (origin == 0 || H3Index.isPentagon(origin)) {
+                return 1;
+            }
+        }
+
+        long lastIndex = origin;
+
+        out[idx] = origin;
+        idx++;
+
+        for (int direction = 0; direction < 6; direction++) {
+            for (int pos = 0; pos < k; pos++) {
+                origin = H3Index.neighborRotations(origin, DIRECTIONS[direction], rotations);
+                if (origin == 0) {
+                    return 1;
+                }
+
+                // Skip the very last index, it was already added. We do
+                // however need to traverse to it because of the pentagonal
+                // distortion check, below.
+                if (pos != k - 1 || direction != 5) {
+                    out[idx] = origin;
+                    idx++;
+
+                    if (H3Index.isPentagon(origin)) {
+                        return 1;
+                    }
+                }
+            }
+        }
+
+        // Check that this matches the expected lastIndex, if it doesn't,
+        // it indicates pentagonal distortion occurred and we should report
+        // failure.
+        return lastIndex != origin ? 1 : 0;
+    }
+
+    @Override
+    public int maxPolyfillSize(double[] verts, int[] holeSizes, double[] holeVerts, int res) {
+        throw unsupported();
+    }
+
+    @Override
+    public H3IndexList polyfillIndexList(double[] verts, int[] holeSizes, double[] holeVerts, int res) {
+        return new Polyfill(verts, holeSizes, holeVerts, res).fill();
+    }
+
+    @Override
+    public int polyfillBuffer(double[] verts, int[] holeSizes, double[] holeVerts, int res, ByteBuffer results,
+                              int capacity) {
+        H3IndexList cells = polyfillIndexList(verts, holeSizes, holeVerts, res);
+        if (cells.size() > capacity) {
+            return -cells.size();
+        }
+        LongBuffer h3Out = asLongBuffer(results);
+        for (int i = 0; i < cells.size(); i++) {
+            h3Out.put(i, cells.get(i));
+        }
+        return cells.size();
+    }
+
+    @Override
+    public void h3SetToLinkedGeo(long[] h3, ArrayList<List<List<Vector2D>>> results) {
+        throw unsupported();
+    }
+
+    @Override
+    public H3MultiPolygon h3SetToMultiPolygon(long[] h3, boolean geoJson) {
+        throw unsupported();
+    }
+
+    /**
+     * As the core library, except that duplicated indexes are accepted.
+     */
+    @Override
+    public int compact(long[] h3, long[] results) {
+        H3IndexList compacted;
+        try {
+            compacted = H3Compaction.compact(h3.clone(), false);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        for (int i = 0; i < compacted.size(); i++) {
+            results[i] = compacted.get(i);
+        }
+        return 0;
+    }
+
+    @Override
+    public int maxUncompactSize(long[] h3, int res) {
+        long size = 0;
+        for (long index : h3) {
+            if (!H3Index.isValid(index) || H3Index.getResolution(index) > res) {
+                return -1;
+            }
+            size += ChildrenSpliterator.of(index, res).estimateSize();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("too many indexes (%d) to uncompact into an array", size));
+        }
+        return (int) size;
+    }
+
+    @Override
+    public int uncompact(long[] h3, int res, long[] results) {
+        H3IndexList uncompacted;
+        try {
+            uncompacted = H3Compaction.uncompact(h3, res, false);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        for (int i = 0; i < uncompacted.size(); i++) {
+            results[i] = uncompacted.get(i);
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean h3IndexesAreNeighbors(long a, long b) {
+        return H3Index.getUnidirectionalEdgeBetween(a, b) != 0;
+    }
+
+    @Override
+    public long getH3UnidirectionalEdge(long a, long b) {
+        return H3Index.getUnidirectionalEdgeBetween(a, b);
+    }
+
+    @Override
+    public void getH3IndexesFromUnidirectionalEdge(long h3, long[] results) {
+        results[0] = H3Index.getOriginFromUnidirectionalEdge(h3);
+        results[1] = H3Index.isValidUnidirectionalEdge(h3) ? H3Index.getDestinationFromUnidirectionalEdge(h3) : 0;
+    }
+
+    @Override
+    public int getH3UnidirectionalEdgeBoundary(long h3, double[] verts) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not supported by the Java implementation of H3; use newInstance()");
+    }
+
+    /**
+     * Converts a latitude to degrees, as the core library's <code>radsToDegs</code> and
+     * {@link H3Core#constrainLat(double)}.
+     */
+    private static double latToDegrees(double lat) {
+        return H3Core.constrainLat(Math.toDegrees(lat));
+    }
+
+    private static double lngToDegrees(double lng) {
+        return H3Core.constrainLng(Math.toDegrees(lng));
+    }
+
+    private static DoubleBuffer asDoubleBuffer(ByteBuffer buffer) {
+        return buffer.slice().order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    private static LongBuffer asLongBuffer(ByteBuffer buffer) {
+        return buffer.slice().order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    /**
+     * Recursively fills <code>out</code>, used as a hash table with linear probing, with the indexes
+     * within <code>k</code> of the origin. Handles pentagons, unlike {@link #hexRangeDistances}.
+     */
+    private static void kRingInternal(long origin, int k, long[] out, int[] distances, int maxIdx, int curK) {
+        if (origin == 0) {
+            return;
+        }
+
+        // Put origin in the output array. out is used as a hash set.
+        int off = (int) (origin % maxIdx);
+        while (out[off] != 0 && out[off] != origin) {
+            off = (off + 1) % maxIdx;
+        }
+
+        // We either got a free slot in the hash set or hit a duplicate
+        // We might need to process the duplicate anyways because we got
+        // here on a longer path before.
+        if (out[off] == origin && distances[off] <= curK) {
+            return;
+        }
+
+        out[off] = origin;
+        distances[off] = curK;
+
+        // Base case: reached an index k away from the origin.
+        if (curK >= k) {
+            return;
+        }
+
+        // Recurse to all neighbors in no particular order.
+        for (int direction : DIRECTIONS) {
+            int[] rotations = { 0 };
+            kRingInternal(H3Index.neighborRotations(origin, direction, rotations), k, out, distances, maxIdx,
+                    curK + 1);
+        }
+    }
+}
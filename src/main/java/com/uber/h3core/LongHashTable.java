@@ -0,0 +1,239 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table of <code>long</code> keys, shared by {@link H3LongSet},
+ * {@link H3LongDoubleMap} and {@link H3LongObjectMap}. Subclasses store values in arrays parallel to
+ * {@link #keys}.
+ *
+ * <p>Collisions are resolved by linear probing, and removal shifts later entries back rather than
+ * leaving tombstones. 0 marks unused slots, which is possible because 0 is not a valid index.</p>
+ */
+abstract class LongHashTable {
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * Keys, or 0 for unused slots. The length is a power of two.
+     */
+    long[] keys;
+    int size;
+    /**
+     * Number of bits of the mixed hash used to find a slot.
+     */
+    private int bits;
+
+    LongHashTable(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(String.format("expectedSize (%d) must not be negative", expectedSize));
+        }
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the slot for the key to start probing at, from the high bits of {@link #mix}.
+     */
+    final int home(long key) {
+        return (int) (mix(key) >>> (64 - bits));
+    }
+
+    /**
+     * Mixes the bits of a key.
+     *
+     * <p>Indexes close to each other differ only in a few middle bits, and unused digits make the
+     * low bits all 1s, so the low bits of the key are a poor hash. This multiplies by the golden
+     * ratio, which makes the high bits of the product depend on every bit of the key.</p>
+     */
+    static long mix(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Returns which of <code>stripes</code> locks guards the key, for classes which split keys
+     * between tables each with its own lock.
+     *
+     * <p>This uses the 64 bit finalizer of MurmurHash3 rather than {@link #mix}. The low bits of a
+     * product only depend on the low bits of the key, which are all unused digits for coarse indexes,
+     * and {@link #home} finds slots by the top bits, which would otherwise be the same for all keys in
+     * a stripe. Every bit of the finalizer's result depends on every bit of the key.</p>
+     *
+     * @param stripes Number of stripes, a power of two.
+     */
+    static int stripe(long key, int stripes) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h & (stripes - 1);
+    }
+
+    /**
+     * Returns the slot containing the key, or -1 if it is not in the table.
+     */
+    final int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = home(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return slot;
+            }
+            if (k == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot containing the key, inserting it if it is not in the table.
+     *
+     * @return The slot if the key was already in the table, otherwise <code>-(slot + 1)</code>.
+     * @throws IllegalArgumentException <code>key</code> is 0.
+     */
+    final int insert(long key) {
+        checkKey(key);
+        if (size >= keys.length / 2) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        for (int slot = home(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return slot;
+            }
+            if (k == 0) {
+                keys[slot] = key;
+                size++;
+                return -(slot + 1);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry in the slot, moving back entries which probed past it.
+     */
+    final void removeAt(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            // The entry can fill the gap if the gap is between its home slot and its slot
+            int home = home(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                moveValue(next, gap);
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        clearValue(gap);
+        size--;
+    }
+
+    /**
+     * Returns the number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <code>true</code> if there are no keys.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        clearValues();
+        size = 0;
+    }
+
+    /**
+     * Returns the keys, in no particular order.
+     */
+    public H3IndexList keys() {
+        long[] out = new long[size];
+        int i = 0;
+        for (long key : keys) {
+            if (key != 0) {
+                out[i++] = key;
+            }
+        }
+        return new H3IndexList(out);
+    }
+
+    /**
+     * Allocates value arrays for the given capacity, returning the previous ones.
+     */
+    abstract Object allocateValues(int capacity);
+
+    /**
+     * Copies the value in <code>oldSlot</code> of the value arrays returned by
+     * {@link #allocateValues(int)} to <code>newSlot</code>.
+     */
+    abstract void copyValue(Object oldValues, int oldSlot, int newSlot);
+
+    abstract void moveValue(int from, int to);
+
+    abstract void clearValue(int slot);
+
+    abstract void clearValues();
+
+    static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("0 is not a valid index");
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private Object allocate(int capacity) {
+        keys = new long[capacity];
+        bits = Integer.numberOfTrailingZeros(capacity);
+        return allocateValues(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object oldValues = allocate(capacity);
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            long key = oldKeys[oldSlot];
+            if (key == 0) {
+                continue;
+            }
+            int slot = home(key);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            copyValue(oldValues, oldSlot, slot);
+        }
+    }
+}
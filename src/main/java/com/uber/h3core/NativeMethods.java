@@ -17,14 +17,17 @@ package com.uber.h3core;
 
 import com.uber.h3core.util.Vector2D;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Interface to native code. Implementation of these functions is in
  * <code>src/main/c/h3-java/src/jniapi.c</code>.
+ *
+ * <p>The functions of {@link H3Backend} take and return coordinates as documented there.</p>
  */
-final class NativeMethods {
+final class NativeMethods implements H3Backend {
     NativeMethods() {
         // Prevent instantiation
     }
@@ -35,24 +38,68 @@ final class NativeMethods {
     native boolean h3IsValid(long h3);
     native int h3GetBaseCell(long h3);
     native boolean h3IsPentagon(long h3);
-    native long geoToH3(double lat, double lon, int res);
-    native void h3ToGeo(long h3, double[] verts);
-    native int h3ToGeoBoundary(long h3, double[] verts);
+    @Override
+    public native long geoToH3(double lat, double lon, int res);
+    // lats and lons are in degrees, so the conversion to radians happens natively.
+    @Override
+    public native int geoToH3Bulk(double[] lats, double[] lons, int res, long[] results);
+    @Override
+    public native void h3ToGeo(long h3, double[] verts);
+    @Override
+    public native int h3ToGeoBoundary(long h3, double[] verts);
+    @Override
+    public native void h3ToGeoBulk(long[] h3, double[] verts);
+    @Override
+    public native int h3ToGeoBoundaryBulk(long[] h3, double[] verts, int[] offsets);
+    // The float variants write degrees, since converting single precision radians would lose more precision.
+    @Override
+    public native void h3ToGeoBulkDegrees(long[] h3, float[] verts);
+    @Override
+    public native int h3ToGeoBoundaryBulkDegrees(long[] h3, float[] verts, int[] offsets);
+    // Buffers must be direct, in native byte order, and start at the element to read or write.
+    // Coordinates in buffers are in degrees.
+    @Override
+    public native int geoToH3Buffer(ByteBuffer lats, ByteBuffer lons, int count, int res, ByteBuffer results);
+    @Override
+    public native void h3ToGeoBuffer(ByteBuffer h3, int count, ByteBuffer verts);
+    @Override
+    public native int h3ToGeoBoundaryBuffer(ByteBuffer h3, int count, ByteBuffer verts, int vertsCapacity, ByteBuffer offsets);
 
-    native int maxKringSize(int k);
-    native void kRing(long h3, int k, long[] results);
-    native void kRingDistances(long h3, int k, long[] results, int[] distances);
-    native int hexRange(long h3, int k, long[] results);
-    native int hexRing(long h3, int k, long[] results);
+    @Override
+    public native int maxKringSize(int k);
+    @Override
+    public native void kRing(long h3, int k, long[] results);
+    @Override
+    public native void kRingDistances(long h3, int k, long[] results, int[] distances);
+    @Override
+    public native int hexRange(long h3, int k, long[] results);
+    @Override
+    public native int hexRing(long h3, int k, long[] results);
 
-    native int maxPolyfillSize(double[] verts, int[] holeSizes, double[] holeVerts, int res);
+    @Override
+    public native int maxPolyfillSize(double[] verts, int[] holeSizes, double[] holeVerts, int res);
     native void polyfill(double[] verts, int[] holeSizes, double[] holeVerts, int res, long[] results);
+    @Override
+    public native int polyfillBuffer(double[] verts, int[] holeSizes, double[] holeVerts, int res, ByteBuffer results, int capacity);
+
+    @Override
+    public H3IndexList polyfillIndexList(double[] verts, int[] holeSizes, double[] holeVerts, int res) {
+        long[] results = new long[maxPolyfillSize(verts, holeSizes, holeVerts, res)];
+        polyfill(verts, holeSizes, holeVerts, res, results);
+        return H3IndexList.fromNonZero(results);
+    }
 
-    native void h3SetToLinkedGeo(long[] h3, ArrayList<List<List<Vector2D>>> results);
+    @Override
+    public native void h3SetToLinkedGeo(long[] h3, ArrayList<List<List<Vector2D>>> results);
+    @Override
+    public native H3MultiPolygon h3SetToMultiPolygon(long[] h3, boolean geoJson);
 
-    native int compact(long[] h3, long[] results);
-    native int maxUncompactSize(long[] h3, int res);
-    native int uncompact(long[] h3, int res, long[] results);
+    @Override
+    public native int compact(long[] h3, long[] results);
+    @Override
+    public native int maxUncompactSize(long[] h3, int res);
+    @Override
+    public native int uncompact(long[] h3, int res, long[] results);
 
     native double hexAreaKm2(int res);
     native double hexAreaM2(int res);
@@ -60,12 +107,16 @@ final class NativeMethods {
     native double edgeLengthM(int res);
     native long numHexagons(int res);
 
-    native boolean h3IndexesAreNeighbors(long a, long b);
-    native long getH3UnidirectionalEdge(long a, long b);
+    @Override
+    public native boolean h3IndexesAreNeighbors(long a, long b);
+    @Override
+    public native long getH3UnidirectionalEdge(long a, long b);
     native boolean h3UnidirectionalEdgeIsValid(long h3);
     native long getOriginH3IndexFromUnidirectionalEdge(long h3);
     native long getDestinationH3IndexFromUnidirectionalEdge(long h3);
-    native void getH3IndexesFromUnidirectionalEdge(long h3, long[] results);
+    @Override
+    public native void getH3IndexesFromUnidirectionalEdge(long h3, long[] results);
     native void getH3UnidirectionalEdgesFromHexagon(long h3, long[] results);
-    native int getH3UnidirectionalEdgeBoundary(long h3, double[] verts);
+    @Override
+    public native int getH3UnidirectionalEdgeBoundary(long h3, double[] verts);
 }
@@ -0,0 +1,865 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+/**
+ * Finds the cells of a resolution whose centers are inside a polygon, in Java.
+ *
+ * <p>The polygon and its holes are tested in the same way as <code>polyfill</code> in the H3 core library,
+ * by casting rays in latitude/longitude space from each cell center. Rather than testing every cell in a
+ * k-ring around the polygon, cells are visited from the base cells down. A cell whose descendants
+ * cannot be near an edge of the polygon is wholly inside or wholly outside of it, so only cells near the
+ * edges are tested individually.</p>
+ *
+ * <p>Coordinates are in radians, packed as by <code>H3Core</code> for the polyfill JNI calls.</p>
+ */
+final class Polyfill {
+    /**
+     * Upper bound of the distance from the center of a cell to the center of any of its descendants,
+     * relative to the greatest distance from the center to a vertex of the cell. The descendants of
+     * a cell extend past its boundary by less than 5%.
+     */
+    private static final double DESCENDANT_RADIUS_SCALE = 1.25;
+
+    /**
+     * Cells with at most this many resolutions below them are filled by one task.
+     */
+    private static final int SEQUENTIAL_DEPTH = 3;
+
+    /**
+     * Average number of edges per latitude band used to find the edges a ray may cross.
+     */
+    private static final int EDGES_PER_BAND = 4;
+
+    private static final double DBL_EPSILON = Math.ulp(1.0);
+    private static final double M_2PI = 2 * Math.PI;
+
+    private final int res;
+
+    // Bounding boxes of each ring, with the outline first, as in bboxFromGeofence.
+    private final double[] north;
+    private final double[] south;
+    private final double[] east;
+    private final double[] west;
+    private final boolean[] transmeridian;
+
+    // Edges of all rings. Latitude of A is at most that of B, and longitudes are normalized for
+    // transmeridian rings.
+    private final int[] edgeRing;
+    private final double[] latA;
+    private final double[] lngA;
+    private final double[] latB;
+    private final double[] lngB;
+
+    /**
+     * Edges overlapping each latitude band of each ring, in order.
+     */
+    private final int[][][] bandEdges;
+    private final double[] bandHeight;
+
+    /**
+     * All edges, in order.
+     */
+    private final int[] allEdges;
+
+    Polyfill(double[] verts, int[] holeSizes, double[] holeVerts, int res) {
+        this.res = res;
+
+        int numRings = 1 + holeSizes.length;
+        double[][] rings = new double[numRings][];
+        rings[0] = verts;
+        int offset = 0;
+        for (int i = 0; i < holeSizes.length; i++) {
+            rings[i + 1] = Arrays.copyOfRange(holeVerts, offset, offset + holeSizes[i]);
+            offset += holeSizes[i];
+        }
+
+        north = new double[numRings];
+        south = new double[numRings];
+        east = new double[numRings];
+        west = new double[numRings];
+        transmeridian = new boolean[numRings];
+
+        int numEdges = 0;
+        for (int r = 0; r < numRings; r++) {
+            setBBox(r, rings[r]);
+            numEdges += rings[r].length / 2;
+        }
+
+        edgeRing = new int[numEdges];
+        latA = new double[numEdges];
+        lngA = new double[numEdges];
+        latB = new double[numEdges];
+        lngB = new double[numEdges];
+        allEdges = new int[numEdges];
+        bandEdges = new int[numRings][][];
+        bandHeight = new double[numRings];
+
+        int e = 0;
+        for (int r = 0; r < numRings; r++) {
+            double[] ring = rings[r];
+            int numVerts = ring.length / 2;
+            int firstEdge = e;
+            for (int i = 0; i < numVerts; i++, e++) {
+                int next = (i + 1) % numVerts;
+                double aLat = ring[i * 2];
+                double aLng = ring[i * 2 + 1];
+                double bLat = ring[next * 2];
+                double bLng = ring[next * 2 + 1];
+                // Ray casting algo requires the second point to always be higher
+                // than the first, so swap if needed
+                if (aLat > bLat) {
+                    double tmp = aLat;
+                    aLat = bLat;
+                    bLat = tmp;
+                    tmp = aLng;
+                    aLng = bLng;
+                    bLng = tmp;
+                }
+                edgeRing[e] = r;
+                latA[e] = aLat;
+                lngA[e] = normalizeLng(aLng, transmeridian[r]);
+                latB[e] = bLat;
+                lngB[e] = normalizeLng(bLng, transmeridian[r]);
+                allEdges[e] = e;
+            }
+            indexBands(r, firstEdge, e);
+        }
+    }
+
+    /**
+     * Port of <code>bboxFromGeofence</code>.
+     */
+    private void setBBox(int r, double[] ring) {
+        int numVerts = ring.length / 2;
+        if (numVerts == 0) {
+            return;
+        }
+
+        double s = Double.MAX_VALUE;
+        double w = Double.MAX_VALUE;
+        double n = -Double.MAX_VALUE;
+        double e = -Double.MAX_VALUE;
+        double minPosLng = Double.MAX_VALUE;
+        double maxNegLng = -Double.MAX_VALUE;
+        boolean isTransmeridian = false;
+        for (int i = 0; i < numVerts; i++) {
+            double lat = ring[i * 2];
+            double lng = ring[i * 2 + 1];
+            double nextLng = ring[((i + 1) % numVerts) * 2 + 1];
+            s = Math.min(s, lat);
+            w = Math.min(w, lng);
+            n = Math.max(n, lat);
+            e = Math.max(e, lng);
+            // Save the min positive and max negative longitude for
+            // use in the transmeridian case
+            if (lng > 0 && lng < minPosLng) {
+                minPosLng = lng;
+            }
+            if (lng < 0 && lng > maxNegLng) {
+                maxNegLng = lng;
+            }
+            // check for arcs > 180 degrees longitude, flagging as transmeridian
+            if (Math.abs(lng - nextLng) > Math.PI) {
+                isTransmeridian = true;
+            }
+        }
+        // Swap east and west if transmeridian
+        if (isTransmeridian) {
+            e = maxNegLng;
+            w = minPosLng;
+        }
+        north[r] = n;
+        south[r] = s;
+        east[r] = e;
+        west[r] = w;
+        transmeridian[r] = isTransmeridian;
+    }
+
+    private void indexBands(int r, int firstEdge, int endEdge) {
+        int numBands = Math.max(1, (endEdge - firstEdge) / EDGES_PER_BAND);
+        bandHeight[r] = (north[r] - south[r]) / numBands;
+        bandEdges[r] = new int[numBands][];
+
+        int[] counts = new int[numBands];
+        for (int e = firstEdge; e < endEdge; e++) {
+            for (int b = band(r, latA[e]); b <= band(r, latB[e]); b++) {
+                counts[b]++;
+            }
+        }
+        for (int b = 0; b < numBands; b++) {
+            bandEdges[r][b] = new int[counts[b]];
+            counts[b] = 0;
+        }
+        for (int e = firstEdge; e < endEdge; e++) {
+            for (int b = band(r, latA[e]); b <= band(r, latB[e]); b++) {
+                bandEdges[r][b][counts[b]++] = e;
+            }
+        }
+    }
+
+    private int band(int r, double lat) {
+        if (!(bandHeight[r] > 0)) {
+            return 0;
+        }
+        int b = (int) ((lat - south[r]) / bandHeight[r]);
+        return Math.max(0, Math.min(bandEdges[r].length - 1, b));
+    }
+
+    /**
+     * Port of <code>pointInsidePolygon</code>.
+     */
+    boolean contains(double lat, double lng) {
+        // Start with contains state of primary geofence
+        if (!ringContains(0, lat, lng)) {
+            return false;
+        }
+        // If the point is contained in the primary geofence, but there are holes in
+        // the geofence iterate through all holes and return false if the point is
+        // contained in any hole
+        for (int r = 1; r < north.length; r++) {
+            if (ringContains(r, lat, lng)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Port of <code>pointInsideGeofence</code>, testing only the edges in the latitude band of the point.
+     */
+    private boolean ringContains(int r, double lat, double lng) {
+        if (!bboxContains(r, lat, lng)) {
+            return false;
+        }
+
+        boolean isTransmeridian = transmeridian[r];
+        boolean contains = false;
+        lng = normalizeLng(lng, isTransmeridian);
+        for (int e : bandEdges[r][band(r, lat)]) {
+            // If we're totally above or below the latitude ranges, the test
+            // ray cannot intersect the line segment, so let's move on
+            if (lat < latA[e] || lat > latB[e]) {
+                continue;
+            }
+
+            // Rays are cast in the longitudinal direction, in case a point
+            // exactly matches, to decide tiebreakers, bias westerly
+            if (lngA[e] == lng || lngB[e] == lng) {
+                lng -= DBL_EPSILON;
+            }
+
+            // For the latitude of the point, compute the longitude of the
+            // point that lies on the line segment defined by a and b
+            double ratio = (lat - latA[e]) / (latB[e] - latA[e]);
+            double testLng = normalizeLng(lngA[e] + (lngB[e] - lngA[e]) * ratio, isTransmeridian);
+
+            // Intersection of the ray
+            if (testLng > lng) {
+                contains = !contains;
+            }
+        }
+        return contains;
+    }
+
+    private boolean bboxContains(int r, double lat, double lng) {
+        return lat >= south[r] && lat <= north[r] && (transmeridian[r]
+                // transmeridian case
+                ? (lng >= west[r] || lng <= east[r])
+                // standard case
+                : (lng >= west[r] && lng <= east[r]));
+    }
+
+    private static double normalizeLng(double lng, boolean isTransmeridian) {
+        return isTransmeridian && lng < 0 ? lng + M_2PI : lng;
+    }
+
+    /**
+     * Returns the edges which may separate the centers of descendants of the cell, out of <code>edges</code>.
+     * If none are returned, the centers of all of the descendants are inside or all are outside
+     * the polygon, the same as the center of the cell.
+     *
+     * @param center Center of the cell
+     * @return The edges, or <code>null</code> if all of the descendants are outside the bounding box
+     *         of the outline.
+     */
+    private int[] edgesNear(FaceIJK fijk, long cell, int cellRes, double[] center, int[] edges) {
+        if (edges.length == 0) {
+            return edges;
+        }
+
+        double[] verts = new double[JavaMethods.MAX_CELL_BNDRY_VERTS * 2];
+        int numVerts = fijk.toGeoBoundary(cellRes, H3Index.isPentagon(cell), verts);
+        double maxDistance = 0;
+        for (int v = 0; v < numVerts; v++) {
+            maxDistance = Math.max(maxDistance, distanceRads(center[0], center[1], verts[v * 2], verts[v * 2 + 1]));
+        }
+        double radius = maxDistance * DESCENDANT_RADIUS_SCALE;
+
+        // Bounding box of the cap containing the descendants
+        double minLat = center[0] - radius;
+        double maxLat = center[0] + radius;
+        if (maxLat < south[0] || minLat > north[0]) {
+            return null;
+        }
+
+        double cosLat = Math.cos(center[0]);
+        double sinRadius = Math.sin(radius);
+        if (radius >= Math.PI / 2 || sinRadius >= cosLat) {
+            // The descendants may surround a pole, so may have any longitude.
+            return edges;
+        }
+        double lngRadius = Math.asin(sinRadius / cosLat);
+        if (!overlapsOutlineLng(center[1], lngRadius)) {
+            return null;
+        }
+
+        int[] near = new int[edges.length];
+        int numNear = 0;
+        int lastRing = -1;
+        double minLng = 0;
+        double maxLng = 0;
+        for (int e : edges) {
+            int r = edgeRing[e];
+            if (r != lastRing) {
+                lastRing = r;
+                double lng = normalizeLng(center[1], transmeridian[r]);
+                minLng = lng - lngRadius;
+                maxLng = lng + lngRadius;
+                double lowest = transmeridian[r] ? 0 : -Math.PI;
+                if (minLng < lowest || maxLng > lowest + M_2PI) {
+                    // The descendants wrap around to the other end of the ring's
+                    // longitude range.
+                    return edges;
+                }
+            }
+            if (maxLat >= latA[e] && minLat <= latB[e] && segmentIntersectsBox(latA[e], lngA[e], latB[e], lngB[e],
+                    minLat, maxLat, minLng, maxLng)) {
+                near[numNear++] = e;
+            }
+        }
+        return numNear == near.length ? edges : Arrays.copyOf(near, numNear);
+    }
+
+    /**
+     * Returns whether the longitudes within <code>lngRadius</code> of <code>lng</code> overlap
+     * the bounding box of the outline, including across the antimeridian.
+     */
+    private boolean overlapsOutlineLng(double lng, double lngRadius) {
+        boolean isTransmeridian = transmeridian[0];
+        double minLng = normalizeLng(lng, isTransmeridian) - lngRadius;
+        double maxLng = normalizeLng(lng, isTransmeridian) + lngRadius;
+        double w = west[0];
+        double e = normalizeLng(east[0], isTransmeridian);
+        for (double shift = -M_2PI; shift <= M_2PI; shift += M_2PI) {
+            if (minLng <= e + shift && maxLng >= w + shift) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the segment from a to b intersects the box, with Liang-Barsky clipping.
+     */
+    private static boolean segmentIntersectsBox(double aLat, double aLng, double bLat, double bLng,
+                                                double minLat, double maxLat, double minLng, double maxLng) {
+        double t0 = 0;
+        double t1 = 1;
+        double dLat = bLat - aLat;
+        double dLng = bLng - aLng;
+        double[] p = { -dLat, dLat, -dLng, dLng };
+        double[] q = { aLat - minLat, maxLat - aLat, aLng - minLng, maxLng - aLng };
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) {
+                    return false;
+                }
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) {
+                    t0 = Math.max(t0, t);
+                } else {
+                    t1 = Math.min(t1, t);
+                }
+                if (t0 > t1) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Great circle distance between two points, in radians.
+     */
+    private static double distanceRads(double lat1, double lng1, double lat2, double lng2) {
+        double sinLat = Math.sin((lat2 - lat1) / 2);
+        double sinLng = Math.sin((lng2 - lng1) / 2);
+        double a = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLng * sinLng;
+        return 2 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Writes the center of the cell to <code>center</code>, constrained as by <code>polyfill</code>.
+     */
+    private static void center(FaceIJK fijk, int cellRes, double[] center) {
+        fijk.toGeo(cellRes, center, 0);
+        center[0] = constrainLat(center[0]);
+        center[1] = constrainLng(center[1]);
+    }
+
+    private static double constrainLat(double lat) {
+        while (lat > Math.PI / 2) {
+            lat = lat - Math.PI;
+        }
+        return lat;
+    }
+
+    private static double constrainLng(double lng) {
+        while (lng > Math.PI) {
+            lng = lng - M_2PI;
+        }
+        while (lng < -Math.PI) {
+            lng = lng + M_2PI;
+        }
+        return lng;
+    }
+
+    /**
+     * Finds the cells inside the polygon on the calling thread.
+     *
+     * @return The cells, in ascending order.
+     */
+    H3IndexList fill() {
+        if (edgeRing.length == 0 || edgeRing[0] != 0) {
+            // No outline
+            return H3IndexList.of();
+        }
+
+        LongArrayBuilder out = new LongArrayBuilder();
+        for (int baseCell = 0; baseCell < H3Index.NUM_BASE_CELLS; baseCell++) {
+            fill(baseCell(baseCell), 0, allEdges, out);
+        }
+        return new H3IndexList(out.toArray());
+    }
+
+    /**
+     * Finds the cells inside the polygon, using <code>pool</code>.
+     *
+     * @return The cells, in ascending order.
+     */
+    H3IndexList fill(ForkJoinPool pool) {
+        if (edgeRing.length == 0 || edgeRing[0] != 0) {
+            // No outline
+            return H3IndexList.of();
+        }
+
+        FillTask[] tasks = new FillTask[H3Index.NUM_BASE_CELLS];
+        for (int baseCell = 0; baseCell < H3Index.NUM_BASE_CELLS; baseCell++) {
+            tasks[baseCell] = new FillTask(baseCell(baseCell), 0, allEdges);
+        }
+        return new H3IndexList(pool.invoke(new ConcatTask(tasks)));
+    }
+
+    /**
+     * Provides the cells inside the polygon, in ascending order, finding them as they are requested.
+     * The iterator holds the cells and edges on the path from a base cell to the current cell, so its
+     * memory use does not depend on the number of cells.
+     */
+    PrimitiveIterator.OfLong iterator() {
+        return new CellIterator();
+    }
+
+    /**
+     * Passes the cells inside the polygon which descend from <code>cell</code> to <code>out</code>, in
+     * ascending order.
+     *
+     * @param edges Edges which may be near the descendants of the cell
+     */
+    private void fill(long cell, int cellRes, int[] edges, LongConsumer out) {
+        FaceIJK fijk = FaceIJK.fromH3(cell);
+        double[] center = new double[2];
+        center(fijk, cellRes, center);
+        if (cellRes == res) {
+            if (contains(center[0], center[1])) {
+                out.accept(cell);
+            }
+            return;
+        }
+
+        int[] near = edgesNear(fijk, cell, cellRes, center, edges);
+        if (near == null) {
+            return;
+        }
+        if (near.length == 0) {
+            if (contains(center[0], center[1])) {
+                ChildrenSpliterator.of(cell, res).forEachRemaining(out);
+            }
+            return;
+        }
+
+        ChildrenSpliterator.of(cell, cellRes + 1).forEachRemaining((long child) -> fill(child, cellRes + 1, near, out));
+    }
+
+    /**
+     * Finds the compacted set of cells inside the polygon, the same as compacting the result of
+     * {@link #fill(ForkJoinPool)}, without finding the cells at the resolution being filled where
+     * they are compacted.
+     *
+     * @return The cells, ordered so that uncompacting them in order gives the cells in ascending order.
+     */
+    H3IndexList fillCompact() {
+        if (edgeRing.length == 0 || edgeRing[0] != 0) {
+            // No outline
+            return H3IndexList.of();
+        }
+
+        LongArrayBuilder out = new LongArrayBuilder();
+        for (int baseCell = 0; baseCell < H3Index.NUM_BASE_CELLS; baseCell++) {
+            fillCompact(baseCell(baseCell), 0, allEdges, out);
+        }
+        return new H3IndexList(out.toArray());
+    }
+
+    /**
+     * Adds the compacted set of cells inside the polygon which descend from <code>cell</code> to
+     * <code>out</code>.
+     *
+     * @param edges Edges which may be near the descendants of the cell
+     * @return <code>true</code> if all of the descendants are inside, in which case <code>cell</code>
+     *         itself was added.
+     */
+    private boolean fillCompact(long cell, int cellRes, int[] edges, LongArrayBuilder out) {
+        FaceIJK fijk = FaceIJK.fromH3(cell);
+        double[] center = new double[2];
+        center(fijk, cellRes, center);
+        if (cellRes == res) {
+            if (contains(center[0], center[1])) {
+                out.accept(cell);
+                return true;
+            }
+            return false;
+        }
+
+        int[] near = edgesNear(fijk, cell, cellRes, center, edges);
+        if (near == null) {
+            return false;
+        }
+        if (near.length == 0) {
+            if (contains(center[0], center[1])) {
+                out.accept(cell);
+                return true;
+            }
+            return false;
+        }
+
+        int start = out.size();
+        boolean complete = true;
+        PrimitiveIterator.OfLong children = Spliterators.iterator(ChildrenSpliterator.of(cell, cellRes + 1));
+        while (children.hasNext()) {
+            complete &= fillCompact(children.nextLong(), cellRes + 1, near, out);
+        }
+        if (complete) {
+            // Replace the children with their parent
+            out.truncate(start);
+            out.accept(cell);
+        }
+        return complete;
+    }
+
+    /**
+     * Finds the compacted set of cells wholly inside the polygon, and the cells at the resolution being
+     * filled which an edge of the polygon may cross. Every point inside the polygon is in a cell which
+     * descends from one of the inside cells, or is one of the border cells.
+     */
+    void fillInsideAndBorder(LongArrayBuilder inside, LongArrayBuilder border) {
+        if (edgeRing.length == 0 || edgeRing[0] != 0) {
+            // No outline
+            return;
+        }
+
+        for (int baseCell = 0; baseCell < H3Index.NUM_BASE_CELLS; baseCell++) {
+            fillInsideAndBorder(baseCell(baseCell), 0, allEdges, inside, border);
+        }
+    }
+
+    /**
+     * As {@link #fillCompact(long, int, int[], LongArrayBuilder)}, except that cells at the resolution
+     * being filled which edges are near are added to <code>border</code>, whether or not their
+     * centers are inside.
+     *
+     * @return <code>true</code> if the cell is wholly inside, in which case <code>cell</code> itself was
+     *         added to <code>inside</code>.
+     */
+    private boolean fillInsideAndBorder(long cell, int cellRes, int[] edges, LongArrayBuilder inside,
+                                        LongArrayBuilder border) {
+        FaceIJK fijk = FaceIJK.fromH3(cell);
+        double[] center = new double[2];
+        center(fijk, cellRes, center);
+
+        int[] near = edgesNear(fijk, cell, cellRes, center, edges);
+        if (near == null) {
+            return false;
+        }
+        if (near.length == 0) {
+            if (contains(center[0], center[1])) {
+                inside.accept(cell);
+                return true;
+            }
+            return false;
+        }
+        if (cellRes == res) {
+            border.accept(cell);
+            return false;
+        }
+
+        int start = inside.size();
+        boolean complete = true;
+        PrimitiveIterator.OfLong children = Spliterators.iterator(ChildrenSpliterator.of(cell, cellRes + 1));
+        while (children.hasNext()) {
+            complete &= fillInsideAndBorder(children.nextLong(), cellRes + 1, near, inside, border);
+        }
+        if (complete) {
+            // Replace the children with their parent
+            inside.truncate(start);
+            inside.accept(cell);
+        }
+        return complete;
+    }
+
+    private static long baseCell(int baseCell) {
+        return H3Index.setMode(0, H3Index.H3_HEXAGON_MODE)
+                | ((long) baseCell << H3Index.H3_BC_OFFSET)
+                // All digits are unused at resolution 0
+                | ((1L << (H3Index.MAX_H3_RES * H3Index.H3_PER_DIGIT_OFFSET)) - 1);
+    }
+
+    /**
+     * Fills the descendants of a cell, splitting into a task per child while the cell is far above the
+     * resolution being filled.
+     */
+    private final class FillTask extends RecursiveTask<long[]> {
+        private final long cell;
+        private final int cellRes;
+        private final int[] edges;
+
+        FillTask(long cell, int cellRes, int[] edges) {
+            this.cell = cell;
+            this.cellRes = cellRes;
+            this.edges = edges;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (res - cellRes <= SEQUENTIAL_DEPTH) {
+                LongArrayBuilder out = new LongArrayBuilder();
+                fill(cell, cellRes, edges, out);
+                return out.toArray();
+            }
+
+            FaceIJK fijk = FaceIJK.fromH3(cell);
+            double[] center = new double[2];
+            center(fijk, cellRes, center);
+            int[] near = edgesNear(fijk, cell, cellRes, center, edges);
+            if (near == null || (near.length == 0 && !contains(center[0], center[1]))) {
+                return new long[0];
+            }
+
+            LongArrayBuilder children = new LongArrayBuilder();
+            ChildrenSpliterator.of(cell, cellRes + 1).forEachRemaining(children);
+            long[] childCells = children.toArray();
+            FillTask[] tasks = new FillTask[childCells.length];
+            for (int i = 0; i < childCells.length; i++) {
+                tasks[i] = new FillTask(childCells[i], cellRes + 1, near);
+            }
+            return new ConcatTask(tasks).compute();
+        }
+    }
+
+    /**
+     * Visits the cells as {@link #fill(long, int, int[], LongConsumer)} does, keeping the path
+     * to the current cell in arrays rather than on the call stack so it can stop after each cell.
+     */
+    private final class CellIterator implements PrimitiveIterator.OfLong {
+        /**
+         * Remaining children at each resolution below the base cells, and the edges near them.
+         */
+        private final ChildrenSpliterator[] children = new ChildrenSpliterator[res + 1];
+        private final int[][] childEdges = new int[res + 1][];
+        private final double[] center = new double[2];
+        private final LongConsumer setCell = (long h) -> cell = h;
+
+        /**
+         * Resolution of the innermost children being visited, or 0 while visiting base cells.
+         */
+        private int depth = 0;
+        private int nextBaseCell;
+
+        /**
+         * Remaining cells of a cell wholly inside the polygon, or null.
+         */
+        private ChildrenSpliterator inside;
+
+        private long cell;
+        private boolean hasCell;
+
+        CellIterator() {
+            // Without an outline, there is nothing to visit
+            nextBaseCell = edgeRing.length == 0 || edgeRing[0] != 0 ? H3Index.NUM_BASE_CELLS : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!hasCell) {
+                hasCell = advance();
+            }
+            return hasCell;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasCell = false;
+            return cell;
+        }
+
+        /**
+         * Moves <code>cell</code> to the next cell inside the polygon.
+         *
+         * @return <code>false</code> if there are no more cells.
+         */
+        private boolean advance() {
+            while (true) {
+                if (inside != null) {
+                    if (inside.tryAdvance(setCell)) {
+                        return true;
+                    }
+                    inside = null;
+                }
+
+                int[] edges;
+                if (depth == 0) {
+                    if (nextBaseCell == H3Index.NUM_BASE_CELLS) {
+                        return false;
+                    }
+                    cell = baseCell(nextBaseCell++);
+                    edges = allEdges;
+                } else if (children[depth].tryAdvance(setCell)) {
+                    edges = childEdges[depth];
+                } else {
+                    children[depth] = null;
+                    childEdges[depth] = null;
+                    depth--;
+                    continue;
+                }
+
+                FaceIJK fijk = FaceIJK.fromH3(cell);
+                center(fijk, depth, center);
+                if (depth == res) {
+                    if (contains(center[0], center[1])) {
+                        return true;
+                    }
+                    continue;
+                }
+
+                int[] near = edgesNear(fijk, cell, depth, center, edges);
+                if (near == null) {
+                    continue;
+                }
+                if (near.length == 0) {
+                    if (contains(center[0], center[1])) {
+                        inside = ChildrenSpliterator.of(cell, res);
+                    }
+                    continue;
+                }
+
+                depth++;
+                children[depth] = ChildrenSpliterator.of(cell, depth);
+                childEdges[depth] = near;
+            }
+        }
+    }
+
+    /**
+     * Runs fill tasks and concatenates their results in order.
+     */
+    private static final class ConcatTask extends RecursiveTask<long[]> {
+        private final FillTask[] tasks;
+
+        ConcatTask(FillTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected long[] compute() {
+            invokeAll(tasks);
+            int size = 0;
+            for (FillTask task : tasks) {
+                size += task.join().length;
+            }
+            long[] out = new long[size];
+            int offset = 0;
+            for (FillTask task : tasks) {
+                long[] result = task.join();
+                System.arraycopy(result, 0, out, offset, result.length);
+                offset += result.length;
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Growable array of <code>long</code>s.
+     */
+    static final class LongArrayBuilder implements LongConsumer {
+        private long[] values = new long[16];
+        private int size = 0;
+
+        @Override
+        public void accept(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Removes the values after the first <code>newSize</code>.
+         */
+        void truncate(int newSize) {
+            size = newSize;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static java.lang.Math.toDegrees;
+
+/**
+ * Directed edges between vertices of cell boundaries, as in <code>VertexGraph</code> in the H3 core library.
+ *
+ * <p>Adding the boundaries of a set of cells, with edges shared by two cells cancelling out, leaves
+ * the outlines of the set. Vertices are compared with the same tolerance as <code>geoAlmostEqual</code>,
+ * since the boundaries of neighboring cells may compute a shared vertex slightly differently.</p>
+ *
+ * <p>Coordinates are in radians.</p>
+ */
+final class VertexGraph {
+    /**
+     * Vertices closer than this in both latitude and longitude are the same, as in <code>geoAlmostEqual</code>.
+     */
+    private static final double EPSILON_RAD = Math.toRadians(0.000000001);
+
+    /**
+     * Size of the grid used to hash vertices. This is much larger than {@link #EPSILON_RAD}, so a
+     * vertex is in the same grid square as the vertices equal to it, or in an adjacent one, and much
+     * smaller than cells at the finest resolution, so there are few vertices in each square.
+     */
+    private static final double GRID_SIZE = 1e-9;
+
+    /**
+     * Sets with at most this many cells are added to one graph by one task.
+     */
+    private static final int SEQUENTIAL_CELLS = 1024;
+
+    private double[] fromLat;
+    private double[] fromLng;
+    private double[] toLat;
+    private double[] toLng;
+    private boolean[] removed;
+    /**
+     * Next edge in the same bucket, or -1.
+     */
+    private int[] nextInBucket;
+    /**
+     * First edge in each bucket by origin vertex, or -1.
+     */
+    private int[] buckets;
+    private int numEdges = 0;
+    private int numRemoved = 0;
+
+    VertexGraph(int capacity) {
+        capacity = Math.max(capacity, 6);
+        fromLat = new double[capacity];
+        fromLng = new double[capacity];
+        toLat = new double[capacity];
+        toLng = new double[capacity];
+        removed = new boolean[capacity];
+        nextInBucket = new int[capacity];
+        buckets = new int[Integer.highestOneBit(capacity - 1) << 2];
+        Arrays.fill(buckets, -1);
+    }
+
+    /**
+     * Creates the graph of the outlines of the cells, adding the boundaries of parts of the set
+     * concurrently in <code>pool</code> and then joining the graphs of the parts.
+     *
+     * @param h3 Cells, sorted so that each part is a contiguous range of cells near each other.
+     */
+    static VertexGraph fromH3Set(long[] h3, H3Backend backend, ForkJoinPool pool) {
+        return pool.invoke(new GraphTask(h3, 0, h3.length, backend));
+    }
+
+    /**
+     * Number of edges which have not been removed.
+     */
+    int size() {
+        return numEdges - numRemoved;
+    }
+
+    /**
+     * Adds the boundary of the cell, removing the edges it shares with cells already added.
+     *
+     * @param verts Scratch space for the boundary, with room for {@link JavaMethods#MAX_CELL_BNDRY_VERTS}.
+     */
+    void addCell(long h3, H3Backend backend, double[] verts) {
+        int numVerts = backend.h3ToGeoBoundary(h3, verts);
+        for (int i = 0; i < numVerts; i++) {
+            int next = (i + 1) % numVerts;
+            addOrCancel(verts[i * 2], verts[i * 2 + 1], verts[next * 2], verts[next * 2 + 1]);
+        }
+    }
+
+    /**
+     * Removes the edge to the start from the end if there is one, and otherwise adds the edge from the
+     * start to the end.
+     */
+    void addOrCancel(double aLat, double aLng, double bLat, double bLng) {
+        int reverse = findEdge(bLat, bLng, aLat, aLng);
+        if (reverse >= 0) {
+            removed[reverse] = true;
+            numRemoved++;
+        } else {
+            add(aLat, aLng, bLat, bLng);
+        }
+    }
+
+    /**
+     * Returns a graph with the edges of both graphs, with edges in opposite directions cancelling out.
+     */
+    static VertexGraph join(VertexGraph a, VertexGraph b) {
+        VertexGraph joined = new VertexGraph(a.size() + b.size());
+        for (int e = 0; e < a.numEdges; e++) {
+            if (!a.removed[e]) {
+                joined.add(a.fromLat[e], a.fromLng[e], a.toLat[e], a.toLng[e]);
+            }
+        }
+        for (int e = 0; e < b.numEdges; e++) {
+            if (!b.removed[e]) {
+                joined.addOrCancel(b.fromLat[e], b.fromLng[e], b.toLat[e], b.toLng[e]);
+            }
+        }
+        return joined;
+    }
+
+    /**
+     * Follows the edges into loops, as <code>_vertexGraphToLinkedGeo</code> does, and returns them all
+     * as loops of one polygon, removing the edges from this graph.
+     *
+     * @param geoJson Whether to order and close loops as for <code>H3Core.h3SetToMultiPolygon</code>
+     *                with <code>geoJson</code> set.
+     */
+    H3MultiPolygon toMultiPolygon(boolean geoJson) {
+        if (size() == 0) {
+            return H3MultiPolygon.empty();
+        }
+
+        double[] coordinates = new double[(size() + (geoJson ? size() : 0)) * 2];
+        int[] loopOffsets = new int[size() + 1];
+        int numLoops = 0;
+        int numVertices = 0;
+        for (int first = 0; first < numEdges; first++) {
+            if (removed[first]) {
+                continue;
+            }
+
+            loopOffsets[numLoops++] = numVertices;
+            int edge = first;
+            do {
+                writeVertex(coordinates, numVertices++, fromLat[edge], fromLng[edge], geoJson);
+                removed[edge] = true;
+                numRemoved++;
+                edge = findEdgeFrom(toLat[edge], toLng[edge]);
+            } while (edge >= 0);
+            if (geoJson) {
+                // geoJson requires closing the loop
+                writeVertex(coordinates, numVertices++, fromLat[first], fromLng[first], geoJson);
+            }
+        }
+        loopOffsets[numLoops] = numVertices;
+
+        return new H3MultiPolygon(Arrays.copyOf(coordinates, numVertices * 2),
+                Arrays.copyOf(loopOffsets, numLoops + 1), new int[] { 0, numLoops });
+    }
+
+    private static void writeVertex(double[] coordinates, int vertex, double lat, double lng, boolean geoJson) {
+        double latDegs = H3Core.constrainLat(toDegrees(lat));
+        double lngDegs = H3Core.constrainLng(toDegrees(lng));
+        coordinates[vertex * 2] = geoJson ? latDegs : lngDegs;
+        coordinates[vertex * 2 + 1] = geoJson ? lngDegs : latDegs;
+    }
+
+    private void add(double aLat, double aLng, double bLat, double bLng) {
+        if (numEdges == fromLat.length) {
+            grow();
+        }
+        int e = numEdges++;
+        fromLat[e] = aLat;
+        fromLng[e] = aLng;
+        toLat[e] = bLat;
+        toLng[e] = bLng;
+        int bucket = bucket(gridCell(aLat), gridCell(aLng));
+        nextInBucket[e] = buckets[bucket];
+        buckets[bucket] = e;
+    }
+
+    private void grow() {
+        VertexGraph grown = new VertexGraph(fromLat.length * 2);
+        for (int e = 0; e < numEdges; e++) {
+            grown.add(fromLat[e], fromLng[e], toLat[e], toLng[e]);
+            grown.removed[e] = removed[e];
+        }
+        fromLat = grown.fromLat;
+        fromLng = grown.fromLng;
+        toLat = grown.toLat;
+        toLng = grown.toLng;
+        removed = grown.removed;
+        nextInBucket = grown.nextInBucket;
+        buckets = grown.buckets;
+    }
+
+    /**
+     * Returns an edge from the first vertex to the second, or -1 if there is none.
+     */
+    private int findEdge(double aLat, double aLng, double bLat, double bLng) {
+        return findEdge(aLat, aLng, bLat, bLng, false);
+    }
+
+    /**
+     * Returns an edge from the vertex, or -1 if there is none.
+     */
+    private int findEdgeFrom(double lat, double lng) {
+        return findEdge(lat, lng, 0, 0, true);
+    }
+
+    private int findEdge(double aLat, double aLng, double bLat, double bLng, boolean anyDestination) {
+        // The vertex may be hashed by any grid square within EPSILON_RAD of it
+        long minLatCell = gridCell(aLat - EPSILON_RAD);
+        long maxLatCell = gridCell(aLat + EPSILON_RAD);
+        long minLngCell = gridCell(aLng - EPSILON_RAD);
+        long maxLngCell = gridCell(aLng + EPSILON_RAD);
+        int visited = 0;
+        int[] visitedBuckets = null;
+        for (long latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (long lngCell = minLngCell; lngCell <= maxLngCell; lngCell++) {
+                int bucket = bucket(latCell, lngCell);
+                if (minLatCell != maxLatCell || minLngCell != maxLngCell) {
+                    // Don't search a bucket twice if grid squares collide
+                    if (visitedBuckets == null) {
+                        visitedBuckets = new int[4];
+                    }
+                    boolean isVisited = false;
+                    for (int i = 0; i < visited; i++) {
+                        isVisited |= visitedBuckets[i] == bucket;
+                    }
+                    if (isVisited) {
+                        continue;
+                    }
+                    visitedBuckets[visited++] = bucket;
+                }
+
+                for (int e = buckets[bucket]; e >= 0; e = nextInBucket[e]) {
+                    if (!removed[e] && almostEqual(fromLat[e], fromLng[e], aLat, aLng)
+                            && (anyDestination || almostEqual(toLat[e], toLng[e], bLat, bLng))) {
+                        return e;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the vertices are the same, within {@link #EPSILON_RAD}.
+     */
+    static boolean almostEqual(double aLat, double aLng, double bLat, double bLng) {
+        return Math.abs(aLat - bLat) < EPSILON_RAD && Math.abs(aLng - bLng) < EPSILON_RAD;
+    }
+
+    private static long gridCell(double coord) {
+        return (long) Math.floor(coord / GRID_SIZE);
+    }
+
+    private int bucket(long latCell, long lngCell) {
+        long hash = latCell * 0x9E3779B97F4A7C15L + lngCell;
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 32;
+        return (int) hash & (buckets.length - 1);
+    }
+
+    /**
+     * Creates the graph of a range of cells, splitting it in half while it is large.
+     */
+    private static final class GraphTask extends RecursiveTask<VertexGraph> {
+        private final long[] h3;
+        private final int start;
+        private final int end;
+        private final H3Backend backend;
+
+        GraphTask(long[] h3, int start, int end, H3Backend backend) {
+            this.h3 = h3;
+            this.start = start;
+            this.end = end;
+            this.backend = backend;
+        }
+
+        @Override
+        protected VertexGraph compute() {
+            if (end - start <= SEQUENTIAL_CELLS) {
+                VertexGraph graph = new VertexGraph((end - start) * 6);
+                double[] verts = new double[JavaMethods.MAX_CELL_BNDRY_VERTS * 2];
+                for (int i = start; i < end; i++) {
+                    graph.addCell(h3[i], backend, verts);
+                }
+                return graph;
+            }
+
+            int mid = (start + end) >>> 1;
+            GraphTask left = new GraphTask(h3, start, mid, backend);
+            GraphTask right = new GraphTask(h3, mid, end, backend);
+            invokeAll(left, right);
+            return VertexGraph.join(left.join(), right.join());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.google.common.collect.ImmutableList;
+import com.uber.h3core.util.Vector2D;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link GeofenceIndex}. These use the Java implementation, so do not need the native library.
+ */
+public class TestGeofenceIndex {
+    private static final H3Core h3 = H3Core.newJavaInstance();
+
+    private static final List<Vector2D> SF = ImmutableList.of(
+            new Vector2D(37.813318999983238, -122.4089866999972145),
+            new Vector2D(37.7866302000007224, -122.3805436999997056),
+            new Vector2D(37.7198061999978478, -122.3544736999993603),
+            new Vector2D(37.7076131999975672, -122.5123436999983966),
+            new Vector2D(37.7835871999971715, -122.5247187000021967),
+            new Vector2D(37.8151571999998453, -122.4798767000009008)
+    );
+
+    private static final List<Vector2D> SF_HOLE = ImmutableList.of(
+            new Vector2D(37.7869802, -122.4471197),
+            new Vector2D(37.7664102, -122.4590777),
+            new Vector2D(37.7710682, -122.4137097)
+    );
+
+    @Test
+    public void testLookup() {
+        GeofenceIndex index = h3.newGeofenceIndexBuilder(9)
+                .add(7, SF, ImmutableList.of(SF_HOLE), false)
+                .build(ForkJoinPool.commonPool());
+
+        assertEquals(1, index.numZones());
+        assertEquals(9, index.getResolution());
+        // Inside
+        assertEquals(7, index.lookup(37.79, -122.42));
+        // In the hole
+        assertEquals(-1, index.lookup(37.775, -122.44));
+        // Outside
+        assertEquals(-1, index.lookup(37.70, -122.30));
+        assertEquals(-1, index.lookup(0, 0));
+    }
+
+    @Test
+    public void testOverlapping() {
+        List<Vector2D> east = ImmutableList.of(
+                new Vector2D(37.70, -122.43),
+                new Vector2D(37.70, -122.30),
+                new Vector2D(37.83, -122.30),
+                new Vector2D(37.83, -122.43)
+        );
+        GeofenceIndex index = h3.newGeofenceIndexBuilder(8)
+                .add(1, SF, null, false)
+                .add(2, east, null, false)
+                .build(ForkJoinPool.commonPool());
+
+        int[] out = new int[4];
+        assertEquals(2, index.lookup(37.79, -122.40, out));
+        int[] zones = Arrays.copyOf(out, 2);
+        Arrays.sort(zones);
+        assertArrayEquals(new int[] { 1, 2 }, zones);
+
+        assertEquals(1, index.lookup(37.75, -122.48, out));
+        assertEquals(1, out[0]);
+        assertEquals(1, index.lookup(37.72, -122.32, out));
+        assertEquals(2, out[0]);
+        // Only as many as fit are written
+        assertEquals(1, index.lookup(37.79, -122.40, new int[1]));
+    }
+
+    @Test
+    public void testMatchesPointInPolygon() {
+        H3Core.PackedGeofence packed = new H3Core.PackedGeofence(SF, ImmutableList.of(SF_HOLE), false);
+        Polyfill exact = new Polyfill(packed.verts, packed.holeSizes, packed.holeVerts, 7);
+        GeofenceIndex index = h3.newGeofenceIndexBuilder(7)
+                .add(0, SF, ImmutableList.of(SF_HOLE), false)
+                .build(ForkJoinPool.commonPool());
+
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            double lat = 37.70 + random.nextDouble() * 0.13;
+            double lng = -122.53 + random.nextDouble() * 0.18;
+            boolean expected = exact.contains(Math.toRadians(lat), Math.toRadians(lng));
+            assertEquals(expected ? 0 : -1, index.lookup(lat, lng));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        GeofenceIndex index = h3.newGeofenceIndexBuilder(5).build(ForkJoinPool.commonPool());
+
+        assertEquals(0, index.numZones());
+        assertEquals(0, index.numIndexes());
+        assertEquals(-1, index.lookup(37.79, -122.42));
+    }
+
+    @Test
+    public void testManyZones() {
+        // A grid of squares, each 0.1 degrees wide
+        GeofenceIndex.Builder builder = h3.newGeofenceIndexBuilder(7);
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                List<Vector2D> square = new ArrayList<>();
+                square.add(new Vector2D(i * 0.1, j * 0.1));
+                square.add(new Vector2D(i * 0.1, (j + 1) * 0.1));
+                square.add(new Vector2D((i + 1) * 0.1, (j + 1) * 0.1));
+                square.add(new Vector2D((i + 1) * 0.1, j * 0.1));
+                builder.add(i * 10 + j, square, null, false);
+            }
+        }
+        GeofenceIndex index = builder.build(new ForkJoinPool(2));
+
+        assertEquals(100, index.numZones());
+        assertEquals(0, index.lookup(0.05, 0.05));
+        assertEquals(37, index.lookup(0.35, 0.75));
+        assertEquals(99, index.lookup(0.95, 0.99));
+        assertEquals(-1, index.lookup(1.05, 0.5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeZoneId() {
+        h3.newGeofenceIndexBuilder(5).add(-1, SF, null, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResolution() {
+        h3.newGeofenceIndexBuilder(16);
+    }
+}
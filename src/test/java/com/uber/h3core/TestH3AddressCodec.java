@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link H3AddressCodec}.
+ */
+public class TestH3AddressCodec {
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(0);
+        char[] chars = new char[H3AddressCodec.MAX_LENGTH + 2];
+        byte[] bytes = new byte[H3AddressCodec.MAX_LENGTH + 2];
+        for (int i = 0; i < 10000; i++) {
+            // Vary the number of digits
+            long h3 = random.nextLong() >>> random.nextInt(64);
+            String expected = Long.toHexString(h3);
+
+            assertEquals(expected, H3AddressCodec.format(h3));
+            assertEquals(expected.length(), H3AddressCodec.length(h3));
+            assertEquals(expected.length(), H3AddressCodec.format(h3, chars, 2));
+            assertEquals(expected, new String(chars, 2, expected.length()));
+            assertEquals(expected.length(), H3AddressCodec.format(h3, bytes, 1));
+            assertEquals(expected, new String(bytes, 1, expected.length(), StandardCharsets.US_ASCII));
+
+            assertEquals(h3, H3AddressCodec.parse(expected));
+            assertEquals(h3, H3AddressCodec.parse(expected.toUpperCase()));
+            assertEquals(h3, H3AddressCodec.parse(CharBuffer.wrap(chars), 2, 2 + expected.length()));
+            assertEquals(h3, H3AddressCodec.parse(bytes, 1, expected.length()));
+        }
+    }
+
+    @Test
+    public void testZero() {
+        assertEquals("0", H3AddressCodec.format(0));
+        assertEquals(0, H3AddressCodec.parse("0"));
+        assertEquals(0, H3AddressCodec.parse("0000000000000000"));
+    }
+
+    @Test
+    public void testParseCharSequence() {
+        StringBuilder sb = new StringBuilder("id,8928308280fffff,x");
+        assertEquals(0x8928308280fffffL, H3AddressCodec.parse(sb, 3, 18));
+        assertEquals(0xffffffffffffffffL, H3AddressCodec.parse("FFFFFFFFFFFFFFFF"));
+    }
+
+    @Test
+    public void testParseByteBuffer() {
+        byte[] row = "a,8928308280fffff,b".getBytes(StandardCharsets.US_ASCII);
+
+        ByteBuffer heap = ByteBuffer.wrap(row);
+        assertEquals(0x8928308280fffffL, H3AddressCodec.parse(heap, 2, 15));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(row.length);
+        direct.put(row);
+        assertEquals(0x8928308280fffffL, H3AddressCodec.parse(direct, 2, 15));
+
+        direct.position(2).limit(17);
+        assertEquals(0x8928308280fffffL, H3AddressCodec.parse(direct));
+        assertEquals(2, direct.position());
+
+        ByteBuffer slice = ByteBuffer.wrap(row, 2, 15).slice();
+        assertEquals(0x8928308280fffffL, H3AddressCodec.parse(slice));
+    }
+
+    @Test
+    public void testBulk() {
+        String[] addresses = { "8928308280fffff", "821c07fffffffff", "85283473fffffff" };
+        long[] h3 = new long[addresses.length];
+        H3AddressCodec.parse(addresses, h3);
+        assertArrayEquals(new long[] { 0x8928308280fffffL, 0x821c07fffffffffL, 0x85283473fffffffL }, h3);
+
+        String[] formatted = new String[h3.length];
+        H3AddressCodec.format(h3, formatted);
+        assertArrayEquals(addresses, formatted);
+
+        byte[] bytes = new byte[H3AddressCodec.MAX_LENGTH * h3.length * 2];
+        int length = H3AddressCodec.format(h3, (byte) '\n', bytes, 3);
+        assertEquals("8928308280fffff\n821c07fffffffff\n85283473fffffff\n",
+                new String(bytes, 3, length, StandardCharsets.US_ASCII));
+
+        long[] parsed = new long[h3.length];
+        H3AddressCodec.parse(bytes, new int[] { 3, 19, 35 }, new int[] { 15, 15, 15 }, parsed);
+        assertArrayEquals(h3, parsed);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseEmpty() {
+        H3AddressCodec.parse("");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseTooLong() {
+        H3AddressCodec.parse("10000000000000000");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseInvalidDigit() {
+        H3AddressCodec.parse("8928308280fffffg");
+    }
+
+    @Test
+    public void testParseSameAsParseUnsignedLong() {
+        // Accepted by Long.parseUnsignedLong, which stringToH3 used before
+        for (String address : new String[] { "+8928308280fffff", "+0", "00008928308280fffff", "+00000000000000000000" }) {
+            assertEquals(Long.parseUnsignedLong(address, 16), H3AddressCodec.parse(address));
+            byte[] bytes = address.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(Long.parseUnsignedLong(address, 16), H3AddressCodec.parse(bytes, 0, bytes.length));
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            assertEquals(Long.parseUnsignedLong(address, 16), H3AddressCodec.parse(direct));
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseOnlySign() {
+        H3AddressCodec.parse("+");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseNegative() {
+        H3AddressCodec.parse("-8928308280fffff");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseNonAscii() {
+        // Same low 7 bits as '0'
+        H3AddressCodec.parse("8928308280fffff\u00b0");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseInvalidByte() {
+        H3AddressCodec.parse(new byte[] { '8', (byte) 0xb0 }, 0, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testFormatNoRoom() {
+        H3AddressCodec.format(0x8928308280fffffL, new char[16], 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBulkOutputTooSmall() {
+        H3AddressCodec.parse(new String[] { "0", "1" }, new long[1]);
+    }
+}
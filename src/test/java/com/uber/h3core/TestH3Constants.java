@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link H3Constants}.
+ */
+public class TestH3Constants {
+    @Test
+    public void testNumHexagons() {
+        assertEquals(122, H3Constants.numHexagons(0));
+        assertEquals(842, H3Constants.numHexagons(1));
+        assertEquals(569707381193162L, H3Constants.numHexagons(15));
+
+        long power = 1;
+        for (int res = 0; res <= 15; res++) {
+            assertEquals(2 + 120 * power, H3Constants.numHexagons(res));
+            power *= 7;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResolution() {
+        H3Constants.hexAreaKm2(16);
+    }
+
+    @Test
+    public void testMatchesNative() throws IOException {
+        NativeMethods nativeMethods = H3CoreLoader.loadNatives();
+
+        for (int res = 0; res <= 15; res++) {
+            assertEquals(nativeMethods.hexAreaKm2(res), H3Constants.hexAreaKm2(res), 0);
+            assertEquals(nativeMethods.hexAreaM2(res), H3Constants.hexAreaM2(res), 0);
+            assertEquals(nativeMethods.edgeLengthKm(res), H3Constants.edgeLengthKm(res), 0);
+            assertEquals(nativeMethods.edgeLengthM(res), H3Constants.edgeLengthM(res), 0);
+            assertEquals(nativeMethods.numHexagons(res), H3Constants.numHexagons(res));
+        }
+    }
+}
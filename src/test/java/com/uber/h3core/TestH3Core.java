@@ -23,16 +23,28 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TestH3Core {
     public double EPSILON = 1e-6;
@@ -66,6 +78,35 @@ public class TestH3Core {
         assertEquals(h3.geoToH3(67.194013596, 191.598258018, 5), 22758474429497343L | (1L << 59L));
     }
 
+    @Test
+    public void testGeoToH3Bulk() {
+        double[] lats = {67.194013596, 37.775938728915946, Double.NaN, -45.0};
+        double[] lngs = {191.598258018, -122.41795063018799, 0, 170.5};
+        long[] out = new long[lats.length];
+
+        assertEquals(1, h3.geoToH3(lats, lngs, 5, out));
+
+        assertEquals(22758474429497343L | (1L << 59L), out[0]);
+        assertEquals(h3.geoToH3(lats[1], lngs[1], 5), out[1]);
+        assertEquals(0, out[2]);
+        assertEquals(h3.geoToH3(lats[3], lngs[3], 5), out[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeoToH3BulkMismatchedLengths() {
+        h3.geoToH3(new double[2], new double[1], 5, new long[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeoToH3BulkOutputTooSmall() {
+        h3.geoToH3(new double[2], new double[2], 5, new long[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeoToH3BulkInvalidRes() {
+        h3.geoToH3(new double[1], new double[1], 16, new long[1]);
+    }
+
     @Test
     public void testH3ToGeo() {
         Vector2D coords = h3.h3ToGeo(22758474429497343L | (1L << 59L));
@@ -96,6 +137,149 @@ public class TestH3Core {
         assertEquals(boundary, boundary2);
     }
 
+    @Test
+    public void testH3ToGeoBulk() {
+        long[] h3Indexes = {0x85283473fffffffL, 0x8928308280fffffL, 0x801dfffffffffffL};
+        double[] coords = new double[h3Indexes.length * 2];
+        float[] coordsFloat = new float[h3Indexes.length * 2];
+
+        h3.h3ToGeo(h3Indexes, coords);
+        h3.h3ToGeo(h3Indexes, coordsFloat);
+
+        for (int i = 0; i < h3Indexes.length; i++) {
+            Vector2D expected = h3.h3ToGeo(h3Indexes[i]);
+            assertEquals(expected.x, coords[i * 2], EPSILON);
+            assertEquals(expected.y, coords[i * 2 + 1], EPSILON);
+            assertEquals(expected.x, coordsFloat[i * 2], 1e-4);
+            assertEquals(expected.y, coordsFloat[i * 2 + 1], 1e-4);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testH3ToGeoBulkOutputTooSmall() {
+        h3.h3ToGeo(new long[]{0x85283473fffffffL}, new double[1]);
+    }
+
+    @Test
+    public void testH3ToGeoBoundaryBulk() {
+        // Includes a pentagon, which has fewer vertices.
+        long[] h3Indexes = {0x85283473fffffffL, 0x8928308280fffffL, 0x801dfffffffffffL};
+        double[] verts = new double[h3Indexes.length * 20];
+        float[] vertsFloat = new float[h3Indexes.length * 20];
+        int[] offsets = new int[h3Indexes.length + 1];
+        int[] offsetsFloat = new int[h3Indexes.length + 1];
+
+        assertEquals(h3Indexes.length, h3.h3ToGeoBoundary(h3Indexes, verts, offsets));
+        assertEquals(h3Indexes.length, h3.h3ToGeoBoundary(h3Indexes, vertsFloat, offsetsFloat));
+
+        for (int i = 0; i < h3Indexes.length; i++) {
+            List<Vector2D> expected = h3.h3ToGeoBoundary(h3Indexes[i]);
+            assertEquals(expected.size(), offsets[i + 1] - offsets[i]);
+            assertEquals(offsets[i + 1], offsetsFloat[i + 1]);
+            for (int v = 0; v < expected.size(); v++) {
+                int vert = offsets[i] + v;
+                assertEquals(expected.get(v).x, verts[vert * 2], EPSILON);
+                assertEquals(expected.get(v).y, verts[vert * 2 + 1], EPSILON);
+                assertEquals(expected.get(v).x, vertsFloat[vert * 2], 1e-4);
+                assertEquals(expected.get(v).y, vertsFloat[vert * 2 + 1], 1e-4);
+            }
+        }
+    }
+
+    @Test
+    public void testH3ToGeoBoundaryBulkPartial() {
+        long[] h3Indexes = {0x85283473fffffffL, 0x8928308280fffffL};
+        // Only room for the first hexagon
+        double[] verts = new double[6 * 2 + 1];
+        int[] offsets = new int[h3Indexes.length + 1];
+
+        assertEquals(1, h3.h3ToGeoBoundary(h3Indexes, verts, offsets));
+        assertEquals(0, offsets[0]);
+        assertEquals(6, offsets[1]);
+    }
+
+    @Test
+    public void testGeoToH3Buffer() {
+        double[] lats = {67.194013596, 37.775938728915946, Double.NaN};
+        double[] lngs = {191.598258018, -122.41795063018799, 0};
+        ByteBuffer latsBuf = directBuffer(8 + lats.length * 8);
+        ByteBuffer lngsBuf = directBuffer(lngs.length * 8);
+        ByteBuffer outBuf = directBuffer(lats.length * 8);
+        // Reading starts at the position of the buffer
+        latsBuf.position(8);
+        latsBuf.asDoubleBuffer().put(lats);
+        lngsBuf.asDoubleBuffer().put(lngs);
+
+        assertEquals(1, h3.geoToH3(latsBuf, lngsBuf, lats.length, 5, outBuf));
+
+        assertEquals(8, latsBuf.position());
+        assertEquals(22758474429497343L | (1L << 59L), outBuf.getLong(0));
+        assertEquals(h3.geoToH3(lats[1], lngs[1], 5), outBuf.getLong(8));
+        assertEquals(0, outBuf.getLong(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeoToH3BufferNotDirect() {
+        h3.geoToH3(ByteBuffer.allocate(8).order(ByteOrder.nativeOrder()), directBuffer(8), 1, 5, directBuffer(8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeoToH3BufferUnaligned() {
+        ByteBuffer lats = directBuffer(17);
+        lats.position(1);
+        h3.geoToH3(lats, directBuffer(16), 2, 5, directBuffer(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testH3ToGeoBufferUnaligned() {
+        ByteBuffer out = directBuffer(20);
+        out.position(4);
+        h3.h3ToGeo(directBuffer(8), 1, out);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeoToH3BufferTooSmall() {
+        h3.geoToH3(directBuffer(16), directBuffer(16), 2, 5, directBuffer(8));
+    }
+
+    @Test
+    public void testH3ToGeoBuffer() {
+        long[] h3Indexes = {0x85283473fffffffL, 0x8928308280fffffL, 0x801dfffffffffffL};
+        ByteBuffer h3Buf = directBuffer(h3Indexes.length * 8);
+        h3Buf.asLongBuffer().put(h3Indexes);
+        ByteBuffer coords = directBuffer(h3Indexes.length * 16);
+
+        h3.h3ToGeo(h3Buf, h3Indexes.length, coords);
+
+        for (int i = 0; i < h3Indexes.length; i++) {
+            Vector2D expected = h3.h3ToGeo(h3Indexes[i]);
+            assertEquals(expected.x, coords.getDouble(i * 16), EPSILON);
+            assertEquals(expected.y, coords.getDouble(i * 16 + 8), EPSILON);
+        }
+    }
+
+    @Test
+    public void testH3ToGeoBoundaryBuffer() {
+        long[] h3Indexes = {0x85283473fffffffL, 0x8928308280fffffL, 0x801dfffffffffffL};
+        ByteBuffer h3Buf = directBuffer(h3Indexes.length * 8);
+        h3Buf.asLongBuffer().put(h3Indexes);
+        // Only room for the first two hexagons
+        ByteBuffer verts = directBuffer(12 * 16);
+        ByteBuffer offsets = directBuffer((h3Indexes.length + 1) * 4);
+
+        assertEquals(2, h3.h3ToGeoBoundary(h3Buf, h3Indexes.length, verts, offsets));
+
+        for (int i = 0; i < 2; i++) {
+            List<Vector2D> expected = h3.h3ToGeoBoundary(h3Indexes[i]);
+            int offset = offsets.getInt(i * 4);
+            assertEquals(expected.size(), offsets.getInt((i + 1) * 4) - offset);
+            for (int v = 0; v < expected.size(); v++) {
+                assertEquals(expected.get(v).x, verts.getDouble((offset + v) * 16), EPSILON);
+                assertEquals(expected.get(v).y, verts.getDouble((offset + v) * 16 + 8), EPSILON);
+            }
+        }
+    }
+
     @Test
     public void testKring() {
         List<String> hexagons = h3.kRing("8928308280fffff", 1);
@@ -192,6 +376,16 @@ public class TestH3Core {
         assertEquals(expectedCount, hexagons.size());
     }
 
+    @Test
+    public void testKringIndexList() {
+        long origin = 0x8928308280fffffL;
+        H3IndexList hexagons = h3.kRingIndexList(origin, 2);
+
+        assertEquals(1 + 6 + 12, hexagons.size());
+        assertEquals(h3.kRing(origin, 2), hexagons.toList());
+        assertEquals(origin, hexagons.get(0));
+    }
+
     @Test
     public void testKringPentagon() {
         List<String> hexagons = h3.kRing("821c07fffffffff", 1);
@@ -276,6 +470,31 @@ public class TestH3Core {
         // No exception should happen
     }
 
+    @Test
+    public void testKRingDistancesFlat() {
+        // Also near a pentagon, where there are fewer indexes
+        for (long origin : new long[] { 0x8928308280fffffL, 0x821c07fffffffffL }) {
+            List<List<Long>> expected = h3.kRingDistances(origin, 5);
+            long[] out = new long[h3.maxKringSize(5)];
+            int[] offsets = new int[7];
+            int count = h3.kRingDistances(origin, 5, out, offsets);
+
+            assertEquals(0, offsets[0]);
+            assertEquals(count, offsets[6]);
+            for (int r = 0; r <= 5; r++) {
+                assertEquals(expected.get(r),
+                        Arrays.stream(out, offsets[r], offsets[r + 1]).boxed().collect(Collectors.toList()));
+            }
+            assertEquals(ImmutableSet.copyOf(h3.kRing(origin, 5)),
+                    Arrays.stream(out, 0, count).boxed().collect(Collectors.toSet()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKRingDistancesFlatTooSmall() {
+        h3.kRingDistances(0x8928308280fffffL, 2, new long[19], new int[3]);
+    }
+
     @Test(expected = PentagonEncounteredException.class)
     public void testHexRangePentagon() throws PentagonEncounteredException {
         h3.hexRange("821c07fffffffff", 1);
@@ -297,6 +516,56 @@ public class TestH3Core {
         assertTrue(hexagons.size() > 1000);
     }
 
+    @Test
+    public void testPolyfillIndexList() {
+        List<Vector2D> points = ImmutableList.of(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7866302000007224, -122.3805436999997056),
+                new Vector2D(37.7198061999978478, -122.3544736999993603),
+                new Vector2D(37.7076131999975672, -122.5123436999983966),
+                new Vector2D(37.7835871999971715, -122.5247187000021967),
+                new Vector2D(37.8151571999998453, -122.4798767000009008)
+        );
+        H3IndexList hexagons = h3.polyfillIndexList(points, null, 9);
+
+        assertTrue(hexagons.size() > 1000);
+        assertEquals(h3.polyfill(points, null, 9), hexagons.toList());
+        assertTrue(hexagons.stream().allMatch(h -> h != 0));
+    }
+
+    @Test
+    public void testPolyfillBuffer() {
+        List<Vector2D> points = ImmutableList.of(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7866302000007224, -122.3805436999997056),
+                new Vector2D(37.7198061999978478, -122.3544736999993603),
+                new Vector2D(37.7076131999975672, -122.5123436999983966),
+                new Vector2D(37.7835871999971715, -122.5247187000021967),
+                new Vector2D(37.8151571999998453, -122.4798767000009008)
+        );
+        int maxSize = h3.maxPolyfillSize(points, null, 9, false);
+        ByteBuffer out = directBuffer(maxSize * 8);
+        // polyfill must not depend on the buffer being zeroed
+        for (int i = 0; i < maxSize; i++) {
+            out.putLong(i * 8, -1);
+        }
+
+        int numWritten = h3.polyfill(points, null, 9, false, out);
+
+        long[] hexagons = new long[numWritten];
+        out.asLongBuffer().get(hexagons);
+        assertEquals(ImmutableSet.copyOf(h3.polyfill(points, null, 9)), ImmutableSet.copyOf(H3IndexList.of(hexagons)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPolyfillBufferTooSmall() {
+        h3.polyfill(ImmutableList.of(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7866302000007224, -122.3805436999997056),
+                new Vector2D(37.7198061999978478, -122.3544736999993603)
+        ), null, 9, false, directBuffer(8));
+    }
+
     @Test
     public void testPolyfillAddresses() {
         List<String> hexagons = h3.polyfillAddress(
@@ -383,6 +652,389 @@ public class TestH3Core {
         assertEquals(ImmutableSet.copyOf(inputHexagons), ImmutableSet.copyOf(outputHexagons));
     }
 
+    @Test
+    public void testPolyfillParallel() {
+        List<Vector2D> outline = ImmutableList.of(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7866302000007224, -122.3805436999997056),
+                new Vector2D(37.7198061999978478, -122.3544736999993603),
+                new Vector2D(37.7076131999975672, -122.5123436999983966),
+                new Vector2D(37.7835871999971715, -122.5247187000021967),
+                new Vector2D(37.8151571999998453, -122.4798767000009008)
+        );
+        List<List<Vector2D>> holes = ImmutableList.of(
+                ImmutableList.of(
+                        new Vector2D(37.7869802, -122.4471197),
+                        new Vector2D(37.7664102, -122.4590777),
+                        new Vector2D(37.7710682, -122.4137097)
+                ),
+                ImmutableList.of(
+                        new Vector2D(37.747976, -122.490025),
+                        new Vector2D(37.731550, -122.503758),
+                        new Vector2D(37.725440, -122.452603)
+                )
+        );
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int res = 7; res <= 10; res++) {
+                H3IndexList expected = h3.polyfillIndexList(outline, holes, res);
+                H3IndexList actual = h3.polyfillIndexList(outline, holes, res, false, pool);
+
+                assertEquals(ImmutableSet.copyOf(expected), ImmutableSet.copyOf(actual));
+                assertEquals(expected.size(), actual.size());
+                assertEquals(actual, h3.polyfillIndexList(outline, holes, res, false, new ForkJoinPool(1)));
+                long[] sorted = actual.toArray();
+                Arrays.sort(sorted);
+                assertEquals(H3IndexList.of(sorted), actual);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPolyfillParallelTransmeridian() {
+        List<Vector2D> outline = ImmutableList.of(
+                new Vector2D(-15, 177),
+                new Vector2D(-15, -178),
+                new Vector2D(-20, -178),
+                new Vector2D(-20, 177)
+        );
+
+        assertEquals(ImmutableSet.copyOf(h3.polyfill(outline, null, 5)),
+                ImmutableSet.copyOf(h3.polyfillIndexList(outline, null, 5, false, ForkJoinPool.commonPool())));
+    }
+
+    @Test
+    public void testPolyfillParallelPentagon() {
+        // Contains the pentagons of base cell 4
+        List<Vector2D> outline = ImmutableList.of(
+                new Vector2D(60, 0),
+                new Vector2D(60, 20),
+                new Vector2D(70, 20),
+                new Vector2D(70, 0)
+        );
+
+        H3IndexList hexagons = h3.polyfillIndexList(outline, null, 4, false, ForkJoinPool.commonPool());
+        assertEquals(ImmutableSet.copyOf(h3.polyfill(outline, null, 4)), ImmutableSet.copyOf(hexagons));
+        assertTrue(hexagons.toList().contains(0x8408001ffffffffL));
+    }
+
+    @Test
+    public void testPolyfillParallelKnownHoles() {
+        List<Long> inputHexagons = h3.kRing(0x85283083fffffffL, 2);
+        inputHexagons.remove(0x8528308ffffffffL);
+        inputHexagons.remove(0x85283097fffffffL);
+        inputHexagons.remove(0x8528309bfffffffL);
+
+        List<List<Vector2D>> geo = h3.h3SetToMultiPolygon(inputHexagons, true).get(0);
+        List<Vector2D> outline = geo.remove(1);
+
+        H3IndexList outputHexagons = h3.polyfillIndexList(outline, geo, 5, false, ForkJoinPool.commonPool());
+
+        assertEquals(ImmutableSet.copyOf(inputHexagons), ImmutableSet.copyOf(outputHexagons));
+    }
+
+    @Test
+    public void testPolyfillParallelJavaInstance() {
+        List<Vector2D> outline = ImmutableList.of(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7198061999978478, -122.3544736999993603),
+                new Vector2D(37.7076131999975672, -122.5123436999983966)
+        );
+
+        assertEquals(h3.polyfillIndexList(outline, null, 9, false, ForkJoinPool.commonPool()),
+                H3Core.newJavaInstance().polyfillIndexList(outline, null, 9, false, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void testPolyfillParallelEmpty() {
+        assertEquals(0, h3.polyfillIndexList(new ArrayList<>(), null, 9, false, ForkJoinPool.commonPool()).size());
+    }
+
+    @Test
+    public void testPolyfillIterator() {
+        List<Vector2D> outline = ImmutableList.of(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7866302000007224, -122.3805436999997056),
+                new Vector2D(37.7198061999978478, -122.3544736999993603),
+                new Vector2D(37.7076131999975672, -122.5123436999983966),
+                new Vector2D(37.7835871999971715, -122.5247187000021967),
+                new Vector2D(37.8151571999998453, -122.4798767000009008)
+        );
+        List<List<Vector2D>> holes = ImmutableList.of(
+                ImmutableList.of(
+                        new Vector2D(37.7869802, -122.4471197),
+                        new Vector2D(37.7664102, -122.4590777),
+                        new Vector2D(37.7710682, -122.4137097)
+                )
+        );
+
+        for (int res = 0; res <= 10; res++) {
+            List<Long> actual = new ArrayList<>();
+            PrimitiveIterator.OfLong iterator = h3.polyfillIterator(outline, holes, res, false);
+            while (iterator.hasNext()) {
+                actual.add(iterator.nextLong());
+            }
+
+            assertEquals(h3.polyfillIndexList(outline, holes, res, false, ForkJoinPool.commonPool()).toList(), actual);
+            assertEquals(ImmutableSet.copyOf(h3.polyfill(outline, holes, res)), ImmutableSet.copyOf(actual));
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPolyfillIteratorEmpty() {
+        PrimitiveIterator.OfLong iterator = h3.polyfillIterator(new ArrayList<>(), null, 9, false);
+
+        assertFalse(iterator.hasNext());
+        iterator.nextLong();
+    }
+
+    @Test
+    public void testPolyfillChunks() {
+        List<Vector2D> outline = ImmutableList.of(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7198061999978478, -122.3544736999993603),
+                new Vector2D(37.7076131999975672, -122.5123436999983966)
+        );
+
+        H3IndexList expected = h3.polyfillIndexList(outline, null, 9, false, ForkJoinPool.commonPool());
+        for (int chunkSize : new int[] { 1, 100, expected.size(), expected.size() + 1 }) {
+            List<Long> actual = new ArrayList<>();
+            List<long[]> chunks = new ArrayList<>();
+            long count = h3.polyfillChunks(outline, null, 9, false, chunkSize, (chunk, size) -> {
+                assertTrue(size > 0);
+                assertTrue(size <= chunkSize);
+                chunks.add(chunk);
+                for (int i = 0; i < size; i++) {
+                    actual.add(chunk[i]);
+                }
+            });
+
+            assertEquals(expected.size(), count);
+            assertEquals(expected.toList(), actual);
+            assertEquals((expected.size() + chunkSize - 1) / chunkSize, chunks.size());
+            // The chunk array is reused
+            assertEquals(1, chunks.stream().distinct().count());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPolyfillChunksInvalidSize() {
+        h3.polyfillChunks(ImmutableList.of(new Vector2D(0, 0), new Vector2D(1, 0), new Vector2D(0, 1)), null, 9,
+                false, 0, (chunk, size) -> fail());
+    }
+
+    @Test
+    public void testPolyfillCompact() {
+        List<Vector2D> outline = ImmutableList.of(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7866302000007224, -122.3805436999997056),
+                new Vector2D(37.7198061999978478, -122.3544736999993603),
+                new Vector2D(37.7076131999975672, -122.5123436999983966),
+                new Vector2D(37.7835871999971715, -122.5247187000021967),
+                new Vector2D(37.8151571999998453, -122.4798767000009008)
+        );
+        List<List<Vector2D>> holes = ImmutableList.of(
+                ImmutableList.of(
+                        new Vector2D(37.7869802, -122.4471197),
+                        new Vector2D(37.7664102, -122.4590777),
+                        new Vector2D(37.7710682, -122.4137097)
+                )
+        );
+
+        for (int res = 7; res <= 11; res++) {
+            H3IndexList compacted = h3.polyfillCompact(outline, holes, res, false);
+            List<Long> polyfilled = h3.polyfill(outline, holes, res);
+
+            assertEquals(ImmutableSet.copyOf(h3.compact(polyfilled)), ImmutableSet.copyOf(compacted));
+            assertEquals(h3.polyfillIndexList(outline, holes, res, false, ForkJoinPool.commonPool()),
+                    h3.uncompact(compacted.toArray(), res, false));
+            assertTrue(compacted.size() < polyfilled.size());
+        }
+    }
+
+    @Test
+    public void testPolyfillCompactPentagon() {
+        List<Vector2D> outline = ImmutableList.of(
+                new Vector2D(60, 0),
+                new Vector2D(60, 20),
+                new Vector2D(70, 20),
+                new Vector2D(70, 0)
+        );
+
+        H3IndexList compacted = h3.polyfillCompact(outline, null, 5, false);
+
+        assertEquals(ImmutableSet.copyOf(h3.compact(h3.polyfill(outline, null, 5))), ImmutableSet.copyOf(compacted));
+        // The resolution 1 pentagon and all of its descendants are inside
+        assertTrue(compacted.toList().contains(0x81083ffffffffffL));
+    }
+
+    @Test
+    public void testPolyfillCompactEmpty() {
+        assertEquals(0, h3.polyfillCompact(new ArrayList<>(), null, 9, false).size());
+    }
+
+    @Test
+    public void testH3SetToMultiPolygonFlat() {
+        List<Long> holes = h3.kRing(0x85283083fffffffL, 2);
+        holes.remove(0x8528308ffffffffL);
+        holes.remove(0x85283097fffffffL);
+
+        List<List<Long>> sets = ImmutableList.of(
+                ImmutableList.of(0x89283082837ffffL),
+                ImmutableList.of(0x89283082837ffffL, 0x89283082833ffffL),
+                // Two polygons
+                ImmutableList.of(0x89283082837ffffL, h3.geoToH3(37.5, -122.5, 9)),
+                h3.kRing(0x89283082837ffffL, 3),
+                holes
+        );
+        for (List<Long> set : sets) {
+            long[] h3Set = set.stream().mapToLong(Long::longValue).toArray();
+            for (boolean geoJson : new boolean[] { false, true }) {
+                List<List<List<Vector2D>>> expected = h3.h3SetToMultiPolygon(set, geoJson);
+                H3MultiPolygon actual = h3.h3SetToMultiPolygonFlat(h3Set, geoJson);
+
+                assertEquals(expected.size(), actual.numPolygons());
+                assertEquals(expected.stream().mapToInt(List::size).sum(), actual.numLoops());
+                List<List<List<Vector2D>>> actualList = actual.toList();
+                for (int p = 0; p < expected.size(); p++) {
+                    assertEquals(expected.get(p).size(), actualList.get(p).size());
+                    for (int l = 0; l < expected.get(p).size(); l++) {
+                        List<Vector2D> expectedLoop = expected.get(p).get(l);
+                        List<Vector2D> actualLoop = actualList.get(p).get(l);
+                        assertEquals(expectedLoop.size(), actualLoop.size());
+                        for (int v = 0; v < expectedLoop.size(); v++) {
+                            assertEquals(expectedLoop.get(v).x, actualLoop.get(v).x, EPSILON);
+                            assertEquals(expectedLoop.get(v).y, actualLoop.get(v).y, EPSILON);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testH3SetToMultiPolygonFlatEmpty() {
+        H3MultiPolygon multiPolygon = h3.h3SetToMultiPolygonFlat(new long[0], false);
+
+        assertEquals(0, multiPolygon.numPolygons());
+        assertEquals(0, multiPolygon.numLoops());
+        assertEquals(0, multiPolygon.numVertices());
+    }
+
+    @Test
+    public void testH3SetToMultiPolygonParallel() {
+        List<Long> holes = h3.kRing(0x85283083fffffffL, 2);
+        holes.remove(0x8528308ffffffffL);
+        holes.remove(0x85283097fffffffL);
+
+        List<Long> separate = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            separate.add(h3.geoToH3(i * 0.01, 0, 15));
+        }
+
+        List<List<Long>> sets = ImmutableList.of(
+                ImmutableList.of(0x89283082837ffffL),
+                ImmutableList.of(0x89283082837ffffL, 0x89283082833ffffL),
+                ImmutableList.of(0x89283082837ffffL, 0x8928308280fffffL),
+                h3.kRing(0x89283082837ffffL, 30),
+                // Around a pentagon
+                h3.kRing(0x8408001ffffffffL, 5),
+                holes,
+                separate
+        );
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (List<Long> set : sets) {
+                long[] h3Set = set.stream().mapToLong(Long::longValue).toArray();
+                for (boolean geoJson : new boolean[] { false, true }) {
+                    H3MultiPolygon expected = h3.h3SetToMultiPolygonFlat(h3Set, geoJson);
+                    H3MultiPolygon actual = h3.h3SetToMultiPolygon(h3Set, geoJson, pool);
+
+                    assertSameLoops(expected, actual, geoJson);
+                    assertEquals(actual, h3.h3SetToMultiPolygon(h3Set, geoJson, new ForkJoinPool(1)));
+                    assertSameLoops(actual, H3Core.newJavaInstance().h3SetToMultiPolygon(h3Set, geoJson, pool), geoJson);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testH3SetToMultiPolygonParallelEmpty() {
+        assertEquals(0, h3.h3SetToMultiPolygon(new long[0], false, ForkJoinPool.commonPool()).numPolygons());
+    }
+
+    @Test
+    public void testSetOutline() {
+        Random random = new Random(0);
+        for (long origin : new long[] { 0x89283082837ffffL, 0x8408001ffffffffL }) {
+            List<Long> candidates = h3.kRing(origin, 4);
+            H3SetOutline outline = h3.newSetOutline();
+            Set<Long> expectedSet = new HashSet<>();
+            for (int step = 0; step < 100; step++) {
+                long h = candidates.get(random.nextInt(candidates.size()));
+                if (random.nextBoolean()) {
+                    assertEquals(expectedSet.add(h), outline.add(h));
+                } else {
+                    assertEquals(expectedSet.remove(h), outline.remove(h));
+                }
+                assertEquals(expectedSet.size(), outline.size());
+
+                long[] h3Set = expectedSet.stream().mapToLong(Long::longValue).toArray();
+                for (boolean geoJson : new boolean[] { false, true }) {
+                    assertSameLoops(h3.h3SetToMultiPolygonFlat(h3Set, geoJson), outline.toMultiPolygon(geoJson), geoJson);
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts the multipolygons have the same loops, in any order and starting from any vertex.
+     */
+    private static void assertSameLoops(H3MultiPolygon expected, H3MultiPolygon actual, boolean closed) {
+        assertEquals(expected.numPolygons(), actual.numPolygons());
+        assertEquals(expected.numLoops(), actual.numLoops());
+        assertEquals(expected.numVertices(), actual.numVertices());
+
+        Set<Integer> matched = new HashSet<>();
+        for (int expectedLoop = 0; expectedLoop < expected.numLoops(); expectedLoop++) {
+            boolean found = false;
+            for (int actualLoop = 0; actualLoop < actual.numLoops() && !found; actualLoop++) {
+                if (!matched.contains(actualLoop) && isSameLoop(expected, expectedLoop, actual, actualLoop, closed)) {
+                    matched.add(actualLoop);
+                    found = true;
+                }
+            }
+            assertTrue("loop " + expectedLoop + " is in the output", found);
+        }
+    }
+
+    private static boolean isSameLoop(H3MultiPolygon a, int aLoop, H3MultiPolygon b, int bLoop, boolean closed) {
+        int start = a.loopStart(aLoop);
+        // The closing vertex repeats the first, so is not compared
+        int size = a.loopEnd(aLoop) - start - (closed ? 1 : 0);
+        if (b.loopEnd(bLoop) - b.loopStart(bLoop) - (closed ? 1 : 0) != size) {
+            return false;
+        }
+        for (int offset = 0; offset < size; offset++) {
+            boolean same = true;
+            for (int i = 0; i < size && same; i++) {
+                int aVertex = start + i;
+                int bVertex = b.loopStart(bLoop) + (i + offset) % size;
+                same = Math.abs(a.getX(aVertex) - b.getX(bVertex)) < 1e-6
+                        && Math.abs(a.getY(aVertex) - b.getY(bVertex)) < 1e-6;
+            }
+            if (same) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Test
     public void testH3SetToMultiPolygonEmpty() {
         assertEquals(0, h3.h3SetToMultiPolygon(new ArrayList<Long>(), false).size());
@@ -693,6 +1345,63 @@ public class TestH3Core {
         }
     }
 
+    @Test
+    public void testH3ToChildrenIndexList() {
+        H3IndexList sfChildren = h3.h3ToChildrenIndexList(0x88283082803ffffL, 9);
+
+        assertEquals(7, sfChildren.size());
+        assertEquals(h3.h3ToChildren(0x88283082803ffffL, 9), sfChildren.toList());
+
+        H3IndexList pentagonChildren = h3.h3ToChildrenIndexList(0x801dfffffffffffL, 2);
+        assertEquals(5 * 7 + 6, pentagonChildren.size());
+    }
+
+    @Test
+    public void testChildrenIterator() {
+        List<Long> expected = ImmutableList.of(0x89283082803ffffL, 0x89283082807ffffL, 0x8928308280bffffL,
+                0x8928308280fffffL, 0x89283082813ffffL, 0x89283082817ffffL, 0x8928308281bffffL);
+
+        List<Long> children = new ArrayList<>();
+        PrimitiveIterator.OfLong iter = h3.childrenIterator(0x88283082803ffffL, 9);
+        while (iter.hasNext()) {
+            children.add(iter.nextLong());
+        }
+        assertEquals(expected, children);
+
+        assertEquals(ImmutableList.of(0x88283082803ffffL), h3.childrenStream(0x88283082803ffffL, 8, false)
+                .boxed().collect(Collectors.toList()));
+        assertEquals(0, h3.childrenStream(0x88283082803ffffL, 7, false).count());
+    }
+
+    @Test
+    public void testChildrenIteratorPentagon() {
+        Spliterator.OfLong children = h3.childrenSpliterator(0x801dfffffffffffL, 2);
+
+        assertEquals(5 * 7 + 6, children.getExactSizeIfKnown());
+        assertEquals(h3.h3ToChildren(0x801dfffffffffffL, 2),
+                StreamSupport.longStream(children, false).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testChildrenStreamParallel() {
+        long parent = 0x832830fffffffffL;
+
+        // Splitting must not lose or repeat any children
+        assertEquals(7 * 7 * 7 * 7 * 7 * 7, h3.childrenStream(parent, 9, true).distinct().count());
+        assertTrue(h3.childrenStream(parent, 9, true).allMatch(child -> h3.h3ToParent(child, 3) == parent));
+
+        // A pentagon has 1 pentagon and 5 hexagon children at each finer resolution
+        long pentagonChildren = 1 + 5 * (7 * 7 * 7 * 7 * 7 * 7 - 1) / 6;
+        assertEquals(pentagonChildren, h3.childrenStream(0x801dfffffffffffL, 6, true).count());
+        assertEquals(pentagonChildren, h3.childrenSpliterator(0x801dfffffffffffL, 6).getExactSizeIfKnown());
+        assertTrue(h3.childrenStream(0x801dfffffffffffL, 6, true).allMatch(h3::h3IsValid));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChildrenIteratorInvalidRes() {
+        h3.childrenIterator(0x88283082803ffffL, 16);
+    }
+
     @Test
     public void testH3IsResClassIII() {
         String r0 = h3.geoToH3Address(0, 0, 0);
@@ -737,6 +1446,43 @@ public class TestH3Core {
         }
     }
 
+    @Test
+    public void testStringToH3() {
+        assertEquals(0x8928308280fffffL, h3.stringToH3("8928308280fffff"));
+        assertEquals(0x8928308280fffffL, h3.stringToH3("8928308280FFFFF"));
+        // Accepted as by Long.parseUnsignedLong
+        assertEquals(0x8928308280fffffL, h3.stringToH3("+8928308280fffff"));
+        assertEquals(0x8928308280fffffL, h3.stringToH3("000008928308280fffff"));
+        assertEquals("8928308280fffff", h3.h3ToString(0x8928308280fffffL));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testStringToH3TooLarge() {
+        h3.stringToH3("18928308280fffff0");
+    }
+
+    @Test
+    public void testHexAreaBulk() {
+        long[] cells = { 0x89283082837ffffL, 0x89283082833ffffL, 0x8928308280fffffL, 0x85283473fffffffL };
+
+        long[] counts = h3.countByResolution(cells);
+        assertEquals(16, counts.length);
+        assertEquals(3, counts[9]);
+        assertEquals(1, counts[5]);
+
+        double[] byResolution = h3.hexAreaByResolution(cells, AreaUnit.km2);
+        assertEquals(3 * h3.hexArea(9, AreaUnit.km2), byResolution[9], 1e-12);
+        assertEquals(h3.hexArea(5, AreaUnit.km2), byResolution[5], 1e-12);
+        assertEquals(0, byResolution[0], 0);
+        assertEquals(3 * h3.hexArea(9, AreaUnit.m2) + h3.hexArea(5, AreaUnit.m2), h3.hexArea(cells, AreaUnit.m2), 1e-6);
+        assertEquals(0, h3.hexArea(new long[0], AreaUnit.km2), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHexAreaBulkInvalid() {
+        h3.hexArea(new long[0], null);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testConstantsInvalid() {
         h3.hexArea(-1, AreaUnit.km2);
@@ -788,6 +1534,27 @@ public class TestH3Core {
         assertEquals(new HashSet<>(expanded), new HashSet<>(uncompacted));
     }
 
+    @Test
+    public void testCompactIndexList() {
+        long starting = h3.geoToH3(30, 20, 6);
+
+        long[] expanded = h3.kRingIndexList(starting, 8).toArray();
+
+        H3IndexList compacted = h3.compactIndexList(expanded);
+
+        assertEquals(61, compacted.size());
+
+        H3IndexList uncompacted = h3.uncompactIndexList(compacted.toArray(), 6);
+
+        assertEquals(expanded.length, uncompacted.size());
+        assertEquals(new HashSet<>(H3IndexList.of(expanded).toList()), new HashSet<>(uncompacted.toList()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUncompactIndexListInvalidRes() {
+        h3.uncompactIndexList(new long[] { 0x85283473fffffffL }, 16);
+    }
+
     @Test(expected = RuntimeException.class)
     public void testCompactInvalid() {
         // Some random location
@@ -814,6 +1581,68 @@ public class TestH3Core {
         h3.uncompactAddress(ImmutableList.of("0"), 3);
     }
 
+    @Test
+    public void testCompactJava() {
+        long starting = h3.geoToH3(30, 20, 6);
+
+        long[] expanded = h3.kRingIndexList(starting, 8).toArray();
+
+        H3IndexList expected = h3.compactIndexList(expanded);
+        H3IndexList compacted = h3.compact(expanded.clone(), false);
+
+        assertEquals(new HashSet<>(expected.toList()), new HashSet<>(compacted.toList()));
+        assertEquals(compacted, h3.compact(expanded.clone(), true));
+
+        H3IndexList uncompacted = h3.uncompact(compacted.toArray(), 6, false);
+        assertEquals(new HashSet<>(H3IndexList.of(expanded).toList()), new HashSet<>(uncompacted.toList()));
+        assertEquals(h3.uncompactIndexList(compacted.toArray(), 6), uncompacted);
+        assertEquals(uncompacted, h3.uncompact(compacted.toArray(), 6, true));
+    }
+
+    @Test
+    public void testCompactJavaMixedResolutions() {
+        long parent = 0x85283473fffffffL;
+        List<Long> children = h3.h3ToChildren(parent, 6);
+        List<Long> grandchildren = h3.h3ToChildren(children.get(0), 7);
+
+        long[] input = new long[children.size() - 1 + grandchildren.size() + 3];
+        int i = 0;
+        for (long child : children.subList(1, children.size())) {
+            input[i++] = child;
+        }
+        for (long grandchild : grandchildren) {
+            input[i++] = grandchild;
+        }
+        // Duplicate, contained, and zero indexes
+        input[i++] = children.get(1);
+        input[i++] = h3.h3ToChildren(children.get(2), 8).get(0);
+        input[i] = 0;
+
+        assertEquals(H3IndexList.of(parent), h3.compact(input, false));
+    }
+
+    @Test
+    public void testCompactJavaPentagon() {
+        long pentagon = 0x821c07fffffffffL;
+        long[] children = h3.h3ToChildrenIndexList(pentagon, 4).toArray();
+
+        assertEquals(H3IndexList.of(pentagon), h3.compact(children.clone(), false));
+        assertEquals(H3IndexList.of(pentagon), h3.compact(children.clone(), true));
+
+        long[] missingOne = Arrays.copyOf(children, children.length - 1);
+        assertEquals(children.length - 1, h3.uncompact(h3.compact(missingOne, false).toArray(), 4, false).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompactJavaInvalid() {
+        h3.compact(new long[] { 0x85283473fffffffL, 0x1L }, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUncompactJavaFinerThanRes() {
+        h3.uncompact(new long[] { 0x85283473fffffffL }, 4, false);
+    }
+
     @Test
     public void testUnidirectionalEdges() {
         String start = "891ea6d6533ffff";
@@ -846,8 +1675,26 @@ public class TestH3Core {
         assertEquals(2, boundary.size());
     }
 
+    @Test
+    public void testUnidirectionalEdgesInvalid() {
+        // Direction 7 is not a neighbor
+        long badDirection = 0x1791ea6d6533ffffL;
+        // Origin with digit 7 at a used resolution
+        long badOrigin = H3Index.setIndexDigit(0x1191ea6d6533ffffL, 9, H3Index.INVALID_DIGIT);
+
+        for (long edge : new long[] { badDirection, badOrigin }) {
+            assertFalse(h3.h3UnidirectionalEdgeIsValid(edge));
+            assertEquals(0, h3.getDestinationH3IndexFromUnidirectionalEdge(edge));
+        }
+        assertEquals(0, h3.getDestinationH3IndexFromUnidirectionalEdge(0x891ea6d6533ffffL));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testUnidirectionalEdgesNotNeighbors() {
         h3.getH3UnidirectionalEdge("891ea6d6533ffff", "891ea6992dbffff");
     }
+
+    private static ByteBuffer directBuffer(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
 }
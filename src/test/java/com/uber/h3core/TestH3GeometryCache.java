@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.uber.h3core.util.Vector2D;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link H3GeometryCache}. These use the Java implementation, so do not need the native library.
+ */
+public class TestH3GeometryCache {
+    private static final H3Core h3 = H3Core.newJavaInstance();
+
+    @Test
+    public void testSameAsH3Core() {
+        H3GeometryCache cache = h3.newGeometryCache(100);
+        // Includes a pentagon, which has distortion vertices
+        for (long h : new long[] { 0x89283082837ffffL, 0x8009fffffffffffL, 0x821c07fffffffffL }) {
+            for (int i = 0; i < 2; i++) {
+                assertSameVectors(h3.h3ToGeoBoundary(h), cache.h3ToGeoBoundary(h));
+                assertSameVector(h3.h3ToGeo(h), cache.h3ToGeo(h));
+            }
+        }
+        assertEquals(6, cache.missCount());
+        assertEquals(6, cache.hitCount());
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    public void testArrays() {
+        H3GeometryCache cache = h3.newGeometryCache(100);
+        long h = 0x89283082837ffffL;
+        double[] verts = new double[20];
+
+        assertEquals(6, cache.h3ToGeoBoundary(h, verts));
+        assertEquals(6, cache.h3ToGeoBoundary(h, verts));
+        List<Vector2D> expected = h3.h3ToGeoBoundary(h);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(expected.get(i).x, verts[i * 2], 0);
+            assertEquals(expected.get(i).y, verts[i * 2 + 1], 0);
+        }
+
+        double[] center = new double[2];
+        cache.h3ToGeo(h, center);
+        assertEquals(h3.h3ToGeo(h).x, center[0], 0);
+        assertEquals(h3.h3ToGeo(h).y, center[1], 0);
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void testEviction() {
+        H3GeometryCache cache = h3.newGeometryCache(64);
+        assertTrue(cache.capacity() >= 64);
+
+        List<Long> cells = h3.kRing(0x89283082837ffffL, 10);
+        for (long h : cells) {
+            cache.h3ToGeo(h);
+        }
+        assertTrue(cache.size() <= cache.capacity());
+        assertEquals(cells.size() - cache.size(), cache.evictionCount());
+
+        // A recently used index is kept, even though other indexes are added after it
+        long hot = cells.get(0);
+        for (long h : cells) {
+            cache.h3ToGeo(hot);
+            cache.h3ToGeo(h);
+        }
+        long misses = cache.missCount();
+        cache.h3ToGeo(hot);
+        assertEquals(misses, cache.missCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        cache.h3ToGeo(hot);
+        assertEquals(misses + 1, cache.missCount());
+    }
+
+    @Test
+    public void testCoarseCells() {
+        H3GeometryCache cache = h3.newGeometryCache(4096);
+        // Resolution 3 indexes, whose low bits are all the same
+        List<Long> cells = h3.kRing(h3.geoToH3(0, 0, 3), 45);
+        assertTrue(cells.size() >= cache.capacity());
+        for (long h : cells.subList(0, cache.capacity())) {
+            cache.h3ToGeo(h);
+        }
+        // Nearly all sets are used, rather than the sets of one stripe
+        assertTrue(cache.size() > cache.capacity() * 3 / 4);
+        assertEquals(cache.capacity() - cache.size(), cache.evictionCount());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        H3GeometryCache cache = h3.newGeometryCache(200);
+        List<Long> cells = h3.kRing(0x89283082837ffffL, 12);
+        List<List<Vector2D>> expected = new ArrayList<>();
+        for (long h : cells) {
+            expected.add(h3.h3ToGeoBoundary(h));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        for (int i = 0; i < cells.size(); i++) {
+                            int index = (i * 7 + offset) % cells.size();
+                            assertSameVectors(expected.get(index), cache.h3ToGeoBoundary(cells.get(index)));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4 * 20 * cells.size(), cache.hitCount() + cache.missCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSize() {
+        h3.newGeometryCache(0);
+    }
+
+    private static void assertSameVectors(List<Vector2D> expected, List<Vector2D> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameVector(expected.get(i), actual.get(i));
+        }
+    }
+
+    private static void assertSameVector(Vector2D expected, Vector2D actual) {
+        assertEquals(expected.x, actual.x, 0);
+        assertEquals(expected.y, actual.y, 0);
+    }
+}
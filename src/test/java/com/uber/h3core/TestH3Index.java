@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the pure Java index functions in {@link H3Index}.
+ */
+public class TestH3Index {
+    @Test
+    public void testFields() {
+        long h3 = 0x8928308280fffffL;
+
+        assertEquals(H3Index.H3_HEXAGON_MODE, H3Index.getMode(h3));
+        assertEquals(0, H3Index.getReservedBits(h3));
+        assertEquals(9, H3Index.getResolution(h3));
+        assertEquals(20, H3Index.getBaseCell(h3));
+        assertEquals(0, H3Index.getIndexDigit(h3, 1));
+        assertEquals(H3Index.INVALID_DIGIT, H3Index.getIndexDigit(h3, 10));
+        assertEquals(0x8928308281bffffL, H3Index.setIndexDigit(h3, 9, 6));
+    }
+
+    @Test
+    public void testIsValid() {
+        assertTrue(H3Index.isValid(0x8928308280fffffL));
+        assertTrue(H3Index.isValid(0x801dfffffffffffL));
+        assertFalse(H3Index.isValid(0));
+        // Unused digit is not 7
+        assertFalse(H3Index.isValid(0x8928308280ffff0L));
+        // Base cell out of range
+        assertFalse(H3Index.isValid(0x80f5fffffffffffL));
+        // Edge mode
+        assertFalse(H3Index.isValid(H3Index.setMode(0x8928308280fffffL, H3Index.H3_UNIEDGE_MODE)));
+        // Deleted K subsequence of a pentagon
+        assertFalse(H3Index.isValid(0x811c7ffffffffffL));
+    }
+
+    @Test
+    public void testIsPentagon() {
+        assertTrue(H3Index.isPentagon(0x801dfffffffffffL));
+        assertTrue(H3Index.isPentagon(0x821c07fffffffffL));
+        assertFalse(H3Index.isPentagon(0x821c2ffffffffffL));
+        assertFalse(H3Index.isPentagon(0x8928308280fffffL));
+    }
+
+    @Test
+    public void testUnidirectionalEdge() {
+        long origin = 0x891ea6d6533ffffL;
+        long edge = H3Index.setReservedBits(H3Index.setMode(origin, H3Index.H3_UNIEDGE_MODE), 5);
+
+        assertTrue(H3Index.isValidUnidirectionalEdge(edge));
+        assertFalse(H3Index.isValidUnidirectionalEdge(origin));
+        assertFalse(H3Index.isValidUnidirectionalEdge(H3Index.setReservedBits(edge, 0)));
+        assertEquals(origin, H3Index.getOriginFromUnidirectionalEdge(edge));
+        assertEquals(0, H3Index.getOriginFromUnidirectionalEdge(origin));
+        assertEquals(0x891ea6d65afffffL, H3Index.getDestinationFromUnidirectionalEdge(edge));
+        assertEquals(0, H3Index.getDestinationFromUnidirectionalEdge(origin));
+    }
+
+    @Test
+    public void testFinestDescendants() {
+        H3Core h3 = H3Core.newJavaInstance();
+        // Includes a pentagon, which has no descendants in the deleted k subsequence
+        for (long h : new long[] { 0x8c2830828371dffL, 0x8928308280fffffL, 0x8c08000000001ffL, 0x801dfffffffffffL }) {
+            int res = H3Index.getResolution(h);
+            if (res >= 12) {
+                H3IndexList children = h3.h3ToChildrenIndexList(h, 15);
+                assertEquals(children.stream().min().getAsLong(), H3Index.firstFinestDescendant(h));
+            }
+            assertEquals(H3Index.MAX_H3_RES, H3Index.getResolution(H3Index.firstFinestDescendant(h)));
+            assertTrue(H3Index.firstFinestDescendant(h) <= H3Index.lastFinestDescendant(h));
+            long child = h3.h3ToChildrenIndexList(h, Math.min(res + 1, 15)).get(1);
+            assertTrue(H3Index.firstFinestDescendant(child) >= H3Index.firstFinestDescendant(h));
+            assertTrue(H3Index.lastFinestDescendant(child) <= H3Index.lastFinestDescendant(h));
+        }
+        assertEquals(0x8f2830828371dffL, H3Index.firstFinestDescendant(0x8f2830828371dffL));
+        assertEquals(0x8f2830828371dffL, H3Index.lastFinestDescendant(0x8f2830828371dffL));
+        assertEquals(0x8f28308280c0000L, H3Index.firstFinestDescendant(0x8928308280fffffL));
+        assertEquals(0x8f28308280f6db6L, H3Index.lastFinestDescendant(0x8928308280fffffL));
+    }
+
+    @Test
+    public void testMatchesNative() throws IOException {
+        NativeMethods nativeMethods = H3CoreLoader.loadNatives();
+
+        for (long h3 : allIndexes(3)) {
+            assertEquals(nativeMethods.h3IsValid(h3), H3Index.isValid(h3));
+            assertEquals(nativeMethods.h3GetBaseCell(h3), H3Index.getBaseCell(h3));
+            if (!H3Index.isValid(h3)) {
+                continue;
+            }
+            assertEquals(nativeMethods.h3IsPentagon(h3), H3Index.isPentagon(h3));
+
+            long[] edges = new long[6];
+            H3Index.getUnidirectionalEdgesFromHexagon(h3, edges);
+            long[] expectedEdges = new long[6];
+            nativeMethods.getH3UnidirectionalEdgesFromHexagon(h3, expectedEdges);
+            assertArrayEquals(expectedEdges, edges);
+
+            for (int dir = 0; dir <= H3Index.INVALID_DIGIT; dir++) {
+                long edge = H3Index.getUnidirectionalEdge(h3, dir);
+
+                boolean isValidEdge = H3Index.isValidUnidirectionalEdge(edge);
+                assertEquals(nativeMethods.h3UnidirectionalEdgeIsValid(edge), isValidEdge);
+                assertEquals(nativeMethods.getOriginH3IndexFromUnidirectionalEdge(edge),
+                        H3Index.getOriginFromUnidirectionalEdge(edge));
+
+                if (isValidEdge) {
+                    assertEquals(nativeMethods.getDestinationH3IndexFromUnidirectionalEdge(edge),
+                            H3Index.getDestinationFromUnidirectionalEdge(edge));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns every combination of base cell and digits up to the given resolution, including
+     * ones in the deleted subsequence of pentagons.
+     */
+    private static List<Long> allIndexes(int maxRes) {
+        List<Long> ret = new ArrayList<>();
+        List<Long> current = new ArrayList<>();
+        for (int baseCell = 0; baseCell < H3Index.NUM_BASE_CELLS; baseCell++) {
+            current.add(0x8001fffffffffffL | ((long) baseCell << H3Index.H3_BC_OFFSET));
+        }
+        ret.addAll(current);
+
+        for (int res = 1; res <= maxRes; res++) {
+            List<Long> next = new ArrayList<>();
+            for (long parent : current) {
+                for (int digit = 0; digit < H3Index.NUM_DIGITS; digit++) {
+                    long child = (parent & ~H3Index.H3_RES_MASK) | ((long) res << H3Index.H3_RES_OFFSET);
+                    next.add(H3Index.setIndexDigit(child, res, digit));
+                }
+            }
+            ret.addAll(next);
+            current = next;
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class TestH3IndexList {
+    @Test
+    public void test() {
+        H3IndexList list = H3IndexList.of(3, 1, 2);
+
+        assertEquals(3, list.size());
+        assertFalse(list.isEmpty());
+        assertEquals(3, list.get(0));
+        assertEquals(1, list.get(1));
+        assertEquals(2, list.get(2));
+        assertArrayEquals(new long[] { 3, 1, 2 }, list.toArray());
+        assertEquals(ImmutableList.of(3L, 1L, 2L), list.toList());
+        assertEquals(6, list.stream().sum());
+
+        PrimitiveIterator.OfLong iter = list.iterator();
+        assertEquals(3, iter.nextLong());
+        assertEquals(1, iter.nextLong());
+        assertEquals(2, iter.nextLong());
+        assertFalse(iter.hasNext());
+
+        long[] dest = new long[5];
+        list.copyTo(dest, 1);
+        assertArrayEquals(new long[] { 0, 3, 1, 2, 0 }, dest);
+    }
+
+    @Test
+    public void testForEach() {
+        H3IndexList list = H3IndexList.of(3, 1, 2);
+
+        List<Long> boxed = new ArrayList<>();
+        list.forEach(h -> boxed.add(h));
+        assertEquals(ImmutableList.of(3L, 1L, 2L), boxed);
+
+        long[] sum = new long[1];
+        list.forEachLong(h -> sum[0] += h);
+        assertEquals(6, sum[0]);
+    }
+
+    @Test
+    public void testOfCopies() {
+        long[] values = { 1, 2 };
+        H3IndexList list = H3IndexList.of(values);
+        values[0] = 5;
+
+        assertEquals(1, list.get(0));
+
+        list.toArray()[1] = 5;
+        assertEquals(2, list.get(1));
+    }
+
+    @Test
+    public void testFromNonZero() {
+        H3IndexList list = H3IndexList.fromNonZero(new long[] { 0, 7, 0, 0, 9, 0 });
+
+        assertArrayEquals(new long[] { 7, 9 }, list.toArray());
+        assertTrue(H3IndexList.fromNonZero(new long[3]).isEmpty());
+    }
+
+    @Test
+    public void testEquals() {
+        H3IndexList l1 = H3IndexList.of(1, 2);
+        H3IndexList l2 = H3IndexList.of(2, 1);
+        H3IndexList l3 = H3IndexList.fromNonZero(new long[] { 1, 0, 2 });
+
+        assertNotEquals(null, l1);
+        assertNotEquals(l1, l2);
+        assertEquals(l1, l3);
+        assertEquals(l1.hashCode(), l3.hashCode());
+        assertEquals("H3IndexList[1, 2]", l1.toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfRange() {
+        H3IndexList.of(1, 2).get(2);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link H3LongDoubleMap}.
+ */
+public class TestH3LongDoubleMap {
+    @Test
+    public void testPutGet() {
+        H3LongDoubleMap map = new H3LongDoubleMap();
+        assertEquals(-1, map.get(0x89283082837ffffL, -1), 0);
+
+        map.put(0x89283082837ffffL, 2.5);
+        map.put(0x89283082833ffffL, 1);
+        map.put(0x89283082837ffffL, 3.5);
+        assertEquals(2, map.size());
+        assertEquals(3.5, map.get(0x89283082837ffffL, -1), 0);
+        assertTrue(map.containsKey(0x89283082833ffffL));
+
+        assertTrue(map.remove(0x89283082837ffffL));
+        assertFalse(map.remove(0x89283082837ffffL));
+        assertFalse(map.containsKey(0x89283082837ffffL));
+        assertEquals(1, map.get(0x89283082833ffffL, -1), 0);
+    }
+
+    @Test
+    public void testAddTo() {
+        H3LongDoubleMap map = new H3LongDoubleMap();
+        assertEquals(2, map.addTo(0x89283082837ffffL, 2), 0);
+        assertEquals(5, map.addTo(0x89283082837ffffL, 3), 0);
+
+        map.addToAll(H3IndexList.of(0x89283082837ffffL, 0x89283082833ffffL, 0x89283082833ffffL), 1);
+        map.addToAll(new long[] { 0x8928308280fffffL }, 1);
+        assertEquals(6, map.get(0x89283082837ffffL, 0), 0);
+        assertEquals(2, map.get(0x89283082833ffffL, 0), 0);
+        assertEquals(1, map.get(0x8928308280fffffL, 0), 0);
+        assertEquals(3, map.keys().size());
+
+        double[] sum = new double[1];
+        map.forEach((h, value) -> sum[0] += value);
+        assertEquals(9, sum[0], 0);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(0, map.addTo(0x89283082837ffffL, 0), 0);
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(0);
+        long origin = 0x89283082837ffffL;
+        H3LongDoubleMap map = new H3LongDoubleMap();
+        Map<Long, Double> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            long h = origin + ((long) random.nextInt(4096) << 24);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(h) != null, map.remove(h));
+            } else {
+                double value = random.nextInt(10);
+                expected.merge(h, value, Double::sum);
+                map.addTo(h, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        map.forEach((h, value) -> assertEquals(expected.get(h), value, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZero() {
+        new H3LongDoubleMap().put(0, 1);
+    }
+}
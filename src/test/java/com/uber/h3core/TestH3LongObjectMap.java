@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link H3LongObjectMap}.
+ */
+public class TestH3LongObjectMap {
+    @Test
+    public void testPutGet() {
+        H3LongObjectMap<String> map = new H3LongObjectMap<>();
+        assertNull(map.get(0x89283082837ffffL));
+
+        assertNull(map.put(0x89283082837ffffL, "a"));
+        assertEquals("a", map.put(0x89283082837ffffL, "b"));
+        assertEquals("b", map.get(0x89283082837ffffL));
+        assertEquals(1, map.size());
+
+        assertEquals("b", map.remove(0x89283082837ffffL));
+        assertNull(map.remove(0x89283082837ffffL));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        H3LongObjectMap<List<String>> map = new H3LongObjectMap<>();
+        List<String> features = map.computeIfAbsent(0x89283082837ffffL, h -> new ArrayList<>());
+        features.add("a");
+        assertSame(features, map.computeIfAbsent(0x89283082837ffffL, h -> new ArrayList<>()));
+        map.computeIfAbsent(0x89283082833ffffL, h -> new ArrayList<>()).add("b");
+
+        Map<Long, List<String>> contents = new HashMap<>();
+        map.forEach(contents::put);
+        assertEquals(2, contents.size());
+        assertEquals("a", contents.get(0x89283082837ffffL).get(0));
+        assertEquals("b", contents.get(0x89283082833ffffL).get(0));
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(0);
+        long origin = 0x89283082837ffffL;
+        H3LongObjectMap<Integer> map = new H3LongObjectMap<>(10);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            long h = origin + ((long) random.nextInt(4096) << 24);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(h), map.remove(h));
+            } else {
+                assertEquals(expected.put(h, i), map.put(h, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        map.forEach((h, value) -> assertEquals(expected.get(h), value));
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullValue() {
+        new H3LongObjectMap<String>().put(0x89283082837ffffL, null);
+    }
+}
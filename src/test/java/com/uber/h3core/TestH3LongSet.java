@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link H3LongSet}.
+ */
+public class TestH3LongSet {
+    @Test
+    public void testAddRemove() {
+        H3LongSet set = new H3LongSet();
+        assertTrue(set.isEmpty());
+
+        assertTrue(set.add(0x89283082837ffffL));
+        assertFalse(set.add(0x89283082837ffffL));
+        assertTrue(set.add(0x89283082833ffffL));
+        assertEquals(2, set.size());
+        assertTrue(set.contains(0x89283082837ffffL));
+        assertFalse(set.contains(0x8928308280fffffL));
+        assertFalse(set.contains(0));
+
+        assertTrue(set.remove(0x89283082837ffffL));
+        assertFalse(set.remove(0x89283082837ffffL));
+        assertFalse(set.contains(0x89283082837ffffL));
+        assertEquals(1, set.size());
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0x89283082833ffffL));
+    }
+
+    @Test
+    public void testBulk() {
+        long[] h3 = { 0x89283082837ffffL, 0x89283082833ffffL, 0x89283082837ffffL };
+        H3LongSet set = new H3LongSet();
+
+        assertEquals(2, set.addAll(h3));
+        assertEquals(1, set.addAll(H3IndexList.of(0x89283082833ffffL, 0x8928308280fffffL)));
+
+        long[] contents = set.toArray();
+        Arrays.sort(contents);
+        assertArrayEquals(new long[] { 0x8928308280fffffL, 0x89283082833ffffL, 0x89283082837ffffL }, contents);
+        assertEquals(3, set.keys().size());
+        assertEquals(3, H3LongSet.of(contents).size());
+
+        long[] sum = new long[1];
+        set.forEach((long h) -> sum[0] += h);
+        assertEquals(0x8928308280fffffL + 0x89283082833ffffL + 0x89283082837ffffL, sum[0]);
+    }
+
+    @Test
+    public void testMatchesHashSet() {
+        // Indexes at one resolution near each other, which differ in only a few bits
+        Random random = new Random(0);
+        long origin = 0x89283082837ffffL;
+        H3LongSet set = new H3LongSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+            long h = origin + ((long) random.nextInt(4096) << 24);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(h), set.remove(h));
+            } else {
+                assertEquals(expected.add(h), set.add(h));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long h : expected) {
+            assertTrue(set.contains(h));
+        }
+        set.forEach((long h) -> assertTrue(expected.contains(h)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZero() {
+        new H3LongSet().add(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSize() {
+        new H3LongSet(-1);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.google.common.collect.ImmutableList;
+import com.uber.h3core.util.Vector2D;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests for {@link H3MultiPolygon}.
+ */
+public class TestH3MultiPolygon {
+    // A triangle with a triangular hole, and a separate triangle
+    private static final H3MultiPolygon MULTI_POLYGON = new H3MultiPolygon(
+            new double[] {
+                    0, 0, 10, 0, 0, 10,
+                    1, 1, 2, 1, 1, 2,
+                    20, 20, 30, 20, 20, 30
+            },
+            new int[] { 0, 3, 6, 9 },
+            new int[] { 0, 2, 3 });
+
+    @Test
+    public void testCounts() {
+        assertEquals(2, MULTI_POLYGON.numPolygons());
+        assertEquals(3, MULTI_POLYGON.numLoops());
+        assertEquals(9, MULTI_POLYGON.numVertices());
+
+        assertEquals(0, H3MultiPolygon.empty().numPolygons());
+        assertEquals(0, H3MultiPolygon.empty().numLoops());
+        assertEquals(0, H3MultiPolygon.empty().numVertices());
+    }
+
+    @Test
+    public void testOffsets() {
+        assertEquals(0, MULTI_POLYGON.polygonStart(0));
+        assertEquals(2, MULTI_POLYGON.polygonEnd(0));
+        assertEquals(2, MULTI_POLYGON.polygonStart(1));
+        assertEquals(3, MULTI_POLYGON.polygonEnd(1));
+
+        assertEquals(3, MULTI_POLYGON.loopStart(1));
+        assertEquals(6, MULTI_POLYGON.loopEnd(1));
+
+        assertEquals(2, MULTI_POLYGON.getX(4), 0);
+        assertEquals(1, MULTI_POLYGON.getY(4), 0);
+        assertEquals(2, MULTI_POLYGON.getY(5), 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testPolygonOutOfRange() {
+        MULTI_POLYGON.polygonEnd(2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testLoopOutOfRange() {
+        MULTI_POLYGON.loopStart(-1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testVertexOutOfRange() {
+        MULTI_POLYGON.getX(9);
+    }
+
+    @Test
+    public void testArrays() {
+        assertArrayEquals(new int[] { 0, 3, 6, 9 }, MULTI_POLYGON.toLoopOffsetArray());
+        assertArrayEquals(new int[] { 0, 2, 3 }, MULTI_POLYGON.toPolygonOffsetArray());
+
+        double[] coordinates = new double[20];
+        MULTI_POLYGON.copyCoordinatesTo(coordinates, 2);
+        assertArrayEquals(MULTI_POLYGON.toCoordinateArray(), Arrays.copyOfRange(coordinates, 2, 20), 0);
+
+        // The arrays are copies
+        MULTI_POLYGON.toCoordinateArray()[0] = 5;
+        assertEquals(0, MULTI_POLYGON.getX(0), 0);
+    }
+
+    @Test
+    public void testToList() {
+        assertEquals(ImmutableList.of(
+                ImmutableList.of(
+                        ImmutableList.of(new Vector2D(0, 0), new Vector2D(10, 0), new Vector2D(0, 10)),
+                        ImmutableList.of(new Vector2D(1, 1), new Vector2D(2, 1), new Vector2D(1, 2))
+                ),
+                ImmutableList.of(
+                        ImmutableList.of(new Vector2D(20, 20), new Vector2D(30, 20), new Vector2D(20, 30))
+                )
+        ), MULTI_POLYGON.toList());
+        assertEquals(ImmutableList.of(), H3MultiPolygon.empty().toList());
+    }
+
+    @Test
+    public void testEquals() {
+        assertEquals(MULTI_POLYGON, new H3MultiPolygon(MULTI_POLYGON.toCoordinateArray(),
+                MULTI_POLYGON.toLoopOffsetArray(), MULTI_POLYGON.toPolygonOffsetArray()));
+        assertEquals(MULTI_POLYGON.hashCode(), new H3MultiPolygon(MULTI_POLYGON.toCoordinateArray(),
+                MULTI_POLYGON.toLoopOffsetArray(), MULTI_POLYGON.toPolygonOffsetArray()).hashCode());
+        assertNotEquals(MULTI_POLYGON, H3MultiPolygon.empty());
+    }
+}
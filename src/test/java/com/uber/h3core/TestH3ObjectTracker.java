@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link H3ObjectTracker}. These use the Java implementation, so do not need the native library.
+ */
+public class TestH3ObjectTracker {
+    private static final H3Core h3 = H3Core.newJavaInstance();
+
+    @Test
+    public void testEvents() {
+        List<long[]> events = new ArrayList<>();
+        H3ObjectTracker tracker = h3.newObjectTracker(9,
+                (id, oldCell, newCell) -> events.add(new long[] { id, oldCell, newCell }));
+        assertEquals(9, tracker.getResolution());
+
+        long cell = h3.geoToH3(37.775938728915946, -122.41795063018799, 9);
+        assertEquals(cell, tracker.update(5, 37.775938728915946, -122.41795063018799));
+        assertEquals(1, events.size());
+        assertArrayEquals(new long[] { 5, 0, cell }, events.get(0));
+
+        // A few meters away, in the same index
+        assertEquals(cell, tracker.update(5, 37.77595, -122.41796));
+        assertEquals(1, events.size());
+        assertEquals(2, tracker.updateCount());
+        assertEquals(1, tracker.lookupCount());
+
+        long other = h3.geoToH3(37.8, -122.4, 9);
+        assertEquals(other, tracker.update(5, 37.8, -122.4));
+        assertEquals(2, events.size());
+        assertArrayEquals(new long[] { 5, cell, other }, events.get(1));
+        assertEquals(other, tracker.getCell(5));
+        assertEquals(1, tracker.size());
+
+        assertTrue(tracker.remove(5));
+        assertFalse(tracker.remove(5));
+        assertEquals(3, events.size());
+        assertArrayEquals(new long[] { 5, other, 0 }, events.get(2));
+        assertEquals(0, tracker.getCell(5));
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    public void testMatchesGeoToH3() {
+        Random random = new Random(0);
+        for (int res : new int[] { 0, 4, 9, 15 }) {
+            H3ObjectTracker tracker = h3.newObjectTracker(res, null);
+            // Steps of a third of an edge length, in degrees
+            double step = h3.edgeLength(res, LengthUnit.km) / 111 / 3;
+            int n = 200;
+            double[] lats = new double[n];
+            double[] lngs = new double[n];
+            for (int i = 0; i < n; i++) {
+                lats[i] = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+                lngs[i] = random.nextDouble() * 360 - 180;
+            }
+            // Near a pole, the antimeridian and a pentagon
+            lats[0] = 89.999;
+            lngs[1] = 179.99999;
+            lats[2] = 64.7;
+            lngs[2] = 10.536;
+
+            for (int s = 0; s < 100; s++) {
+                for (int i = 0; i < n; i++) {
+                    lats[i] = Math.max(-90, Math.min(90, lats[i] + (random.nextDouble() * 2 - 1) * step));
+                    lngs[i] += (random.nextDouble() * 2 - 1) * step;
+                    if (lngs[i] > 180) {
+                        lngs[i] -= 360;
+                    } else if (lngs[i] < -180) {
+                        lngs[i] += 360;
+                    }
+                    assertEquals(h3.geoToH3(lats[i], lngs[i], res), tracker.update(i + 1, lats[i], lngs[i]));
+                }
+            }
+            assertTrue(tracker.lookupCount() < tracker.updateCount() / 2);
+        }
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        AtomicLong changes = new AtomicLong();
+        H3ObjectTracker tracker = h3.newObjectTracker(9, (id, oldCell, newCell) -> changes.incrementAndGet());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(thread);
+                    for (int i = 0; i < 10000; i++) {
+                        long id = thread * 100 + random.nextInt(100) + 1;
+                        tracker.update(id, 37.7 + random.nextDouble() * 0.01, -122.5 + random.nextDouble() * 0.01);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(400, tracker.size());
+        assertEquals(40000, tracker.updateCount());
+        // Every lookup which found another index is a change
+        assertTrue(changes.get() <= tracker.lookupCount());
+        assertTrue(changes.get() >= 400);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroId() {
+        h3.newObjectTracker(9, null).update(0, 37.7, -122.4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResolution() {
+        h3.newObjectTracker(-1, null);
+    }
+}
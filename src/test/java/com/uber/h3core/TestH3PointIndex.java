@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link H3PointIndex}. These use the Java implementation, so do not need the native library.
+ */
+public class TestH3PointIndex {
+    private static final H3Core h3 = H3Core.newJavaInstance();
+
+    @Test
+    public void testPutMoveRemove() {
+        H3PointIndex index = h3.newPointIndex(9);
+        assertEquals(9, index.getResolution());
+
+        index.put(1, 37.775938728915946, -122.41795063018799);
+        index.put(2, 37.775938728915946, -122.41795063018799);
+        assertEquals(2, index.size());
+        assertTrue(index.contains(1));
+        assertEquals(h3.geoToH3(37.775938728915946, -122.41795063018799, 9), index.getIndex(1));
+
+        // Within the same index, then to another one
+        index.put(1, 37.7759, -122.4179);
+        assertEquals(h3.geoToH3(37.7759, -122.4179, 9), index.getIndex(1));
+        index.put(1, 37.8, -122.4);
+        assertEquals(h3.geoToH3(37.8, -122.4, 9), index.getIndex(1));
+        assertEquals(2, index.size());
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertFalse(index.contains(1));
+        assertEquals(0, index.getIndex(1));
+        assertEquals(1, index.size());
+        assertArrayEquals(new long[] { 2 }, index.withinRadius(37.7759, -122.4179, 1, LengthUnit.km));
+    }
+
+    @Test
+    public void testNearest() {
+        H3PointIndex index = h3.newPointIndex(9);
+        // Points 100m apart to the north of the origin
+        for (int i = 1; i <= 20; i++) {
+            index.put(i, 37.775 + i * 0.0009, -122.418);
+        }
+
+        long[] ids = new long[3];
+        double[] distances = new double[3];
+        assertEquals(3, index.nearest(37.775, -122.418, 5, LengthUnit.km, ids, distances));
+        assertArrayEquals(new long[] { 1, 2, 3 }, ids);
+        assertEquals(100, distances[0] * 1000, 1);
+        assertEquals(300, distances[2] * 1000, 1);
+
+        assertEquals(3, index.nearest(37.775 + 10 * 0.0009, -122.418, 5000, LengthUnit.m, ids, distances));
+        assertEquals(10, ids[0]);
+        assertEquals(0, distances[0], 1e-6);
+
+        // Limited by distance, and without distances
+        long[] many = new long[30];
+        assertEquals(5, index.nearest(37.775, -122.418, 550, LengthUnit.m, many, null));
+        assertArrayEquals(new long[] { 1, 2, 3, 4, 5 }, Arrays.copyOf(many, 5));
+        assertEquals(0, index.nearest(37.775, -122.418, 550, LengthUnit.m, new long[0], null));
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        // Around a pentagon, where rings are distorted
+        double lat = 64.7;
+        double lng = 10.5;
+        int res = 4;
+        H3PointIndex index = h3.newPointIndex(res);
+        Random random = new Random(0);
+        int n = 2000;
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = lat + random.nextDouble() * 6 - 3;
+            lngs[i] = lng + random.nextDouble() * 6 - 3;
+            index.put(i + 1, lats[i], lngs[i]);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            double qLat = lat + random.nextDouble() * 6 - 3;
+            double qLng = lng + random.nextDouble() * 6 - 3;
+            double radiusKm = 50 + random.nextDouble() * 200;
+
+            List<Long> expectedWithin = new ArrayList<>();
+            double[] expectedDistances = new double[n];
+            for (int i = 0; i < n; i++) {
+                expectedDistances[i] = distanceKm(Math.toRadians(qLat), Math.toRadians(qLng),
+                        Math.toRadians(lats[i]), Math.toRadians(lngs[i]));
+                if (expectedDistances[i] <= radiusKm) {
+                    expectedWithin.add((long) i + 1);
+                }
+            }
+            Arrays.sort(expectedDistances);
+
+            long[] within = index.withinRadius(qLat, qLng, radiusKm, LengthUnit.km);
+            Arrays.sort(within);
+            assertEquals(expectedWithin.size(), within.length);
+            for (int i = 0; i < within.length; i++) {
+                assertEquals((long) expectedWithin.get(i), within[i]);
+            }
+
+            long[] ids = new long[10];
+            double[] distances = new double[10];
+            int found = index.nearest(qLat, qLng, radiusKm, LengthUnit.km, ids, distances);
+            assertEquals(Math.min(10, expectedWithin.size()), found);
+            for (int i = 0; i < found; i++) {
+                assertEquals(expectedDistances[i], distances[i], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentMoves() throws Exception {
+        H3PointIndex index = h3.newPointIndex(9);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(thread);
+                    for (int i = 0; i < 10000; i++) {
+                        long id = thread * 100 + random.nextInt(100) + 1;
+                        index.put(id, 37.7 + random.nextDouble() * 0.1, -122.5 + random.nextDouble() * 0.1);
+                        index.nearest(37.75, -122.45, 2, LengthUnit.km, new long[5], null);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(400, index.size());
+        assertEquals(400, index.withinRadius(37.75, -122.45, 20, LengthUnit.km).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroId() {
+        h3.newPointIndex(9).put(0, 37.7, -122.4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDistance() {
+        h3.newPointIndex(9).withinRadius(37.7, -122.4, -1, LengthUnit.km);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyRings() {
+        h3.newPointIndex(9).nearest(37.7, -122.4, 1000, LengthUnit.km, new long[1], null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResolution() {
+        h3.newPointIndex(16);
+    }
+
+    /**
+     * Great circle distance by the haversine formula, between points given in radians.
+     */
+    private static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double sinLat = Math.sin((lat2 - lat1) / 2);
+        double sinLng = Math.sin((lng2 - lng1) / 2);
+        double a = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLng * sinLng;
+        return 2 * H3Constants.EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
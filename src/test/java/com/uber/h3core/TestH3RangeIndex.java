@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link H3RangeIndex}. These use the Java implementation, so do not need the native library.
+ */
+public class TestH3RangeIndex {
+    private static final H3Core h3 = H3Core.newJavaInstance();
+
+    @Test
+    public void testSingle() {
+        long cell = 0x85283473fffffffL;
+        H3RangeIndex index = H3RangeIndex.of(new long[] { cell });
+
+        assertEquals(1, index.numRanges());
+        assertTrue(index.contains(cell));
+        for (long child : h3.h3ToChildren(cell, 7)) {
+            assertTrue(index.contains(child));
+        }
+        assertFalse(index.contains(h3.h3ToParent(cell, 4)));
+        for (long neighbor : h3.kRing(cell, 1)) {
+            if (neighbor != cell) {
+                assertFalse(index.contains(neighbor));
+                assertFalse(index.contains(h3.h3ToChildren(neighbor, 8).get(0)));
+            }
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        H3RangeIndex index = H3RangeIndex.of(new long[0]);
+
+        assertEquals(0, index.numRanges());
+        assertFalse(index.contains(0x85283473fffffffL));
+    }
+
+    @Test
+    public void testMerged() {
+        long parent = 0x85283473fffffffL;
+        List<Long> children = h3.h3ToChildren(parent, 6);
+        long[] cells = new long[children.size() + 2];
+        for (int i = 0; i < children.size(); i++) {
+            cells[i] = children.get(i);
+        }
+        // Overlapping with the children
+        cells[children.size()] = parent;
+        cells[children.size() + 1] = h3.h3ToChildren(children.get(3), 9).get(0);
+
+        assertEquals(1, H3RangeIndex.of(cells).numRanges());
+    }
+
+    @Test
+    public void testMatchesParents() {
+        // Mixed resolutions around a pentagon, so that some indexes have deleted subsequences
+        for (long origin : new long[] { 0x89283082837ffffL, 0x8408001ffffffffL }) {
+            int originRes = h3.h3GetResolution(origin);
+            Set<Long> set = new HashSet<>();
+            List<Long> ring = h3.kRing(origin, 3);
+            for (int i = 0; i < ring.size(); i++) {
+                long cell = ring.get(i);
+                if (i % 3 == 0) {
+                    set.add(cell);
+                } else if (i % 3 == 1) {
+                    set.add(h3.h3ToChildren(cell, originRes + 1).get(i % 6));
+                }
+            }
+            long[] cells = set.stream().mapToLong(Long::longValue).toArray();
+            H3RangeIndex index = H3RangeIndex.of(cells);
+
+            for (long query : h3.kRing(h3.h3ToChildren(origin, originRes + 2).get(0), 30)) {
+                boolean covered = false;
+                for (int res = 0; res <= originRes + 2 && !covered; res++) {
+                    covered = set.contains(h3.h3ToParent(query, res));
+                }
+                assertEquals(covered, index.contains(query));
+            }
+        }
+    }
+
+    @Test
+    public void testIndexList() {
+        H3RangeIndex index = H3RangeIndex.of(H3IndexList.of(0x85283473fffffffL, 0x8928308280fffffL));
+
+        assertEquals(2, index.numRanges());
+        assertTrue(index.contains(0x8928308280fffffL));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        H3RangeIndex.of(new long[] { 0 });
+    }
+}
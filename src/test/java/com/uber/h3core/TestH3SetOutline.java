@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.uber.h3core.util.Vector2D;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link H3SetOutline}. These use the Java implementation, so do not need the native library.
+ */
+public class TestH3SetOutline {
+    private static final H3Core h3 = H3Core.newJavaInstance();
+
+    private static final long HEXAGON = 0x89283082837ffffL;
+    private static final long NEIGHBOR = 0x89283082833ffffL;
+    private static final long FAR = 0x8928308280fffffL;
+    private static final long PENTAGON = 0x8408001ffffffffL;
+
+    @Test
+    public void testEmpty() {
+        H3SetOutline outline = h3.newSetOutline();
+
+        assertEquals(0, outline.size());
+        assertEquals(0, outline.numEdges());
+        assertEquals(0, outline.toMultiPolygon(false).numPolygons());
+        assertFalse(outline.remove(HEXAGON));
+    }
+
+    @Test
+    public void testSingle() {
+        H3SetOutline outline = h3.newSetOutline();
+        assertTrue(outline.add(HEXAGON));
+        assertFalse(outline.add(HEXAGON));
+
+        assertTrue(outline.contains(HEXAGON));
+        assertEquals(1, outline.size());
+        assertEquals(6, outline.numEdges());
+        assertEquals(h3.getH3UnidirectionalEdgesFromHexagon(HEXAGON).size(), outline.outlineEdges().size());
+
+        H3MultiPolygon multiPolygon = outline.toMultiPolygon(false);
+        assertEquals(1, multiPolygon.numPolygons());
+        assertEquals(1, multiPolygon.numLoops());
+        assertEquals(6, multiPolygon.numVertices());
+        // Closed, as for GeoJSON
+        assertEquals(7, outline.toMultiPolygon(true).numVertices());
+    }
+
+    @Test
+    public void testNeighbors() {
+        H3SetOutline outline = h3.newSetOutline();
+        outline.add(HEXAGON);
+        outline.add(NEIGHBOR);
+
+        // The shared edges are not on the outline
+        assertEquals(10, outline.numEdges());
+        assertEquals(1, outline.toMultiPolygon(false).numLoops());
+        assertEquals(10, outline.toMultiPolygon(false).numVertices());
+
+        outline.remove(NEIGHBOR);
+        assertEquals(6, outline.numEdges());
+        assertEquals(6, outline.toMultiPolygon(false).numVertices());
+    }
+
+    @Test
+    public void testHole() {
+        H3SetOutline outline = h3.newSetOutline();
+        for (long h : h3.kRing(HEXAGON, 1)) {
+            if (h != HEXAGON) {
+                outline.add(h);
+            }
+        }
+
+        H3MultiPolygon multiPolygon = outline.toMultiPolygon(false);
+        assertEquals(2, multiPolygon.numLoops());
+        assertEquals(24, multiPolygon.numVertices());
+
+        outline.add(HEXAGON);
+        assertEquals(1, outline.toMultiPolygon(false).numLoops());
+    }
+
+    @Test
+    public void testPentagon() {
+        H3SetOutline outline = h3.newSetOutline();
+        outline.add(PENTAGON);
+
+        assertEquals(5, outline.numEdges());
+        assertEquals(5, outline.toMultiPolygon(false).numVertices());
+
+        List<Long> ring = h3.kRing(PENTAGON, 1);
+        for (long h : ring) {
+            outline.add(h);
+        }
+        assertEquals(1, outline.toMultiPolygon(false).numLoops());
+        for (long h : ring) {
+            outline.remove(h);
+        }
+        assertEquals(0, outline.numEdges());
+        assertEquals(0, outline.toMultiPolygon(false).numLoops());
+    }
+
+    @Test
+    public void testUnchangedLoopsKept() {
+        H3SetOutline outline = h3.newSetOutline();
+        outline.add(HEXAGON);
+        outline.add(FAR);
+        H3MultiPolygon before = outline.toMultiPolygon(false);
+
+        // Changes the loop around FAR, which is then output after the unchanged loop
+        outline.add(h3.kRing(FAR, 1).get(1));
+        H3MultiPolygon after = outline.toMultiPolygon(false);
+
+        int hexagonLoop = isLoopOf(before, 0, HEXAGON) ? 0 : 1;
+        assertTrue(isLoopOf(after, 0, HEXAGON));
+        for (int i = 0; i < 6; i++) {
+            assertEquals(before.getX(before.loopStart(hexagonLoop) + i), after.getX(i), 0);
+            assertEquals(before.getY(before.loopStart(hexagonLoop) + i), after.getY(i), 0);
+        }
+        assertEquals(10, after.loopEnd(1) - after.loopStart(1));
+    }
+
+    private static boolean isLoopOf(H3MultiPolygon multiPolygon, int loop, long h) {
+        Vector2D center = h3.h3ToGeo(h);
+        int start = multiPolygon.loopStart(loop);
+        return multiPolygon.loopEnd(loop) - start == 6
+                && Math.abs(multiPolygon.getY(start) - center.x) < 0.01
+                && Math.abs(multiPolygon.getX(start) - center.y) < 0.01;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidIndex() {
+        h3.newSetOutline().add(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMixedResolution() {
+        H3SetOutline outline = h3.newSetOutline();
+        outline.add(HEXAGON);
+        outline.add(h3.h3ToParent(HEXAGON, 8));
+    }
+}
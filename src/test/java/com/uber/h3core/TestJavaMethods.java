@@ -0,0 +1,404 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import com.uber.h3core.exceptions.PentagonEncounteredException;
+import com.uber.h3core.util.Vector2D;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the Java implementation of H3 against the native library.
+ */
+public class TestJavaMethods {
+    private static final double EPSILON = 1e-12;
+    private static final int POINTS_PER_RES = 1000;
+    private static final int[] PENTAGON_BASE_CELLS = { 4, 14, 24, 38, 49, 58, 63, 72, 83, 97, 107, 117 };
+
+    private static NativeMethods nativeMethods;
+    private static JavaMethods javaMethods;
+    private static H3Core nativeCore;
+    private static H3Core javaCore;
+
+    @BeforeClass
+    public static void setup() throws IOException {
+        nativeMethods = H3CoreLoader.loadNatives();
+        javaMethods = new JavaMethods();
+        nativeCore = H3Core.newInstance();
+        javaCore = H3Core.newJavaInstance();
+    }
+
+    @Test
+    public void testGeoToH3() {
+        Random random = new Random(0);
+        for (int res = 0; res <= H3Index.MAX_H3_RES; res++) {
+            for (int i = 0; i < POINTS_PER_RES; i++) {
+                double lat = Math.asin(random.nextDouble() * 2 - 1);
+                double lon = (random.nextDouble() * 2 - 1) * Math.PI;
+
+                assertEquals(String.format("%f, %f at res %d", lat, lon, res),
+                        nativeMethods.geoToH3(lat, lon, res), javaMethods.geoToH3(lat, lon, res));
+            }
+        }
+    }
+
+    @Test
+    public void testGeoToH3Invalid() {
+        assertEquals(0, javaMethods.geoToH3(Double.NaN, 0, 5));
+        assertEquals(0, javaMethods.geoToH3(0, Double.POSITIVE_INFINITY, 5));
+        assertEquals(0, javaMethods.geoToH3(0, 0, -1));
+        assertEquals(0, javaMethods.geoToH3(0, 0, 16));
+        assertEquals(0, javaMethods.geoToH3(Double.MAX_VALUE, Double.MAX_VALUE, 5));
+        assertEquals(0, javaMethods.geoToH3(0, -Double.MAX_VALUE, 5));
+        assertEquals(0, javaMethods.geoToH3(0x1p56, 0, 5));
+    }
+
+    @Test
+    public void testH3ToGeo() {
+        Random random = new Random(1);
+        double[] expected = new double[2];
+        double[] actual = new double[2];
+        for (int res = 0; res <= H3Index.MAX_H3_RES; res++) {
+            for (int i = 0; i < POINTS_PER_RES; i++) {
+                long h3 = randomIndex(random, res);
+
+                nativeMethods.h3ToGeo(h3, expected);
+                javaMethods.h3ToGeo(h3, actual);
+
+                assertEquals(Long.toHexString(h3), expected[0], actual[0], EPSILON);
+                assertEquals(Long.toHexString(h3), expected[1], actual[1], EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testH3ToGeoBoundary() {
+        Random random = new Random(2);
+        for (int res = 0; res <= H3Index.MAX_H3_RES; res++) {
+            for (int i = 0; i < POINTS_PER_RES; i++) {
+                assertBoundaryEquals(randomIndex(random, res));
+            }
+        }
+    }
+
+    @Test
+    public void testH3ToGeoBoundaryPentagons() {
+        for (int res = 0; res <= H3Index.MAX_H3_RES; res++) {
+            for (int baseCell : PENTAGON_BASE_CELLS) {
+                assertBoundaryEquals(pentagon(baseCell, res));
+            }
+        }
+    }
+
+    @Test
+    public void testKRing() {
+        Random random = new Random(3);
+        for (int res = 0; res <= H3Index.MAX_H3_RES; res++) {
+            for (int i = 0; i < POINTS_PER_RES / 10; i++) {
+                assertKRingEquals(randomIndex(random, res), 1 + random.nextInt(3));
+            }
+        }
+    }
+
+    @Test
+    public void testKRingPentagons() {
+        for (int res = 0; res <= 4; res++) {
+            for (int baseCell : PENTAGON_BASE_CELLS) {
+                long pentagon = pentagon(baseCell, res);
+                for (int k = 1; k <= 3; k++) {
+                    assertKRingEquals(pentagon, k);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testJavaInstance() {
+        H3Core h3 = H3Core.newJavaInstance();
+
+        long h3Index = 22758474429497343L | (1L << 59L);
+        assertEquals(h3Index, h3.geoToH3(67.194013596, 191.598258018, 5));
+
+        Vector2D coords = h3.h3ToGeo(h3Index);
+        assertEquals(67.15092686397713, coords.x, 1e-9);
+        assertEquals(191.6091114190303 - 360.0, coords.y, 1e-9);
+
+        List<Vector2D> boundary = h3.h3ToGeoBoundary(h3Index);
+        assertEquals(6, boundary.size());
+        assertEquals(67.224749856, boundary.get(0).x, 1e-9);
+        assertEquals(191.476993415 - 360.0, boundary.get(0).y, 1e-9);
+
+        assertEquals(1 + 6 + 12, h3.kRing(0x8928308280fffffL, 2).size());
+        assertEquals(1 + 5, h3.kRing(0x821c07fffffffffL, 1).size());
+    }
+
+    @Test
+    public void testJavaInstanceBulk() {
+        Random random = new Random(4);
+        int count = POINTS_PER_RES;
+        double[] lats = new double[count];
+        double[] lngs = new double[count];
+        for (int i = 0; i < count; i++) {
+            lats[i] = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+            lngs[i] = (random.nextDouble() * 2 - 1) * 180;
+        }
+        lats[0] = Double.NaN;
+
+        long[] expected = new long[count];
+        long[] actual = new long[count];
+        assertEquals(nativeCore.geoToH3(lats, lngs, 9, expected), javaCore.geoToH3(lats, lngs, 9, actual));
+        assertArrayEquals(expected, actual);
+
+        double[] expectedCoords = new double[count * 2];
+        double[] actualCoords = new double[count * 2];
+        nativeCore.h3ToGeo(expected, expectedCoords);
+        javaCore.h3ToGeo(actual, actualCoords);
+        assertArrayEquals(expectedCoords, actualCoords, EPSILON);
+
+        // Room for only some of the boundaries
+        double[] expectedVerts = new double[count * 6];
+        int[] expectedOffsets = new int[count + 1];
+        double[] actualVerts = new double[count * 6];
+        int[] actualOffsets = new int[count + 1];
+        int numWritten = nativeCore.h3ToGeoBoundary(expected, expectedVerts, expectedOffsets);
+        assertEquals(numWritten, javaCore.h3ToGeoBoundary(actual, actualVerts, actualOffsets));
+        assertArrayEquals(Arrays.copyOf(expectedOffsets, numWritten + 1), Arrays.copyOf(actualOffsets, numWritten + 1));
+        assertArrayEquals(expectedVerts, actualVerts, EPSILON);
+    }
+
+    @Test
+    public void testJavaInstanceBuffer() {
+        Random random = new Random(5);
+        int count = POINTS_PER_RES;
+        ByteBuffer lats = ByteBuffer.allocateDirect(count * Double.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer lngs = ByteBuffer.allocateDirect(count * Double.BYTES).order(ByteOrder.nativeOrder());
+        for (int i = 0; i < count; i++) {
+            lats.putDouble(i * Double.BYTES, Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1)));
+            lngs.putDouble(i * Double.BYTES, (random.nextDouble() * 2 - 1) * 180);
+        }
+
+        ByteBuffer expected = ByteBuffer.allocateDirect(count * Long.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer actual = ByteBuffer.allocateDirect(count * Long.BYTES).order(ByteOrder.nativeOrder());
+        assertEquals(nativeCore.geoToH3(lats, lngs, count, 7, expected),
+                javaCore.geoToH3(lats, lngs, count, 7, actual));
+        assertEquals(expected, actual);
+
+        ByteBuffer expectedCoords = ByteBuffer.allocateDirect(count * 2 * Double.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer actualCoords = ByteBuffer.allocateDirect(count * 2 * Double.BYTES).order(ByteOrder.nativeOrder());
+        nativeCore.h3ToGeo(expected, count, expectedCoords);
+        javaCore.h3ToGeo(actual, count, actualCoords);
+        for (int i = 0; i < count * 2; i++) {
+            assertEquals(expectedCoords.getDouble(i * Double.BYTES), actualCoords.getDouble(i * Double.BYTES), EPSILON);
+        }
+
+        // Room for only some of the boundaries
+        ByteBuffer expectedVerts = ByteBuffer.allocateDirect(count * 6 * Double.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer expectedOffsets = ByteBuffer.allocateDirect((count + 1) * Integer.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer actualVerts = ByteBuffer.allocateDirect(count * 6 * Double.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer actualOffsets = ByteBuffer.allocateDirect((count + 1) * Integer.BYTES).order(ByteOrder.nativeOrder());
+        int numWritten = nativeCore.h3ToGeoBoundary(expected, count, expectedVerts, expectedOffsets);
+        assertEquals(numWritten, javaCore.h3ToGeoBoundary(actual, count, actualVerts, actualOffsets));
+        for (int i = 0; i <= numWritten; i++) {
+            assertEquals(expectedOffsets.getInt(i * Integer.BYTES), actualOffsets.getInt(i * Integer.BYTES));
+        }
+        for (int i = 0; i < expectedOffsets.getInt(numWritten * Integer.BYTES) * 2; i++) {
+            assertEquals(expectedVerts.getDouble(i * Double.BYTES), actualVerts.getDouble(i * Double.BYTES), EPSILON);
+        }
+    }
+
+    @Test
+    public void testJavaInstanceHexRing() {
+        Random random = new Random(6);
+        for (int res = 0; res <= H3Index.MAX_H3_RES; res++) {
+            for (int i = 0; i < POINTS_PER_RES / 10; i++) {
+                long h3 = randomIndex(random, res);
+                int k = random.nextInt(4);
+                assertEquals(Long.toHexString(h3), hexRing(nativeCore, h3, k), hexRing(javaCore, h3, k));
+                assertEquals(Long.toHexString(h3), hexRange(nativeCore, h3, k), hexRange(javaCore, h3, k));
+            }
+        }
+        for (int baseCell : PENTAGON_BASE_CELLS) {
+            long pentagon = pentagon(baseCell, 2);
+            assertEquals(hexRing(nativeCore, pentagon, 1), hexRing(javaCore, pentagon, 1));
+            assertEquals(hexRange(nativeCore, pentagon, 1), hexRange(javaCore, pentagon, 1));
+        }
+    }
+
+    @Test
+    public void testJavaInstanceEdges() {
+        Random random = new Random(7);
+        List<Long> cells = new ArrayList<>();
+        for (int res = 0; res <= H3Index.MAX_H3_RES; res++) {
+            for (int i = 0; i < POINTS_PER_RES / 100; i++) {
+                cells.add(randomIndex(random, res));
+            }
+            for (int baseCell : PENTAGON_BASE_CELLS) {
+                cells.add(pentagon(baseCell, res));
+            }
+        }
+
+        for (long origin : cells) {
+            for (long destination : nativeCore.kRing(origin, 2)) {
+                String message = Long.toHexString(origin) + " " + Long.toHexString(destination);
+                boolean neighbors = nativeCore.h3IndexesAreNeighbors(origin, destination);
+                assertEquals(message, neighbors, javaCore.h3IndexesAreNeighbors(origin, destination));
+                if (neighbors) {
+                    long edge = nativeCore.getH3UnidirectionalEdge(origin, destination);
+                    assertEquals(message, edge, javaCore.getH3UnidirectionalEdge(origin, destination));
+                    assertEquals(message, nativeCore.getH3IndexesFromUnidirectionalEdge(edge),
+                            javaCore.getH3IndexesFromUnidirectionalEdge(edge));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testJavaInstanceInvalidEdges() {
+        long badDirection = 0x1791ea6d6533ffffL;
+        long badOrigin = H3Index.setIndexDigit(0x1191ea6d6533ffffL, 9, H3Index.INVALID_DIGIT);
+        for (long edge : new long[] { badDirection, badOrigin }) {
+            // Only the origin, since there is no destination
+            assertEquals(Arrays.asList(H3Index.getOriginFromUnidirectionalEdge(edge)),
+                    javaCore.getH3IndexesFromUnidirectionalEdge(edge));
+        }
+    }
+
+    @Test
+    public void testJavaInstanceCompact() {
+        long[] h3 = javaCore.kRing(0x8928308280fffffL, 5).stream().mapToLong(Long::longValue).toArray();
+        long[] compacted = nativeCore.compactIndexList(h3).toArray();
+        assertArrayEquals(sorted(compacted), sorted(javaCore.compactIndexList(h3).toArray()));
+        assertArrayEquals(sorted(nativeCore.uncompactIndexList(compacted, 10).toArray()),
+                sorted(javaCore.uncompactIndexList(compacted, 10).toArray()));
+    }
+
+    @Test
+    public void testJavaInstancePolyfill() {
+        List<Vector2D> points = Arrays.asList(
+                new Vector2D(37.813318999983238, -122.4089866999972145),
+                new Vector2D(37.7866302000007224, -122.3805436999997056),
+                new Vector2D(37.7198061999978478, -122.3544736999993603),
+                new Vector2D(37.7076131999975672, -122.5123436999983966),
+                new Vector2D(37.7835871999971715, -122.5247187000021967),
+                new Vector2D(37.8151571999998453, -122.4798767000009008));
+        long[] expected = nativeCore.polyfillIndexList(points, null, 8, false).toArray();
+        assertArrayEquals(sorted(expected), sorted(javaCore.polyfillIndexList(points, null, 8, false).toArray()));
+
+        ByteBuffer out = ByteBuffer.allocateDirect(expected.length * Long.BYTES).order(ByteOrder.nativeOrder());
+        assertEquals(expected.length, javaCore.polyfill(points, null, 8, false, out));
+        long[] actual = new long[expected.length];
+        out.asLongBuffer().get(actual);
+        assertArrayEquals(sorted(expected), sorted(actual));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testJavaInstanceUnsupported() {
+        javaCore.getH3UnidirectionalEdgeBoundary(0x11283082800fffffL);
+    }
+
+    private static void assertBoundaryEquals(long h3) {
+        double[] expected = new double[20];
+        double[] actual = new double[20];
+
+        int expectedVerts = nativeMethods.h3ToGeoBoundary(h3, expected);
+        assertEquals(Long.toHexString(h3), expectedVerts, javaMethods.h3ToGeoBoundary(h3, actual));
+        for (int v = 0; v < expectedVerts * 2; v++) {
+            assertEquals(Long.toHexString(h3), expected[v], actual[v], EPSILON);
+        }
+    }
+
+    private static void assertKRingEquals(long h3, int k) {
+        int sz = javaMethods.maxKringSize(k);
+        assertEquals(nativeMethods.maxKringSize(k), sz);
+
+        long[] expected = new long[sz];
+        int[] expectedDistances = new int[sz];
+        long[] actual = new long[sz];
+        int[] actualDistances = new int[sz];
+        nativeMethods.kRingDistances(h3, k, expected, expectedDistances);
+        javaMethods.kRingDistances(h3, k, actual, actualDistances);
+
+        assertEquals(Long.toHexString(h3), distancesByIndex(expected, expectedDistances),
+                distancesByIndex(actual, actualDistances));
+
+        long[] ring = new long[sz];
+        javaMethods.kRing(h3, k, ring);
+        Arrays.sort(ring);
+        Arrays.sort(actual);
+        assertEquals(Arrays.toString(actual), Arrays.toString(ring));
+    }
+
+    private static List<Long> hexRing(H3Core h3Core, long h3, int k) {
+        try {
+            return h3Core.hexRing(h3, k);
+        } catch (PentagonEncounteredException e) {
+            return null;
+        }
+    }
+
+    private static List<List<Long>> hexRange(H3Core h3Core, long h3, int k) {
+        try {
+            return h3Core.hexRange(h3, k);
+        } catch (PentagonEncounteredException e) {
+            return null;
+        }
+    }
+
+    private static long[] sorted(long[] h3) {
+        long[] copy = h3.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private static Map<Long, Integer> distancesByIndex(long[] indexes, int[] distances) {
+        Map<Long, Integer> ret = new HashMap<>();
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] != 0) {
+                ret.put(indexes[i], distances[i]);
+            }
+        }
+        return ret;
+    }
+
+    private static long randomIndex(Random random, int res) {
+        double lat = Math.asin(random.nextDouble() * 2 - 1);
+        double lon = (random.nextDouble() * 2 - 1) * Math.PI;
+        return nativeMethods.geoToH3(lat, lon, res);
+    }
+
+    private static long pentagon(int baseCell, int res) {
+        long h3 = H3Index.setMode(0, H3Index.H3_HEXAGON_MODE)
+                | ((long) res << H3Index.H3_RES_OFFSET)
+                | ((long) baseCell << H3Index.H3_BC_OFFSET);
+        for (int r = res + 1; r <= H3Index.MAX_H3_RES; r++) {
+            h3 = H3Index.setIndexDigit(h3, r, H3Index.INVALID_DIGIT);
+        }
+        return h3;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LongHashTable}. These use the Java implementation, so do not need the native library.
+ */
+public class TestLongHashTable {
+    private static final H3Core h3 = H3Core.newJavaInstance();
+
+    @Test
+    public void testStripeCoarseCells() {
+        // Coarse indexes have all of their low bits set, so they must still be spread across stripes
+        Random random = new Random(0);
+        for (int res = 0; res <= 4; res++) {
+            int[] counts = new int[16];
+            for (int i = 0; i < 5000; i++) {
+                double lat = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+                double lng = (random.nextDouble() * 2 - 1) * 180;
+                counts[LongHashTable.stripe(h3.geoToH3(lat, lng, res), counts.length)]++;
+            }
+            for (int stripe = 0; stripe < counts.length; stripe++) {
+                assertTrue(String.format("stripe %d at res %d", stripe, res), counts[stripe] > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testStripeRange() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            int stripe = LongHashTable.stripe(random.nextLong(), 8);
+            assertTrue(stripe >= 0 && stripe < 8);
+        }
+    }
+}
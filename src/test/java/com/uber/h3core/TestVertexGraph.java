@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link VertexGraph}.
+ */
+public class TestVertexGraph {
+    private static final double D = Math.toRadians(1);
+
+    @Test
+    public void testSharedEdgeCancels() {
+        VertexGraph graph = new VertexGraph(0);
+        // Two triangles sharing the edge between (0, 1) and (1, 0)
+        addTriangle(graph, 0, 0, 0, 1, 1, 0);
+        addTriangle(graph, 1, 0, 0, 1, 1, 1);
+
+        assertEquals(4, graph.size());
+
+        H3MultiPolygon multiPolygon = graph.toMultiPolygon(true);
+        assertEquals(1, multiPolygon.numPolygons());
+        assertEquals(1, multiPolygon.numLoops());
+        // Closed, with latitude first
+        assertArrayEquals(new double[] { 0, 0, 0, 1, 1, 1, 1, 0, 0, 0 }, multiPolygon.toCoordinateArray(), 1e-9);
+        assertEquals(0, graph.size());
+    }
+
+    @Test
+    public void testAlmostEqualVertices() {
+        VertexGraph graph = new VertexGraph(0);
+        addTriangle(graph, 0, 0, 0, 1, 1, 0);
+        graph.addOrCancel(D + 1e-12, 1e-12, -1e-12, D - 1e-12);
+
+        assertEquals(2, graph.size());
+    }
+
+    @Test
+    public void testSeparateLoops() {
+        VertexGraph graph = new VertexGraph(0);
+        addTriangle(graph, 0, 0, 0, 1, 1, 0);
+        addTriangle(graph, 10, 10, 10, 11, 11, 10);
+
+        H3MultiPolygon multiPolygon = graph.toMultiPolygon(false);
+        assertEquals(1, multiPolygon.numPolygons());
+        assertEquals(2, multiPolygon.numLoops());
+        assertEquals(6, multiPolygon.numVertices());
+        // Longitude first
+        assertEquals(10, multiPolygon.getX(3), 1e-9);
+        assertEquals(10, multiPolygon.getY(3), 1e-9);
+        assertEquals(11, multiPolygon.getX(4), 1e-9);
+        assertEquals(10, multiPolygon.getY(4), 1e-9);
+    }
+
+    @Test
+    public void testJoin() {
+        VertexGraph a = new VertexGraph(0);
+        addTriangle(a, 0, 0, 0, 1, 1, 0);
+        VertexGraph b = new VertexGraph(0);
+        addTriangle(b, 1, 0, 0, 1, 1, 1);
+
+        VertexGraph joined = VertexGraph.join(a, b);
+        assertEquals(4, joined.size());
+        assertEquals(1, joined.toMultiPolygon(false).numLoops());
+    }
+
+    @Test
+    public void testGrow() {
+        VertexGraph graph = new VertexGraph(0);
+        for (int i = 0; i < 100; i++) {
+            addTriangle(graph, i * 2, 0, i * 2, 1, i * 2 + 1, 0);
+        }
+
+        assertEquals(300, graph.size());
+        assertEquals(100, graph.toMultiPolygon(false).numLoops());
+    }
+
+    @Test
+    public void testFromH3Set() {
+        long[] h3 = new long[7];
+        new JavaMethods().kRing(0x89283082837ffffL, 1, h3);
+
+        VertexGraph graph = VertexGraph.fromH3Set(h3, new JavaMethods(), ForkJoinPool.commonPool());
+        assertEquals(18, graph.size());
+        assertEquals(1, graph.toMultiPolygon(false).numLoops());
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, new VertexGraph(0).toMultiPolygon(false).numPolygons());
+    }
+
+    /**
+     * Adds the edges of a triangle with the given vertices, in degrees.
+     */
+    private static void addTriangle(VertexGraph graph, double lat1, double lng1, double lat2, double lng2,
+                                    double lat3, double lng3) {
+        graph.addOrCancel(lat1 * D, lng1 * D, lat2 * D, lng2 * D);
+        graph.addOrCancel(lat2 * D, lng2 * D, lat3 * D, lng3 * D);
+        graph.addOrCancel(lat3 * D, lng3 * D, lat1 * D, lng1 * D);
+    }
+}
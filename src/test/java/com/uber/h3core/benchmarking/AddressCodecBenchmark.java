@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3AddressCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Benchmarks parsing and formatting addresses with {@link H3AddressCodec}, against the <code>Long</code>
+ * functions, including parsing from ASCII bytes without first creating a <code>String</code>.
+ */
+public class AddressCodecBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long[] benchmarkParseUnsignedLong() {
+        long[] out = BenchmarkState.out;
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Long.parseUnsignedLong(BenchmarkState.addresses[i], 16);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long[] benchmarkParseString() {
+        H3AddressCodec.parse(BenchmarkState.addresses, BenchmarkState.out);
+        return BenchmarkState.out;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long[] benchmarkParseBytesViaString() {
+        long[] out = BenchmarkState.out;
+        for (int i = 0; i < out.length; i++) {
+            String address = new String(BenchmarkState.bytes, BenchmarkState.offsets[i], BenchmarkState.lengths[i],
+                    StandardCharsets.US_ASCII);
+            out[i] = Long.parseUnsignedLong(address, 16);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long[] benchmarkParseBytes() {
+        H3AddressCodec.parse(BenchmarkState.bytes, BenchmarkState.offsets, BenchmarkState.lengths, BenchmarkState.out);
+        return BenchmarkState.out;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public String[] benchmarkToHexString() {
+        String[] out = BenchmarkState.formatted;
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Long.toHexString(BenchmarkState.h3[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public byte[] benchmarkFormatBytes() {
+        H3AddressCodec.format(BenchmarkState.h3, (byte) '\n', BenchmarkState.bytesOut, 0);
+        return BenchmarkState.bytesOut;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static final int NUM_ADDRESSES = 10000;
+
+        static long[] h3 = new long[NUM_ADDRESSES];
+        static String[] addresses = new String[NUM_ADDRESSES];
+        static String[] formatted = new String[NUM_ADDRESSES];
+        static long[] out = new long[NUM_ADDRESSES];
+
+        // The addresses as one newline delimited ASCII buffer
+        static byte[] bytes;
+        static int[] offsets = new int[NUM_ADDRESSES];
+        static int[] lengths = new int[NUM_ADDRESSES];
+        static byte[] bytesOut = new byte[NUM_ADDRESSES * (H3AddressCodec.MAX_LENGTH + 1)];
+
+        static {
+            // Resolution 9 indexes with random digits, in base cell 20
+            Random random = new Random(0);
+            for (int i = 0; i < NUM_ADDRESSES; i++) {
+                long index = (1L << 59) | (9L << 52) | (20L << 45) | 0x3ffffL;
+                for (int r = 1; r <= 9; r++) {
+                    index |= (long) random.nextInt(7) << ((15 - r) * 3);
+                }
+                h3[i] = index;
+                addresses[i] = Long.toHexString(index);
+            }
+
+            bytes = String.join("\n", addresses).getBytes(StandardCharsets.US_ASCII);
+            int offset = 0;
+            for (int i = 0; i < NUM_ADDRESSES; i++) {
+                offsets[i] = offset;
+                lengths[i] = addresses[i].length();
+                offset += lengths[i] + 1;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(AddressCodecBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
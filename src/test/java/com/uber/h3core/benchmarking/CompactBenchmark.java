@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3IndexList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Benchmarks compacting and uncompacting in native code against doing so in Java.
+ */
+public class CompactBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkCompactNative() {
+        return BenchmarkState.h3Core.compactIndexList(BenchmarkState.uncompacted.clone());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkCompactJava() {
+        return BenchmarkState.h3Core.compact(BenchmarkState.uncompacted.clone(), false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkCompactJavaParallel() {
+        return BenchmarkState.h3Core.compact(BenchmarkState.uncompacted.clone(), true);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkUncompactNative() {
+        return BenchmarkState.h3Core.uncompactIndexList(BenchmarkState.compacted, BenchmarkState.RES);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkUncompactJava() {
+        return BenchmarkState.h3Core.uncompact(BenchmarkState.compacted, BenchmarkState.RES, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkUncompactJavaParallel() {
+        return BenchmarkState.h3Core.uncompact(BenchmarkState.compacted, BenchmarkState.RES, true);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static final int RES = 10;
+
+        static H3Core h3Core;
+
+        static long[] uncompacted;
+        static long[] compacted;
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            // A disk of 37 resolution 5 cells around San Francisco, about 600,000 cells at resolution 10
+            long center = h3Core.geoToH3(37.775938728915946, -122.41795063018799, 5);
+            uncompacted = h3Core.uncompactIndexList(h3Core.kRingIndexList(center, 3).toArray(), RES).toArray();
+            compacted = h3Core.compactIndexList(uncompacted).toArray();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(CompactBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.GeofenceIndex;
+import com.uber.h3core.H3Core;
+import com.uber.h3core.util.Vector2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmarks finding the zone of random points among a grid of 10,000 zones with
+ * {@link GeofenceIndex}, from one and several threads.
+ */
+public class GeofenceIndexBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkLookup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return BenchmarkState.index.lookup(37 + random.nextDouble(), -123 + random.nextDouble());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(4)
+    public int benchmarkLookup4Threads() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return BenchmarkState.index.lookup(37 + random.nextDouble(), -123 + random.nextDouble());
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static H3Core h3Core;
+        static GeofenceIndex index;
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            // Squares 0.01 degrees wide, covering latitudes 37 to 38 and longitudes -123 to -122
+            GeofenceIndex.Builder builder = h3Core.newGeofenceIndexBuilder(9);
+            for (int i = 0; i < 100; i++) {
+                for (int j = 0; j < 100; j++) {
+                    double lat = 37 + i * 0.01;
+                    double lng = -123 + j * 0.01;
+                    List<Vector2D> square = new ArrayList<>();
+                    square.add(new Vector2D(lat, lng));
+                    square.add(new Vector2D(lat, lng + 0.01));
+                    square.add(new Vector2D(lat + 0.01, lng + 0.01));
+                    square.add(new Vector2D(lat + 0.01, lng));
+                    builder.add(i * 100 + j, square, null, false);
+                }
+            }
+            index = builder.build(ForkJoinPool.commonPool());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(GeofenceIndexBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
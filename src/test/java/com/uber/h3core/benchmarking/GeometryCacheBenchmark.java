@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3GeometryCache;
+import com.uber.h3core.util.Vector2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmarks looking up the boundaries of a small set of hot cells, with and without
+ * {@link H3GeometryCache}.
+ */
+public class GeometryCacheBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Vector2D> benchmarkH3ToGeoBoundary() {
+        return BenchmarkState.h3Core.h3ToGeoBoundary(BenchmarkState.next());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Vector2D> benchmarkCachedH3ToGeoBoundary() {
+        return BenchmarkState.cache.h3ToGeoBoundary(BenchmarkState.next());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkCachedH3ToGeoBoundaryArray(ThreadState threadState) {
+        return BenchmarkState.cache.h3ToGeoBoundary(BenchmarkState.next(), threadState.verts);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(4)
+    public int benchmarkCachedH3ToGeoBoundaryArray4Threads(ThreadState threadState) {
+        return BenchmarkState.cache.h3ToGeoBoundary(BenchmarkState.next(), threadState.verts);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static H3Core h3Core;
+        static H3GeometryCache cache;
+        // Cells which are looked up repeatedly, all of which fit in the cache
+        static long[] hot;
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            hot = h3Core.kRing(0x89283082837ffffL, 18).stream().mapToLong(Long::longValue).toArray();
+            cache = h3Core.newGeometryCache(hot.length * 2);
+        }
+
+        static long next() {
+            return hot[ThreadLocalRandom.current().nextInt(hot.length)];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        double[] verts = new double[20];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(GeometryCacheBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
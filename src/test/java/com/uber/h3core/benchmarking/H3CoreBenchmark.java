@@ -58,16 +58,62 @@ public class H3CoreBenchmark {
         return BenchmarkState.h3.h3ToGeoBoundary("85283083fffffff");
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public double[] benchmarkGetCenterCoordinatesBulk() {
+        BenchmarkState.h3.h3ToGeo(BenchmarkState.cells, BenchmarkState.coords);
+        return BenchmarkState.coords;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public float[] benchmarkGetCenterCoordinatesBulkFloat() {
+        BenchmarkState.h3.h3ToGeo(BenchmarkState.cells, BenchmarkState.coordsFloat);
+        return BenchmarkState.coordsFloat;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public double[] benchmarkGetBoundaryBulk() {
+        BenchmarkState.h3.h3ToGeoBoundary(BenchmarkState.cells, BenchmarkState.verts, BenchmarkState.offsets);
+        return BenchmarkState.verts;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public float[] benchmarkGetBoundaryBulkFloat() {
+        BenchmarkState.h3.h3ToGeoBoundary(BenchmarkState.cells, BenchmarkState.vertsFloat, BenchmarkState.offsets);
+        return BenchmarkState.vertsFloat;
+    }
+
     @State(Scope.Benchmark)
     public static class BenchmarkState {
         static final H3Core h3;
 
+        /**
+         * Cells for the bulk benchmarks. The buffers are reused between invocations.
+         */
+        static final long[] cells;
+        static final double[] coords;
+        static final float[] coordsFloat;
+        static final double[] verts;
+        static final float[] vertsFloat;
+        static final int[] offsets;
+
         static {
             try {
                 h3 = H3Core.newInstance();
             } catch (IOException ioe) {
                 throw new RuntimeException(ioe);
             }
+
+            List<Long> kRing = h3.kRing(0x85283083fffffffL, 10);
+            cells = kRing.stream().mapToLong(Long::longValue).toArray();
+            coords = new double[cells.length * 2];
+            coordsFloat = new float[cells.length * 2];
+            verts = new double[cells.length * 20];
+            vertsFloat = new float[cells.length * 20];
+            offsets = new int[cells.length + 1];
         }
     }
 
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3IndexList;
+import com.uber.h3core.H3LongDoubleMap;
+import com.uber.h3core.H3LongSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Benchmarks {@link H3LongSet} and {@link H3LongDoubleMap} against <code>HashSet&lt;Long&gt;</code>
+ * and <code>HashMap&lt;Long, Double&gt;</code>, for building a set of nearby indexes, looking them up,
+ * and counting indexes. The GC profiler shows the allocation from boxing.
+ */
+public class H3LongSetBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkH3LongSetAdd() {
+        H3LongSet set = new H3LongSet();
+        set.addAll(BenchmarkState.cells);
+        return set.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkHashSetAdd() {
+        Set<Long> set = new HashSet<>();
+        for (int i = 0; i < BenchmarkState.cells.size(); i++) {
+            set.add(BenchmarkState.cells.get(i));
+        }
+        return set.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkH3LongSetContains() {
+        int found = 0;
+        for (int i = 0; i < BenchmarkState.lookups.size(); i++) {
+            if (BenchmarkState.longSet.contains(BenchmarkState.lookups.get(i))) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkHashSetContains() {
+        int found = 0;
+        for (int i = 0; i < BenchmarkState.lookups.size(); i++) {
+            if (BenchmarkState.hashSet.contains(BenchmarkState.lookups.get(i))) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkH3LongDoubleMapCount() {
+        H3LongDoubleMap counts = new H3LongDoubleMap();
+        counts.addToAll(BenchmarkState.lookups, 1);
+        return counts.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkHashMapCount() {
+        Map<Long, Double> counts = new HashMap<>();
+        for (int i = 0; i < BenchmarkState.lookups.size(); i++) {
+            counts.merge(BenchmarkState.lookups.get(i), 1.0, Double::sum);
+        }
+        return counts.size();
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        // About 100,000 neighboring indexes at resolution 9
+        static H3IndexList cells;
+        // Indexes around an index at the edge of cells, some of which are in cells
+        static H3IndexList lookups;
+        static H3LongSet longSet;
+        static Set<Long> hashSet;
+
+        static H3Core h3Core;
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            long origin = 0x89283082837ffffL;
+            cells = h3Core.kRingIndexList(origin, 180);
+            lookups = h3Core.kRingIndexList(cells.get(cells.size() - 1), 180);
+
+            longSet = new H3LongSet();
+            longSet.addAll(cells);
+            hashSet = new HashSet<>(cells.toList());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(H3LongSetBenchmark.class.getSimpleName())
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
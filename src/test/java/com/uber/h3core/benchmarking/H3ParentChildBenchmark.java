@@ -28,6 +28,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 /**
  * Benchmark getting the parent, or children of some addresses.
@@ -63,10 +64,28 @@ public class H3ParentChildBenchmark {
         return BenchmarkState.h3Core.h3ToChildren(BenchmarkState.somePentagon, 2);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long benchmarkChildrenIteratorRes11() {
+        long sum = 0;
+        PrimitiveIterator.OfLong children = BenchmarkState.h3Core.childrenIterator(BenchmarkState.someHexagon, 11);
+        while (children.hasNext()) {
+            sum += children.nextLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long benchmarkChildrenStreamParallelRes3To9() {
+        return BenchmarkState.h3Core.childrenStream(BenchmarkState.someRes3Hexagon, 9, true).sum();
+    }
+
     @State(Scope.Benchmark)
     public static class BenchmarkState {
         static long someHexagon = 0x89283082837ffffL;
         static long somePentagon = 0x8009fffffffffffL;
+        static long someRes3Hexagon = 0x832830fffffffffL;
 
         static H3Core h3Core;
 
@@ -17,12 +17,14 @@ package com.uber.h3core.benchmarking;
 
 import com.google.common.collect.ImmutableList;
 import com.uber.h3core.H3Core;
+import com.uber.h3core.H3MultiPolygon;
 import com.uber.h3core.util.Vector2D;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -33,25 +35,77 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Benchmarks <code>h3SetToMultiPolygon</code>.
+ * Benchmarks <code>h3SetToMultiPolygon</code>, and <code>h3SetToMultiPolygonFlat</code>, which does not allocate
+ * an object per vertex. The GC profiler shows the allocation rate of each.
  */
 public class H3SetToMultiPolygonBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<List<List<Vector2D>>> benchmarkH3SetToMultiPolygon1() {
+        return BenchmarkState.h3Core.h3SetToMultiPolygon(BenchmarkState.list1, false);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public List<List<List<Vector2D>>> benchmarkH3SetToMultiPolygon2() {
         return BenchmarkState.h3Core.h3SetToMultiPolygon(BenchmarkState.list2, false);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<List<List<Vector2D>>> benchmarkH3SetToMultiPolygon3() {
+        return BenchmarkState.h3Core.h3SetToMultiPolygon(BenchmarkState.list3, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<List<List<Vector2D>>> benchmarkH3SetToMultiPolygon7() {
+        return BenchmarkState.h3Core.h3SetToMultiPolygon(BenchmarkState.list7, false);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public List<List<List<Vector2D>>> benchmarkH3SetToMultiPolygon20() {
         return BenchmarkState.h3Core.h3SetToMultiPolygon(BenchmarkState.list20, true);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<List<List<Vector2D>>> benchmarkH3SetToMultiPolygonLarge() {
+        return BenchmarkState.h3Core.h3SetToMultiPolygon(BenchmarkState.listLarge, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3MultiPolygon benchmarkH3SetToMultiPolygonFlat7() {
+        return BenchmarkState.h3Core.h3SetToMultiPolygonFlat(BenchmarkState.array7, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3MultiPolygon benchmarkH3SetToMultiPolygonFlat20() {
+        return BenchmarkState.h3Core.h3SetToMultiPolygonFlat(BenchmarkState.array20, true);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3MultiPolygon benchmarkH3SetToMultiPolygonFlatLarge() {
+        return BenchmarkState.h3Core.h3SetToMultiPolygonFlat(BenchmarkState.arrayLarge, false);
+    }
+
     @State(Scope.Benchmark)
     public static class BenchmarkState {
+        // Small sets, such as a single cell or a cell and its neighbors, are the most common use.
+        static List<Long> list1 = ImmutableList.of(0x89283082837ffffL);
         static List<Long> list2 = ImmutableList.of(0x89283082837ffffL, 0x89283082833ffffL);
+        static List<Long> list3;
+        static List<Long> list7;
         static List<Long> list20;
+        // Separate cells, so the output has many loops and vertices
+        static List<Long> listLarge;
+        static long[] array7;
+        static long[] array20;
+        static long[] arrayLarge;
 
         static H3Core h3Core;
 
@@ -62,10 +116,23 @@ public class H3SetToMultiPolygonBenchmark {
                 throw new RuntimeException(ioe);
             }
 
+            list7 = h3Core.kRing(0x89283082837ffffL, 1);
+            // The origin and two of its neighbors
+            list3 = new ArrayList<>(list7.subList(0, 3));
+
             list20 = new ArrayList<>();
             for (int i = 0; i < 20; i++) {
                 list20.add(h3Core.geoToH3(i, 0, 10));
             }
+
+            listLarge = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                listLarge.add(h3Core.geoToH3(i * 0.01, 0, 10));
+            }
+
+            array7 = list7.stream().mapToLong(Long::longValue).toArray();
+            array20 = list20.stream().mapToLong(Long::longValue).toArray();
+            arrayLarge = listLarge.stream().mapToLong(Long::longValue).toArray();
         }
     }
 
@@ -73,6 +140,7 @@ public class H3SetToMultiPolygonBenchmark {
         Options opt = new OptionsBuilder()
                 .include(H3SetToMultiPolygonBenchmark.class.getSimpleName())
                 .forks(1)
+                .addProfiler(GCProfiler.class)
                 .build();
 
         new Runner(opt).run();
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.util.Vector2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks single point functions of the native library against the Java implementation,
+ * which avoids the JNI transition and can be inlined.
+ */
+public class JavaBackendBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long[] benchmarkGeoToH3Native() {
+        return geoToH3(BenchmarkState.nativeH3Core);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long[] benchmarkGeoToH3Java() {
+        return geoToH3(BenchmarkState.javaH3Core);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public Vector2D benchmarkH3ToGeoNative() {
+        return BenchmarkState.nativeH3Core.h3ToGeo(BenchmarkState.origin);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public Vector2D benchmarkH3ToGeoJava() {
+        return BenchmarkState.javaH3Core.h3ToGeo(BenchmarkState.origin);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Vector2D> benchmarkH3ToGeoBoundaryNative() {
+        return BenchmarkState.nativeH3Core.h3ToGeoBoundary(BenchmarkState.origin);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Vector2D> benchmarkH3ToGeoBoundaryJava() {
+        return BenchmarkState.javaH3Core.h3ToGeoBoundary(BenchmarkState.origin);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Long> benchmarkKRingNative() {
+        return BenchmarkState.nativeH3Core.kRing(BenchmarkState.origin, 2);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Long> benchmarkKRingJava() {
+        return BenchmarkState.javaH3Core.kRing(BenchmarkState.origin, 2);
+    }
+
+    private static long[] geoToH3(H3Core h3Core) {
+        long[] out = BenchmarkState.out;
+        for (int i = 0; i < out.length; i++) {
+            out[i] = h3Core.geoToH3(BenchmarkState.lats[i], BenchmarkState.lngs[i], 9);
+        }
+        return out;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static final int NUM_POINTS = 1000;
+
+        static double[] lats = new double[NUM_POINTS];
+        static double[] lngs = new double[NUM_POINTS];
+        static long[] out = new long[NUM_POINTS];
+
+        static long origin = 0x8928308280fffffL;
+
+        static H3Core nativeH3Core;
+        static H3Core javaH3Core = H3Core.newJavaInstance();
+
+        static {
+            try {
+                nativeH3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            // Points scattered around San Francisco
+            Random random = new Random(0);
+            for (int i = 0; i < NUM_POINTS; i++) {
+                lats[i] = 37.7 + random.nextDouble() * 0.1;
+                lngs[i] = -122.5 + random.nextDouble() * 0.1;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JavaBackendBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
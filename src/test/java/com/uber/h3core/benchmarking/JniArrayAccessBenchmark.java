@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3IndexList;
+import com.uber.h3core.util.Vector2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Benchmarks the functions whose native code passes Java arrays with critical (non-copying) access.
+ *
+ * <p>Run against a build of the native library before and after a change to how <code>jniapi.c</code>
+ * accesses arrays to compare them. The GC profiler is enabled so that allocation rates are reported
+ * alongside throughput.
+ */
+public class JniArrayAccessBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkKRing() {
+        return BenchmarkState.h3.kRingIndexList(BenchmarkState.ORIGIN, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<List<Long>> benchmarkKRingDistances() {
+        return BenchmarkState.h3.kRingDistances(BenchmarkState.ORIGIN, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkH3ToChildren() {
+        return BenchmarkState.h3.h3ToChildrenIndexList(BenchmarkState.ORIGIN, 9);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkCompact() {
+        return BenchmarkState.h3.compactIndexList(BenchmarkState.uncompacted);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkUncompact() {
+        return BenchmarkState.h3.uncompactIndexList(BenchmarkState.compacted, 9);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public Vector2D benchmarkH3ToGeo() {
+        return BenchmarkState.h3.h3ToGeo(BenchmarkState.ORIGIN);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Vector2D> benchmarkH3ToGeoBoundary() {
+        return BenchmarkState.h3.h3ToGeoBoundary(BenchmarkState.ORIGIN);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static final long ORIGIN = 0x85283083fffffffL;
+
+        static final H3Core h3;
+
+        /**
+         * All resolution 9 descendants of a resolution 6 disk, and the same set compacted.
+         */
+        static final long[] uncompacted;
+        static final long[] compacted;
+
+        static {
+            try {
+                h3 = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            long[] disk = h3.kRingIndexList(h3.h3ToChildrenIndexList(ORIGIN, 6).get(0), 3).toArray();
+            uncompacted = h3.uncompactIndexList(disk, 9).toArray();
+            compacted = h3.compactIndexList(uncompacted).toArray();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JniArrayAccessBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
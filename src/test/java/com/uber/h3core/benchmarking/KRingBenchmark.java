@@ -19,8 +19,11 @@ import com.uber.h3core.H3Core;
 import com.uber.h3core.exceptions.PentagonEncounteredException;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -28,6 +31,7 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -58,6 +62,54 @@ public class KRingBenchmark {
         return BenchmarkState.h3Core.kRingDistances(0x821d5ffffffffffL, BenchmarkState.k);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<List<String>> benchmarkKRings(RadiusState radiusState) {
+        return BenchmarkState.h3Core.kRings("8928308280fffff", radiusState.k);
+    }
+
+    /**
+     * <code>kRings</code> as it was before it was built on one call to <code>kRingDistances</code>.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<List<String>> benchmarkKRingsPerRadius(RadiusState radiusState) {
+        List<List<String>> result = new ArrayList<>(radiusState.k + 1);
+        for (int i = 0; i <= radiusState.k; i++) {
+            result.add(BenchmarkState.h3Core.kRing("8928308280fffff", i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<List<Long>> benchmarkKRingDistancesList(RadiusState radiusState) {
+        return BenchmarkState.h3Core.kRingDistances(0x8928308280fffffL, radiusState.k);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkKRingDistancesFlat(RadiusState radiusState) {
+        return BenchmarkState.h3Core.kRingDistances(0x8928308280fffffL, radiusState.k, radiusState.out,
+                radiusState.offsets);
+    }
+
+    @State(Scope.Benchmark)
+    public static class RadiusState {
+        @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10",
+                "11", "12", "13", "14", "15", "16", "17", "18", "19", "20"})
+        public int k;
+
+        long[] out;
+        int[] offsets;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            out = new long[BenchmarkState.h3Core.maxKringSize(k)];
+            offsets = new int[k + 2];
+        }
+    }
+
     @State(Scope.Benchmark)
     public static class BenchmarkState {
         static int k = 10;
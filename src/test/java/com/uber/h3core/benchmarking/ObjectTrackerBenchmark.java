@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3ObjectTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmarks reports of 100,000 objects each moving a few meters, with {@link H3ObjectTracker} and
+ * by calling <code>geoToH3</code> for every report.
+ */
+public class ObjectTrackerBenchmark {
+    private static final int RES = 9;
+    private static final int OBJECTS = 100000;
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long benchmarkTrackerUpdate() {
+        int i = ThreadLocalRandom.current().nextInt(OBJECTS);
+        return BenchmarkState.tracker.update(i + 1, BenchmarkState.move(i), BenchmarkState.lngs[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long benchmarkGeoToH3() {
+        int i = ThreadLocalRandom.current().nextInt(OBJECTS);
+        return BenchmarkState.h3Core.geoToH3(BenchmarkState.move(i), BenchmarkState.lngs[i], RES);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static H3Core h3Core;
+        static H3ObjectTracker tracker;
+        static double[] lats = new double[OBJECTS];
+        static double[] lngs = new double[OBJECTS];
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            tracker = h3Core.newObjectTracker(RES, null);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OBJECTS; i++) {
+                lats[i] = 37.7 + random.nextDouble() * 0.1;
+                lngs[i] = -122.5 + random.nextDouble() * 0.1;
+                tracker.update(i + 1, lats[i], lngs[i]);
+            }
+        }
+
+        /**
+         * Moves the object up to about 2 meters north or south, returning its new latitude.
+         */
+        static double move(int i) {
+            lats[i] += (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.00004;
+            return lats[i];
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ObjectTrackerBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
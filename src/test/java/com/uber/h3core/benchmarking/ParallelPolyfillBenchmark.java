@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3IndexList;
+import com.uber.h3core.util.Vector2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks the native polyfill against the Java polyfill with different numbers of threads.
+ */
+public class ParallelPolyfillBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public H3IndexList benchmarkPolyfillNative() {
+        return BenchmarkState.h3Core.polyfillIndexList(BenchmarkState.points, BenchmarkState.holes, 9);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public H3IndexList benchmarkPolyfillParallel(PoolState poolState) {
+        return BenchmarkState.h3Core.polyfillIndexList(BenchmarkState.points, BenchmarkState.holes, 9, false,
+                poolState.pool);
+    }
+
+    @State(Scope.Benchmark)
+    public static class PoolState {
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static H3Core h3Core;
+
+        static List<Vector2D> points = new ArrayList<>();
+        static List<List<Vector2D>> holes = new ArrayList<>();
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            // Most of the San Francisco Bay Area, about 370,000 cells at resolution 9
+            points.add(new Vector2D(37, -123));
+            points.add(new Vector2D(39, -123.5));
+            points.add(new Vector2D(39.5, -121));
+            points.add(new Vector2D(37.2, -120.8));
+            points.add(new Vector2D(38, -122));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ParallelPolyfillBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3PointIndex;
+import com.uber.h3core.LengthUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmarks finding the 10 points nearest to random locations among 100,000 points, with
+ * {@link H3PointIndex} and by scanning a map of lists of points for the indexes in a
+ * <code>kRing</code>.
+ */
+public class PointIndexBenchmark {
+    private static final int RES = 9;
+    private static final int K = 10;
+    private static final int RINGS = 5;
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkPointIndexNearest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return BenchmarkState.index.nearest(37.7 + random.nextDouble() * 0.1, -122.5 + random.nextDouble() * 0.1,
+                1, LengthUnit.km, new long[K], null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkKRingMapNearest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double lat = 37.7 + random.nextDouble() * 0.1;
+        double lng = -122.5 + random.nextDouble() * 0.1;
+
+        List<double[]> candidates = new ArrayList<>();
+        for (long h : BenchmarkState.h3Core.kRing(BenchmarkState.h3Core.geoToH3(lat, lng, RES), RINGS)) {
+            List<double[]> points = BenchmarkState.pointsByIndex.get(h);
+            if (points != null) {
+                candidates.addAll(points);
+            }
+        }
+        candidates.sort((a, b) -> Double.compare(distance2(lat, lng, a), distance2(lat, lng, b)));
+        return Math.min(K, candidates.size());
+    }
+
+    private static double distance2(double lat, double lng, double[] point) {
+        double dLat = point[0] - lat;
+        double dLng = (point[1] - lng) * Math.cos(Math.toRadians(lat));
+        return dLat * dLat + dLng * dLng;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static H3Core h3Core;
+        static H3PointIndex index;
+        static Map<Long, List<double[]>> pointsByIndex = new HashMap<>();
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            index = h3Core.newPointIndex(RES);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 1; i <= 100000; i++) {
+                double lat = 37.7 + random.nextDouble() * 0.1;
+                double lng = -122.5 + random.nextDouble() * 0.1;
+                index.put(i, lat, lng);
+                pointsByIndex.computeIfAbsent(h3Core.geoToH3(lat, lng, RES), h -> new ArrayList<>())
+                        .add(new double[] { lat, lng });
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PointIndexBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -17,6 +17,7 @@ package com.uber.h3core.benchmarking;
 
 import com.google.common.collect.ImmutableList;
 import com.uber.h3core.H3Core;
+import com.uber.h3core.H3IndexList;
 import com.uber.h3core.util.Vector2D;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -101,10 +102,53 @@ public class PolyfillBenchmark {
         );
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public long benchmarkPolyfillChunks() {
+        long[] sum = new long[1];
+        BenchmarkState.h3Core.polyfillChunks(
+                ImmutableList.of(
+                        new Vector2D(37.813318999983238, -122.4089866999972145),
+                        new Vector2D(37.7866302000007224, -122.3805436999997056),
+                        new Vector2D(37.7198061999978478, -122.3544736999993603),
+                        new Vector2D(37.7076131999975672, -122.5123436999983966),
+                        new Vector2D(37.7835871999971715, -122.5247187000021967),
+                        new Vector2D(37.8151571999998453, -122.4798767000009008)
+                ), null, 9, false, 1024,
+                (chunk, size) -> {
+                    for (int i = 0; i < size; i++) {
+                        sum[0] += chunk[i];
+                    }
+                }
+        );
+        return sum[0];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Long> benchmarkCompactPolyfill() {
+        return BenchmarkState.h3Core.compact(BenchmarkState.h3Core.polyfill(BenchmarkState.bayArea, null, 10));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3IndexList benchmarkPolyfillCompact() {
+        return BenchmarkState.h3Core.polyfillCompact(BenchmarkState.bayArea, null, 10, false);
+    }
+
     @State(Scope.Benchmark)
     public static class BenchmarkState {
         static H3Core h3Core;
 
+        // Most of the San Francisco Bay Area, about 2.6 million indexes at resolution 10
+        static List<Vector2D> bayArea = ImmutableList.of(
+                new Vector2D(37, -123),
+                new Vector2D(39, -123.5),
+                new Vector2D(39.5, -121),
+                new Vector2D(37.2, -120.8),
+                new Vector2D(38, -122)
+        );
+
         static {
             try {
                 h3Core = H3Core.newInstance();
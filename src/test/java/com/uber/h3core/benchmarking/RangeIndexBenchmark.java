@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3RangeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Benchmarks checking whether resolution 12 indexes are covered by a compacted set, with
+ * {@link H3RangeIndex} and by looking up each parent in a <code>HashSet</code>.
+ */
+public class RangeIndexBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkRangeIndex() {
+        int covered = 0;
+        for (long h : BenchmarkState.queries) {
+            if (BenchmarkState.rangeIndex.contains(h)) {
+                covered++;
+            }
+        }
+        return covered;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkParentsHashSet() {
+        int covered = 0;
+        for (long h : BenchmarkState.queries) {
+            for (int res = BenchmarkState.minRes; res <= 12; res++) {
+                if (BenchmarkState.hashSet.contains(BenchmarkState.h3Core.h3ToParent(h, res))) {
+                    covered++;
+                    break;
+                }
+            }
+        }
+        return covered;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static H3Core h3Core;
+        static H3RangeIndex rangeIndex;
+        static Set<Long> hashSet;
+        // Coarsest resolution in the compacted set
+        static int minRes;
+        // Resolution 12 indexes in and around the set
+        static long[] queries = new long[1000];
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            long[] compacted = h3Core.compact(h3Core.kRingIndexList(0x89283082837ffffL, 60).toArray(), false).toArray();
+            rangeIndex = H3RangeIndex.of(compacted);
+            hashSet = new HashSet<>();
+            minRes = 15;
+            for (long h : compacted) {
+                hashSet.add(h);
+                minRes = Math.min(minRes, h3Core.h3GetResolution(h));
+            }
+
+            Random random = new Random(0);
+            double[] center = { 37.7752702151959, -122.418307270836 };
+            for (int i = 0; i < queries.length; i++) {
+                queries[i] = h3Core.geoToH3(center[0] + (random.nextDouble() - 0.5) * 0.2,
+                        center[1] + (random.nextDouble() - 0.5) * 0.2, 12);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RangeIndexBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Uber Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.uber.h3core.benchmarking;
+
+import com.uber.h3core.H3Core;
+import com.uber.h3core.H3MultiPolygon;
+import com.uber.h3core.H3SetOutline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks updating the outline of a large set with many loops after one index changes, with
+ * {@link H3SetOutline} and by computing the whole outline again.
+ */
+public class SetOutlineBenchmark {
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3MultiPolygon benchmarkSetOutlineToggle() {
+        BenchmarkState.toggle();
+        return BenchmarkState.outline.toMultiPolygon(false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public H3MultiPolygon benchmarkH3SetToMultiPolygonToggle() {
+        BenchmarkState.toggle();
+        return BenchmarkState.h3Core.h3SetToMultiPolygon(BenchmarkState.cells, false, ForkJoinPool.commonPool());
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        static H3Core h3Core;
+        static H3SetOutline outline;
+        // The indexes in the outline
+        static long[] cells;
+        // Index of the cell in cells which is removed and added again
+        static int toggleIndex;
+        static long toggled;
+
+        static {
+            try {
+                h3Core = H3Core.newInstance();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+
+            // 2000 separate groups of 37 cells, each with its own loop
+            List<Long> all = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                all.addAll(h3Core.kRing(h3Core.geoToH3(i * 0.05, 0, 9), 3));
+            }
+            cells = all.stream().mapToLong(Long::longValue).toArray();
+            outline = h3Core.newSetOutline();
+            for (long h : cells) {
+                outline.add(h);
+            }
+            outline.toMultiPolygon(false);
+
+            toggleIndex = 1000 * 37 + 5;
+            toggled = cells[toggleIndex];
+        }
+
+        static void toggle() {
+            if (outline.remove(toggled)) {
+                cells[toggleIndex] = cells[0];
+            } else {
+                outline.add(toggled);
+                cells[toggleIndex] = toggled;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SetOutlineBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}